@@ -35,7 +35,9 @@
 import org.marc4j.marc.MarcException;
 import org.marc4j.marc.Subfield;
 import org.marc4j.marc.Tag;
+import org.marc4j.marc.ValidationLevel;
 import org.marc4j.marc.VariableField;
+import org.marc4j.marc.Verifier;
 
 /**
  * <p>
@@ -68,12 +70,31 @@
     String tag = null;
     String fileName = null;
 
+    /** The offset of the current record, and of the next one, in the input */
+    private long recordOffset = 0;
+    private long nextRecordOffset = 0;
+
+    /** If the input is read as ISO 8859-1 bytes, so the offsets of the characters are the offsets of the bytes */
+    private boolean byteOffsets = false;
+
     /** The MarcHandler object. */
     private MarcHandler mh;
 
     /** The ErrorHandler object. */
     private ErrorHandler eh;
 
+    /** The RecordFilter object. */
+    private RecordFilter filter;
+
+    /** Whether the filter examines the directory. */
+    private boolean filterDirectory;
+
+    /** Whether the filter examines the fields, which are then read before the record is reported. */
+    private boolean filterFields;
+
+    /** The validation level. */
+    private ValidationLevel validationLevel = ValidationLevel.DEFAULT;
+
     /**
      * <p>
      * Registers the <code>MarcHandler</code> implementation.
@@ -98,6 +119,82 @@ public void setErrorHandler(ErrorHandler eh)
         this.eh = eh;
     }
 
+    /**
+     * <p>
+     * Registers the <code>RecordFilter</code> implementation.
+     * </p>
+     *
+     * <p>
+     * Only the records accepted by the filter are reported to the <code>MarcHandler</code>. The other ones are skipped
+     * as soon as the filter rejects them, without parsing their fields.
+     * </p>
+     *
+     * <p>
+     * The start of a record is reported after the last stage the filter overrides. Only a filter that overrides
+     * {@link RecordFilter#acceptFields(org.marc4j.marc.Leader, String[], char[][])} makes the reader keep the fields of
+     * a record before reporting them, so the errors found in the fields are reported before the start of the record in
+     * that case.
+     * </p>
+     *
+     * @param filter the {@link RecordFilter} implementation
+     */
+    public void setRecordFilter(RecordFilter filter)
+    {
+        this.filter = filter;
+        this.filterDirectory = filter != null
+            && MarcReader.overrides(filter, "acceptDirectory", Leader.class, String[].class);
+        this.filterFields = filter != null
+            && MarcReader.overrides(filter, "acceptFields", Leader.class, String[].class, char[][].class);
+    }
+
+    /**
+     * <p>
+     * Registers the validation level.
+     * </p>
+     *
+     * <p>
+     * With {@link ValidationLevel#NONE} the parser doesn't look for characters after the field terminator and doesn't
+     * verify the record length. With {@link ValidationLevel#STRICT} the parser also reports warnings for invalid tags,
+     * indicators, subfield codes and control characters in the data elements.
+     * </p>
+     *
+     * <p>
+     * The level only applies to the parser. The <code>MarcHandler</code> has its own level, if any: for the trusted
+     * fast path, set {@link ValidationLevel#NONE} on a {@link org.marc4j.helpers.RecordBuilder} too, or it still checks
+     * every character of the fields it builds.
+     * </p>
+     *
+     * @param validationLevel the validation level
+     */
+    public void setValidationLevel(ValidationLevel validationLevel)
+    {
+        this.validationLevel = validationLevel;
+    }
+
+    /**
+     * <p>
+     * Returns the offset, in bytes from the start of the input, of the record being parsed.
+     * </p>
+     *
+     * <p>
+     * The offset is valid from {@link MarcHandler#startRecord(org.marc4j.marc.Leader)} to
+     * {@link MarcHandler#endRecord()}, so a handler can record where each record starts and read it again later by
+     * seeking to that position.
+     * </p>
+     *
+     * <p>
+     * The offsets are only known when the input is read as ISO 8859-1 bytes, with {@link #parse(String)},
+     * {@link #parse(InputStream)} or {@link #parse(InputStreamReader)}. A <code>Reader</code> passed to
+     * {@link #parse(Reader)} may decode several bytes into one character, so its offset is -1.
+     * </p>
+     *
+     * @return the offset of the current record, or -1 if the input is a <code>Reader</code>
+     */
+    public long getRecordOffset()
+    {
+        return this.byteOffsets ? this.recordOffset : -1;
+    }
+
     /**
      * <p>
      * Sends a file to the MARC parser.
@@ -122,7 +219,7 @@ public void parse(String fileName)
     public void parse(InputStream input)
         throws IOException
     {
-        this.parse(new BufferedReader(new InputStreamReader(input, "ISO8859_1")));
+        this.parse(new BufferedReader(new InputStreamReader(input, "ISO8859_1")), true);
     }
 
     /**
@@ -138,15 +235,32 @@ public void parse(InputStreamReader input)
         if (!"ISO8859_1".equals(input.getEncoding())) {
             throw new UnsupportedEncodingException("found " + input.getEncoding() + ", require ISO8859_1");
         }
-        this.parse(new BufferedReader(input));
+        this.parse(new BufferedReader(input), true);
     }
 
+    /**
+     * <p>
+     * Sends a reader to the MARC parser. The offsets of the records aren't known.
+     * </p>
+     *
+     * @param input the reader
+     */
     public void parse(Reader input)
         throws IOException
+    {
+        this.parse(input, false);
+    }
+
+    private void parse(Reader input, boolean byteOffsets)
+        throws IOException
     {
         final int LDRLENGTH = 24;
         final int DIRENTRYLENGTH = 12;
 
+        this.recordOffset = 0;
+        this.nextRecordOffset = 0;
+        this.byteOffsets = byteOffsets;
+
         // Comienza colecci�n de registros
         if (this.mh != null) {
             this.mh.startCollection();
@@ -188,9 +302,11 @@ public void parse(Reader input)
             }
 
             this.recordCounter += LDRLENGTH;
+            this.recordOffset = this.nextRecordOffset;
 
-            // Comienza registro
-            if (this.mh != null) {
+            // Consulta al filtro por la cabecera y comienza el registro si el filtro no examina nada más
+            boolean accepted = this.filter == null || this.filter.acceptLeader(leader);
+            if (accepted && !this.filterDirectory && !this.filterFields && this.mh != null) {
                 this.mh.startRecord(leader);
             }
 
@@ -233,6 +349,13 @@ public void parse(Reader input)
 
                 this.recordCounter += DIRENTRYLENGTH;
                 tag[i] = new String(d);
+                if (this.validationLevel == ValidationLevel.STRICT) {
+                    try {
+                        Verifier.checkTag(tag[i], ValidationLevel.STRICT);
+                    } catch (IllegalArgumentException iae) {
+                        this.reportWarning(iae.getMessage());
+                    }
+                }
                 try {
                     length[i] = Integer.parseInt(new String(e));
                 } catch (NumberFormatException nfe) {
@@ -248,7 +371,21 @@ public void parse(Reader input)
             }
             this.recordCounter++;
 
-            // Recorre las entradas del directorio
+            // Descarta el registro si el filtro rechaza la cabecera o las etiquetas, saltando los campos del directorio
+            if (!accepted || (this.filterDirectory && !this.filter.acceptDirectory(leader, tag))) {
+                long fieldsLength = 1;
+                for (int i = 0; i < dirEntries; i++) {
+                    fieldsLength += length[i];
+                }
+                this.skipRecord(input, fieldsLength);
+                continue;
+            }
+            if (this.filterDirectory && !this.filterFields && this.mh != null) {
+                this.mh.startRecord(leader);
+            }
+
+            // Lee los campos del directorio; sólo se guardan si el filtro los examina antes de comenzar el registro
+            char[][] fields = this.filterFields ? new char[dirEntries][] : null;
             for (int i = 0; i < dirEntries; i++) {
 
                 // Lee el campo actual
@@ -259,7 +396,7 @@ public void parse(Reader input)
                 }
 
                 // Busca un FT por el final (al combinar caracteres por el encoding, puede devolver caracteres de m�s)
-                if (this.eh != null) {
+                if (this.eh != null && this.validationLevel != ValidationLevel.NONE) {
                     String sField = new String(field);
                     int posFT = sField.lastIndexOf(FT);
                     if (posFT < 0) {
@@ -273,12 +410,26 @@ public void parse(Reader input)
                     }
                 }
 
-                // Parsea el campo de control o de datos actual
+                // Parsea el campo de control o de datos actual, o lo guarda para el filtro
                 this.recordCounter += length[i];
-                if (Tag.isControlField(tag[i])) {
-                    this.parseControlField(tag[i], field);
+                if (fields != null) {
+                    fields[i] = field;
                 } else {
-                    this.parseDataField(tag[i], field);
+                    this.parseField(tag[i], field);
+                }
+            }
+
+            // Descarta el registro si el filtro rechaza los campos, o lo comienza y parsea los campos guardados
+            if (fields != null) {
+                if (!this.filter.acceptFields(leader, tag, fields)) {
+                    this.skipRecord(input, 1);
+                    continue;
+                }
+                if (this.mh != null) {
+                    this.mh.startRecord(leader);
+                }
+                for (int i = 0; i < dirEntries; i++) {
+                    this.parseField(tag[i], fields[i]);
                 }
             }
 
@@ -289,11 +440,13 @@ public void parse(Reader input)
             this.recordCounter++;
 
             // Verifica que el tama�o del registro coincide con el reportado en la cabecera
-            if (this.recordCounter != leader.getRecordLength() && this.eh != null) {
+            if (this.recordCounter != leader.getRecordLength() && this.eh != null
+                && this.validationLevel != ValidationLevel.NONE) {
                 this.reportError("Record length not equal to characters read");
             }
 
             this.fileCounter += this.recordCounter;
+            this.nextRecordOffset += this.recordCounter;
             this.recordCounter = 0;
 
             // Fin de registro
@@ -310,6 +463,54 @@ public void parse(Reader input)
         }
     }
 
+    /**
+     * Parses a control field or a data field depending on its tag.
+     */
+    private void parseField(String tag, char[] field)
+        throws IOException
+    {
+        if (Tag.isControlField(tag)) {
+            this.parseControlField(tag, field);
+        } else {
+            this.parseDataField(tag, field);
+        }
+    }
+
+    /**
+     * Returns whether the filter overrides a stage of {@link RecordFilter}, which always accepts by default.
+     */
+    private static boolean overrides(RecordFilter filter, String name, Class<?>... parameterTypes)
+    {
+        try {
+            return filter.getClass().getMethod(name, parameterTypes).getDeclaringClass() != RecordFilter.class;
+        } catch (NoSuchMethodException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Skips the rest of a record rejected by the filter.
+     */
+    private void skipRecord(Reader input, long length)
+        throws IOException
+    {
+        long skipped = 0;
+        while (skipped < length) {
+            long n = input.skip(length - skipped);
+            if (n <= 0) {
+                if (input.read() == -1) {
+                    break;
+                }
+                n = 1;
+            }
+            skipped += n;
+        }
+        this.recordCounter += (int) skipped;
+        this.fileCounter += this.recordCounter;
+        this.nextRecordOffset += this.recordCounter;
+        this.recordCounter = 0;
+    }
+
     private void parseControlField(String tag, char[] field)
     {
         // Si el tama�o del campo no es el correcto, reporta un mensaje de advertencia
@@ -357,6 +558,14 @@ private void parseDataField(String tag, char[] field)
         } else {
             ind1 = field[0];
             ind2 = field[1];
+            if (this.validationLevel == ValidationLevel.STRICT) {
+                try {
+                    Verifier.checkIndicator(ind1, ValidationLevel.STRICT);
+                    Verifier.checkIndicator(ind2, ValidationLevel.STRICT);
+                } catch (IllegalArgumentException iae) {
+                    this.reportWarning(iae.getMessage() + " for tag " + tag);
+                }
+            }
             if (this.mh != null) {
                 this.mh.startDataField(tag, ind1, ind2, VariableField.EMPTY_ID);
             }
@@ -399,8 +608,17 @@ private void parseDataField(String tag, char[] field)
 
     private void reportSubfield(char code, StringBuffer data)
     {
+        char[] chars = new String(data).toCharArray();
+        if (this.validationLevel == ValidationLevel.STRICT) {
+            try {
+                Verifier.checkSubfieldCode(code, ValidationLevel.STRICT);
+                Verifier.checkDataElement(chars, ValidationLevel.STRICT);
+            } catch (IllegalArgumentException iae) {
+                this.reportWarning(iae.getMessage());
+            }
+        }
         if (this.mh != null) {
-            this.mh.subfield(code, new String(data).toCharArray(), Subfield.EMPTY_LINK_CODE);
+            this.mh.subfield(code, chars, Subfield.EMPTY_LINK_CODE);
         }
     }
 
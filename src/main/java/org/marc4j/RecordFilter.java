@@ -0,0 +1,86 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j;
+
+import org.marc4j.marc.Leader;
+
+/**
+ * <p>
+ * Selects the records reported by a {@link MarcReader}, in stages, so that the records that are rejected early aren't
+ * read further.
+ * </p>
+ *
+ * <p>
+ * The reader asks the filter about the leader before it reads the directory, about the tags before it reads the
+ * fields, and about the raw field data before it parses the fields and reports them. A rejected record is skipped
+ * without reporting any event to the <code>MarcHandler</code>.
+ * </p>
+ *
+ * @see MarcReader#setRecordFilter(RecordFilter)
+ */
+public interface RecordFilter
+{
+
+    /**
+     * <p>
+     * Receive the leader of a record, before the directory is read. The directory of a rejected record is still read,
+     * to skip the record by the lengths of its fields like the other rejected records.
+     * </p>
+     *
+     * @param leader the leader
+     * @return false to skip the record
+     */
+    default boolean acceptLeader(Leader leader)
+    {
+        return true;
+    }
+
+    /**
+     * <p>
+     * Receive the tags of the directory of a record, before the fields are read.
+     * </p>
+     *
+     * @param leader the leader
+     * @param tags the tags of the fields, in directory order
+     * @return false to skip the record
+     */
+    default boolean acceptDirectory(Leader leader, String[] tags)
+    {
+        return true;
+    }
+
+    /**
+     * <p>
+     * Receive the data of the fields of a record as read, before they are parsed. The data of a data field starts with
+     * the indicators, followed by the subfields, each one starting with the delimiter and the code. The data of every
+     * field ends with the field terminator in a well-formed record.
+     * </p>
+     *
+     * @param leader the leader
+     * @param tags the tags of the fields, in directory order
+     * @param fields the data of the fields, in the same order
+     * @return false to skip the record
+     */
+    default boolean acceptFields(Leader leader, String[] tags, char[][] fields)
+    {
+        return true;
+    }
+
+}
@@ -0,0 +1,229 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.binary;
+
+import java.util.Arrays;
+
+import org.marc4j.marc.MarcException;
+
+/**
+ * The layout of the binary record files, and the encoding of their numbers and strings.
+ *
+ * <p>
+ * A file starts with the magic number and the version, followed by the blocks of records, the block index and the
+ * footer:
+ * </p>
+ *
+ * <pre>
+ * file   = magic:int version:byte block* index footer
+ * block  = length:int recordCount:varint tagCount:varint tag:string* recordLength:varint* record*
+ * record = leader:string field* 0
+ * field  = (tag &lt;&lt; 1 | 0) + 1 data:string
+ *        | (tag &lt;&lt; 1 | 1) + 1 ind1:varint ind2:varint subfield* 0
+ * subfield = code + 1:varint data:string
+ * index  = blockCount:int (offset:long firstRecord:long)*
+ * footer = indexOffset:long recordCount:long magic:int
+ * </pre>
+ *
+ * <p>
+ * The tags of the fields are indexes into the tag table of their block, so each block can be read on its own. The
+ * varints are unsigned LEB128, and the strings are a varint length in bytes followed by the characters in UTF-8, with
+ * each half of a surrogate pair encoded on its own (CESU-8), so that any <code>char[]</code> is read back as it was
+ * written.
+ * </p>
+ */
+final class BinaryFormat
+{
+
+    static final int MAGIC = 0x4D344A42;
+    static final int VERSION = 1;
+    static final int HEADER_LENGTH = 5;
+    static final int FOOTER_LENGTH = 20;
+
+    private BinaryFormat()
+    {
+    }
+
+    /**
+     * A growable byte array that the numbers and strings are written to.
+     */
+    static final class Output
+    {
+
+        byte[] bytes;
+        int length;
+
+        Output(int capacity)
+        {
+            this.bytes = new byte[capacity];
+        }
+
+        void writeVarint(long value)
+        {
+            this.ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                this.bytes[this.length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            this.bytes[this.length++] = (byte) value;
+        }
+
+        void writeInt(int value)
+        {
+            this.ensureCapacity(4);
+            this.bytes[this.length++] = (byte) (value >>> 24);
+            this.bytes[this.length++] = (byte) (value >>> 16);
+            this.bytes[this.length++] = (byte) (value >>> 8);
+            this.bytes[this.length++] = (byte) value;
+        }
+
+        void writeLong(long value)
+        {
+            this.writeInt((int) (value >>> 32));
+            this.writeInt((int) value);
+        }
+
+        void writeString(char[] chars, int offset, int count)
+        {
+            int size = count;
+            for (int i = offset; i < offset + count; i++) {
+                char c = chars[i];
+                if (c >= 0x80) {
+                    size += c < 0x800 ? 1 : 2;
+                }
+            }
+            this.writeVarint(size);
+            this.ensureCapacity(size);
+            byte[] b = this.bytes;
+            int n = this.length;
+            for (int i = offset; i < offset + count; i++) {
+                char c = chars[i];
+                if (c < 0x80) {
+                    b[n++] = (byte) c;
+                } else if (c < 0x800) {
+                    b[n++] = (byte) (0xC0 | (c >> 6));
+                    b[n++] = (byte) (0x80 | (c & 0x3F));
+                } else {
+                    b[n++] = (byte) (0xE0 | (c >> 12));
+                    b[n++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    b[n++] = (byte) (0x80 | (c & 0x3F));
+                }
+            }
+            this.length = n;
+        }
+
+        void writeString(String s)
+        {
+            this.writeString(s.toCharArray(), 0, s.length());
+        }
+
+        void write(byte[] source, int offset, int count)
+        {
+            this.ensureCapacity(count);
+            System.arraycopy(source, offset, this.bytes, this.length, count);
+            this.length += count;
+        }
+
+        void ensureCapacity(int count)
+        {
+            if (this.length + count > this.bytes.length) {
+                this.bytes = Arrays.copyOf(this.bytes, Math.max(this.bytes.length * 2, this.length + count));
+            }
+        }
+
+    }
+
+    /**
+     * Reads the numbers and strings of a byte array.
+     */
+    static final class Input
+    {
+
+        byte[] bytes;
+        int position;
+        int limit;
+
+        /** The characters of the last string read */
+        char[] chars = new char[256];
+
+        long readVarint()
+        {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (this.position >= this.limit) {
+                    throw new MarcException("Truncated block");
+                }
+                byte b = this.bytes[this.position++];
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new MarcException("Invalid varint");
+        }
+
+        int readInt()
+        {
+            long value = this.readVarint();
+            if (value > Integer.MAX_VALUE) {
+                throw new MarcException("Invalid length " + value);
+            }
+            return (int) value;
+        }
+
+        /**
+         * Reads a string into {@link #chars}, returning its length in characters.
+         */
+        int readString()
+        {
+            int size = this.readInt();
+            int end = this.position + size;
+            if (end > this.limit) {
+                throw new MarcException("Truncated block");
+            }
+            if (this.chars.length < size) {
+                this.chars = new char[Math.max(size, this.chars.length * 2)];
+            }
+            byte[] b = this.bytes;
+            char[] c = this.chars;
+            int p = this.position;
+            int n = 0;
+            while (p < end) {
+                int b0 = b[p];
+                if (b0 >= 0) {
+                    c[n++] = (char) b0;
+                    p++;
+                } else if ((b0 & 0xE0) == 0xC0 && p + 1 < end) {
+                    c[n++] = (char) (((b0 & 0x1F) << 6) | (b[p + 1] & 0x3F));
+                    p += 2;
+                } else if ((b0 & 0xF0) == 0xE0 && p + 2 < end) {
+                    c[n++] = (char) (((b0 & 0x0F) << 12) | ((b[p + 1] & 0x3F) << 6) | (b[p + 2] & 0x3F));
+                    p += 3;
+                } else {
+                    throw new MarcException("Invalid string at " + p);
+                }
+            }
+            this.position = end;
+            return n;
+        }
+
+    }
+
+}
@@ -0,0 +1,352 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.binary;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import org.marc4j.MarcHandler;
+import org.marc4j.helpers.RecordBuilder;
+import org.marc4j.helpers.RecordHandler;
+import org.marc4j.marc.Leader;
+import org.marc4j.marc.MarcException;
+import org.marc4j.marc.Record;
+import org.marc4j.marc.Subfield;
+import org.marc4j.marc.ValidationLevel;
+import org.marc4j.marc.VariableField;
+
+/**
+ * <p>
+ * Reads the records of a file written by {@link BinaryWriter}, as <code>MarcHandler</code> events or as
+ * <code>Record</code> objects, from the first one or from any record number.
+ * </p>
+ *
+ * <pre>
+ * try (BinaryReader reader = new BinaryReader(new File("records.bin"))) {
+ *     reader.seek(1000);
+ *     Record record;
+ *     while ((record = reader.next()) != null) {
+ *         ...
+ *     }
+ * }
+ * </pre>
+ *
+ * <p>
+ * The blocks are read whole and decoded without character conversion. Seeking reads the block index, loaded when the
+ * file is opened, and then the record lengths of a single block.
+ * </p>
+ */
+public class BinaryReader
+    implements Closeable
+{
+
+    private final FileChannel channel;
+    private final long recordCount;
+
+    /** The offset and the number of the first record of each block */
+    private final long[] blockOffsets;
+    private final long[] firstRecords;
+
+    /** The current block */
+    private int block = -1;
+    private final BinaryFormat.Input input = new BinaryFormat.Input();
+    private String[] tags = new String[0];
+    private int[] recordOffsets = new int[0];
+    private int blockRecords;
+    private int next;
+
+    private final RecordBuilder builder = new RecordBuilder();
+    private Record record;
+
+    /**
+     * Opens a file.
+     *
+     * @param file the file
+     * @throws IOException if the file can't be read
+     * @throws MarcException if the file isn't in the binary format
+     */
+    public BinaryReader(File file)
+        throws IOException
+    {
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            long size = this.channel.size();
+            if (size < BinaryFormat.HEADER_LENGTH + 4 + BinaryFormat.FOOTER_LENGTH) {
+                throw new MarcException("Not a binary record file: " + file);
+            }
+            ByteBuffer header = this.read(0, BinaryFormat.HEADER_LENGTH);
+            if (header.getInt() != BinaryFormat.MAGIC) {
+                throw new MarcException("Not a binary record file: " + file);
+            }
+            if (header.get() != BinaryFormat.VERSION) {
+                throw new MarcException("Unsupported version of the binary record file: " + file);
+            }
+            ByteBuffer footer = this.read(size - BinaryFormat.FOOTER_LENGTH, BinaryFormat.FOOTER_LENGTH);
+            long indexOffset = footer.getLong();
+            this.recordCount = footer.getLong();
+            if (footer.getInt() != BinaryFormat.MAGIC || indexOffset < BinaryFormat.HEADER_LENGTH
+                || indexOffset > size - BinaryFormat.FOOTER_LENGTH - 4) {
+                throw new MarcException("Truncated binary record file: " + file);
+            }
+            int blocks = this.read(indexOffset, 4).getInt();
+            if (blocks < 0 || indexOffset + 4 + blocks * 16L != size - BinaryFormat.FOOTER_LENGTH) {
+                throw new MarcException("Invalid block index: " + file);
+            }
+            ByteBuffer index = this.read(indexOffset + 4, blocks * 16);
+            this.blockOffsets = new long[blocks];
+            this.firstRecords = new long[blocks];
+            for (int i = 0; i < blocks; i++) {
+                this.blockOffsets[i] = index.getLong();
+                this.firstRecords[i] = index.getLong();
+            }
+        } catch (IOException | RuntimeException e) {
+            this.channel.close();
+            throw e;
+        }
+        this.builder.setValidationLevel(ValidationLevel.NONE);
+        this.builder.setRecordHandler(new RecordHandler()
+        {
+
+            @Override
+            public void startCollection()
+            {
+                // Not used
+            }
+
+            @Override
+            public void record(Record record)
+            {
+                BinaryReader.this.record = record;
+            }
+
+            @Override
+            public void endCollection()
+            {
+                // Not used
+            }
+
+        });
+    }
+
+    /**
+     * Returns the number of records of the file.
+     *
+     * @return the number of records
+     */
+    public long getRecordCount()
+    {
+        return this.recordCount;
+    }
+
+    /**
+     * Moves to a record, so that it's the next one read.
+     *
+     * @param ordinal the number of the record, from 0; the number of records moves to the end
+     * @throws IOException if the file can't be read
+     */
+    public void seek(long ordinal)
+        throws IOException
+    {
+        if (ordinal < 0 || ordinal > this.recordCount) {
+            throw new IllegalArgumentException("Record " + ordinal + " out of 0-" + this.recordCount);
+        }
+        if (ordinal == this.recordCount) {
+            this.block = this.blockOffsets.length;
+            this.blockRecords = 0;
+            this.next = 0;
+            return;
+        }
+        int found = Arrays.binarySearch(this.firstRecords, ordinal);
+        if (found < 0) {
+            found = -found - 2;
+        }
+        if (found != this.block) {
+            this.loadBlock(found);
+        }
+        this.next = (int) (ordinal - this.firstRecords[found]);
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return the record, or <code>null</code> at the end of the file
+     * @throws IOException if the file can't be read
+     */
+    public Record next()
+        throws IOException
+    {
+        this.record = null;
+        this.next(this.builder);
+        return this.record;
+    }
+
+    /**
+     * Reports the next record to a handler.
+     *
+     * @param handler the handler
+     * @return <code>false</code> at the end of the file
+     * @throws IOException if the file can't be read
+     */
+    public boolean next(MarcHandler handler)
+        throws IOException
+    {
+        while (this.next == this.blockRecords) {
+            if (this.block + 1 >= this.blockOffsets.length) {
+                return false;
+            }
+            this.loadBlock(this.block + 1);
+        }
+        BinaryFormat.Input in = this.input;
+        in.position = this.recordOffsets[this.next++];
+
+        int length = in.readString();
+        if (length != Leader.LENGTH) {
+            throw new MarcException("Invalid leader in block " + this.block);
+        }
+        Leader leader = new Leader();
+        leader.unmarshal(in.chars, 0);
+        handler.startRecord(leader);
+        long field;
+        while ((field = in.readVarint()) != 0) {
+            String tag = this.tag((field - 1) >>> 1);
+            if (((field - 1) & 1) == 0) {
+                int count = in.readString();
+                handler.controlField(tag, Arrays.copyOf(in.chars, count), VariableField.EMPTY_ID);
+                continue;
+            }
+            char ind1 = (char) in.readVarint();
+            char ind2 = (char) in.readVarint();
+            handler.startDataField(tag, ind1, ind2, VariableField.EMPTY_ID);
+            long code;
+            while ((code = in.readVarint()) != 0) {
+                int count = in.readString();
+                handler.subfield((char) (code - 1), Arrays.copyOf(in.chars, count), Subfield.EMPTY_LINK_CODE);
+            }
+            handler.endDataField(tag);
+        }
+        handler.endRecord();
+        return true;
+    }
+
+    /**
+     * Reports the collection, from the current record to the end of the file, to a handler.
+     *
+     * @param handler the handler
+     * @throws IOException if the file can't be read
+     */
+    public void parse(MarcHandler handler)
+        throws IOException
+    {
+        handler.startCollection();
+        while (this.next(handler)) {
+            // Reported by next
+        }
+        handler.endCollection();
+    }
+
+    @Override
+    public void close()
+        throws IOException
+    {
+        this.channel.close();
+    }
+
+    private String tag(long index)
+    {
+        if (index >= this.tags.length) {
+            throw new MarcException("Invalid tag in block " + this.block);
+        }
+        return this.tags[(int) index];
+    }
+
+    private void loadBlock(int block)
+        throws IOException
+    {
+        long offset = this.blockOffsets[block];
+        int length = this.read(offset, 4).getInt();
+        if (length < 0) {
+            throw new MarcException("Invalid block " + block);
+        }
+        BinaryFormat.Input in = this.input;
+        if (in.bytes == null || in.bytes.length < length) {
+            in.bytes = new byte[Math.max(length, in.bytes == null ? 0 : in.bytes.length * 2)];
+        }
+        this.readFully(ByteBuffer.wrap(in.bytes, 0, length), offset + 4);
+        in.position = 0;
+        in.limit = length;
+
+        int records = in.readInt();
+        int tagCount = in.readInt();
+        if (this.tags.length < tagCount) {
+            this.tags = new String[tagCount];
+        }
+        for (int i = 0; i < tagCount; i++) {
+            int count = in.readString();
+            this.tags[i] = new String(in.chars, 0, count);
+        }
+        for (int i = tagCount; i < this.tags.length; i++) {
+            this.tags[i] = null;
+        }
+        if (this.recordOffsets.length < records) {
+            this.recordOffsets = new int[records];
+        }
+        int position = 0;
+        for (int i = 0; i < records; i++) {
+            this.recordOffsets[i] = position;
+            position += in.readInt();
+        }
+        for (int i = 0; i < records; i++) {
+            this.recordOffsets[i] += in.position;
+        }
+        if (in.position + position != length) {
+            throw new MarcException("Invalid block " + block);
+        }
+        this.block = block;
+        this.blockRecords = records;
+        this.next = 0;
+    }
+
+    private ByteBuffer read(long position, int length)
+        throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        this.readFully(buffer, position);
+        buffer.flip();
+        return buffer;
+    }
+
+    private void readFully(ByteBuffer buffer, long position)
+        throws IOException
+    {
+        while (buffer.hasRemaining()) {
+            int count = this.channel.read(buffer, position);
+            if (count < 0) {
+                throw new MarcException("Truncated binary record file");
+            }
+            position += count;
+        }
+    }
+
+}
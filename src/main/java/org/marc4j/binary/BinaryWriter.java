@@ -0,0 +1,280 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.binary;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.marc4j.MarcHandler;
+import org.marc4j.helpers.RecordEvents;
+import org.marc4j.helpers.RecordHandler;
+import org.marc4j.marc.Leader;
+import org.marc4j.marc.MarcException;
+import org.marc4j.marc.Record;
+import org.marc4j.util.CharacterConverter;
+
+/**
+ * <p>
+ * Writes records to the compact binary format read by {@link BinaryReader}, for intermediate files read many times.
+ * </p>
+ *
+ * <p>
+ * The fields are written as UTF-8 strings prefixed with their length, and grouped in blocks of about
+ * {@link #setBlockSize(int) 64 KB} with their own tag table and record lengths. The file ends with an index of the
+ * blocks, so that the reader can go to any record by its number. The data is written after the
+ * <code>CharacterConverter</code>, if there is one, so a conversion such as <code>AnselToUnicode</code> is paid once,
+ * when the file is written.
+ * </p>
+ *
+ * <pre>
+ * MarcReader reader = new MarcReader();
+ * BinaryWriter writer = new BinaryWriter(new FileOutputStream("records.bin"));
+ * writer.setCharacterConverter(new AnselToUnicode());
+ * reader.setMarcHandler(writer);
+ * reader.parse(new FileInputStream("records.mrc"));
+ * </pre>
+ *
+ * <p>
+ * It receives the records as <code>MarcHandler</code> events or as <code>Record</code> objects through the
+ * <code>RecordHandler</code> interface. The field ids and link codes aren't written. The output is closed at the end of
+ * the collection, and errors writing to it are thrown as <code>MarcException</code>.
+ * </p>
+ */
+public class BinaryWriter
+    implements MarcHandler, RecordHandler
+{
+
+    private final OutputStream out;
+
+    private int blockSize = 1 << 16;
+    private CharacterConverter charconv = null;
+
+    /** The records of the current block */
+    private final BinaryFormat.Output data = new BinaryFormat.Output(1 << 17);
+    private int[] recordLengths = new int[256];
+    private int recordCount;
+    private int recordStart;
+
+    /** The tag table of the current block */
+    private final Map<String, Integer> tagIndexes = new HashMap<>();
+    private final List<String> tags = new ArrayList<>();
+
+    /** The header of the blocks, and the index */
+    private final BinaryFormat.Output header = new BinaryFormat.Output(1 << 12);
+    private final BinaryFormat.Output index = new BinaryFormat.Output(1 << 12);
+    private int blockCount;
+
+    private final char[] leader = new char[Leader.LENGTH];
+
+    /** Position in the file and records written */
+    private long offset;
+    private long totalRecords;
+
+    /**
+     * Creates a writer.
+     *
+     * @param out the output stream
+     */
+    public BinaryWriter(OutputStream out)
+    {
+        this.out = out;
+    }
+
+    /**
+     * Sets the size in bytes of the blocks of records, 64 KB by default. Smaller blocks make seeking a record faster.
+     *
+     * @param blockSize the size in bytes
+     */
+    public void setBlockSize(int blockSize)
+    {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("blockSize must be positive");
+        }
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * <p>
+     * Registers the <code>CharacterConverter</code> applied to the data of the subfields.
+     * </p>
+     *
+     * @param charconv the character converter
+     */
+    public void setCharacterConverter(CharacterConverter charconv)
+    {
+        this.charconv = charconv;
+    }
+
+    @Override
+    public void startCollection()
+    {
+        this.header.length = 0;
+        this.header.writeInt(BinaryFormat.MAGIC);
+        this.header.ensureCapacity(1);
+        this.header.bytes[this.header.length++] = BinaryFormat.VERSION;
+        this.write(this.header);
+    }
+
+    @Override
+    public void record(Record record)
+    {
+        RecordEvents.replay(record, this);
+    }
+
+    @Override
+    public void startRecord(Leader leader)
+    {
+        this.recordStart = this.data.length;
+        leader.marshal(this.leader, 0);
+        this.data.writeString(this.leader, 0, Leader.LENGTH);
+    }
+
+    @Override
+    public void controlField(String tag, char[] data, Long id)
+    {
+        this.data.writeVarint(((long) this.tagIndex(tag) << 1) + 1);
+        if (data != null) {
+            this.data.writeString(data, 0, data.length);
+        } else {
+            this.data.writeVarint(0);
+        }
+    }
+
+    @Override
+    public void startDataField(String tag, char ind1, char ind2, Long id)
+    {
+        this.data.writeVarint(((long) this.tagIndex(tag) << 1) + 2);
+        this.data.writeVarint(ind1);
+        this.data.writeVarint(ind2);
+    }
+
+    @Override
+    public void subfield(char code, char[] data, String linkCode)
+    {
+        this.data.writeVarint(code + 1);
+        if (data == null) {
+            this.data.writeVarint(0);
+        } else {
+            char[] converted = this.charconv != null ? this.charconv.convert(data) : data;
+            this.data.writeString(converted, 0, converted.length);
+        }
+    }
+
+    @Override
+    public void endDataField(String tag)
+    {
+        this.data.writeVarint(0);
+    }
+
+    @Override
+    public void endRecord()
+    {
+        this.data.writeVarint(0);
+        if (this.recordCount == this.recordLengths.length) {
+            this.recordLengths = Arrays.copyOf(this.recordLengths, this.recordCount * 2);
+        }
+        this.recordLengths[this.recordCount++] = this.data.length - this.recordStart;
+        if (this.data.length >= this.blockSize) {
+            this.writeBlock();
+        }
+    }
+
+    @Override
+    public void endCollection()
+    {
+        if (this.recordCount > 0) {
+            this.writeBlock();
+        }
+        long indexOffset = this.offset;
+        this.header.length = 0;
+        this.header.writeInt(this.blockCount);
+        this.write(this.header);
+        this.write(this.index);
+        this.header.length = 0;
+        this.header.writeLong(indexOffset);
+        this.header.writeLong(this.totalRecords);
+        this.header.writeInt(BinaryFormat.MAGIC);
+        this.write(this.header);
+        try {
+            this.out.flush();
+            this.out.close();
+        } catch (IOException e) {
+            throw new MarcException("Unable to close the output", e);
+        }
+    }
+
+    private int tagIndex(String tag)
+    {
+        Integer index = this.tagIndexes.get(tag);
+        if (index == null) {
+            index = this.tags.size();
+            this.tagIndexes.put(tag, index);
+            this.tags.add(tag);
+        }
+        return index;
+    }
+
+    private void writeBlock()
+    {
+        BinaryFormat.Output block = this.header;
+        block.length = 0;
+        block.writeInt(0);
+        block.writeVarint(this.recordCount);
+        block.writeVarint(this.tags.size());
+        for (String tag : this.tags) {
+            block.writeString(tag);
+        }
+        for (int i = 0; i < this.recordCount; i++) {
+            block.writeVarint(this.recordLengths[i]);
+        }
+        int length = block.length - 4 + this.data.length;
+        block.length = 0;
+        block.writeInt(length);
+        block.length = length + 4 - this.data.length;
+
+        this.index.writeLong(this.offset);
+        this.index.writeLong(this.totalRecords);
+        this.blockCount++;
+        this.totalRecords += this.recordCount;
+
+        this.write(block);
+        this.write(this.data);
+        this.data.length = 0;
+        this.recordCount = 0;
+        this.tagIndexes.clear();
+        this.tags.clear();
+    }
+
+    private void write(BinaryFormat.Output output)
+    {
+        try {
+            this.out.write(output.bytes, 0, output.length);
+        } catch (IOException e) {
+            throw new MarcException("Unable to write the records", e);
+        }
+        this.offset += output.length;
+    }
+
+}
@@ -0,0 +1,173 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.diff;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+
+import org.marc4j.marc.VariableField;
+
+/**
+ * <p>
+ * An edit of the control fields or the data fields of a record in a {@link Patch}.
+ * </p>
+ *
+ * <p>
+ * The index of an edit refers to the list of control fields or data fields as left by the previous edits, so the
+ * edits must be applied in order.
+ * </p>
+ */
+public final class FieldEdit
+    implements Serializable
+{
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The kinds of field edit.
+     */
+    public enum Type
+    {
+        /** Inserts a field at the index */
+        INSERT,
+        /** Removes the field at the index */
+        DELETE,
+        /** Changes the data of a control field, or the indicators and subfields of a data field, at the index */
+        CHANGE
+    }
+
+    private final Type type;
+    private final boolean controlField;
+    private final int index;
+    private final String tag;
+    private final VariableField field;
+    private final char ind1;
+    private final char ind2;
+    private final List<SubfieldEdit> subfieldEdits;
+
+    FieldEdit(Type type, boolean controlField, int index, String tag, VariableField field, char ind1, char ind2,
+        List<SubfieldEdit> subfieldEdits)
+    {
+        this.type = type;
+        this.controlField = controlField;
+        this.index = index;
+        this.tag = tag;
+        this.field = field;
+        this.ind1 = ind1;
+        this.ind2 = ind2;
+        this.subfieldEdits = subfieldEdits;
+    }
+
+    /**
+     * Returns the kind of the edit.
+     *
+     * @return the type
+     */
+    public Type getType()
+    {
+        return this.type;
+    }
+
+    /**
+     * Returns <code>true</code> if the edit applies to the control fields; <code>false</code> for the data fields.
+     *
+     * @return <code>true</code> for a control field
+     */
+    public boolean isControlField()
+    {
+        return this.controlField;
+    }
+
+    /**
+     * Returns the index of the field the edit applies to.
+     *
+     * @return the index
+     */
+    public int getIndex()
+    {
+        return this.index;
+    }
+
+    /**
+     * Returns the tag of the field the edit applies to.
+     *
+     * @return the tag
+     */
+    public String getTag()
+    {
+        return this.tag;
+    }
+
+    /**
+     * Returns the new field of an {@link Type#INSERT}, or the new control field of a {@link Type#CHANGE}.
+     *
+     * @return the field, or <code>null</code>
+     */
+    public VariableField getField()
+    {
+        return this.field;
+    }
+
+    /**
+     * Returns the new first indicator of the {@link Type#CHANGE} of a data field.
+     *
+     * @return the indicator
+     */
+    public char getIndicator1()
+    {
+        return this.ind1;
+    }
+
+    /**
+     * Returns the new second indicator of the {@link Type#CHANGE} of a data field.
+     *
+     * @return the indicator
+     */
+    public char getIndicator2()
+    {
+        return this.ind2;
+    }
+
+    /**
+     * Returns the subfield edits of the {@link Type#CHANGE} of a data field.
+     *
+     * @return the subfield edits, in the order they must be applied
+     */
+    public List<SubfieldEdit> getSubfieldEdits()
+    {
+        return this.subfieldEdits != null ? Collections.unmodifiableList(this.subfieldEdits)
+            : Collections.<SubfieldEdit>emptyList();
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append(this.type).append(' ').append(this.tag).append(" at ").append(this.index);
+        if (this.field != null) {
+            sb.append(": ").append(this.field);
+        } else if (this.type == Type.CHANGE) {
+            sb.append(": ").append(this.ind1).append(this.ind2).append(' ').append(this.subfieldEdits);
+        }
+        return sb.toString();
+    }
+
+}
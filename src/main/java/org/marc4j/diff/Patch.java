@@ -0,0 +1,117 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.diff;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+
+import org.marc4j.marc.Leader;
+
+/**
+ * <p>
+ * The edit script that turns a record into another, as computed by {@link RecordDiff#diff}.
+ * </p>
+ *
+ * <p>
+ * A patch is bound to the content of the record it was computed from: {@link RecordDiff#apply} checks the
+ * fingerprint of the record before editing it.
+ * </p>
+ *
+ * @see RecordDiff
+ */
+public final class Patch
+    implements Serializable
+{
+
+    private static final long serialVersionUID = 1L;
+
+    private final long baseFingerprint;
+    private final long targetFingerprint;
+    private final Leader leader;
+    private final List<FieldEdit> edits;
+
+    Patch(long baseFingerprint, long targetFingerprint, Leader leader, List<FieldEdit> edits)
+    {
+        this.baseFingerprint = baseFingerprint;
+        this.targetFingerprint = targetFingerprint;
+        this.leader = leader;
+        this.edits = edits;
+    }
+
+    /**
+     * Returns the fingerprint of the record the patch applies to.
+     *
+     * @return the fingerprint
+     * @see org.marc4j.marc.Record#fingerprint()
+     */
+    public long getBaseFingerprint()
+    {
+        return this.baseFingerprint;
+    }
+
+    /**
+     * Returns the fingerprint of the record the patch produces.
+     *
+     * @return the fingerprint
+     */
+    public long getTargetFingerprint()
+    {
+        return this.targetFingerprint;
+    }
+
+    /**
+     * Returns the new leader.
+     *
+     * @return the leader, or <code>null</code> if it doesn't change
+     */
+    public Leader getLeader()
+    {
+        return this.leader;
+    }
+
+    /**
+     * Returns the field edits.
+     *
+     * @return the edits, in the order they must be applied
+     */
+    public List<FieldEdit> getEdits()
+    {
+        return Collections.unmodifiableList(this.edits);
+    }
+
+    /**
+     * Returns <code>true</code> if the patch doesn't change anything.
+     *
+     * @return <code>true</code> for an empty patch
+     */
+    public boolean isEmpty()
+    {
+        return this.leader == null && this.edits.isEmpty();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "Patch[leader=" + (this.leader != null ? this.leader.marshal() : "unchanged") + ", edits="
+            + this.edits + "]";
+    }
+
+}
@@ -0,0 +1,385 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.diff;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiPredicate;
+
+import org.marc4j.marc.ControlField;
+import org.marc4j.marc.DataField;
+import org.marc4j.marc.Leader;
+import org.marc4j.marc.MarcException;
+import org.marc4j.marc.Record;
+import org.marc4j.marc.Subfield;
+import org.marc4j.marc.ValidationLevel;
+import org.marc4j.marc.VariableField;
+
+/**
+ * <p>
+ * Computes the differences between two records as a {@link Patch}, and applies patches to records.
+ * </p>
+ *
+ * <p>
+ * Fields are matched in two steps. First the longest common subsequence of fields with the same content is kept
+ * unchanged. Then, in each run of fields between two unchanged ones, the longest common subsequence of fields with the
+ * same tag is paired as changes, so a field that only changed a subfield is reported as a {@link FieldEdit.Type#CHANGE}
+ * with the subfield edits, and never as a delete plus an insert. The subfields of a changed data field are matched in
+ * the same way by content and then by code.
+ * </p>
+ *
+ * <p>
+ * The ids of the fields and the link codes of the subfields are not compared, and the length fields of the leader are
+ * ignored, like in {@link Record#fingerprint()}.
+ * </p>
+ *
+ * <pre>
+ * Patch patch = RecordDiff.diff(stored, updated);
+ * ...
+ * RecordDiff.apply(copyOfStored, patch);
+ * </pre>
+ */
+public final class RecordDiff
+{
+
+    private static final byte KEEP = 0;
+    private static final byte DELETE = 1;
+    private static final byte INSERT = 2;
+
+    private RecordDiff()
+    {
+    }
+
+    /**
+     * Computes the patch that turns a record into another.
+     *
+     * @param source the original record
+     * @param target the modified record
+     * @return the patch
+     */
+    public static Patch diff(Record source, Record target)
+    {
+        List<FieldEdit> edits = new ArrayList<>();
+        diffFields(source.getControlFields(), target.getControlFields(), true, edits);
+        diffFields(source.getDataFields(), target.getDataFields(), false, edits);
+        Leader leader = sameLeader(source.getLeader(), target.getLeader()) ? null : target.getLeader();
+        return new Patch(source.fingerprint(), target.fingerprint(), leader != null ? new Leader(leader) : null,
+            edits);
+    }
+
+    /**
+     * Applies a patch to a record, editing it in place.
+     *
+     * @param record the record to edit, with the same content as the source record of the patch
+     * @param patch the patch
+     * @throws MarcException if the record isn't the one the patch was computed from
+     */
+    public static void apply(Record record, Patch patch)
+    {
+        if (record.fingerprint() != patch.getBaseFingerprint()) {
+            throw new MarcException("The patch doesn't apply to record " + record.getControlNumber());
+        }
+        if (patch.getLeader() != null) {
+            record.add(new Leader(patch.getLeader()));
+        }
+        List<ControlField> controlFields = record.getControlFields();
+        List<DataField> dataFields = record.getDataFields();
+        for (FieldEdit edit : patch.getEdits()) {
+            if (edit.isControlField()) {
+                applyControlField(controlFields, edit);
+            } else {
+                applyDataField(dataFields, edit);
+            }
+        }
+    }
+
+    private static void applyControlField(List<ControlField> fields, FieldEdit edit)
+    {
+        switch (edit.getType()) {
+            case INSERT:
+                fields.add(edit.getIndex(), copy((ControlField) edit.getField()));
+                break;
+            case DELETE:
+                checkTag(fields, edit);
+                fields.remove(edit.getIndex());
+                break;
+            case CHANGE:
+                checkTag(fields, edit).setData(copy(((ControlField) edit.getField()).getData()), ValidationLevel.NONE);
+                break;
+            default:
+        }
+    }
+
+    private static void applyDataField(List<DataField> fields, FieldEdit edit)
+    {
+        switch (edit.getType()) {
+            case INSERT:
+                fields.add(edit.getIndex(), new DataField((DataField) edit.getField()));
+                break;
+            case DELETE:
+                checkTag(fields, edit);
+                fields.remove(edit.getIndex());
+                break;
+            case CHANGE:
+                DataField field = checkTag(fields, edit);
+                field.setIndicator1(edit.getIndicator1());
+                field.setIndicator2(edit.getIndicator2());
+                List<Subfield> subfields = field.getSubfields();
+                for (SubfieldEdit subfieldEdit : edit.getSubfieldEdits()) {
+                    switch (subfieldEdit.getType()) {
+                        case INSERT:
+                            subfields.add(subfieldEdit.getIndex(), new Subfield(subfieldEdit.getSubfield()));
+                            break;
+                        case DELETE:
+                            subfields.remove(subfieldEdit.getIndex());
+                            break;
+                        case REPLACE:
+                            subfields.set(subfieldEdit.getIndex(), new Subfield(subfieldEdit.getSubfield()));
+                            break;
+                        default:
+                    }
+                }
+                break;
+            default:
+        }
+    }
+
+    private static <T extends VariableField> T checkTag(List<T> fields, FieldEdit edit)
+    {
+        if (edit.getIndex() >= fields.size() || !Objects.equals(fields.get(edit.getIndex()).getTag(), edit.getTag())) {
+            throw new MarcException("The patch doesn't apply: expected field " + edit.getTag() + " at "
+                + edit.getIndex());
+        }
+        return fields.get(edit.getIndex());
+    }
+
+    private static <T extends VariableField> void diffFields(List<T> source, List<T> target, boolean control,
+        List<FieldEdit> edits)
+    {
+        byte[] script = align(source, target, RecordDiff::sameField);
+        int position = 0;
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (k < script.length) {
+            if (script[k] == KEEP) {
+                position++;
+                i++;
+                j++;
+                k++;
+                continue;
+            }
+            // Run of deleted and inserted fields between two unchanged ones, paired by tag
+            int i0 = i;
+            int j0 = j;
+            while (k < script.length && script[k] != KEEP) {
+                if (script[k++] == DELETE) {
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+            List<T> deleted = source.subList(i0, i);
+            List<T> inserted = target.subList(j0, j);
+            byte[] pairing = align(deleted, inserted, (a, b) -> Objects.equals(a.getTag(), b.getTag()));
+            int d = 0;
+            int n = 0;
+            for (byte op : pairing) {
+                if (op == KEEP) {
+                    edits.add(changeField(control, position++, deleted.get(d++), inserted.get(n++)));
+                } else if (op == DELETE) {
+                    edits.add(new FieldEdit(FieldEdit.Type.DELETE, control, position, deleted.get(d++).getTag(), null,
+                        ' ', ' ', null));
+                } else {
+                    VariableField field = inserted.get(n++);
+                    edits.add(new FieldEdit(FieldEdit.Type.INSERT, control, position++, field.getTag(), copy(field),
+                        ' ', ' ', null));
+                }
+            }
+        }
+    }
+
+    private static FieldEdit changeField(boolean control, int position, VariableField source, VariableField target)
+    {
+        if (control) {
+            return new FieldEdit(FieldEdit.Type.CHANGE, true, position, source.getTag(), copy(target), ' ', ' ',
+                null);
+        }
+        DataField from = (DataField) source;
+        DataField to = (DataField) target;
+        List<Subfield> sourceSubfields = from.getSubfields();
+        List<Subfield> targetSubfields = to.getSubfields();
+        List<SubfieldEdit> subfieldEdits = new ArrayList<>();
+        byte[] script = align(sourceSubfields, targetSubfields, RecordDiff::sameSubfield);
+        int index = 0;
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (k < script.length) {
+            if (script[k] == KEEP) {
+                index++;
+                i++;
+                j++;
+                k++;
+                continue;
+            }
+            int i0 = i;
+            int j0 = j;
+            while (k < script.length && script[k] != KEEP) {
+                if (script[k++] == DELETE) {
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+            List<Subfield> inserted = targetSubfields.subList(j0, j);
+            byte[] pairing = align(sourceSubfields.subList(i0, i), inserted, (a, b) -> a.getCode() == b.getCode());
+            int n = 0;
+            for (byte op : pairing) {
+                if (op == KEEP) {
+                    subfieldEdits.add(new SubfieldEdit(SubfieldEdit.Type.REPLACE, index++,
+                        new Subfield(inserted.get(n++))));
+                } else if (op == DELETE) {
+                    subfieldEdits.add(new SubfieldEdit(SubfieldEdit.Type.DELETE, index, null));
+                } else {
+                    subfieldEdits.add(new SubfieldEdit(SubfieldEdit.Type.INSERT, index++,
+                        new Subfield(inserted.get(n++))));
+                }
+            }
+        }
+        return new FieldEdit(FieldEdit.Type.CHANGE, false, position, source.getTag(), null, to.getIndicator1(),
+            to.getIndicator2(), subfieldEdits);
+    }
+
+    private static VariableField copy(VariableField field)
+    {
+        return field instanceof ControlField ? copy((ControlField) field) : new DataField((DataField) field);
+    }
+
+    /**
+     * Copies a control field, which may have no data, unlike {@link ControlField#ControlField(ControlField)}.
+     */
+    private static ControlField copy(ControlField field)
+    {
+        return new ControlField(field.getTag(), copy(field.getData()), field.getId(), ValidationLevel.NONE);
+    }
+
+    private static char[] copy(char[] data)
+    {
+        return data == null ? null : Arrays.copyOf(data, data.length);
+    }
+
+    /**
+     * Computes the shortest edit script between two lists as the complement of their longest common subsequence,
+     * after skipping the common prefix and suffix, which are most of the fields when few of them change.
+     */
+    private static <T> byte[] align(List<T> a, List<T> b, BiPredicate<? super T, ? super T> same)
+    {
+        int prefix = 0;
+        int max = Math.min(a.size(), b.size());
+        while (prefix < max && same.test(a.get(prefix), b.get(prefix))) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < max - prefix
+            && same.test(a.get(a.size() - 1 - suffix), b.get(b.size() - 1 - suffix))) {
+            suffix++;
+        }
+        int n = a.size() - prefix - suffix;
+        int m = b.size() - prefix - suffix;
+        int[][] lcs = new int[n + 1][m + 1];
+        for (int i = n - 1; i >= 0; i--) {
+            for (int j = m - 1; j >= 0; j--) {
+                lcs[i][j] = same.test(a.get(prefix + i), b.get(prefix + j)) ? lcs[i + 1][j + 1] + 1
+                    : Math.max(lcs[i + 1][j], lcs[i][j + 1]);
+            }
+        }
+        byte[] script = new byte[prefix + suffix + n + m - lcs[0][0]];
+        int k = prefix;
+        int i = 0;
+        int j = 0;
+        while (i < n || j < m) {
+            if (i < n && j < m && same.test(a.get(prefix + i), b.get(prefix + j))) {
+                script[k++] = KEEP;
+                i++;
+                j++;
+            } else if (j == m || (i < n && lcs[i + 1][j] >= lcs[i][j + 1])) {
+                script[k++] = DELETE;
+                i++;
+            } else {
+                script[k++] = INSERT;
+                j++;
+            }
+        }
+        // The prefix and the suffix are already KEEP, the default value
+        return script;
+    }
+
+    private static boolean sameLeader(Leader a, Leader b)
+    {
+        if (a == null || b == null) {
+            return a == b;
+        }
+        for (int i = 0; i < Leader.LENGTH; i++) {
+            // Skips the record length (00-04) and the base address of data (12-16)
+            if (i < 5 || (i >= 12 && i < 17)) {
+                continue;
+            }
+            if (a.charAt(i) != b.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean sameField(VariableField a, VariableField b)
+    {
+        if (!Objects.equals(a.getTag(), b.getTag())) {
+            return false;
+        }
+        if (a instanceof ControlField) {
+            return Arrays.equals(((ControlField) a).getData(), ((ControlField) b).getData());
+        }
+        DataField x = (DataField) a;
+        DataField y = (DataField) b;
+        if (x.getIndicator1() != y.getIndicator1() || x.getIndicator2() != y.getIndicator2()) {
+            return false;
+        }
+        List<Subfield> xs = x.getSubfields();
+        List<Subfield> ys = y.getSubfields();
+        if (xs.size() != ys.size()) {
+            return false;
+        }
+        for (int i = 0; i < xs.size(); i++) {
+            if (!sameSubfield(xs.get(i), ys.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean sameSubfield(Subfield a, Subfield b)
+    {
+        return a.getCode() == b.getCode() && Arrays.equals(a.getData(), b.getData());
+    }
+
+}
@@ -0,0 +1,102 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.diff;
+
+import java.io.Serializable;
+
+import org.marc4j.marc.Subfield;
+
+/**
+ * <p>
+ * An edit of the subfields of a data field in a {@link Patch}.
+ * </p>
+ *
+ * <p>
+ * The index of an edit refers to the list of subfields as left by the previous edits of the same field, so the edits
+ * must be applied in order.
+ * </p>
+ */
+public final class SubfieldEdit
+    implements Serializable
+{
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The kinds of subfield edit.
+     */
+    public enum Type
+    {
+        /** Inserts a subfield at the index */
+        INSERT,
+        /** Removes the subfield at the index */
+        DELETE,
+        /** Replaces the subfield at the index */
+        REPLACE
+    }
+
+    private final Type type;
+    private final int index;
+    private final Subfield subfield;
+
+    SubfieldEdit(Type type, int index, Subfield subfield)
+    {
+        this.type = type;
+        this.index = index;
+        this.subfield = subfield;
+    }
+
+    /**
+     * Returns the kind of the edit.
+     *
+     * @return the type
+     */
+    public Type getType()
+    {
+        return this.type;
+    }
+
+    /**
+     * Returns the index of the subfield the edit applies to.
+     *
+     * @return the index
+     */
+    public int getIndex()
+    {
+        return this.index;
+    }
+
+    /**
+     * Returns the new subfield.
+     *
+     * @return the subfield to insert or to replace with, or <code>null</code> for a {@link Type#DELETE}
+     */
+    public Subfield getSubfield()
+    {
+        return this.subfield;
+    }
+
+    @Override
+    public String toString()
+    {
+        return this.type + " " + this.index + (this.subfield != null ? " " + this.subfield : "");
+    }
+
+}
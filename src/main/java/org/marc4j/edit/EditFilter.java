@@ -0,0 +1,180 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.edit;
+
+import java.util.List;
+
+import org.marc4j.MarcHandler;
+import org.marc4j.marc.ControlField;
+import org.marc4j.marc.DataField;
+import org.marc4j.marc.Leader;
+import org.marc4j.marc.Subfield;
+import org.marc4j.marc.ValidationLevel;
+
+/**
+ * <p>
+ * <code>MarcHandler</code> stage that applies an {@link EditPlan} to the events of a parser, like
+ * {@link org.marc4j.MarcReader}, and reports the edited events to the next <code>MarcHandler</code>, without building
+ * records.
+ * </p>
+ *
+ * <p>
+ * Fields without operations for their tag are passed through as they arrive. Only the fields with operations are
+ * buffered, in a data field reused from one to the next, so they can be edited as a whole before being reported.
+ * </p>
+ *
+ * @see RecordEditor
+ */
+public class EditFilter
+    implements MarcHandler
+{
+
+    private final EditPlan plan;
+
+    /** The MarcHandler object. */
+    private MarcHandler marcHandler;
+
+    /** The data field being buffered, or null when passing through */
+    private DataField field;
+
+    private final DataField buffer = new DataField();
+
+    /**
+     * Creates a stage that applies the given plan.
+     *
+     * @param plan the compiled edit script
+     */
+    public EditFilter(EditPlan plan)
+    {
+        this.plan = plan;
+    }
+
+    /**
+     * <p>
+     * Registers the <code>MarcHandler</code> object that receives the edited events.
+     * </p>
+     *
+     * @param marcHandler the MARC handler object
+     */
+    public void setMarcHandler(MarcHandler marcHandler)
+    {
+        this.marcHandler = marcHandler;
+    }
+
+    @Override
+    public void startCollection()
+    {
+        if (this.marcHandler != null) {
+            this.marcHandler.startCollection();
+        }
+    }
+
+    @Override
+    public void endCollection()
+    {
+        if (this.marcHandler != null) {
+            this.marcHandler.endCollection();
+        }
+    }
+
+    @Override
+    public void startRecord(Leader leader)
+    {
+        if (this.marcHandler != null) {
+            this.marcHandler.startRecord(leader);
+        }
+    }
+
+    @Override
+    public void endRecord()
+    {
+        if (this.marcHandler != null) {
+            this.marcHandler.endRecord();
+        }
+    }
+
+    @Override
+    public void controlField(String tag, char[] data, Long id)
+    {
+        if (!this.plan.appliesTo(tag)) {
+            if (this.marcHandler != null) {
+                this.marcHandler.controlField(tag, data, id);
+            }
+            return;
+        }
+        ControlField controlField = new ControlField(tag, data, id, ValidationLevel.NONE);
+        if (this.plan.apply(controlField) && this.marcHandler != null) {
+            this.marcHandler.controlField(controlField.getTag(), controlField.getData(), id);
+        }
+    }
+
+    @Override
+    public void startDataField(String tag, char ind1, char ind2, Long id)
+    {
+        if (!this.plan.appliesTo(tag)) {
+            this.field = null;
+            if (this.marcHandler != null) {
+                this.marcHandler.startDataField(tag, ind1, ind2, id);
+            }
+            return;
+        }
+        this.field = this.buffer;
+        this.field.getSubfields().clear();
+        this.field.setTag(tag);
+        this.field.setIndicator1(ind1);
+        this.field.setIndicator2(ind2);
+        this.field.setId(id);
+    }
+
+    @Override
+    public void subfield(char code, char[] data, String linkCode)
+    {
+        if (this.field != null) {
+            this.field.addSubfield(new Subfield(code, data, linkCode, ValidationLevel.NONE));
+        } else if (this.marcHandler != null) {
+            this.marcHandler.subfield(code, data, linkCode);
+        }
+    }
+
+    @Override
+    public void endDataField(String tag)
+    {
+        if (this.field == null) {
+            if (this.marcHandler != null) {
+                this.marcHandler.endDataField(tag);
+            }
+            return;
+        }
+        DataField edited = this.field;
+        this.field = null;
+        if (!this.plan.apply(edited) || this.marcHandler == null) {
+            return;
+        }
+        this.marcHandler.startDataField(edited.getTag(), edited.getIndicator1(), edited.getIndicator2(),
+            edited.getId());
+        List<Subfield> subfields = edited.getSubfields();
+        for (int i = 0; i < subfields.size(); i++) {
+            Subfield subfield = subfields.get(i);
+            this.marcHandler.subfield(subfield.getCode(), subfield.getData(), subfield.getLinkCode());
+        }
+        this.marcHandler.endDataField(edited.getTag());
+    }
+
+}
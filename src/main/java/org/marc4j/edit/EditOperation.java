@@ -0,0 +1,258 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.edit;
+
+import java.nio.CharBuffer;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.marc4j.marc.ControlField;
+import org.marc4j.marc.DataField;
+import org.marc4j.marc.Subfield;
+import org.marc4j.marc.ValidationLevel;
+import org.marc4j.marc.VariableField;
+
+/**
+ * <p>
+ * A compiled statement of an {@link EditScript}, applied to the fields with its tag.
+ * </p>
+ */
+abstract class EditOperation
+{
+
+    /** Subfield code of the operations that apply to every subfield */
+    static final char ANY_CODE = '\u0000';
+
+    /** Position of the statement in the script */
+    final int order;
+
+    /** Tag of the fields the operation applies to */
+    final String tag;
+
+    EditOperation(int order, String tag)
+    {
+        this.order = order;
+        this.tag = tag;
+    }
+
+    /**
+     * Applies the operation to a field with its tag, in place.
+     *
+     * @param field the field
+     * @return <code>false</code> if the field must be removed from the record
+     */
+    abstract boolean apply(VariableField field);
+
+    /**
+     * <code>rename TAG NEWTAG</code>
+     */
+    static final class Rename
+        extends EditOperation
+    {
+
+        private final String newTag;
+
+        Rename(int order, String tag, String newTag)
+        {
+            super(order, tag);
+            this.newTag = newTag;
+        }
+
+        @Override
+        boolean apply(VariableField field)
+        {
+            field.setTag(this.newTag);
+            return true;
+        }
+
+    }
+
+    /**
+     * <code>delete TAG</code>
+     */
+    static final class DeleteField
+        extends EditOperation
+    {
+
+        DeleteField(int order, String tag)
+        {
+            super(order, tag);
+        }
+
+        @Override
+        boolean apply(VariableField field)
+        {
+            return false;
+        }
+
+    }
+
+    /**
+     * <code>delete TAG$C [/REGEX/]</code>
+     */
+    static final class DeleteSubfield
+        extends EditOperation
+    {
+
+        private final char code;
+        private final Pattern pattern;
+
+        DeleteSubfield(int order, String tag, char code, Pattern pattern)
+        {
+            super(order, tag);
+            this.code = code;
+            this.pattern = pattern;
+        }
+
+        @Override
+        boolean apply(VariableField field)
+        {
+            List<Subfield> subfields = ((DataField) field).getSubfields();
+            for (int i = subfields.size() - 1; i >= 0; i--) {
+                Subfield subfield = subfields.get(i);
+                if (subfield.getCode() == this.code
+                    && (this.pattern == null || this.pattern.matcher(CharBuffer.wrap(subfield.getData())).find())) {
+                    subfields.remove(i);
+                }
+            }
+            return true;
+        }
+
+    }
+
+    /**
+     * <code>set TAG ind1|ind2 'C'</code>
+     */
+    static final class SetIndicator
+        extends EditOperation
+    {
+
+        private final int indicator;
+        private final char value;
+
+        SetIndicator(int order, String tag, int indicator, char value)
+        {
+            super(order, tag);
+            this.indicator = indicator;
+            this.value = value;
+        }
+
+        @Override
+        boolean apply(VariableField field)
+        {
+            if (this.indicator == 1) {
+                ((DataField) field).setIndicator1(this.value);
+            } else {
+                ((DataField) field).setIndicator2(this.value);
+            }
+            return true;
+        }
+
+    }
+
+    /**
+     * <code>replace TAG[$C] /REGEX/ "REPLACEMENT"</code>
+     */
+    static final class Replace
+        extends EditOperation
+    {
+
+        private final char code;
+        private final Pattern pattern;
+        private final String replacement;
+
+        Replace(int order, String tag, char code, Pattern pattern, String replacement)
+        {
+            super(order, tag);
+            this.code = code;
+            this.pattern = pattern;
+            this.replacement = replacement;
+        }
+
+        @Override
+        boolean apply(VariableField field)
+        {
+            if (field instanceof ControlField) {
+                ControlField controlField = (ControlField) field;
+                char[] data = this.replace(controlField.getData());
+                if (data != null) {
+                    controlField.setData(data, ValidationLevel.STRUCTURAL);
+                }
+                return true;
+            }
+            List<Subfield> subfields = ((DataField) field).getSubfields();
+            for (int i = 0; i < subfields.size(); i++) {
+                Subfield subfield = subfields.get(i);
+                if (this.code == ANY_CODE || subfield.getCode() == this.code) {
+                    char[] data = this.replace(subfield.getData());
+                    if (data != null) {
+                        subfield.setData(data, ValidationLevel.STRUCTURAL);
+                    }
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Returns the replaced data, or <code>null</code> if the pattern doesn't match, so unchanged data isn't copied.
+         */
+        private char[] replace(char[] data)
+        {
+            if (data == null) {
+                return null;
+            }
+            Matcher matcher = this.pattern.matcher(CharBuffer.wrap(data));
+            if (!matcher.find()) {
+                return null;
+            }
+            matcher.reset();
+            return matcher.replaceAll(this.replacement).toCharArray();
+        }
+
+    }
+
+    /**
+     * <code>add TAG$C "VALUE"</code>
+     */
+    static final class AddSubfield
+        extends EditOperation
+    {
+
+        private final char code;
+        private final char[] value;
+
+        AddSubfield(int order, String tag, char code, char[] value)
+        {
+            super(order, tag);
+            this.code = code;
+            this.value = value;
+        }
+
+        @Override
+        boolean apply(VariableField field)
+        {
+            ((DataField) field).addSubfield(new Subfield(this.code, this.value.clone()));
+            return true;
+        }
+
+    }
+
+}
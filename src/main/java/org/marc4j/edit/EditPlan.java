@@ -0,0 +1,151 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.edit;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.marc4j.marc.ControlField;
+import org.marc4j.marc.DataField;
+import org.marc4j.marc.Record;
+import org.marc4j.marc.VariableField;
+
+/**
+ * <p>
+ * The compiled form of an {@link EditScript}: the operations of the script indexed by the tag they apply to.
+ * </p>
+ *
+ * <p>
+ * Each field is only visited by the operations of its tag, in script order, so the cost of a plan depends on the
+ * fields it touches and not on the number of statements. When an operation renames a field, the field continues with
+ * the later operations of its new tag, which gives the same result as applying the statements one after another to
+ * the whole record.
+ * </p>
+ *
+ * <p>
+ * A plan is immutable and can be shared between threads.
+ * </p>
+ *
+ * @see EditScript#compile(String)
+ */
+public final class EditPlan
+{
+
+    private static final EditOperation[] NO_OPERATIONS = new EditOperation[0];
+
+    private final Map<String, EditOperation[]> operations;
+    private final int size;
+
+    EditPlan(List<EditOperation> operations)
+    {
+        Map<String, List<EditOperation>> byTag = new HashMap<>();
+        for (EditOperation operation : operations) {
+            byTag.computeIfAbsent(operation.tag, tag -> new ArrayList<>()).add(operation);
+        }
+        this.operations = new HashMap<>();
+        byTag.forEach((tag, list) -> this.operations.put(tag, list.toArray(NO_OPERATIONS)));
+        this.size = operations.size();
+    }
+
+    /**
+     * Returns the number of operations of the plan.
+     *
+     * @return the number of statements of the script
+     */
+    public int size()
+    {
+        return this.size;
+    }
+
+    /**
+     * Returns <code>true</code> if any operation applies to the fields with the given tag.
+     *
+     * @param tag the tag
+     * @return <code>true</code> if the fields with the tag may be edited
+     */
+    public boolean appliesTo(String tag)
+    {
+        return this.operations.containsKey(tag);
+    }
+
+    /**
+     * Applies the plan to a record, in place.
+     *
+     * @param record the record
+     * @return <code>true</code> if any operation was applied to the record
+     */
+    public boolean apply(Record record)
+    {
+        boolean changed = this.applyAll(record.getControlFields());
+        return this.applyAll(record.getDataFields()) || changed;
+    }
+
+    private <T extends VariableField> boolean applyAll(List<T> fields)
+    {
+        boolean changed = false;
+        for (int i = 0; i < fields.size(); i++) {
+            T field = fields.get(i);
+            if (!this.appliesTo(field.getTag())) {
+                continue;
+            }
+            changed = true;
+            if (!this.apply(field)) {
+                fields.remove(i--);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Applies the plan to a field, in place.
+     *
+     * @param field a {@link ControlField} or a {@link DataField}
+     * @return <code>false</code> if the field must be removed
+     */
+    public boolean apply(VariableField field)
+    {
+        String tag = field.getTag();
+        EditOperation[] operations = this.operations.get(tag);
+        int after = -1;
+        while (operations != null) {
+            EditOperation[] next = null;
+            for (EditOperation operation : operations) {
+                if (operation.order <= after) {
+                    continue;
+                }
+                if (!operation.apply(field)) {
+                    return false;
+                }
+                if (!tag.equals(field.getTag())) {
+                    // Renamed: continue with the later operations of the new tag
+                    after = operation.order;
+                    tag = field.getTag();
+                    next = this.operations.get(tag);
+                    break;
+                }
+            }
+            operations = next;
+        }
+        return true;
+    }
+
+}
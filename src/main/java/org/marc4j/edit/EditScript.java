@@ -0,0 +1,358 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.edit;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.marc4j.marc.IllegalTagException;
+import org.marc4j.marc.MarcException;
+import org.marc4j.marc.Tag;
+
+/**
+ * <p>
+ * Compiles bulk edit scripts into an {@link EditPlan}.
+ * </p>
+ *
+ * <p>
+ * A script has one statement per line; blank lines and lines starting with <code>#</code> are ignored. The statements
+ * are:
+ * </p>
+ *
+ * <ul>
+ * <li><code>rename TAG NEWTAG</code>: changes the tag of the fields</li>
+ * <li><code>delete TAG</code>: removes the fields</li>
+ * <li><code>delete TAG$C [/REGEX/]</code>: removes the subfields with the code, or only those whose data matches the
+ * regular expression</li>
+ * <li><code>set TAG ind1|ind2 "C"</code>: sets an indicator of the data fields</li>
+ * <li><code>replace TAG[$C] /REGEX/ "REPLACEMENT"</code>: replaces every match of the regular expression in the data of
+ * the control fields, or of the subfields, with the code or all of them; the replacement can refer to groups as
+ * <code>$1</code></li>
+ * <li><code>add TAG$C "VALUE"</code>: appends a subfield to the data fields</li>
+ * </ul>
+ *
+ * <p>
+ * Strings are quoted with <code>"</code> and regular expressions with <code>/</code>; a backslash escapes the quote
+ * inside them. A regular expression may be followed by the flag <code>i</code> to ignore case.
+ * </p>
+ *
+ * <pre>
+ * # Local subjects
+ * rename 650 690
+ * delete 690$x /^Juvenile/i
+ * set 245 ind2 "0"
+ * replace 260$c /[\[\]]/ ""
+ * </pre>
+ *
+ * <p>
+ * Errors are reported as a {@link MarcException} with the line of the statement.
+ * </p>
+ *
+ * @see EditPlan
+ */
+public final class EditScript
+{
+
+    private EditScript()
+    {
+    }
+
+    /**
+     * Compiles a script.
+     *
+     * @param script the text of the script
+     * @return the compiled plan
+     * @throws MarcException if the script has errors
+     */
+    public static EditPlan compile(String script)
+    {
+        try {
+            return compile(new StringReader(script));
+        } catch (IOException e) {
+            throw new MarcException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Compiles a script.
+     *
+     * @param reader the reader of the script
+     * @return the compiled plan
+     * @throws IOException if the script can't be read
+     * @throws MarcException if the script has errors
+     */
+    public static EditPlan compile(Reader reader)
+        throws IOException
+    {
+        List<EditOperation> operations = new ArrayList<>();
+        BufferedReader lines = new BufferedReader(reader);
+        String line;
+        int number = 0;
+        while ((line = lines.readLine()) != null) {
+            number++;
+            String text = line.trim();
+            if (text.isEmpty() || text.startsWith("#")) {
+                continue;
+            }
+            try {
+                operations.add(parse(operations.size(), new Tokenizer(text)));
+            } catch (MarcException | IllegalArgumentException e) {
+                throw new MarcException("Line " + number + ": " + e.getMessage(), e);
+            }
+        }
+        return new EditPlan(operations);
+    }
+
+    private static EditOperation parse(int order, Tokenizer tokens)
+    {
+        String command = tokens.word("command");
+        EditOperation operation;
+        switch (command) {
+            case "rename": {
+                String tag = tag(tokens.word("tag"));
+                String newTag = tag(tokens.word("new tag"));
+                if (Tag.isControlField(tag) != Tag.isControlField(newTag)) {
+                    throw new MarcException("can't rename " + tag + " to " + newTag
+                        + ": control fields and data fields can't be renamed to each other");
+                }
+                operation = new EditOperation.Rename(order, tag, newTag);
+                break;
+            }
+            case "delete": {
+                String target = tokens.word("tag");
+                if (target.indexOf('$') < 0) {
+                    operation = new EditOperation.DeleteField(order, tag(target));
+                } else {
+                    String tag = dataFieldTag(target);
+                    Pattern pattern = tokens.hasNext() ? tokens.regex() : null;
+                    operation = new EditOperation.DeleteSubfield(order, tag, code(target), pattern);
+                }
+                break;
+            }
+            case "set": {
+                String tag = dataFieldTag(tokens.word("tag"));
+                String indicator = tokens.word("indicator");
+                if (!"ind1".equals(indicator) && !"ind2".equals(indicator)) {
+                    throw new MarcException("expected ind1 or ind2 but found " + indicator);
+                }
+                String value = tokens.string();
+                if (value.length() != 1) {
+                    throw new MarcException("an indicator must be a single character: \"" + value + "\"");
+                }
+                operation = new EditOperation.SetIndicator(order, tag, indicator.charAt(3) - '0', value.charAt(0));
+                break;
+            }
+            case "replace": {
+                String target = tokens.word("tag");
+                String tag;
+                char code = EditOperation.ANY_CODE;
+                if (target.indexOf('$') < 0) {
+                    tag = tag(target);
+                } else {
+                    tag = dataFieldTag(target);
+                    code = code(target);
+                }
+                Pattern pattern = tokens.regex();
+                String replacement = replacement(tokens.string(), pattern);
+                operation = new EditOperation.Replace(order, tag, code, pattern, replacement);
+                break;
+            }
+            case "add": {
+                String target = tokens.word("tag");
+                String tag = dataFieldTag(target);
+                operation = new EditOperation.AddSubfield(order, tag, code(target), tokens.string().toCharArray());
+                break;
+            }
+            default:
+                throw new MarcException("unknown statement " + command);
+        }
+        if (tokens.hasNext()) {
+            throw new MarcException("unexpected text after the statement: " + tokens.rest());
+        }
+        return operation;
+    }
+
+    private static String tag(String text)
+    {
+        String tag = text.indexOf('$') < 0 ? text : text.substring(0, text.indexOf('$'));
+        try {
+            Tag.isValid(tag);
+        } catch (IllegalTagException e) {
+            throw new MarcException("invalid tag " + tag);
+        }
+        return tag;
+    }
+
+    private static String dataFieldTag(String text)
+    {
+        String tag = tag(text);
+        if (Tag.isControlField(tag)) {
+            throw new MarcException(tag + " is a control field, it has no indicators or subfields");
+        }
+        return tag;
+    }
+
+    private static char code(String text)
+    {
+        int dollar = text.indexOf('$');
+        if (dollar < 0 || dollar != text.length() - 2) {
+            throw new MarcException("expected TAG$C but found " + text);
+        }
+        return text.charAt(dollar + 1);
+    }
+
+    /**
+     * Checks the escapes and the group references of a replacement as
+     * {@link java.util.regex.Matcher#appendReplacement} reads them, so an invalid replacement is reported with its line
+     * instead of failing on the first matching field.
+     */
+    private static String replacement(String replacement, Pattern pattern)
+    {
+        int groups = pattern.matcher("").groupCount();
+        int i = 0;
+        while (i < replacement.length()) {
+            char c = replacement.charAt(i++);
+            if (c == '\\') {
+                if (i == replacement.length()) {
+                    throw new MarcException("invalid replacement \"" + replacement + "\": \\ at the end");
+                }
+                i++;
+            } else if (c == '$') {
+                if (i < replacement.length() && replacement.charAt(i) == '{') {
+                    int end = replacement.indexOf('}', i);
+                    String name = end < 0 ? "" : replacement.substring(i + 1, end);
+                    if (!name.matches("[a-zA-Z][a-zA-Z0-9]*") || !pattern.pattern().contains("(?<" + name + ">")) {
+                        throw new MarcException("invalid replacement \"" + replacement + "\": no group named "
+                            + (end < 0 ? replacement.substring(i) : "{" + name + "}"));
+                    }
+                    i = end + 1;
+                } else {
+                    if (i == replacement.length() || !Character.isDigit(replacement.charAt(i))) {
+                        throw new MarcException("invalid replacement \"" + replacement
+                            + "\": $ must be followed by a group number or {name}, or escaped as \\$");
+                    }
+                    int group = replacement.charAt(i++) - '0';
+                    if (group > groups) {
+                        throw new MarcException("invalid replacement \"" + replacement + "\": no group " + group
+                            + " in /" + pattern.pattern() + "/");
+                    }
+                    while (i < replacement.length() && Character.isDigit(replacement.charAt(i))
+                        && group * 10 + replacement.charAt(i) - '0' <= groups) {
+                        group = group * 10 + replacement.charAt(i++) - '0';
+                    }
+                }
+            }
+        }
+        return replacement;
+    }
+
+    /**
+     * Splits a statement into words, quoted strings and regular expressions.
+     */
+    private static final class Tokenizer
+    {
+
+        private final String text;
+        private int position;
+
+        Tokenizer(String text)
+        {
+            this.text = text;
+        }
+
+        boolean hasNext()
+        {
+            this.skipSpaces();
+            return this.position < this.text.length();
+        }
+
+        String rest()
+        {
+            return this.text.substring(this.position);
+        }
+
+        String word(String expected)
+        {
+            if (!this.hasNext()) {
+                throw new MarcException("expected " + expected);
+            }
+            int start = this.position;
+            while (this.position < this.text.length() && !Character.isWhitespace(this.text.charAt(this.position))) {
+                this.position++;
+            }
+            return this.text.substring(start, this.position);
+        }
+
+        String string()
+        {
+            return this.quoted('"', "a quoted string");
+        }
+
+        Pattern regex()
+        {
+            String regex = this.quoted('/', "a /regular expression/");
+            int flags = 0;
+            if (this.position < this.text.length() && this.text.charAt(this.position) == 'i') {
+                flags = Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE;
+                this.position++;
+            }
+            try {
+                return Pattern.compile(regex, flags);
+            } catch (PatternSyntaxException e) {
+                throw new MarcException("invalid regular expression /" + regex + "/: " + e.getDescription());
+            }
+        }
+
+        private String quoted(char quote, String expected)
+        {
+            if (!this.hasNext() || this.text.charAt(this.position) != quote) {
+                throw new MarcException("expected " + expected);
+            }
+            StringBuilder sb = new StringBuilder();
+            this.position++;
+            while (this.position < this.text.length()) {
+                char c = this.text.charAt(this.position++);
+                if (c == quote) {
+                    return sb.toString();
+                }
+                if (c == '\\' && this.position < this.text.length() && this.text.charAt(this.position) == quote) {
+                    c = this.text.charAt(this.position++);
+                }
+                sb.append(c);
+            }
+            throw new MarcException("unterminated " + expected);
+        }
+
+        private void skipSpaces()
+        {
+            while (this.position < this.text.length() && Character.isWhitespace(this.text.charAt(this.position))) {
+                this.position++;
+            }
+        }
+
+    }
+
+}
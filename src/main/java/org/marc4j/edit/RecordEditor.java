@@ -0,0 +1,89 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.edit;
+
+import org.marc4j.helpers.RecordHandler;
+import org.marc4j.marc.Record;
+
+/**
+ * <p>
+ * <code>RecordHandler</code> stage that applies an {@link EditPlan} to each record, in place, and reports it to the
+ * next <code>RecordHandler</code>.
+ * </p>
+ *
+ * @see EditFilter
+ */
+public class RecordEditor
+    implements RecordHandler
+{
+
+    private final EditPlan plan;
+
+    /** The RecordHandler object. */
+    private RecordHandler recordHandler;
+
+    /**
+     * Creates a stage that applies the given plan.
+     *
+     * @param plan the compiled edit script
+     */
+    public RecordEditor(EditPlan plan)
+    {
+        this.plan = plan;
+    }
+
+    /**
+     * <p>
+     * Registers the <code>RecordHandler</code> object that receives the edited records.
+     * </p>
+     *
+     * @param recordHandler the record handler object
+     */
+    public void setRecordHandler(RecordHandler recordHandler)
+    {
+        this.recordHandler = recordHandler;
+    }
+
+    @Override
+    public void startCollection()
+    {
+        if (this.recordHandler != null) {
+            this.recordHandler.startCollection();
+        }
+    }
+
+    @Override
+    public void record(Record record)
+    {
+        this.plan.apply(record);
+        if (this.recordHandler != null) {
+            this.recordHandler.record(record);
+        }
+    }
+
+    @Override
+    public void endCollection()
+    {
+        if (this.recordHandler != null) {
+            this.recordHandler.endCollection();
+        }
+    }
+
+}
@@ -0,0 +1,237 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.extract;
+
+import org.marc4j.marc.IllegalTagException;
+import org.marc4j.marc.Leader;
+import org.marc4j.marc.MarcException;
+import org.marc4j.marc.Tag;
+
+/**
+ * <p>
+ * A column of a table extracted by a {@link ColumnExtractor}: the data of a field of each record.
+ * </p>
+ *
+ * <p>
+ * The column is given by a path:
+ * </p>
+ * <ul>
+ * <li><code>001</code>: the data of a control field, and <code>008/35-37</code> or <code>008/06</code> a part of it,
+ * from position 35 to 37 both included, or position 6.</li>
+ * <li><code>LDR/06</code>: a part of the leader, or <code>LDR</code> the whole leader.</li>
+ * <li><code>245$ab</code>: the subfields <code>a</code> and <code>b</code> of a data field, joined by the subfield
+ * separator, and <code>245</code> all its subfields.</li>
+ * </ul>
+ *
+ * <p>
+ * By default, only the first field that has data for the column is taken. With all the occurrences, the data of each
+ * field is joined by the occurrence separator:
+ * </p>
+ *
+ * <pre>
+ * Column subjects = Column.of("650$a");
+ * subjects.setAllOccurrences(true);
+ * subjects.setOccurrenceSeparator("; ");
+ * </pre>
+ *
+ * <p>
+ * A column must not be modified while it's being extracted.
+ * </p>
+ */
+public class Column
+{
+
+    private static final String LEADER = "LDR";
+
+    private final String path;
+    private final String tag;
+
+    /** The subfield codes, or null for all of them */
+    private final String codes;
+
+    /** The positions of the part of a control field or of the leader, or -1 for the whole data */
+    private final int start;
+    private final int end;
+
+    private String name;
+    private String subfieldSeparator = " ";
+    private String occurrenceSeparator = "|";
+    private boolean allOccurrences = false;
+
+    private Column(String path)
+    {
+        this.path = path;
+        this.name = path;
+        int slash = path.indexOf('/');
+        int dollar = path.indexOf('$');
+        String tag = path.substring(0, slash >= 0 ? slash : dollar >= 0 ? dollar : path.length());
+        boolean controlField;
+        if (LEADER.equals(tag)) {
+            controlField = true;
+        } else {
+            try {
+                Tag.isValid(tag);
+                controlField = Tag.isControlField(tag);
+            } catch (IllegalTagException e) {
+                throw new MarcException("Invalid column path " + path, e);
+            }
+        }
+        if (controlField ? dollar >= 0 : slash >= 0 || dollar == path.length() - 1) {
+            throw new MarcException("Invalid column path " + path);
+        }
+        this.tag = tag;
+        this.codes = dollar >= 0 ? path.substring(dollar + 1) : null;
+        if (slash >= 0) {
+            String positions = path.substring(slash + 1);
+            int dash = positions.indexOf('-');
+            try {
+                this.start = Integer.parseInt(dash >= 0 ? positions.substring(0, dash) : positions);
+                this.end = dash >= 0 ? Integer.parseInt(positions.substring(dash + 1)) : this.start;
+            } catch (NumberFormatException e) {
+                throw new MarcException("Invalid column path " + path, e);
+            }
+            if (this.start < 0 || this.end < this.start || LEADER.equals(tag) && this.end >= Leader.LENGTH) {
+                throw new MarcException("Invalid column path " + path);
+            }
+        } else {
+            this.start = -1;
+            this.end = -1;
+        }
+    }
+
+    /**
+     * Creates a column.
+     *
+     * @param path the path of the column, like <code>001</code>, <code>008/35-37</code> or <code>245$ab</code>
+     * @return the column
+     * @throws MarcException if the path isn't valid
+     */
+    public static Column of(String path)
+    {
+        return new Column(path);
+    }
+
+    /**
+     * Returns the path of the column.
+     *
+     * @return the path
+     */
+    public String getPath()
+    {
+        return this.path;
+    }
+
+    /**
+     * Returns the name of the column, in the header row. The path by default.
+     *
+     * @return the name
+     */
+    public String getName()
+    {
+        return this.name;
+    }
+
+    /**
+     * Sets the name of the column, in the header row.
+     *
+     * @param name the name
+     */
+    public void setName(String name)
+    {
+        this.name = name;
+    }
+
+    /**
+     * Sets the separator between the subfields of a field, a space by default.
+     *
+     * @param subfieldSeparator the separator
+     */
+    public void setSubfieldSeparator(String subfieldSeparator)
+    {
+        this.subfieldSeparator = subfieldSeparator;
+    }
+
+    /**
+     * Sets the separator between the occurrences of the field, <code>|</code> by default.
+     *
+     * @param occurrenceSeparator the separator
+     */
+    public void setOccurrenceSeparator(String occurrenceSeparator)
+    {
+        this.occurrenceSeparator = occurrenceSeparator;
+    }
+
+    /**
+     * Takes all the occurrences of the field, or only the first one, by default.
+     *
+     * @param allOccurrences if all the occurrences are taken
+     */
+    public void setAllOccurrences(boolean allOccurrences)
+    {
+        this.allOccurrences = allOccurrences;
+    }
+
+    @Override
+    public String toString()
+    {
+        return this.path;
+    }
+
+    String getTag()
+    {
+        return this.tag;
+    }
+
+    boolean isLeader()
+    {
+        return LEADER.equals(this.tag);
+    }
+
+    boolean accepts(char code)
+    {
+        return this.codes == null || this.codes.indexOf(code) >= 0;
+    }
+
+    int getStart()
+    {
+        return this.start;
+    }
+
+    int getEnd()
+    {
+        return this.end;
+    }
+
+    String getSubfieldSeparator()
+    {
+        return this.subfieldSeparator;
+    }
+
+    String getOccurrenceSeparator()
+    {
+        return this.occurrenceSeparator;
+    }
+
+    boolean isAllOccurrences()
+    {
+        return this.allOccurrences;
+    }
+
+}
@@ -0,0 +1,418 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.extract;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.marc4j.MarcHandler;
+import org.marc4j.marc.Leader;
+import org.marc4j.util.CharacterConverter;
+import org.marc4j.util.OutputBuffer;
+
+/**
+ * <p>
+ * Implements the <code>MarcHandler</code> interface to write a table, in CSV or TSV, with a row for each record and
+ * the {@link Column}s given, without building record objects.
+ * </p>
+ *
+ * <pre>
+ * ColumnExtractor extractor = new ColumnExtractor(Arrays.asList(Column.of("001"), Column.of("245$a"),
+ *     Column.of("260$c")), new FileOutputStream("titles.csv"), TableFormat.CSV);
+ * MarcReader reader = new MarcReader();
+ * reader.setMarcHandler(extractor);
+ * reader.parse(new FileInputStream("records.mrc"));
+ * </pre>
+ *
+ * <p>
+ * The columns are looked up by the tag of each field, and the data of the matching control fields and subfields is
+ * copied into a character buffer per column, reused from one record to the next. At the end of the record, the row is
+ * escaped and encoded in UTF-8 into a byte buffer, that is written out in blocks of whole rows. A header row with the
+ * names of the columns is written first, unless it's disabled. The output is flushed and closed at the end of the
+ * collection, and errors writing to it are thrown as <code>MarcException</code>.
+ * </p>
+ *
+ * @see ParallelColumnExtractor
+ */
+public class ColumnExtractor
+    implements MarcHandler
+{
+
+    private static final int[] NO_COLUMNS = new int[0];
+
+    /** The ASCII characters written as they are in TSV and in CSV */
+    private static final boolean[] TSV_PLAIN = new boolean[0x80];
+    private static final boolean[] CSV_PLAIN = new boolean[0x80];
+
+    static {
+        for (char c = 0; c < 0x80; c++) {
+            TSV_PLAIN[c] = c != '\t' && c != '\n' && c != '\r' && c != '\\';
+            CSV_PLAIN[c] = c != '"';
+        }
+    }
+
+    private final Column[] columns;
+    private final TableFormat format;
+
+    /** The indexes of the columns of each numeric tag, and of the other tags */
+    private final int[][] numericTags = new int[1000][];
+    private final Map<String, int[]> otherTags = new HashMap<>();
+    private final int[] leaderColumns;
+
+    private boolean header = true;
+    private CharacterConverter charconv = null;
+
+    /** The data of each column in the current record, and the number of occurrences in it */
+    private final char[][] values;
+    private final int[] lengths;
+    private final int[] occurrences;
+    private final boolean[] done;
+
+    /** The columns of the current data field, and if they have data from it */
+    private int[] fieldColumns = NO_COLUMNS;
+    private final boolean[] inField;
+
+    private final char[] leader = new char[Leader.LENGTH];
+
+    private final OutputBuffer buffer;
+
+    /**
+     * Creates an extractor.
+     *
+     * @param columns the columns of the table
+     * @param out the output stream
+     * @param format the format of the table
+     */
+    public ColumnExtractor(List<Column> columns, OutputStream out, TableFormat format)
+    {
+        if (columns.isEmpty()) {
+            throw new IllegalArgumentException("columns must not be empty");
+        }
+        this.columns = columns.toArray(new Column[columns.size()]);
+        this.buffer = new OutputBuffer(out);
+        this.format = format;
+        this.values = new char[this.columns.length][64];
+        this.lengths = new int[this.columns.length];
+        this.occurrences = new int[this.columns.length];
+        this.done = new boolean[this.columns.length];
+        this.inField = new boolean[this.columns.length];
+
+        Map<String, List<Integer>> byTag = new HashMap<>();
+        for (int i = 0; i < this.columns.length; i++) {
+            byTag.computeIfAbsent(this.columns[i].getTag(), tag -> new ArrayList<>()).add(i);
+        }
+        int[] leaderColumns = NO_COLUMNS;
+        for (Map.Entry<String, List<Integer>> entry : byTag.entrySet()) {
+            int[] indexes = entry.getValue().stream().mapToInt(Integer::intValue).toArray();
+            int code = ColumnExtractor.numericTag(entry.getKey());
+            if (this.columns[indexes[0]].isLeader()) {
+                leaderColumns = indexes;
+            } else if (code >= 0) {
+                this.numericTags[code] = indexes;
+            } else {
+                this.otherTags.put(entry.getKey(), indexes);
+            }
+        }
+        this.leaderColumns = leaderColumns;
+    }
+
+    /**
+     * <p>
+     * Enables or disables the header row with the names of the columns, enabled by default.
+     * </p>
+     *
+     * @param header if the header row is written
+     */
+    public void setHeader(boolean header)
+    {
+        this.header = header;
+    }
+
+    /**
+     * <p>
+     * Registers the <code>CharacterConverter</code> applied to the data of the subfields, for example to read
+     * records in MARC-8 with {@link org.marc4j.util.AnselToUnicode}.
+     * </p>
+     *
+     * @param charconv the character converter
+     */
+    public void setCharacterConverter(CharacterConverter charconv)
+    {
+        this.charconv = charconv;
+    }
+
+    @Override
+    public void startCollection()
+    {
+        this.buffer.clear();
+        if (this.header) {
+            for (int i = 0; i < this.columns.length; i++) {
+                char[] name = this.columns[i].getName().toCharArray();
+                this.value(i, name, name.length);
+            }
+            this.endRow();
+        }
+    }
+
+    @Override
+    public void startRecord(Leader leader)
+    {
+        Arrays.fill(this.lengths, 0);
+        Arrays.fill(this.occurrences, 0);
+        Arrays.fill(this.done, false);
+        if (this.leaderColumns.length > 0) {
+            leader.marshal(this.leader, 0);
+            for (int i : this.leaderColumns) {
+                this.controlData(i, this.leader);
+            }
+        }
+    }
+
+    @Override
+    public void controlField(String tag, char[] data, Long id)
+    {
+        if (data == null) {
+            return;
+        }
+        for (int i : this.columnsOf(tag)) {
+            this.controlData(i, data);
+        }
+    }
+
+    @Override
+    public void startDataField(String tag, char ind1, char ind2, Long id)
+    {
+        this.fieldColumns = this.columnsOf(tag);
+        for (int i : this.fieldColumns) {
+            this.inField[i] = false;
+        }
+    }
+
+    @Override
+    public void subfield(char code, char[] data, String linkCode)
+    {
+        for (int i : this.fieldColumns) {
+            Column column = this.columns[i];
+            if (this.done[i] || !column.accepts(code)) {
+                continue;
+            }
+            if (this.inField[i]) {
+                this.append(i, column.getSubfieldSeparator());
+            } else {
+                if (this.occurrences[i]++ > 0) {
+                    this.append(i, column.getOccurrenceSeparator());
+                }
+                this.inField[i] = true;
+            }
+            if (data != null) {
+                char[] chars = this.charconv != null ? this.charconv.convert(data) : data;
+                this.append(i, chars, 0, chars.length);
+            }
+        }
+    }
+
+    @Override
+    public void endDataField(String tag)
+    {
+        for (int i : this.fieldColumns) {
+            if (this.inField[i] && !this.columns[i].isAllOccurrences()) {
+                this.done[i] = true;
+            }
+        }
+        this.fieldColumns = NO_COLUMNS;
+    }
+
+    @Override
+    public void endRecord()
+    {
+        for (int i = 0; i < this.columns.length; i++) {
+            this.value(i, this.values[i], this.lengths[i]);
+        }
+        this.endRow();
+        if (this.buffer.isFull()) {
+            this.buffer.flush();
+        }
+    }
+
+    @Override
+    public void endCollection()
+    {
+        this.buffer.close();
+    }
+
+    private int[] columnsOf(String tag)
+    {
+        int code = ColumnExtractor.numericTag(tag);
+        int[] columns = code >= 0 ? this.numericTags[code] : this.otherTags.get(tag);
+        return columns != null ? columns : NO_COLUMNS;
+    }
+
+    /**
+     * Adds the data of a control field, or a part of it, to a column.
+     */
+    private void controlData(int i, char[] data)
+    {
+        Column column = this.columns[i];
+        if (this.done[i]) {
+            return;
+        }
+        if (this.occurrences[i]++ > 0) {
+            this.append(i, column.getOccurrenceSeparator());
+        }
+        if (column.getStart() < 0) {
+            this.append(i, data, 0, data.length);
+        } else if (column.getStart() < data.length) {
+            int end = Math.min(column.getEnd() + 1, data.length);
+            this.append(i, data, column.getStart(), end - column.getStart());
+        }
+        if (!column.isAllOccurrences()) {
+            this.done[i] = true;
+        }
+    }
+
+    private void append(int i, String s)
+    {
+        this.ensureValueCapacity(i, s.length());
+        s.getChars(0, s.length(), this.values[i], this.lengths[i]);
+        this.lengths[i] += s.length();
+    }
+
+    private void append(int i, char[] data, int offset, int count)
+    {
+        this.ensureValueCapacity(i, count);
+        System.arraycopy(data, offset, this.values[i], this.lengths[i], count);
+        this.lengths[i] += count;
+    }
+
+    private void ensureValueCapacity(int i, int count)
+    {
+        if (this.lengths[i] + count > this.values[i].length) {
+            this.values[i] = Arrays.copyOf(this.values[i], Math.max(this.values[i].length * 2, this.lengths[i] + count));
+        }
+    }
+
+    /**
+     * Writes a value of the row, after the delimiter if it isn't the first one.
+     */
+    private void value(int column, char[] data, int count)
+    {
+        if (column > 0) {
+            this.buffer.write(this.format == TableFormat.CSV ? ',' : '\t');
+        }
+        if (this.format == TableFormat.TSV) {
+            int i = 0;
+            while ((i = this.buffer.writePlain(data, i, count, TSV_PLAIN)) < count) {
+                switch (data[i]) {
+                    case '\t':
+                        this.escape('t');
+                        break;
+                    case '\n':
+                        this.escape('n');
+                        break;
+                    case '\r':
+                        this.escape('r');
+                        break;
+                    case '\\':
+                        this.escape('\\');
+                        break;
+                    default:
+                        i = this.character(data, i, count);
+                }
+                i++;
+            }
+            return;
+        }
+        boolean quoted = false;
+        for (int i = 0; i < count && !quoted; i++) {
+            char c = data[i];
+            quoted = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (quoted) {
+            this.buffer.write('"');
+        }
+        int i = 0;
+        while ((i = this.buffer.writePlain(data, i, count, CSV_PLAIN)) < count) {
+            if (data[i] == '"') {
+                this.buffer.write('"');
+                this.buffer.write('"');
+            } else {
+                i = this.character(data, i, count);
+            }
+            i++;
+        }
+        if (quoted) {
+            this.buffer.write('"');
+        }
+    }
+
+    private void escape(char c)
+    {
+        this.buffer.write('\\');
+        this.buffer.write(c);
+    }
+
+    /**
+     * Encodes a character other than ASCII, or a surrogate pair, in UTF-8, and returns the index of its last char.
+     */
+    private int character(char[] data, int i, int count)
+    {
+        char c = data[i];
+        if (Character.isHighSurrogate(c) && i + 1 < count && Character.isLowSurrogate(data[i + 1])) {
+            this.buffer.writeCodePoint(Character.toCodePoint(c, data[++i]));
+        } else if (Character.isSurrogate(c)) {
+            this.buffer.write('?');
+        } else {
+            this.buffer.writeCodePoint(c);
+        }
+        return i;
+    }
+
+    private void endRow()
+    {
+        if (this.format == TableFormat.CSV) {
+            this.buffer.write('\r');
+        }
+        this.buffer.write('\n');
+    }
+
+    /**
+     * Returns the number of a tag of three digits, or -1.
+     */
+    private static int numericTag(String tag)
+    {
+        if (tag.length() != 3) {
+            return -1;
+        }
+        int code = 0;
+        for (int i = 0; i < 3; i++) {
+            char c = tag.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            code = code * 10 + (c - '0');
+        }
+        return code;
+    }
+
+}
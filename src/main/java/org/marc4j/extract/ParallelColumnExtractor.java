@@ -0,0 +1,234 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.extract;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.marc4j.MarcReader;
+import org.marc4j.marc.MarcException;
+import org.marc4j.util.CharacterConverter;
+
+/**
+ * <p>
+ * Extracts a table from several files of records in tape format (ISO 2709), the partitions of the input, on a pool of
+ * threads.
+ * </p>
+ *
+ * <p>
+ * Each partition is parsed by its own <code>MarcReader</code> into its own {@link ColumnExtractor}, and the extractors
+ * write their rows to the same output in blocks of whole rows. The header row is written once, first. The rows of a
+ * partition are in the order of its records, but the blocks of the partitions are interleaved as they're written.
+ * </p>
+ *
+ * <pre>
+ * ParallelColumnExtractor extractor = new ParallelColumnExtractor(columns, TableFormat.TSV);
+ * extractor.setThreads(8);
+ * extractor.extract(partitions, new FileOutputStream("records.tsv"));
+ * </pre>
+ */
+public class ParallelColumnExtractor
+{
+
+    private final List<Column> columns;
+    private final TableFormat format;
+
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private boolean header = true;
+    private CharacterConverter charconv = null;
+
+    /**
+     * Creates an extractor.
+     *
+     * @param columns the columns of the table
+     * @param format the format of the table
+     */
+    public ParallelColumnExtractor(List<Column> columns, TableFormat format)
+    {
+        if (columns.isEmpty()) {
+            throw new IllegalArgumentException("columns must not be empty");
+        }
+        this.columns = new ArrayList<>(columns);
+        this.format = format;
+    }
+
+    /**
+     * Sets the number of threads, the number of processors by default.
+     *
+     * @param threads the number of threads
+     */
+    public void setThreads(int threads)
+    {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be positive");
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * Enables or disables the header row with the names of the columns, enabled by default.
+     *
+     * @param header if the header row is written
+     */
+    public void setHeader(boolean header)
+    {
+        this.header = header;
+    }
+
+    /**
+     * Registers the <code>CharacterConverter</code> applied to the data of the subfields. It must be safe to call from
+     * several threads, as the converters of <code>org.marc4j.util</code> are.
+     *
+     * @param charconv the character converter
+     */
+    public void setCharacterConverter(CharacterConverter charconv)
+    {
+        this.charconv = charconv;
+    }
+
+    /**
+     * Extracts the table of the partitions, and closes the output.
+     *
+     * @param partitions the files of records
+     * @param out the output stream
+     * @throws IOException if a partition can't be read or the table can't be written
+     * @throws MarcException if a record can't be parsed
+     */
+    public void extract(List<File> partitions, OutputStream out)
+        throws IOException
+    {
+        SharedOutput shared = new SharedOutput(out);
+        AtomicInteger count = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(this.threads, task -> {
+            Thread thread = new Thread(task, "marc-extractor-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            if (this.header) {
+                ColumnExtractor extractor = new ColumnExtractor(this.columns, shared, this.format);
+                extractor.startCollection();
+                extractor.endCollection();
+            }
+            List<Future<?>> futures = new ArrayList<>();
+            for (File partition : partitions) {
+                futures.add(executor.submit(() -> {
+                    this.extract(partition, shared);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                ParallelColumnExtractor.await(future);
+            }
+        } finally {
+            executor.shutdownNow();
+            out.close();
+        }
+    }
+
+    private void extract(File partition, OutputStream out)
+        throws IOException
+    {
+        ColumnExtractor extractor = new ColumnExtractor(this.columns, out, this.format);
+        extractor.setHeader(false);
+        extractor.setCharacterConverter(this.charconv);
+        MarcReader reader = new MarcReader();
+        reader.setMarcHandler(extractor);
+        try (InputStream input = new FileInputStream(partition)) {
+            reader.parse(input);
+        }
+    }
+
+    private static void await(Future<?> future)
+        throws IOException
+    {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Extraction interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw new IOException(cause.getMessage(), cause);
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new MarcException("Unable to extract the table", cause);
+        }
+    }
+
+    /**
+     * The output shared by the extractors of the partitions, that write whole blocks of rows at a time. It's closed
+     * once all of them have ended.
+     */
+    private static final class SharedOutput
+        extends OutputStream
+    {
+
+        private final OutputStream out;
+
+        SharedOutput(OutputStream out)
+        {
+            this.out = out;
+        }
+
+        @Override
+        public synchronized void write(int b)
+            throws IOException
+        {
+            this.out.write(b);
+        }
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len)
+            throws IOException
+        {
+            this.out.write(b, off, len);
+        }
+
+        @Override
+        public synchronized void flush()
+            throws IOException
+        {
+            this.out.flush();
+        }
+
+        @Override
+        public void close()
+        {
+            // Closed by the ParallelColumnExtractor
+        }
+
+    }
+
+}
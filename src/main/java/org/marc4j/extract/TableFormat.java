@@ -0,0 +1,42 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.extract;
+
+/**
+ * <p>
+ * The formats of the tables written by a {@link ColumnExtractor}, in UTF-8.
+ * </p>
+ */
+public enum TableFormat
+{
+
+    /**
+     * Comma-separated values, as in RFC 4180: the values with commas, quotes or line breaks are quoted, with the quotes
+     * doubled, and the rows end with CR LF.
+     */
+    CSV,
+
+    /**
+     * Tab-separated values: the tabs, line breaks and backslashes of the values are written as <code>\t</code>,
+     * <code>\n</code>, <code>\r</code> and <code>\\</code>, and the rows end with LF.
+     */
+    TSV
+
+}
@@ -0,0 +1,221 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.helpers;
+
+import org.marc4j.marc.Record;
+import org.marc4j.marc.RecordFingerprint;
+import org.marc4j.util.LongBloomFilter;
+
+/**
+ * <p>
+ * Streaming <code>RecordHandler</code> that detects exact duplicate records and reports the unique records and the
+ * duplicates to different handlers.
+ * </p>
+ *
+ * <p>
+ * Records are compared by their {@link RecordFingerprint}. A Bloom filter of fixed size answers most of the lookups:
+ * when it reports a fingerprint as new, the record is certainly unique. Only when it reports a fingerprint as seen is
+ * the {@link FingerprintStore} asked to confirm the duplicate, so the false positives of the filter never drop a
+ * record.
+ * </p>
+ *
+ * <p>
+ * Every unique fingerprint goes into the store. The default {@link MemoryFingerprintStore} keeps them all on the heap,
+ * 16 to 32 bytes each, so its memory grows with the input: about 1 GB for 50 million records. For a bounded heap, use a
+ * {@link SpillingFingerprintStore}, that spills the fingerprints to sorted files on disk.
+ * </p>
+ *
+ * <p>
+ * Duplicates are dropped unless a duplicate handler is registered, which is the way to flag them instead.
+ * </p>
+ *
+ * <pre>
+ * try (SpillingFingerprintStore store = new SpillingFingerprintStore()) {
+ *     DuplicateFilter filter = new DuplicateFilter(50_000_000L, 0.01, store);
+ *     filter.setRecordHandler(writer);
+ *     builder.setRecordHandler(filter);
+ *     reader.parse(input);
+ * }
+ * </pre>
+ *
+ * @see RecordFingerprint
+ */
+public class DuplicateFilter
+    implements RecordHandler
+{
+
+    private static final long DEFAULT_EXPECTED_RECORDS = 1_000_000L;
+    private static final double DEFAULT_FALSE_POSITIVE_RATE = 0.01;
+
+    private final LongBloomFilter bloomFilter;
+    private final FingerprintStore store;
+
+    /** The RecordHandler for the unique records. */
+    private RecordHandler recordHandler;
+
+    /** The RecordHandler for the duplicate records. */
+    private RecordHandler duplicateHandler;
+
+    private long recordCount;
+    private long duplicateCount;
+    private long falsePositiveCount;
+
+    public DuplicateFilter()
+    {
+        this(DEFAULT_EXPECTED_RECORDS, DEFAULT_FALSE_POSITIVE_RATE);
+    }
+
+    /**
+     * Creates a filter with an in-memory fingerprint store, that keeps every unique fingerprint on the heap.
+     *
+     * @param expectedRecords the expected number of unique records
+     * @param falsePositiveRate the false positive probability of the Bloom filter
+     */
+    public DuplicateFilter(long expectedRecords, double falsePositiveRate)
+    {
+        this(expectedRecords, falsePositiveRate,
+            new MemoryFingerprintStore((int) Math.min(expectedRecords, Integer.MAX_VALUE / 2)));
+    }
+
+    /**
+     * Creates a filter with the given fingerprint store.
+     *
+     * @param expectedRecords the expected number of unique records
+     * @param falsePositiveRate the false positive probability of the Bloom filter
+     * @param store the store that confirms the duplicates
+     */
+    public DuplicateFilter(long expectedRecords, double falsePositiveRate, FingerprintStore store)
+    {
+        this.bloomFilter = new LongBloomFilter(expectedRecords, falsePositiveRate);
+        this.store = store;
+    }
+
+    /**
+     * <p>
+     * Registers the <code>RecordHandler</code> that receives the unique records.
+     * </p>
+     *
+     * @param recordHandler the record handler object
+     */
+    public void setRecordHandler(RecordHandler recordHandler)
+    {
+        this.recordHandler = recordHandler;
+    }
+
+    /**
+     * <p>
+     * Registers the <code>RecordHandler</code> that receives the duplicate records. When there isn't any, duplicates
+     * are dropped.
+     * </p>
+     *
+     * @param duplicateHandler the record handler object
+     */
+    public void setDuplicateHandler(RecordHandler duplicateHandler)
+    {
+        this.duplicateHandler = duplicateHandler;
+    }
+
+    @Override
+    public void startCollection()
+    {
+        if (this.recordHandler != null) {
+            this.recordHandler.startCollection();
+        }
+        if (this.duplicateHandler != null) {
+            this.duplicateHandler.startCollection();
+        }
+    }
+
+    @Override
+    public void record(Record record)
+    {
+        this.recordCount++;
+        if (this.isDuplicate(record.fingerprint())) {
+            this.duplicateCount++;
+            if (this.duplicateHandler != null) {
+                this.duplicateHandler.record(record);
+            }
+        } else if (this.recordHandler != null) {
+            this.recordHandler.record(record);
+        }
+    }
+
+    @Override
+    public void endCollection()
+    {
+        if (this.recordHandler != null) {
+            this.recordHandler.endCollection();
+        }
+        if (this.duplicateHandler != null) {
+            this.duplicateHandler.endCollection();
+        }
+    }
+
+    /**
+     * Checks a fingerprint and remembers it.
+     *
+     * @param fingerprint the record fingerprint
+     * @return <code>true</code> if the fingerprint was seen before
+     */
+    public boolean isDuplicate(long fingerprint)
+    {
+        if (this.bloomFilter.put(fingerprint)) {
+            this.store.add(fingerprint);
+            return false;
+        }
+        if (this.store.contains(fingerprint)) {
+            return true;
+        }
+        this.falsePositiveCount++;
+        this.store.add(fingerprint);
+        return false;
+    }
+
+    /**
+     * Returns the number of records received.
+     *
+     * @return the number of records
+     */
+    public long getRecordCount()
+    {
+        return this.recordCount;
+    }
+
+    /**
+     * Returns the number of duplicate records found.
+     *
+     * @return the number of duplicates
+     */
+    public long getDuplicateCount()
+    {
+        return this.duplicateCount;
+    }
+
+    /**
+     * Returns the number of times the Bloom filter reported a new record as seen and the store had to tell them apart.
+     *
+     * @return the number of false positives
+     */
+    public long getFalsePositiveCount()
+    {
+        return this.falsePositiveCount;
+    }
+
+}
@@ -0,0 +1,58 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.helpers;
+
+/**
+ * <p>
+ * Keeps the fingerprints of the records seen by a {@link DuplicateFilter}, to confirm the duplicates reported by its
+ * Bloom filter.
+ * </p>
+ *
+ * <p>
+ * The filter only asks the store about a fingerprint when the Bloom filter reports it might have been seen, so a store
+ * backed by a disk or a database is queried for the duplicates and the few false positives only. Every new
+ * fingerprint is still added to it.
+ * </p>
+ *
+ * @see DuplicateFilter
+ */
+public interface FingerprintStore
+{
+
+    /**
+     * <p>
+     * Returns <code>true</code> if the fingerprint was added to the store.
+     * </p>
+     *
+     * @param fingerprint the record fingerprint
+     * @return <code>true</code> if the fingerprint is in the store
+     */
+    boolean contains(long fingerprint);
+
+    /**
+     * <p>
+     * Adds a fingerprint to the store.
+     * </p>
+     *
+     * @param fingerprint the record fingerprint
+     */
+    void add(long fingerprint);
+
+}
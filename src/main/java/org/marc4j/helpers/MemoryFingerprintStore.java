@@ -0,0 +1,77 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.helpers;
+
+import org.marc4j.util.LongHashSet;
+
+/**
+ * <p>
+ * {@link FingerprintStore} that keeps the fingerprints in memory, in a primitive hash set.
+ * </p>
+ *
+ * <p>
+ * The set takes 16 to 32 bytes per fingerprint and grows with the input. {@link SpillingFingerprintStore} keeps the
+ * memory bounded.
+ * </p>
+ */
+public class MemoryFingerprintStore
+    implements FingerprintStore
+{
+
+    private final LongHashSet fingerprints;
+
+    public MemoryFingerprintStore()
+    {
+        this.fingerprints = new LongHashSet();
+    }
+
+    /**
+     * Creates a store that holds the given number of fingerprints without growing.
+     *
+     * @param expectedSize the expected number of fingerprints
+     */
+    public MemoryFingerprintStore(int expectedSize)
+    {
+        this.fingerprints = new LongHashSet(expectedSize);
+    }
+
+    @Override
+    public boolean contains(long fingerprint)
+    {
+        return this.fingerprints.contains(fingerprint);
+    }
+
+    @Override
+    public void add(long fingerprint)
+    {
+        this.fingerprints.add(fingerprint);
+    }
+
+    /**
+     * Returns the number of fingerprints of the store.
+     *
+     * @return the size
+     */
+    public int size()
+    {
+        return this.fingerprints.size();
+    }
+
+}
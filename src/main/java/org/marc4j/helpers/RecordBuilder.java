@@ -25,6 +25,7 @@
 import org.marc4j.marc.Leader;
 import org.marc4j.marc.Record;
 import org.marc4j.marc.Subfield;
+import org.marc4j.marc.ValidationLevel;
 
 /**
  * <p>
@@ -48,6 +49,9 @@
     /** Data field object */
     private DataField datafield;
 
+    /** Validation level for the created fields */
+    private ValidationLevel validationLevel = ValidationLevel.DEFAULT;
+
     /**
      * <p>
      * Registers the <code>RecordHandler</code> object.
@@ -60,6 +64,25 @@ public void setRecordHandler(RecordHandler recordHandler)
         this.recordHandler = recordHandler;
     }
 
+    /**
+     * <p>
+     * Registers the validation level used to check the fields and subfields created from the events.
+     * </p>
+     *
+     * <p>
+     * Use {@link ValidationLevel#NONE} when the events come from a trusted producer, like {@link org.marc4j.MarcReader},
+     * to skip the check of every character of the data elements. The level of the producer is independent: the
+     * checks of a <code>MarcReader</code> are turned off with
+     * {@link org.marc4j.MarcReader#setValidationLevel(ValidationLevel)}.
+     * </p>
+     *
+     * @param validationLevel the validation level
+     */
+    public void setValidationLevel(ValidationLevel validationLevel)
+    {
+        this.validationLevel = validationLevel;
+    }
+
     /**
      * <p>
      * Reports the start of the file.
@@ -93,7 +116,7 @@ public void startRecord(Leader leader)
     @Override
     public void controlField(String tag, char[] data, Long id)
     {
-        this.record.add(new ControlField(tag, data, id));
+        this.record.add(new ControlField(tag, data, id, this.validationLevel));
     }
 
     /**
@@ -104,7 +127,7 @@ public void controlField(String tag, char[] data, Long id)
     @Override
     public void startDataField(String tag, char ind1, char ind2, Long id)
     {
-        this.datafield = new DataField(tag, ind1, ind2, id);
+        this.datafield = new DataField(tag, ind1, ind2, id, this.validationLevel);
     }
 
     /**
@@ -115,7 +138,7 @@ public void startDataField(String tag, char ind1, char ind2, Long id)
     @Override
     public void subfield(char identifier, char[] data, String linkCode)
     {
-        this.datafield.add(new Subfield(identifier, data, linkCode));
+        this.datafield.addSubfield(new Subfield(identifier, data, linkCode, this.validationLevel));
     }
 
     /**
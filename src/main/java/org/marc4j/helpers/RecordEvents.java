@@ -0,0 +1,81 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.helpers;
+
+import java.util.List;
+
+import org.marc4j.MarcHandler;
+import org.marc4j.marc.ControlField;
+import org.marc4j.marc.DataField;
+import org.marc4j.marc.MarcException;
+import org.marc4j.marc.Record;
+import org.marc4j.marc.Subfield;
+
+/**
+ * <p>
+ * Reports a record object as <code>MarcHandler</code> events, the inverse of {@link RecordBuilder}.
+ * </p>
+ *
+ * <p>
+ * The writers that receive both <code>MarcHandler</code> events and <code>Record</code> objects write the records
+ * through it, so both paths give the same output.
+ * </p>
+ *
+ * @see RecordHandler
+ */
+public final class RecordEvents
+{
+
+    private RecordEvents()
+    {
+    }
+
+    /**
+     * <p>
+     * Reports the leader, the control fields and the data fields of a record, from
+     * <code>startRecord</code> to <code>endRecord</code>.
+     * </p>
+     *
+     * @param record the record
+     * @param handler the handler of the events
+     * @throws MarcException if the record has no leader
+     */
+    public static void replay(Record record, MarcHandler handler)
+    {
+        if (record.getLeader() == null) {
+            throw new MarcException("Record contains no leader");
+        }
+        handler.startRecord(record.getLeader());
+        for (ControlField field : record.getControlFields()) {
+            handler.controlField(field.getTag(), field.getData(), field.getId());
+        }
+        for (DataField field : record.getDataFields()) {
+            handler.startDataField(field.getTag(), field.getIndicator1(), field.getIndicator2(), field.getId());
+            List<Subfield> subfields = field.getSubfields();
+            for (int i = 0; i < subfields.size(); i++) {
+                Subfield subfield = subfields.get(i);
+                handler.subfield(subfield.getCode(), subfield.getData(), subfield.getLinkCode());
+            }
+            handler.endDataField(field.getTag());
+        }
+        handler.endRecord();
+    }
+
+}
@@ -0,0 +1,319 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.helpers;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.marc4j.marc.MarcException;
+import org.marc4j.util.LongHashSet;
+
+/**
+ * <p>
+ * {@link FingerprintStore} that keeps a bounded number of fingerprints in memory and spills them to sorted run files
+ * on disk.
+ * </p>
+ *
+ * <p>
+ * When the fingerprints in memory reach the limit, they are sorted and written to a new run file, and the memory is
+ * cleared. Runs of similar size are merged, so there are never more than a logarithmic number of them. The runs are
+ * memory-mapped and searched by bisection: they use the cache of the operating system, not the heap, which only holds
+ * the fingerprints in memory and the Bloom filter of the {@link DuplicateFilter}. As the filter only asks the store
+ * about the duplicates and its false positives, most of the records never reach the runs.
+ * </p>
+ *
+ * <pre>
+ * try (SpillingFingerprintStore store = new SpillingFingerprintStore(new File("/tmp"), 1 &lt;&lt; 20)) {
+ *     DuplicateFilter filter = new DuplicateFilter(50_000_000L, 0.01, store);
+ *     filter.setRecordHandler(writer);
+ *     builder.setRecordHandler(filter);
+ *     reader.parse(input);
+ * }
+ * </pre>
+ *
+ * <p>
+ * The run files are deleted when the store is closed. Errors reading or writing them are thrown as
+ * <code>MarcException</code>.
+ * </p>
+ */
+public class SpillingFingerprintStore
+    implements FingerprintStore, Closeable
+{
+
+    private static final int DEFAULT_MAX_IN_MEMORY = 1 << 20;
+
+    /** Fingerprints in each mapped region, so that every region is smaller than 2 GB */
+    private static final int REGION_SHIFT = 27;
+    private static final int REGION_MASK = (1 << REGION_SHIFT) - 1;
+
+    private final File directory;
+    private final int maxInMemory;
+    private final LongHashSet memory;
+
+    /** The runs on disk, from the oldest and largest to the newest */
+    private final List<Run> runs = new ArrayList<>();
+
+    private long size;
+
+    /**
+     * Creates a store that keeps up to a million fingerprints in memory, with the runs in the default temporary
+     * directory.
+     */
+    public SpillingFingerprintStore()
+    {
+        this(null, DEFAULT_MAX_IN_MEMORY);
+    }
+
+    /**
+     * Creates a store.
+     *
+     * @param directory the directory of the run files, or <code>null</code> for the default temporary directory
+     * @param maxInMemory the number of fingerprints kept in memory before spilling them to disk
+     */
+    public SpillingFingerprintStore(File directory, int maxInMemory)
+    {
+        if (maxInMemory < 1) {
+            throw new IllegalArgumentException("maxInMemory must be positive");
+        }
+        this.directory = directory;
+        this.maxInMemory = maxInMemory;
+        this.memory = new LongHashSet(maxInMemory);
+    }
+
+    @Override
+    public boolean contains(long fingerprint)
+    {
+        if (this.memory.contains(fingerprint)) {
+            return true;
+        }
+        for (int i = this.runs.size() - 1; i >= 0; i--) {
+            if (this.runs.get(i).contains(fingerprint)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds a fingerprint to the store. Only the fingerprints in memory are checked, so a fingerprint already spilled to
+     * disk is kept twice; {@link DuplicateFilter} only adds the fingerprints that aren't in the store.
+     *
+     * @param fingerprint the record fingerprint
+     */
+    @Override
+    public void add(long fingerprint)
+    {
+        if (this.memory.add(fingerprint)) {
+            this.size++;
+            if (this.memory.size() >= this.maxInMemory) {
+                this.spill();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of fingerprints kept by the store.
+     *
+     * @return the size
+     */
+    public long size()
+    {
+        return this.size;
+    }
+
+    /**
+     * Returns the number of run files on disk.
+     *
+     * @return the number of runs
+     */
+    public int getRunCount()
+    {
+        return this.runs.size();
+    }
+
+    /**
+     * Deletes the run files and forgets every fingerprint.
+     */
+    @Override
+    public void close()
+    {
+        for (Run run : this.runs) {
+            run.delete();
+        }
+        this.runs.clear();
+        this.memory.clear();
+        this.size = 0;
+    }
+
+    private void spill()
+    {
+        long[] values = this.memory.toArray();
+        Arrays.sort(values);
+        try {
+            File file = this.createTempFile();
+            try (DataOutputStream out = SpillingFingerprintStore.openOutput(file)) {
+                for (long value : values) {
+                    out.writeLong(value);
+                }
+            }
+            this.runs.add(new Run(file, values.length));
+            this.memory.clear();
+
+            // Merge the newest runs while they are as large as the previous ones
+            int last = this.runs.size() - 1;
+            while (last > 0 && this.runs.get(last).count >= this.runs.get(last - 1).count) {
+                Run merged = this.merge(this.runs.get(last - 1), this.runs.get(last));
+                this.runs.remove(last).delete();
+                last--;
+                this.runs.get(last).delete();
+                this.runs.set(last, merged);
+            }
+        } catch (IOException e) {
+            throw new MarcException("Unable to write the fingerprints", e);
+        }
+    }
+
+    private Run merge(Run first, Run second)
+        throws IOException
+    {
+        File file = this.createTempFile();
+        try (DataInputStream a = SpillingFingerprintStore.openInput(first.file);
+             DataInputStream b = SpillingFingerprintStore.openInput(second.file);
+             DataOutputStream out = SpillingFingerprintStore.openOutput(file))
+        {
+            long left = first.count;
+            long right = second.count;
+            long x = a.readLong();
+            long y = b.readLong();
+            while (left > 0 && right > 0) {
+                if (x <= y) {
+                    out.writeLong(x);
+                    if (--left > 0) {
+                        x = a.readLong();
+                    }
+                } else {
+                    out.writeLong(y);
+                    if (--right > 0) {
+                        y = b.readLong();
+                    }
+                }
+            }
+            if (left > 0) {
+                out.writeLong(x);
+                SpillingFingerprintStore.copy(a, out, left - 1);
+            }
+            if (right > 0) {
+                out.writeLong(y);
+                SpillingFingerprintStore.copy(b, out, right - 1);
+            }
+        }
+        return new Run(file, first.count + second.count);
+    }
+
+    private static void copy(DataInputStream in, DataOutputStream out, long count)
+        throws IOException
+    {
+        for (long i = 0; i < count; i++) {
+            out.writeLong(in.readLong());
+        }
+    }
+
+    private File createTempFile()
+        throws IOException
+    {
+        File file = File.createTempFile("marc4j-fingerprints", ".run", this.directory);
+        file.deleteOnExit();
+        return file;
+    }
+
+    private static DataOutputStream openOutput(File file)
+        throws IOException
+    {
+        return new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16));
+    }
+
+    private static DataInputStream openInput(File file)
+        throws IOException
+    {
+        return new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16));
+    }
+
+    /**
+     * Sorted run of fingerprints in a memory-mapped file.
+     */
+    private static final class Run
+    {
+        private final File file;
+        private final long count;
+        private final LongBuffer[] regions;
+
+        Run(File file, long count)
+            throws IOException
+        {
+            this.file = file;
+            this.count = count;
+            this.regions = new LongBuffer[(int) ((count + REGION_MASK) >> REGION_SHIFT)];
+            try (RandomAccessFile input = new RandomAccessFile(file, "r"); FileChannel channel = input.getChannel()) {
+                for (int i = 0; i < this.regions.length; i++) {
+                    long start = (long) i << REGION_SHIFT;
+                    long length = Math.min(count - start, REGION_MASK + 1L);
+                    this.regions[i] = channel.map(FileChannel.MapMode.READ_ONLY, start * 8, length * 8).asLongBuffer();
+                }
+            }
+        }
+
+        boolean contains(long fingerprint)
+        {
+            long low = 0;
+            long high = this.count - 1;
+            while (low <= high) {
+                long middle = (low + high) >>> 1;
+                long value = this.regions[(int) (middle >> REGION_SHIFT)].get((int) (middle & REGION_MASK));
+                if (value < fingerprint) {
+                    low = middle + 1;
+                } else if (value > fingerprint) {
+                    high = middle - 1;
+                } else {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void delete()
+        {
+            this.file.delete();
+        }
+    }
+
+}
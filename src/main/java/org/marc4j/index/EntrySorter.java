@@ -0,0 +1,199 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.index;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Sorts key and offset pairs with a bounded amount of memory.
+ *
+ * <p>
+ * The pairs are buffered and sorted in memory. When the buffer is full, it's written to a temporary file as a sorted
+ * run, and the runs are merged when the pairs are sent to the {@link KeyIndexWriter}.
+ * </p>
+ */
+final class EntrySorter
+    implements Closeable
+{
+
+    private static final Comparator<Entry> ORDER = (a, b) -> {
+        int cmp = KeyIndexFormat.compare(a.key, b.key);
+        return cmp != 0 ? cmp : Long.compare(a.offset, b.offset);
+    };
+
+    private final int maxEntries;
+
+    private Entry[] buffer = new Entry[1024];
+    private int size;
+
+    private final List<File> runs = new ArrayList<>();
+
+    EntrySorter(int maxEntries)
+    {
+        this.maxEntries = maxEntries;
+    }
+
+    void add(byte[] key, long offset)
+        throws IOException
+    {
+        if (this.size == this.maxEntries) {
+            this.spill();
+        }
+        if (this.size == this.buffer.length) {
+            this.buffer = Arrays.copyOf(this.buffer, Math.min(this.size * 2, this.maxEntries));
+        }
+        this.buffer[this.size++] = new Entry(key, offset);
+    }
+
+    /**
+     * Sends the pairs in order to a writer.
+     */
+    void writeTo(KeyIndexWriter writer)
+        throws IOException
+    {
+        Arrays.sort(this.buffer, 0, this.size, ORDER);
+        if (this.runs.isEmpty()) {
+            for (int i = 0; i < this.size; i++) {
+                writer.add(this.buffer[i].key, this.buffer[i].offset);
+            }
+            return;
+        }
+
+        PriorityQueue<Run> queue = new PriorityQueue<>((a, b) -> ORDER.compare(a.current, b.current));
+        List<Run> open = new ArrayList<>();
+        try {
+            for (File file : this.runs) {
+                Run run = new Run(file);
+                open.add(run);
+                if (run.next()) {
+                    queue.add(run);
+                }
+            }
+            int next = 0;
+            while (!queue.isEmpty() || next < this.size) {
+                if (next < this.size && (queue.isEmpty() || ORDER.compare(this.buffer[next], queue.peek().current) <= 0)) {
+                    writer.add(this.buffer[next].key, this.buffer[next].offset);
+                    next++;
+                } else {
+                    Run run = queue.poll();
+                    writer.add(run.current.key, run.current.offset);
+                    if (run.next()) {
+                        queue.add(run);
+                    }
+                }
+            }
+        } finally {
+            for (Run run : open) {
+                run.input.close();
+            }
+        }
+    }
+
+    /**
+     * Deletes the temporary files.
+     */
+    @Override
+    public void close()
+    {
+        for (File file : this.runs) {
+            file.delete();
+        }
+        this.runs.clear();
+        this.size = 0;
+    }
+
+    private void spill()
+        throws IOException
+    {
+        Arrays.sort(this.buffer, 0, this.size, ORDER);
+        File file = File.createTempFile("marc4j-index", ".run");
+        this.runs.add(file);
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            output.writeInt(this.size);
+            for (int i = 0; i < this.size; i++) {
+                output.writeShort(this.buffer[i].key.length);
+                output.write(this.buffer[i].key);
+                output.writeLong(this.buffer[i].offset);
+                this.buffer[i] = null;
+            }
+        }
+        this.size = 0;
+    }
+
+    private static final class Entry
+    {
+
+        final byte[] key;
+        final long offset;
+
+        Entry(byte[] key, long offset)
+        {
+            this.key = key;
+            this.offset = offset;
+        }
+
+    }
+
+    /**
+     * A sorted run being merged.
+     */
+    private static final class Run
+    {
+
+        final DataInputStream input;
+        int remaining;
+        Entry current;
+
+        Run(File file)
+            throws IOException
+        {
+            this.input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            this.remaining = this.input.readInt();
+        }
+
+        boolean next()
+            throws IOException
+        {
+            if (this.remaining == 0) {
+                return false;
+            }
+            byte[] key = new byte[this.input.readUnsignedShort()];
+            this.input.readFully(key);
+            this.current = new Entry(key, this.input.readLong());
+            this.remaining--;
+            return true;
+        }
+
+    }
+
+}
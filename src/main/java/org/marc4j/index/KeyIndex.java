@@ -0,0 +1,294 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.index;
+
+import static org.marc4j.index.KeyIndexFormat.BLOCK_SIZE;
+import static org.marc4j.index.KeyIndexFormat.NODE_HEADER_SIZE;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.marc4j.marc.KeyExtractor;
+import org.marc4j.marc.MarcException;
+
+/**
+ * <p>
+ * A persistent index from keys to the offsets of the records that contain them in a MARC file, written by a
+ * {@link KeyIndexBuilder}.
+ * </p>
+ *
+ * <p>
+ * The index is a B+tree of 4 KB blocks in a memory-mapped file. Opening it reads only the header, and a lookup reads a
+ * block per level of the tree, usually three or four for millions of keys, plus the leaves with the postings of the key.
+ * The pages are loaded on demand and cached by the operating system, not by the JVM heap.
+ * </p>
+ *
+ * <pre>
+ * try (KeyIndex index = KeyIndex.open(new File("records.001.idx"))) {
+ *     for (long offset : index.find("ocm12345")) {
+ *         ...
+ *     }
+ * }
+ * </pre>
+ *
+ * <p>
+ * An index can be shared between threads.
+ * </p>
+ */
+public final class KeyIndex
+    implements Closeable
+{
+
+    private static final long[] NO_OFFSETS = new long[0];
+
+    /** Blocks in each mapped region, so that every region is smaller than 2 GB */
+    private static final int REGION_SHIFT = 18;
+    private static final int REGION_MASK = (1 << REGION_SHIFT) - 1;
+
+    private final ByteBuffer[] regions;
+    private final int leafCount;
+    private final int root;
+    private final int height;
+    private final long keyCount;
+    private final long postingCount;
+
+    private KeyIndex(ByteBuffer[] regions, ByteBuffer header)
+    {
+        this.regions = regions;
+        this.leafCount = header.getInt(16);
+        this.root = header.getInt(20);
+        this.height = header.getInt(24);
+        this.keyCount = header.getLong(28);
+        this.postingCount = header.getLong(36);
+    }
+
+    /**
+     * Opens an index file.
+     *
+     * @param file the index file
+     * @return the index
+     * @throws IOException if the file can't be read
+     * @throws MarcException if the file isn't a key index
+     */
+    public static KeyIndex open(File file)
+        throws IOException
+    {
+        try (RandomAccessFile input = new RandomAccessFile(file, "r"); FileChannel channel = input.getChannel()) {
+            long size = channel.size();
+            if (size < BLOCK_SIZE) {
+                throw new MarcException("Not a key index: " + file);
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, BLOCK_SIZE);
+            if (header.getInt(0) != KeyIndexFormat.MAGIC) {
+                throw new MarcException("Not a key index: " + file);
+            }
+            if (header.getInt(4) != KeyIndexFormat.VERSION || header.getInt(8) != BLOCK_SIZE) {
+                throw new MarcException("Unsupported key index version " + header.getInt(4) + ": " + file);
+            }
+            int blockCount = header.getInt(12);
+            if ((long) blockCount * BLOCK_SIZE > size) {
+                throw new MarcException("Truncated key index: " + file);
+            }
+
+            ByteBuffer[] regions = new ByteBuffer[((blockCount - 1) >> REGION_SHIFT) + 1];
+            for (int i = 0; i < regions.length; i++) {
+                long start = (long) i << REGION_SHIFT;
+                long blocks = Math.min(blockCount - start, REGION_MASK + 1L);
+                regions[i] = channel.map(FileChannel.MapMode.READ_ONLY, start * BLOCK_SIZE, blocks * BLOCK_SIZE);
+            }
+            return new KeyIndex(regions, header);
+        }
+    }
+
+    /**
+     * Returns the number of distinct keys.
+     *
+     * @return the number of keys
+     */
+    public long getKeyCount()
+    {
+        return this.keyCount;
+    }
+
+    /**
+     * Returns the number of key and offset pairs.
+     *
+     * @return the number of pairs
+     */
+    public long getPostingCount()
+    {
+        return this.postingCount;
+    }
+
+    /**
+     * Returns whether a key is in the index.
+     *
+     * @param key the key, as extracted when the index was built
+     * @return true if some record contains the key
+     */
+    public boolean contains(String key)
+    {
+        return this.find(key).length > 0;
+    }
+
+    /**
+     * Returns the offsets of the records that contain a key, after normalising it with the extractor used to build the
+     * index, so that <code>0-7868-0877-2</code> finds the records indexed as <code>0786808772</code>.
+     *
+     * @param key the key
+     * @param extractor the extractor of the index
+     * @return the offsets in ascending order, empty if the key isn't found
+     */
+    public long[] find(String key, KeyExtractor extractor)
+    {
+        String[] normalised = new String[1];
+        extractor.extract(key.toCharArray(), k -> {
+            if (normalised[0] == null) {
+                normalised[0] = k;
+            }
+        });
+        return normalised[0] != null ? this.find(normalised[0]) : NO_OFFSETS;
+    }
+
+    /**
+     * Returns the offsets of the records that contain a key.
+     *
+     * @param key the key, as extracted when the index was built
+     * @return the offsets in ascending order, empty if the key isn't found
+     */
+    public long[] find(String key)
+    {
+        byte[] target = key.getBytes(StandardCharsets.UTF_8);
+        if (this.height == 0 || target.length > KeyIndexFormat.MAX_KEY_LENGTH) {
+            return NO_OFFSETS;
+        }
+
+        // Descends to the leftmost leaf that can hold the key
+        int block = this.root;
+        for (int level = this.height - 1; level > 0; level--) {
+            block = this.findChild(block, target);
+        }
+
+        // The postings of a key can span several leaves
+        long[] offsets = NO_OFFSETS;
+        int size = 0;
+        for (; block <= this.leafCount; block++) {
+            ByteBuffer region = this.region(block);
+            int position = this.position(block);
+            int entries = region.getShort(position + 2) & 0xFFFF;
+            position += NODE_HEADER_SIZE;
+            for (int i = 0; i < entries; i++) {
+                int keyLength = region.getShort(position) & 0xFFFF;
+                int cmp = KeyIndexFormat.compare(region, position + 2, keyLength, target);
+                if (cmp > 0) {
+                    return Arrays.copyOf(offsets, size);
+                }
+                position += 2 + keyLength;
+                long count = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = region.get(position++);
+                    count |= (long) (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                long bytes = 0;
+                shift = 0;
+                do {
+                    b = region.get(position++);
+                    bytes |= (long) (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                if (cmp < 0) {
+                    position += (int) bytes;
+                    continue;
+                }
+                if (size + count > offsets.length) {
+                    offsets = Arrays.copyOf(offsets, (int) Math.max(size + count, offsets.length * 2L));
+                }
+                long offset = 0;
+                for (long n = 0; n < count; n++) {
+                    long delta = 0;
+                    shift = 0;
+                    do {
+                        b = region.get(position++);
+                        delta |= (long) (b & 0x7F) << shift;
+                        shift += 7;
+                    } while (b < 0);
+                    offset += delta;
+                    offsets[size++] = offset;
+                }
+            }
+        }
+        return Arrays.copyOf(offsets, size);
+    }
+
+    /**
+     * Releases the index. The mapped regions are unmapped when they are garbage collected.
+     */
+    @Override
+    public void close()
+    {
+        Arrays.fill(this.regions, null);
+    }
+
+    /**
+     * Returns the child of an internal node for the last entry with a key lower than the target, or the first child.
+     */
+    private int findChild(int block, byte[] target)
+    {
+        ByteBuffer region = this.region(block);
+        int position = this.position(block);
+        int entries = region.getShort(position + 2) & 0xFFFF;
+        position += NODE_HEADER_SIZE;
+        int child = region.getInt(position + 2 + (region.getShort(position) & 0xFFFF));
+        for (int i = 0; i < entries; i++) {
+            int keyLength = region.getShort(position) & 0xFFFF;
+            if (KeyIndexFormat.compare(region, position + 2, keyLength, target) >= 0) {
+                break;
+            }
+            child = region.getInt(position + 2 + keyLength);
+            position += 2 + keyLength + 4;
+        }
+        return child;
+    }
+
+    private ByteBuffer region(int block)
+    {
+        ByteBuffer region = this.regions[block >>> REGION_SHIFT];
+        if (region == null) {
+            throw new IllegalStateException("Key index closed");
+        }
+        return region;
+    }
+
+    private int position(int block)
+    {
+        return (block & REGION_MASK) * BLOCK_SIZE;
+    }
+
+}
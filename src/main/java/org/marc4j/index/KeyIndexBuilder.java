@@ -0,0 +1,309 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.index;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.marc4j.MarcHandler;
+import org.marc4j.MarcReader;
+import org.marc4j.marc.IllegalTagException;
+import org.marc4j.marc.IndexKeys;
+import org.marc4j.marc.KeyExtractor;
+import org.marc4j.marc.Leader;
+import org.marc4j.marc.MarcException;
+import org.marc4j.marc.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * <code>MarcHandler</code> that builds a {@link KeyIndex} over the records parsed by a {@link MarcReader}, in the same
+ * pass.
+ * </p>
+ *
+ * <p>
+ * The keys are extracted from tag and subfield paths, like <code>001</code>, <code>035$a</code> or <code>020$a</code>,
+ * and mapped to the offset of the record in the input, as reported by {@link MarcReader#getRecordOffset()}. A key can
+ * map to several records. The pairs are sorted in memory, spilling sorted runs to temporary files when there are more
+ * than {@link #setMaxBufferedEntries(int)}, and the index file is written at the end of the collection.
+ * </p>
+ *
+ * <pre>
+ * MarcReader reader = new MarcReader();
+ * KeyIndexBuilder builder = new KeyIndexBuilder(reader, new File("records.idx"));
+ * builder.addPath("001");
+ * builder.addPath("035$a");
+ * builder.addPath("020$a", IndexKeys.FIRST_TOKEN);
+ * reader.setMarcHandler(builder);
+ * reader.parse("records.mrc");
+ * </pre>
+ *
+ * <p>
+ * The paths of a builder share the same index. Use a builder per index, chained with
+ * {@link #setMarcHandler(MarcHandler)}, to keep the keys of different paths apart.
+ * </p>
+ */
+public class KeyIndexBuilder
+    implements MarcHandler
+{
+
+    private static final Logger log = LoggerFactory.getLogger(KeyIndexBuilder.class);
+
+    private static final int DEFAULT_MAX_BUFFERED_ENTRIES = 1 << 19;
+
+    private final MarcReader reader;
+    private final File file;
+
+    private final Map<String, List<KeyPath>> paths = new HashMap<>();
+
+    private int maxBufferedEntries = DEFAULT_MAX_BUFFERED_ENTRIES;
+
+    /** The MarcHandler object. */
+    private MarcHandler marcHandler;
+
+    private EntrySorter sorter;
+
+    /** The offset of the current record */
+    private long offset;
+
+    /** The paths of the current data field */
+    private List<KeyPath> fieldPaths;
+
+    private final Consumer<String> keys = this::addKey;
+
+    /**
+     * Creates a builder.
+     *
+     * @param reader the reader that parses the records, for their offsets
+     * @param file the index file to write
+     */
+    public KeyIndexBuilder(MarcReader reader, File file)
+    {
+        this.reader = reader;
+        this.file = file;
+    }
+
+    /**
+     * Indexes the whole data of a path, without leading and trailing spaces.
+     *
+     * @param path the tag of a control field, like <code>001</code>, or the tag and the code of a subfield, like
+     *        <code>035$a</code>
+     */
+    public void addPath(String path)
+    {
+        this.addPath(path, IndexKeys.EXACT);
+    }
+
+    /**
+     * Indexes the keys extracted from a path.
+     *
+     * @param path the tag of a control field, like <code>001</code>, the tag and the code of a subfield, like
+     *        <code>020$a</code>, or the tag of a data field, for all its subfields
+     * @param extractor the key extractor
+     * @throws MarcException if the path isn't valid
+     */
+    public void addPath(String path, KeyExtractor extractor)
+    {
+        int dollar = path.indexOf('$');
+        String tag = dollar < 0 ? path : path.substring(0, dollar);
+        boolean controlField;
+        try {
+            Tag.isValid(tag);
+            controlField = Tag.isControlField(tag);
+        } catch (IllegalTagException e) {
+            throw new MarcException("Invalid index path " + path, e);
+        }
+        if (dollar >= 0 && (controlField || dollar != path.length() - 2)) {
+            throw new MarcException("Invalid index path " + path);
+        }
+        char code = dollar < 0 ? 0 : path.charAt(dollar + 1);
+        this.paths.computeIfAbsent(tag, t -> new ArrayList<>()).add(new KeyPath(code, extractor));
+    }
+
+    /**
+     * <p>
+     * Sets the number of key and offset pairs sorted in memory before they are written to a temporary file.
+     * </p>
+     *
+     * @param maxBufferedEntries the number of pairs, 524288 by default
+     */
+    public void setMaxBufferedEntries(int maxBufferedEntries)
+    {
+        if (maxBufferedEntries < 1) {
+            throw new IllegalArgumentException("maxBufferedEntries must be positive");
+        }
+        this.maxBufferedEntries = maxBufferedEntries;
+    }
+
+    /**
+     * <p>
+     * Registers the <code>MarcHandler</code> object that receives the events after the builder.
+     * </p>
+     *
+     * @param marcHandler the MARC handler object
+     */
+    public void setMarcHandler(MarcHandler marcHandler)
+    {
+        this.marcHandler = marcHandler;
+    }
+
+    @Override
+    public void startCollection()
+    {
+        if (this.sorter != null) {
+            this.sorter.close();
+        }
+        this.sorter = new EntrySorter(this.maxBufferedEntries);
+        if (this.marcHandler != null) {
+            this.marcHandler.startCollection();
+        }
+    }
+
+    /**
+     * Writes the index file.
+     *
+     * @throws MarcException if the index can't be written
+     */
+    @Override
+    public void endCollection()
+    {
+        try (EntrySorter entries = this.sorter; KeyIndexWriter writer = new KeyIndexWriter(this.file)) {
+            entries.writeTo(writer);
+            writer.finish();
+        } catch (IOException e) {
+            throw new MarcException("Unable to write the index " + this.file, e);
+        } finally {
+            this.sorter = null;
+        }
+        if (this.marcHandler != null) {
+            this.marcHandler.endCollection();
+        }
+    }
+
+    @Override
+    public void startRecord(Leader leader)
+    {
+        this.offset = this.reader.getRecordOffset();
+        if (this.offset < 0) {
+            throw new MarcException("The offsets of the records are only known when parsing an InputStream");
+        }
+        if (this.marcHandler != null) {
+            this.marcHandler.startRecord(leader);
+        }
+    }
+
+    @Override
+    public void endRecord()
+    {
+        if (this.marcHandler != null) {
+            this.marcHandler.endRecord();
+        }
+    }
+
+    @Override
+    public void controlField(String tag, char[] data, Long id)
+    {
+        List<KeyPath> tagPaths = this.paths.get(tag);
+        if (tagPaths != null && data != null) {
+            for (int i = 0; i < tagPaths.size(); i++) {
+                tagPaths.get(i).extractor.extract(data, this.keys);
+            }
+        }
+        if (this.marcHandler != null) {
+            this.marcHandler.controlField(tag, data, id);
+        }
+    }
+
+    @Override
+    public void startDataField(String tag, char ind1, char ind2, Long id)
+    {
+        this.fieldPaths = this.paths.get(tag);
+        if (this.marcHandler != null) {
+            this.marcHandler.startDataField(tag, ind1, ind2, id);
+        }
+    }
+
+    @Override
+    public void endDataField(String tag)
+    {
+        this.fieldPaths = null;
+        if (this.marcHandler != null) {
+            this.marcHandler.endDataField(tag);
+        }
+    }
+
+    @Override
+    public void subfield(char code, char[] data, String linkCode)
+    {
+        if (this.fieldPaths != null && data != null) {
+            for (int i = 0; i < this.fieldPaths.size(); i++) {
+                KeyPath path = this.fieldPaths.get(i);
+                if (path.code == 0 || path.code == code) {
+                    path.extractor.extract(data, this.keys);
+                }
+            }
+        }
+        if (this.marcHandler != null) {
+            this.marcHandler.subfield(code, data, linkCode);
+        }
+    }
+
+    private void addKey(String key)
+    {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length == 0) {
+            return;
+        }
+        if (bytes.length > KeyIndexFormat.MAX_KEY_LENGTH) {
+            log.warn("Key too long, not indexed, at offset {}: {}...", this.offset, key.substring(0, 32));
+            return;
+        }
+        try {
+            this.sorter.add(bytes, this.offset);
+        } catch (IOException e) {
+            throw new MarcException("Unable to write the index " + this.file, e);
+        }
+    }
+
+    /**
+     * A control field or subfield path of a tag.
+     */
+    private static final class KeyPath
+    {
+
+        final char code;
+        final KeyExtractor extractor;
+
+        KeyPath(char code, KeyExtractor extractor)
+        {
+            this.code = code;
+            this.extractor = extractor;
+        }
+
+    }
+
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.index;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Layout constants and codecs of the key index files, shared by {@link KeyIndexWriter} and {@link KeyIndex}.
+ *
+ * <p>
+ * The file is a sequence of blocks of {@link #BLOCK_SIZE} bytes. Block 0 is the header; the leaves follow from block 1,
+ * contiguous and in key order, and the internal nodes of the tree come after them, level by level, up to the root. Every
+ * node starts with its level (0 for the leaves) and its entry count:
+ * </p>
+ *
+ * <pre>
+ * leaf entry:     key length (u16), key (UTF-8), posting count (varint), posting bytes (varint), offset deltas (varint)*
+ * internal entry: key length (u16), key (UTF-8), child block (int)
+ * </pre>
+ *
+ * <p>
+ * The key of an internal entry is the first key of its child. A key whose postings don't fit in a leaf continues in the
+ * next one, in an entry with the same key.
+ * </p>
+ */
+final class KeyIndexFormat
+{
+
+    static final int MAGIC = 0x4D4B4958;
+
+    static final int VERSION = 1;
+
+    static final int BLOCK_SIZE = 4096;
+
+    /** The size of the level and entry count of a node */
+    static final int NODE_HEADER_SIZE = 4;
+
+    /** The longest key, in UTF-8 bytes, so that every node has room for several entries */
+    static final int MAX_KEY_LENGTH = 1024;
+
+    private KeyIndexFormat()
+    {
+    }
+
+    /**
+     * Compares two keys as unsigned bytes.
+     */
+    static int compare(byte[] a, byte[] b)
+    {
+        int length = Math.min(a.length, b.length);
+        for (int i = 0; i < length; i++) {
+            int cmp = (a[i] & 0xFF) - (b[i] & 0xFF);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return a.length - b.length;
+    }
+
+    /**
+     * Compares a key stored in a buffer with another one, as unsigned bytes.
+     */
+    static int compare(ByteBuffer buffer, int offset, int length, byte[] key)
+    {
+        int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++) {
+            int cmp = (buffer.get(offset + i) & 0xFF) - (key[i] & 0xFF);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return length - key.length;
+    }
+
+    static int varintSize(long value)
+    {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    static void putVarint(ByteBuffer buffer, long value)
+    {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+}
@@ -0,0 +1,234 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.index;
+
+import static org.marc4j.index.KeyIndexFormat.BLOCK_SIZE;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Writes a key index file from key and offset pairs reported in key order, in a single pass.
+ *
+ * <p>
+ * The leaves are written as they fill up. Only the first key of each leaf is kept in memory, to build the internal
+ * levels of the tree when the last pair has been added.
+ * </p>
+ */
+final class KeyIndexWriter
+    implements Closeable
+{
+
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+
+    private final ByteBuffer block = ByteBuffer.allocate(BLOCK_SIZE);
+    private int entries;
+    private int nextBlock = 1;
+
+    /** The first key of each leaf, for the internal nodes */
+    private final List<byte[]> leafKeys = new ArrayList<>();
+
+    /** The key being added and its postings, in ascending order */
+    private byte[] key;
+    private long[] postings = new long[16];
+    private int postingCount;
+
+    private long keyCount;
+    private long totalPostings;
+
+    KeyIndexWriter(File file)
+        throws IOException
+    {
+        this.file = new RandomAccessFile(file, "rw");
+        this.file.setLength(0);
+        this.channel = this.file.getChannel();
+        this.startNode(0);
+    }
+
+    /**
+     * Adds a pair. The pairs must be added in key order and, for the same key, in offset order.
+     */
+    void add(byte[] key, long offset)
+        throws IOException
+    {
+        if (this.key == null || !Arrays.equals(this.key, key)) {
+            this.flushKey();
+            this.key = key;
+            this.keyCount++;
+        } else if (this.postings[this.postingCount - 1] == offset) {
+            return;
+        }
+        if (this.postingCount == this.postings.length) {
+            this.postings = Arrays.copyOf(this.postings, this.postingCount * 2);
+        }
+        this.postings[this.postingCount++] = offset;
+    }
+
+    /**
+     * Writes the pending leaf, the internal nodes and the header.
+     */
+    void finish()
+        throws IOException
+    {
+        this.flushKey();
+        if (this.entries > 0) {
+            this.writeNode();
+        }
+        int leafCount = this.nextBlock - 1;
+        int root = leafCount > 0 ? leafCount : 0;
+        int height = leafCount > 0 ? 1 : 0;
+
+        // Each level indexes the first key of the nodes of the level below, until a single node is left
+        List<byte[]> keys = this.leafKeys;
+        int firstChild = 1;
+        while (keys.size() > 1) {
+            List<byte[]> levelKeys = new ArrayList<>();
+            int levelStart = this.nextBlock;
+            this.startNode(height);
+            for (int i = 0; i < keys.size(); i++) {
+                byte[] childKey = keys.get(i);
+                if (this.block.remaining() < 2 + childKey.length + 4) {
+                    this.writeNode();
+                    this.startNode(height);
+                }
+                if (this.entries == 0) {
+                    levelKeys.add(childKey);
+                }
+                this.block.putShort((short) childKey.length);
+                this.block.put(childKey);
+                this.block.putInt(firstChild + i);
+                this.entries++;
+            }
+            this.writeNode();
+            keys = levelKeys;
+            firstChild = levelStart;
+            root = levelStart;
+            height++;
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(BLOCK_SIZE);
+        header.putInt(KeyIndexFormat.MAGIC);
+        header.putInt(KeyIndexFormat.VERSION);
+        header.putInt(BLOCK_SIZE);
+        header.putInt(this.nextBlock);
+        header.putInt(leafCount);
+        header.putInt(root);
+        header.putInt(height);
+        header.putLong(this.keyCount);
+        header.putLong(this.totalPostings);
+        header.clear();
+        this.write(header, 0);
+        this.channel.force(false);
+    }
+
+    @Override
+    public void close()
+        throws IOException
+    {
+        this.file.close();
+    }
+
+    /**
+     * Writes the postings of the current key to the leaves, continuing in new leaves when they don't fit.
+     */
+    private void flushKey()
+        throws IOException
+    {
+        int from = 0;
+        while (from < this.postingCount) {
+            // Room for the key, and for the two counts at their largest
+            int size = 2 + this.key.length + 10;
+            int to = from;
+            long previous = 0;
+            while (to < this.postingCount) {
+                int delta = KeyIndexFormat.varintSize(this.postings[to] - previous);
+                if (size + delta > this.block.remaining()) {
+                    break;
+                }
+                size += delta;
+                previous = this.postings[to];
+                to++;
+            }
+            if (to == from) {
+                this.writeNode();
+                this.startNode(0);
+                continue;
+            }
+            if (this.entries == 0) {
+                this.leafKeys.add(this.key);
+            }
+            int bytes = 0;
+            previous = 0;
+            for (int i = from; i < to; i++) {
+                bytes += KeyIndexFormat.varintSize(this.postings[i] - previous);
+                previous = this.postings[i];
+            }
+            this.block.putShort((short) this.key.length);
+            this.block.put(this.key);
+            KeyIndexFormat.putVarint(this.block, to - from);
+            KeyIndexFormat.putVarint(this.block, bytes);
+            previous = 0;
+            for (int i = from; i < to; i++) {
+                KeyIndexFormat.putVarint(this.block, this.postings[i] - previous);
+                previous = this.postings[i];
+            }
+            this.entries++;
+            this.totalPostings += to - from;
+            from = to;
+        }
+        this.postingCount = 0;
+    }
+
+    private void startNode(int level)
+    {
+        this.block.clear();
+        this.block.put((byte) level);
+        this.block.put((byte) 0);
+        this.block.putShort((short) 0);
+        this.entries = 0;
+    }
+
+    private void writeNode()
+        throws IOException
+    {
+        this.block.putShort(2, (short) this.entries);
+        Arrays.fill(this.block.array(), this.block.position(), BLOCK_SIZE, (byte) 0);
+        this.block.clear();
+        this.write(this.block, this.nextBlock++);
+    }
+
+    private void write(ByteBuffer buffer, int blockNumber)
+        throws IOException
+    {
+        long position = (long) blockNumber * BLOCK_SIZE;
+        while (buffer.hasRemaining()) {
+            position += this.channel.write(buffer, position);
+        }
+    }
+
+}
@@ -0,0 +1,292 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.json;
+
+import java.io.OutputStream;
+
+import org.marc4j.MarcHandler;
+import org.marc4j.helpers.RecordEvents;
+import org.marc4j.helpers.RecordHandler;
+import org.marc4j.marc.Leader;
+import org.marc4j.marc.Record;
+import org.marc4j.util.CharacterConverter;
+import org.marc4j.util.OutputBuffer;
+
+/**
+ * <p>
+ * Writes records as MARC-in-JSON, in UTF-8, either as a single array or as one record per line (newline-delimited
+ * JSON).
+ * </p>
+ *
+ * <pre>
+ * {"leader":"00714cam a2200205 a 4500","fields":[{"001":"12883376"},
+ *   {"245":{"ind1":"1","ind2":"0","subfields":[{"a":"Jack and Jill"}]}}]}
+ * </pre>
+ *
+ * <p>
+ * It receives the records as <code>MarcHandler</code> events, from a {@link org.marc4j.MarcReader} for example, or as
+ * <code>Record</code> objects through the <code>RecordHandler</code> interface. The JSON is escaped and encoded by hand
+ * into a byte buffer reused from one record to the next, without any JSON library. The output is flushed and closed at
+ * the end of the collection, and errors writing to it are thrown as <code>MarcException</code>.
+ * </p>
+ */
+public class MarcJsonWriter
+    implements MarcHandler, RecordHandler
+{
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /** The ASCII characters written as they are */
+    private static final boolean[] PLAIN = new boolean[0x80];
+
+    static {
+        for (char c = 0x20; c < 0x80; c++) {
+            PLAIN[c] = c != '"' && c != '\\';
+        }
+    }
+
+    private static final byte[] LEADER = OutputBuffer.ascii("{\"leader\":\"");
+    private static final byte[] FIELDS = OutputBuffer.ascii("\",\"fields\":[");
+    private static final byte[] IND1 = OutputBuffer.ascii("\":{\"ind1\":\"");
+    private static final byte[] IND2 = OutputBuffer.ascii("\",\"ind2\":\"");
+    private static final byte[] SUBFIELDS = OutputBuffer.ascii("\",\"subfields\":[");
+    private static final byte[] VALUE = OutputBuffer.ascii("\":\"");
+    private static final byte[] DATAFIELD_END = OutputBuffer.ascii("]}}");
+    private static final byte[] RECORD_END = OutputBuffer.ascii("]}");
+
+    private final OutputBuffer buffer;
+
+    /** The leader, marshalled */
+    private final char[] leader = new char[Leader.LENGTH];
+
+    private boolean newlineDelimited = false;
+    private CharacterConverter charconv = null;
+
+    /** The number of records written */
+    private long count;
+
+    /** If the current record or data field has no field or subfield yet */
+    private boolean firstField;
+    private boolean firstSubfield;
+
+    /**
+     * Creates a writer.
+     *
+     * @param out the output stream
+     */
+    public MarcJsonWriter(OutputStream out)
+    {
+        this.buffer = new OutputBuffer(out);
+    }
+
+    /**
+     * <p>
+     * Writes one record per line instead of an array, disabled by default.
+     * </p>
+     *
+     * @param newlineDelimited if the records are written one per line
+     */
+    public void setNewlineDelimited(boolean newlineDelimited)
+    {
+        this.newlineDelimited = newlineDelimited;
+    }
+
+    /**
+     * <p>
+     * Registers the <code>CharacterConverter</code> applied to the data of the subfields.
+     * </p>
+     *
+     * @param charconv the character converter
+     */
+    public void setCharacterConverter(CharacterConverter charconv)
+    {
+        this.charconv = charconv;
+    }
+
+    @Override
+    public void startCollection()
+    {
+        this.count = 0;
+        if (!this.newlineDelimited) {
+            this.buffer.write('[');
+        }
+    }
+
+    @Override
+    public void record(Record record)
+    {
+        RecordEvents.replay(record, this);
+    }
+
+    @Override
+    public void startRecord(Leader leader)
+    {
+        if (!this.newlineDelimited && this.count > 0) {
+            this.buffer.write(',');
+            this.buffer.write('\n');
+        }
+        leader.marshal(this.leader, 0);
+        this.buffer.write(LEADER);
+        this.string(this.leader);
+        this.buffer.write(FIELDS);
+        this.firstField = true;
+    }
+
+    @Override
+    public void controlField(String tag, char[] data, Long id)
+    {
+        this.startField(tag);
+        this.buffer.write(VALUE);
+        if (data != null) {
+            this.string(data);
+        }
+        this.buffer.write('"');
+        this.buffer.write('}');
+    }
+
+    @Override
+    public void startDataField(String tag, char ind1, char ind2, Long id)
+    {
+        this.startField(tag);
+        this.buffer.write(IND1);
+        this.character(ind1);
+        this.buffer.write(IND2);
+        this.character(ind2);
+        this.buffer.write(SUBFIELDS);
+        this.firstSubfield = true;
+    }
+
+    @Override
+    public void subfield(char code, char[] data, String linkCode)
+    {
+        if (!this.firstSubfield) {
+            this.buffer.write(',');
+        }
+        this.firstSubfield = false;
+        this.buffer.write('{');
+        this.buffer.write('"');
+        this.character(code);
+        this.buffer.write(VALUE);
+        if (data != null) {
+            this.string(this.charconv != null ? this.charconv.convert(data) : data);
+        }
+        this.buffer.write('"');
+        this.buffer.write('}');
+    }
+
+    @Override
+    public void endDataField(String tag)
+    {
+        this.buffer.write(DATAFIELD_END);
+    }
+
+    @Override
+    public void endRecord()
+    {
+        this.buffer.write(RECORD_END);
+        if (this.newlineDelimited) {
+            this.buffer.write('\n');
+        }
+        this.count++;
+        if (this.buffer.isFull()) {
+            this.buffer.flush();
+        }
+    }
+
+    @Override
+    public void endCollection()
+    {
+        if (!this.newlineDelimited) {
+            this.buffer.write(']');
+            this.buffer.write('\n');
+        }
+        this.buffer.close();
+    }
+
+    private void startField(String tag)
+    {
+        if (!this.firstField) {
+            this.buffer.write(',');
+        }
+        this.firstField = false;
+        this.buffer.write('{');
+        this.buffer.write('"');
+        if (tag != null) {
+            for (int i = 0; i < tag.length(); i++) {
+                this.character(tag.charAt(i));
+            }
+        }
+    }
+
+    /**
+     * Writes the characters of a string, escaped and encoded in UTF-8.
+     */
+    private void string(char[] data)
+    {
+        int i = 0;
+        while ((i = this.buffer.writePlain(data, i, data.length, PLAIN)) < data.length) {
+            char c = data[i];
+            if (Character.isHighSurrogate(c) && i + 1 < data.length && Character.isLowSurrogate(data[i + 1])) {
+                this.buffer.writeCodePoint(Character.toCodePoint(c, data[++i]));
+            } else {
+                this.character(c);
+            }
+            i++;
+        }
+    }
+
+    /**
+     * Writes a character other than a surrogate pair, escaped and encoded in UTF-8.
+     */
+    private void character(char c)
+    {
+        switch (c) {
+            case '"':
+            case '\\':
+                this.buffer.write('\\');
+                this.buffer.write(c);
+                return;
+            case '\n':
+                this.buffer.write('\\');
+                this.buffer.write('n');
+                return;
+            case '\r':
+                this.buffer.write('\\');
+                this.buffer.write('r');
+                return;
+            case '\t':
+                this.buffer.write('\\');
+                this.buffer.write('t');
+                return;
+            default:
+        }
+        if (c < 0x20 || Character.isSurrogate(c)) {
+            this.buffer.write('\\');
+            this.buffer.write('u');
+            this.buffer.write(HEX[c >> 12]);
+            this.buffer.write(HEX[(c >> 8) & 0xF]);
+            this.buffer.write(HEX[(c >> 4) & 0xF]);
+            this.buffer.write(HEX[c & 0xF]);
+        } else {
+            this.buffer.writeCodePoint(c);
+        }
+    }
+
+}
@@ -19,7 +19,11 @@
  */
 package org.marc4j.marc;
 
-import java.io.Serializable;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.nio.CharBuffer;
 import java.util.Arrays;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -49,10 +53,10 @@
  */
 public class ControlField
     extends VariableField
-    implements Serializable, Cloneable
+    implements Externalizable, Cloneable
 {
 
-    private static final long serialVersionUID = 1L;
+    private static final long serialVersionUID = 2L;
 
     /** The MARC data element. */
     private char[] data;
@@ -116,6 +120,25 @@ public ControlField(String tag, String data, Long id)
         this(tag, data.toCharArray(), id);
     }
 
+    /**
+     * Creates a new control field instance and registers the tag and the control field data, checking them with the
+     * supplied validation level.
+     *
+     * @param tag the tag name
+     * @param data the control field data
+     * @param id the field id if exists.
+     * @param level the validation level for the tag and the control field data
+     * @throws IllegalTagException when the tag is not valid
+     * @throws IllegalDataElementException if the data element is not valid
+     */
+    public ControlField(String tag, char[] data, Long id, ValidationLevel level)
+    {
+        super(tag);
+        Verifier.checkTag(tag, level);
+        this.setData(data, level);
+        this.setId(id);
+    }
+
     /**
      * Copy constructor
      * Copy id attribute, so if you don't want has the same, use {@link ControlField#copy(ControlField)}.
@@ -153,7 +176,7 @@ public boolean find(Pattern pattern)
         if (this.data == null) {
             return false;
         }
-        Matcher matcher = pattern.matcher(Arrays.toString(this.getData()));
+        Matcher matcher = pattern.matcher(CharBuffer.wrap(this.data));
 
         return matcher.find();
     }
@@ -187,6 +210,19 @@ public void setData(char[] data)
         this.data = data;
     }
 
+    /**
+     * Registers the control field data, checking it with the supplied validation level.
+     *
+     * @param data the control field data
+     * @param level the validation level
+     * @throws IllegalDataElementException if the data element is not valid
+     */
+    public void setData(char[] data, ValidationLevel level)
+    {
+        Verifier.checkDataElement(data, level);
+        this.data = data;
+    }
+
     /**
      * Registers the control field data.
      *
@@ -228,6 +264,47 @@ public int getLength()
         return this.marshal().length();
     }
 
+    /**
+     * Writes the {@link ControlField} in a compact external format, tagged with the version of the format.
+     *
+     * @param out the stream to write the object to
+     */
+    @Override
+    public void writeExternal(ObjectOutput out)
+        throws IOException
+    {
+        ExternalizableSupport.writeVersion(out);
+        this.writeContent(out);
+    }
+
+    /**
+     * Restores the {@link ControlField} from the external format written by {@link #writeExternal(ObjectOutput)}.
+     *
+     * @param in the stream to read the object from
+     * @throws java.io.InvalidObjectException if the version of the format isn't supported
+     */
+    @Override
+    public void readExternal(ObjectInput in)
+        throws IOException
+    {
+        ExternalizableSupport.readVersion(in, ControlField.class);
+        this.readContent(in);
+    }
+
+    void writeContent(ObjectOutput out)
+        throws IOException
+    {
+        this.writeHeader(out);
+        ExternalizableSupport.writeChars(out, this.data);
+    }
+
+    void readContent(ObjectInput in)
+        throws IOException
+    {
+        this.readHeader(in);
+        this.data = ExternalizableSupport.readChars(in);
+    }
+
     /*
      * @see java.lang.Object#clone()
      * @deprecated Use {@link ControlField#copy} instead.
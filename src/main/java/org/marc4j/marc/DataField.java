@@ -19,11 +19,15 @@
  */
 package org.marc4j.marc;
 
-import java.io.Serializable;
-import java.util.ArrayList;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
@@ -47,15 +51,21 @@
  * <p>
  * This structure is returned by the {@link #marshal()} method.
  * </p>
+ * <p>
+ * The field keeps an index of the subfield codes a-z and 0-9 present in the field and the position of their first
+ * occurrence, so {@link #hasSubfield(char)} and the first subfield lookups don't need to scan the subfields. The index
+ * is updated when subfields are appended, and rebuilt on demand after any other change to the list of subfields or to
+ * the code of a subfield in the field.
+ * </p>
  *
  * @author Bas Peters
  */
 public class DataField
     extends VariableField
-    implements Serializable, Cloneable
+    implements Externalizable, Cloneable
 {
 
-    private static final long serialVersionUID = 1L;
+    private static final long serialVersionUID = 2L;
 
     /** The first indicator value. */
     private char ind1;
@@ -64,7 +74,7 @@
     private char ind2;
 
     /** A collection of data elements. */
-    private ArrayList<Subfield> subfields = new ArrayList<>();
+    private SubfieldList subfields = new SubfieldList();
 
     /**
      * Default constructor.
@@ -111,6 +121,29 @@ public DataField(String tag, char ind1, char ind2, Long id)
         this.setId(id);
     }
 
+    /**
+     * Creates a new {@link DataField} and sets the tag name, the first and second indicator and the id, checking them
+     * with the supplied validation level.
+     *
+     * @param tag The tag name
+     * @param ind1 The first indicator
+     * @param ind2 The second indicator
+     * @param id The id for the DataField
+     * @param level The validation level for the tag and the indicators
+     * @throws IllegalTagException when the tag is not valid
+     * @throws IllegalDataElementException when an indicator is not valid
+     */
+    public DataField(String tag, char ind1, char ind2, Long id, ValidationLevel level)
+    {
+        super(tag);
+        Verifier.checkTag(tag, level);
+        Verifier.checkIndicator(ind1, level);
+        Verifier.checkIndicator(ind2, level);
+        this.ind1 = ind1;
+        this.ind2 = ind2;
+        this.setId(id);
+    }
+
     /**
      * Copy constructor
      * Copy id attribute, so if you don't want has the same, use {@link DataField#copy(DataField)}.
@@ -151,7 +184,12 @@ public static DataField copy (DataField original)
     @Override
     public boolean find(Pattern pattern)
     {
-        return this.subfields.stream().anyMatch(subfield -> subfield.find(pattern));
+        for (Subfield subfield : this.subfields) {
+            if (subfield.find(pattern)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -225,7 +263,43 @@ public Subfield getSubfield(char code)
      */
     public Optional<Subfield> getFirstSubfield(char code)
     {
-        return this.getSubfields(code).findFirst();
+        return Optional.ofNullable(this.getFirstSubfieldOrNull(code));
+    }
+
+    /**
+     * Returns the first {@link Subfield} with the supplied <code>char</code> code, or <code>null</code>. Unlike
+     * {@link #getFirstSubfield(char)}, it doesn't allocate anything.
+     *
+     * @param code A Subfield code
+     * @return The first subfield with the supplied code, or <code>null</code> if there isn't any
+     */
+    public Subfield getFirstSubfieldOrNull(char code)
+    {
+        int index = this.subfields.indexOfCode(code);
+        return index < 0 ? null : this.subfields.get(index);
+    }
+
+    /**
+     * Returns the data of the first {@link Subfield} with the supplied <code>char</code> code, or <code>null</code>.
+     *
+     * @param code A Subfield code
+     * @return The data element of the first subfield with the supplied code, or <code>null</code> if there isn't any
+     */
+    public char[] getFirstSubfieldData(char code)
+    {
+        int index = this.subfields.indexOfCode(code);
+        return index < 0 ? null : this.subfields.get(index).getData();
+    }
+
+    /**
+     * Returns the position of the first {@link Subfield} with the supplied <code>char</code> code.
+     *
+     * @param code A Subfield code
+     * @return The position of the first subfield with the supplied code, or -1 if there isn't any
+     */
+    public int indexOfSubfield(char code)
+    {
+        return this.subfields.indexOfCode(code);
     }
 
     /**
@@ -236,7 +310,34 @@ public Optional<Subfield> getFirstSubfield(char code)
      */
     public Stream<Subfield> getSubfields(char code)
     {
-        return this.subfields.stream().filter(subfield -> subfield.getCode() == code);
+        int first = this.subfields.indexOfCode(code);
+        if (first < 0) {
+            return Stream.empty();
+        }
+        return this.subfields.subList(first, this.subfields.size())
+            .stream()
+            .filter(subfield -> subfield.getCode() == code);
+    }
+
+    /**
+     * Performs the given action for each {@link Subfield} with the supplied <code>char</code> code, in order, without
+     * building a {@link Stream}.
+     *
+     * @param code A Subfield code
+     * @param action The action to perform on each subfield
+     */
+    public void forEachSubfield(char code, Consumer<? super Subfield> action)
+    {
+        int first = this.subfields.indexOfCode(code);
+        if (first < 0) {
+            return;
+        }
+        for (int i = first, size = this.subfields.size(); i < size; i++) {
+            Subfield subfield = this.subfields.get(i);
+            if (subfield.getCode() == code) {
+                action.accept(subfield);
+            }
+        }
     }
 
     /**
@@ -249,7 +350,7 @@ public Stream<Subfield> getSubfields(char code)
      */
     public boolean hasSubfield(char code)
     {
-        return this.subfields.stream().anyMatch(subfield -> subfield.getCode() == code);
+        return this.subfields.hasCode(code);
     }
 
     /**
@@ -394,11 +495,11 @@ public void setSubfieldList(List<Subfield> subfields)
     public void setSubfields(List<Subfield> subfields)
     {
         if (subfields == null || subfields.isEmpty()) {
-            this.subfields = new ArrayList<>();
+            this.subfields = new SubfieldList();
             return;
         }
 
-        this.subfields = new ArrayList<>(subfields);
+        this.subfields = new SubfieldList(subfields);
     }
 
     /**
@@ -432,6 +533,63 @@ public int getLength()
         return this.marshal().length();
     }
 
+    /**
+     * Writes the {@link DataField} in a compact external format, tagged with the version of the format.
+     *
+     * @param out the stream to write the object to
+     */
+    @Override
+    public void writeExternal(ObjectOutput out)
+        throws IOException
+    {
+        ExternalizableSupport.writeVersion(out);
+        this.writeContent(out);
+    }
+
+    /**
+     * Restores the {@link DataField} from the external format written by {@link #writeExternal(ObjectOutput)}.
+     *
+     * @param in the stream to read the object from
+     * @throws java.io.InvalidObjectException if the version of the format isn't supported
+     */
+    @Override
+    public void readExternal(ObjectInput in)
+        throws IOException
+    {
+        ExternalizableSupport.readVersion(in, DataField.class);
+        this.readContent(in);
+    }
+
+    void writeContent(ObjectOutput out)
+        throws IOException
+    {
+        this.writeHeader(out);
+        out.writeChar(this.ind1);
+        out.writeChar(this.ind2);
+        int size = this.subfields.size();
+        ExternalizableSupport.writeVarInt(out, size);
+        for (int i = 0; i < size; i++) {
+            this.subfields.get(i).writeContent(out);
+        }
+    }
+
+    void readContent(ObjectInput in)
+        throws IOException
+    {
+        this.readHeader(in);
+        this.ind1 = in.readChar();
+        this.ind2 = in.readChar();
+        int size = ExternalizableSupport.readVarInt(in);
+        SubfieldList list = new SubfieldList();
+        list.ensureCapacity(size);
+        for (int i = 0; i < size; i++) {
+            Subfield subfield = new Subfield();
+            subfield.readContent(in);
+            list.add(subfield);
+        }
+        this.subfields = list;
+    }
+
     /*
      * @see java.lang.Object#clone()
      * @deprecated Use {@link DataField#copy} instead.
@@ -462,7 +620,7 @@ public boolean equals(Object obj)
             .append(this.getId(), that.getId())
             .append(this.ind1, that.ind1)
             .append(this.ind2, that.ind2)
-            .append(this.subfields, that.subfields) // ArrayList.equals does a "deep" equals
+            .append(this.subfields, that.subfields) // List.equals does a "deep" equals
             .isEquals();
     }
 
@@ -496,4 +654,142 @@ public String toString()
         return sb.toString();
     }
 
+
+    /**
+     * List of subfields that keeps an index of the subfield codes a-z and 0-9.
+     *
+     * <p>
+     * The index is a bitmap of the present codes and the position of the first occurrence of each code. It's updated
+     * when a subfield is appended to an indexed list, and rebuilt on demand after any other change to the list, detected
+     * through its version. A subfield doesn't know the lists it's in, so changing the code of an indexed subfield makes
+     * every index stale, which is detected through the count of those changes kept by {@link Subfield}.
+     * </p>
+     */
+    private static final class SubfieldList
+        extends VersionedList<Subfield>
+    {
+        private static final long serialVersionUID = 2L;
+
+        /** Number of indexed codes: a-z and 0-9 */
+        private static final int INDEXED_CODES = 36;
+
+        /** Value of a first position that doesn't fit in the index */
+        private static final int OVERFLOW = 0xFF;
+
+        /** Bitmap of the present codes */
+        private transient long mask;
+
+        /** Position of the first occurrence of each present code, as unsigned bytes */
+        private transient byte[] firstPositions;
+
+        /** Version of the list when the index was built */
+        private transient int indexedVersion;
+
+        /** Count of code changes of the indexed subfields when the index was built */
+        private transient int indexedCodeChanges;
+
+        /** Whether the index has been built */
+        private transient boolean indexed;
+
+        SubfieldList()
+        {
+            super();
+        }
+
+        SubfieldList(Collection<Subfield> subfields)
+        {
+            super(subfields);
+        }
+
+        @Override
+        public void add(int index, Subfield subfield)
+        {
+            boolean appended = index == this.size() && this.isIndexUpToDate();
+            super.add(index, subfield);
+            if (appended) {
+                this.index(subfield, index);
+                this.indexedVersion = this.version();
+            }
+        }
+
+        boolean hasCode(char code)
+        {
+            int slot = SubfieldList.slot(code);
+            if (slot < 0) {
+                return this.scan(code) >= 0;
+            }
+            this.ensureIndex();
+            return (this.mask & (1L << slot)) != 0;
+        }
+
+        int indexOfCode(char code)
+        {
+            int slot = SubfieldList.slot(code);
+            if (slot < 0) {
+                return this.scan(code);
+            }
+            this.ensureIndex();
+            if ((this.mask & (1L << slot)) == 0) {
+                return -1;
+            }
+            int position = this.firstPositions[slot] & 0xFF;
+            return position == OVERFLOW ? this.scan(code) : position;
+        }
+
+        private int scan(char code)
+        {
+            for (int i = 0, size = this.size(); i < size; i++) {
+                if (this.get(i).getCode() == code) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private boolean isIndexUpToDate()
+        {
+            return this.indexed && this.indexedVersion == this.version()
+                && this.indexedCodeChanges == Subfield.indexedCodeChanges();
+        }
+
+        private void ensureIndex()
+        {
+            if (this.isIndexUpToDate()) {
+                return;
+            }
+            this.mask = 0L;
+            if (this.firstPositions == null) {
+                this.firstPositions = new byte[INDEXED_CODES];
+            }
+            for (int i = 0, size = this.size(); i < size; i++) {
+                this.index(this.get(i), i);
+            }
+            this.indexedVersion = this.version();
+            this.indexedCodeChanges = Subfield.indexedCodeChanges();
+            this.indexed = true;
+        }
+
+        private void index(Subfield subfield, int position)
+        {
+            subfield.markIndexed();
+            int slot = SubfieldList.slot(subfield.getCode());
+            if (slot < 0 || (this.mask & (1L << slot)) != 0) {
+                return;
+            }
+            this.mask |= 1L << slot;
+            this.firstPositions[slot] = (byte)Math.min(position, OVERFLOW);
+        }
+
+        private static int slot(char code)
+        {
+            if (code >= 'a' && code <= 'z') {
+                return code - 'a';
+            }
+            if (code >= '0' && code <= '9') {
+                return 26 + (code - '0');
+            }
+            return -1;
+        }
+    }
+
 }
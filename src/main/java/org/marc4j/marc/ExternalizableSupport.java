@@ -0,0 +1,198 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.marc;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+/**
+ * <p>
+ * Helper methods shared by the {@link java.io.Externalizable} implementations of the record object model.
+ * </p>
+ *
+ * <p>
+ * Lengths are written as variable length integers and character data as UTF-8 (with surrogates encoded one by one),
+ * prefixed by the number of characters and the number of bytes.
+ * </p>
+ */
+final class ExternalizableSupport
+{
+
+    /** Current version of the external format */
+    static final int VERSION = 1;
+
+    private ExternalizableSupport()
+    {
+    }
+
+    /**
+     * Writes the version of the external format.
+     */
+    static void writeVersion(ObjectOutput out)
+        throws IOException
+    {
+        out.writeByte(VERSION);
+    }
+
+    /**
+     * Reads the version of the external format and checks that it's supported.
+     *
+     * @throws InvalidObjectException if the version isn't supported
+     */
+    static void readVersion(ObjectInput in, Class<?> type)
+        throws IOException
+    {
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new InvalidObjectException(
+                "Unsupported external format version " + version + " for " + type.getName());
+        }
+    }
+
+    static void writeVarInt(ObjectOutput out, int value)
+        throws IOException
+    {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    static int readVarInt(ObjectInput in)
+        throws IOException
+    {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new InvalidObjectException("Malformed variable length integer");
+    }
+
+    /**
+     * Writes an optional id: a flag and, if present, the value.
+     */
+    static void writeId(ObjectOutput out, Long id)
+        throws IOException
+    {
+        if (id == null) {
+            out.writeBoolean(false);
+        } else {
+            out.writeBoolean(true);
+            out.writeLong(id);
+        }
+    }
+
+    static Long readId(ObjectInput in)
+        throws IOException
+    {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+
+    /**
+     * Writes an optional string.
+     */
+    static void writeString(ObjectOutput out, String value)
+        throws IOException
+    {
+        ExternalizableSupport.writeChars(out, value == null ? null : value.toCharArray());
+    }
+
+    static String readString(ObjectInput in)
+        throws IOException
+    {
+        char[] chars = ExternalizableSupport.readChars(in);
+        return chars == null ? null : new String(chars);
+    }
+
+    /**
+     * Writes an optional array of characters. A <code>null</code> array is written as a length of 0, any other array
+     * as its length plus one, followed by the number of bytes and the encoded characters.
+     */
+    static void writeChars(ObjectOutput out, char[] data)
+        throws IOException
+    {
+        if (data == null) {
+            ExternalizableSupport.writeVarInt(out, 0);
+            return;
+        }
+        int length = data.length;
+        int byteLength = 0;
+        for (int i = 0; i < length; i++) {
+            char c = data[i];
+            byteLength += c < 0x80 ? 1 : (c < 0x800 ? 2 : 3);
+        }
+        byte[] bytes = new byte[byteLength];
+        int pos = 0;
+        for (int i = 0; i < length; i++) {
+            char c = data[i];
+            if (c < 0x80) {
+                bytes[pos++] = (byte)c;
+            } else if (c < 0x800) {
+                bytes[pos++] = (byte)(0xC0 | (c >> 6));
+                bytes[pos++] = (byte)(0x80 | (c & 0x3F));
+            } else {
+                bytes[pos++] = (byte)(0xE0 | (c >> 12));
+                bytes[pos++] = (byte)(0x80 | ((c >> 6) & 0x3F));
+                bytes[pos++] = (byte)(0x80 | (c & 0x3F));
+            }
+        }
+        ExternalizableSupport.writeVarInt(out, length + 1);
+        ExternalizableSupport.writeVarInt(out, byteLength);
+        out.write(bytes);
+    }
+
+    static char[] readChars(ObjectInput in)
+        throws IOException
+    {
+        int length = ExternalizableSupport.readVarInt(in) - 1;
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[ExternalizableSupport.readVarInt(in)];
+        in.readFully(bytes);
+        char[] data = new char[length];
+        int pos = 0;
+        try {
+            for (int i = 0; i < length; i++) {
+                int b = bytes[pos++] & 0xFF;
+                if (b < 0x80) {
+                    data[i] = (char)b;
+                } else if ((b & 0xE0) == 0xC0) {
+                    data[i] = (char)(((b & 0x1F) << 6) | (bytes[pos++] & 0x3F));
+                } else if ((b & 0xF0) == 0xE0) {
+                    data[i] = (char)(((b & 0x0F) << 12) | ((bytes[pos++] & 0x3F) << 6) | (bytes[pos++] & 0x3F));
+                } else {
+                    throw new InvalidObjectException("Malformed character data");
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new InvalidObjectException("Malformed character data");
+        }
+        return data;
+    }
+
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.marc;
+
+import java.util.function.Consumer;
+
+/**
+ * <p>
+ * Standard {@link KeyExtractor} implementations.
+ * </p>
+ */
+public enum IndexKeys
+    implements KeyExtractor
+{
+
+    /**
+     * The whole data, without leading and trailing spaces. For identifiers like the control number.
+     */
+    EXACT {
+        @Override
+        public void extract(char[] data, Consumer<String> keys)
+        {
+            int start = 0;
+            int end = data.length;
+            while (start < end && Character.isWhitespace(data[start])) {
+                start++;
+            }
+            while (end > start && Character.isWhitespace(data[end - 1])) {
+                end--;
+            }
+            if (start < end) {
+                keys.accept(new String(data, start, end - start));
+            }
+        }
+    },
+
+    /**
+     * The first word of the data, in lower case and without hyphens. For identifiers followed by qualifiers, like ISBN
+     * <code>0-7868-0877-2 (pbk.)</code>, indexed as <code>0786808772</code>, or <code>(OCoLC)12345</code> in 035.
+     */
+    FIRST_TOKEN {
+        @Override
+        public void extract(char[] data, Consumer<String> keys)
+        {
+            StringBuilder key = new StringBuilder();
+            for (char c : data) {
+                if (Character.isWhitespace(c)) {
+                    if (key.length() > 0) {
+                        break;
+                    }
+                } else if (c != '-') {
+                    key.append(Character.toLowerCase(c));
+                }
+            }
+            if (key.length() > 0) {
+                keys.accept(key.toString());
+            }
+        }
+    },
+
+    /**
+     * Every word of the data, in lower case, split at any character that isn't a letter or a digit. For titles and
+     * names.
+     */
+    WORDS {
+        @Override
+        public void extract(char[] data, Consumer<String> keys)
+        {
+            int start = -1;
+            for (int i = 0; i <= data.length; i++) {
+                boolean wordChar = i < data.length && Character.isLetterOrDigit(data[i]);
+                if (wordChar && start < 0) {
+                    start = i;
+                } else if (!wordChar && start >= 0) {
+                    keys.accept(new String(data, start, i - start).toLowerCase());
+                    start = -1;
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,352 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.marc;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * <p>
+ * A {@link Collection} with in-memory inverted indexes over tag and subfield paths, for exact and prefix lookups.
+ * </p>
+ *
+ * <p>
+ * Each index maps the keys extracted from the data of a path, like <code>020$a</code> or <code>001</code>, to the
+ * posting list of the positions of the records that contain them. Posting lists are primitive <code>int</code> arrays
+ * in ascending order. The indexes are updated incrementally when a record is added; an index added to a collection
+ * that already has records is built over them at once.
+ * </p>
+ *
+ * <pre>
+ * IndexedCollection snapshot = new IndexedCollection();
+ * snapshot.addIndex("isbn", "020$a", IndexKeys.FIRST_TOKEN);
+ * snapshot.addIndex("title", "245$a", IndexKeys.WORDS);
+ * ...
+ * List&lt;Record&gt; matches = snapshot.getRecords("isbn", "0-7868-0877-2");
+ * </pre>
+ *
+ * <p>
+ * The records are indexed as they are when added: later changes to a record aren't reflected in the indexes.
+ * </p>
+ */
+public class IndexedCollection
+    extends Collection
+{
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int[] NO_POSITIONS = new int[0];
+
+    private final Map<String, Index> indexes = new LinkedHashMap<>();
+
+    public IndexedCollection()
+    {
+    }
+
+    /**
+     * Adds an index of the whole data of a path.
+     *
+     * @param name the name of the index
+     * @param path the tag of a control field, like <code>001</code>, or the tag and the code of a subfield, like
+     *        <code>035$a</code>; a data field tag alone indexes all its subfields
+     * @see IndexKeys#EXACT
+     */
+    public void addIndex(String name, String path)
+    {
+        this.addIndex(name, path, IndexKeys.EXACT);
+    }
+
+    /**
+     * Adds an index of a path, and indexes the records already in the collection.
+     *
+     * @param name the name of the index
+     * @param path the tag of a control field, like <code>001</code>, or the tag and the code of a subfield, like
+     *        <code>035$a</code>; a data field tag alone indexes all its subfields
+     * @param extractor the extractor of the keys from the data
+     * @throws MarcException if there is already an index with the name, or the path isn't valid
+     */
+    public void addIndex(String name, String path, KeyExtractor extractor)
+    {
+        if (this.indexes.containsKey(name)) {
+            throw new MarcException("Index " + name + " already exists");
+        }
+        Index index = new Index(path, extractor);
+        for (int i = 0; i < this.getSize(); i++) {
+            index.add(this.getRecord(i), i);
+        }
+        this.indexes.put(name, index);
+    }
+
+    /**
+     * Returns the names of the indexes.
+     *
+     * @return the names, in the order the indexes were added
+     */
+    public List<String> getIndexNames()
+    {
+        return Collections.unmodifiableList(new ArrayList<>(this.indexes.keySet()));
+    }
+
+    /**
+     * Adds a record to the collection and to its indexes.
+     *
+     * @param record the record
+     */
+    @Override
+    public void add(Record record)
+    {
+        int position = this.getSize();
+        super.add(record);
+        for (Index index : this.indexes.values()) {
+            index.add(record, position);
+        }
+    }
+
+    /**
+     * Returns the positions of the records with the given key.
+     *
+     * @param name the name of the index
+     * @param key the key, normalised with the extractor of the index
+     * @return the positions of the records, in ascending order
+     * @throws MarcException if there isn't any index with the name
+     */
+    public int[] find(String name, String key)
+    {
+        Index index = this.getIndex(name);
+        String normalised = index.normalise(key);
+        return normalised != null ? index.find(normalised) : NO_POSITIONS;
+    }
+
+    /**
+     * Returns the positions of the records with a key that starts with the given prefix.
+     *
+     * <p>
+     * The prefix is normalised with the extractor of the index, so for {@link IndexKeys#WORDS} it's a prefix of a
+     * single word.
+     * </p>
+     *
+     * @param name the name of the index
+     * @param prefix the prefix of the keys
+     * @return the positions of the records, in ascending order and without repetitions
+     * @throws MarcException if there isn't any index with the name
+     */
+    public int[] findPrefix(String name, String prefix)
+    {
+        Index index = this.getIndex(name);
+        String normalised = index.normalise(prefix);
+        return normalised != null ? index.findPrefix(normalised) : NO_POSITIONS;
+    }
+
+    /**
+     * Returns the records with the given key.
+     *
+     * @param name the name of the index
+     * @param key the key, normalised with the extractor of the index
+     * @return the records, in the order of the collection
+     */
+    public List<Record> getRecords(String name, String key)
+    {
+        return this.toRecords(this.find(name, key));
+    }
+
+    /**
+     * Returns the records with a key that starts with the given prefix.
+     *
+     * @param name the name of the index
+     * @param prefix the prefix of the keys
+     * @return the records, in the order of the collection
+     */
+    public List<Record> getRecordsByPrefix(String name, String prefix)
+    {
+        return this.toRecords(this.findPrefix(name, prefix));
+    }
+
+    private List<Record> toRecords(int[] positions)
+    {
+        List<Record> records = new ArrayList<>(positions.length);
+        for (int position : positions) {
+            records.add(this.getRecord(position));
+        }
+        return records;
+    }
+
+    private Index getIndex(String name)
+    {
+        Index index = this.indexes.get(name);
+        if (index == null) {
+            throw new MarcException("Unknown index " + name);
+        }
+        return index;
+    }
+
+    /**
+     * An inverted index over a path.
+     */
+    private static final class Index
+        implements Serializable
+    {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String tag;
+        private final char code;
+        private final boolean controlField;
+        private final KeyExtractor extractor;
+
+        private final Map<String, Postings> postings = new HashMap<>();
+
+        /** Keys in order for the prefix lookups, sorted on demand after new keys are added */
+        private transient String[] sortedKeys;
+
+        Index(String path, KeyExtractor extractor)
+        {
+            int dollar = path.indexOf('$');
+            this.tag = dollar < 0 ? path : path.substring(0, dollar);
+            try {
+                Tag.isValid(this.tag);
+            } catch (IllegalTagException e) {
+                throw new MarcException("Invalid index path " + path, e);
+            }
+            this.controlField = Tag.isControlField(this.tag);
+            if (dollar >= 0 && (this.controlField || dollar != path.length() - 2)) {
+                throw new MarcException("Invalid index path " + path);
+            }
+            this.code = dollar < 0 ? 0 : path.charAt(dollar + 1);
+            this.extractor = extractor;
+        }
+
+        void add(Record record, int position)
+        {
+            Consumer<String> keys = key -> this.postings.computeIfAbsent(key, k -> {
+                this.sortedKeys = null;
+                return new Postings();
+            }).add(position);
+            if (this.controlField) {
+                for (ControlField field : record.getControlFields()) {
+                    if (this.tag.equals(field.getTag()) && field.getData() != null) {
+                        this.extractor.extract(field.getData(), keys);
+                    }
+                }
+                return;
+            }
+            List<DataField> fields = record.getDataFields();
+            for (int i = 0; i < fields.size(); i++) {
+                DataField field = fields.get(i);
+                if (!this.tag.equals(field.getTag())) {
+                    continue;
+                }
+                List<Subfield> subfields = field.getSubfields();
+                for (int j = 0; j < subfields.size(); j++) {
+                    Subfield subfield = subfields.get(j);
+                    if ((this.code == 0 || subfield.getCode() == this.code) && subfield.getData() != null) {
+                        this.extractor.extract(subfield.getData(), keys);
+                    }
+                }
+            }
+        }
+
+        String normalise(String key)
+        {
+            String[] normalised = new String[1];
+            this.extractor.extract(key.toCharArray(), k -> {
+                if (normalised[0] == null) {
+                    normalised[0] = k;
+                }
+            });
+            return normalised[0];
+        }
+
+        int[] find(String key)
+        {
+            Postings list = this.postings.get(key);
+            return list != null ? list.toArray() : NO_POSITIONS;
+        }
+
+        int[] findPrefix(String prefix)
+        {
+            if (this.sortedKeys == null) {
+                this.sortedKeys = this.postings.keySet().toArray(new String[0]);
+                Arrays.sort(this.sortedKeys);
+            }
+            int from = Arrays.binarySearch(this.sortedKeys, prefix);
+            if (from < 0) {
+                from = -from - 1;
+            }
+            int[] merged = NO_POSITIONS;
+            int size = 0;
+            for (int i = from; i < this.sortedKeys.length && this.sortedKeys[i].startsWith(prefix); i++) {
+                Postings list = this.postings.get(this.sortedKeys[i]);
+                if (size + list.size > merged.length) {
+                    merged = Arrays.copyOf(merged, Math.max(size + list.size, merged.length * 2));
+                }
+                System.arraycopy(list.positions, 0, merged, size, list.size);
+                size += list.size;
+            }
+            Arrays.sort(merged, 0, size);
+            int unique = 0;
+            for (int i = 0; i < size; i++) {
+                if (unique == 0 || merged[unique - 1] != merged[i]) {
+                    merged[unique++] = merged[i];
+                }
+            }
+            return Arrays.copyOf(merged, unique);
+        }
+
+    }
+
+    /**
+     * Growable posting list of record positions, in ascending order.
+     */
+    private static final class Postings
+        implements Serializable
+    {
+
+        private static final long serialVersionUID = 1L;
+
+        private int[] positions = new int[2];
+        private int size;
+
+        void add(int position)
+        {
+            // A record adds its position once, even if the key appears in several fields
+            if (this.size > 0 && this.positions[this.size - 1] == position) {
+                return;
+            }
+            if (this.size == this.positions.length) {
+                this.positions = Arrays.copyOf(this.positions, this.size * 2);
+            }
+            this.positions[this.size++] = position;
+        }
+
+        int[] toArray()
+        {
+            return Arrays.copyOf(this.positions, this.size);
+        }
+
+    }
+
+}
@@ -0,0 +1,50 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.marc;
+
+import java.io.Serializable;
+import java.util.function.Consumer;
+
+/**
+ * <p>
+ * Extracts the index keys from the data of a control field or a subfield, for an {@link IndexedCollection}.
+ * </p>
+ *
+ * <p>
+ * The lookup keys are normalised with the same extractor, so a lookup finds the records whatever the form of the key.
+ * See {@link IndexKeys} for the standard extractors.
+ * </p>
+ */
+@FunctionalInterface
+public interface KeyExtractor
+    extends Serializable
+{
+
+    /**
+     * <p>
+     * Reports the keys of a data element.
+     * </p>
+     *
+     * @param data the data of the control field or the subfield
+     * @param keys the receiver of the keys
+     */
+    void extract(char[] data, Consumer<String> keys);
+
+}
@@ -19,8 +19,11 @@
  */
 package org.marc4j.marc;
 
-import java.io.Serializable;
-import java.text.DecimalFormat;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.util.Arrays;
 
 import org.apache.commons.lang3.builder.ToStringBuilder;
@@ -41,49 +44,63 @@
  * <p>
  * This structure is returned by the {@link #marshal()} method.
  * </p>
+ * <p>
+ * The record label is stored as a single array of 24 characters, so the elements are decoded when they are requested
+ * and marshaling doesn't need any formatter.
+ * </p>
  *
  * @author Bas Peters
  */
 public class Leader
-    implements Serializable, Cloneable
+    implements Externalizable, Cloneable
 {
-    private static final long serialVersionUID = 1L;
+    private static final long serialVersionUID = 2L;
+
+    /** The length of the record label. */
+    public static final int LENGTH = 24;
 
-    /** The logical record length (Position 0-4). */
-    private int recordLength;
+    /** Record length position (Position 0-4). */
+    private static final int RECORD_LENGTH = 0;
 
-    /** The record status (Position 5). */
-    private char recordStatus;
+    /** Record status position (Position 5). */
+    private static final int RECORD_STATUS = 5;
 
-    /** Type of record (Position 6). */
-    private char typeOfRecord;
+    /** Type of record position (Position 6). */
+    private static final int TYPE_OF_RECORD = 6;
 
-    /** Implementation defined (Position 7-8). */
-    private char[] implDefined1;
+    /** Implementation defined position (Position 7-8). */
+    private static final int IMPL_DEFINED_1 = 7;
 
-    /** Character coding scheme (Position 9). */
-    private char charCodingScheme;
+    /** Character coding scheme position (Position 9). */
+    private static final int CHAR_CODING_SCHEME = 9;
 
-    /** The indicator count (Position 10). */
-    private int indicatorCount;
+    /** Indicator count position (Position 10). */
+    private static final int INDICATOR_COUNT = 10;
 
-    /** The subfield code length (Position 11). */
-    private int subfieldCodeLength;
+    /** Subfield code length position (Position 11). */
+    private static final int SUBFIELD_CODE_LENGTH = 11;
 
-    /** The base address of data (Position 12-16). */
-    private int baseAddressOfData;
+    /** Base address of data position (Position 12-16). */
+    private static final int BASE_ADDRESS_OF_DATA = 12;
 
-    /** Implementation defined (Position 17-18). */
-    private char[] implDefined2;
+    /** Implementation defined position (Position 17-19). */
+    private static final int IMPL_DEFINED_2 = 17;
 
-    /** Entry map. */
-    private char[] entryMap;
+    /** Entry map position (Position 20-23). */
+    private static final int ENTRY_MAP = 20;
 
-    /** number format for both record length and base address of data */
-    private final DecimalFormat df = new DecimalFormat("00000");
+    /** Length of the numeric elements for record length and base address of data */
+    private static final int NUMBER_LENGTH = 5;
+
+    /** The record label, stored as it's marshaled. The elements are decoded on demand. */
+    private final char[] data = new char[LENGTH];
 
     public Leader()
     {
+        this.writeNumber(RECORD_LENGTH, 0);
+        this.data[INDICATOR_COUNT] = '0';
+        this.data[SUBFIELD_CODE_LENGTH] = '0';
+        this.writeNumber(BASE_ADDRESS_OF_DATA, 0);
     }
 
     public Leader(String ldr)
@@ -96,25 +113,12 @@ public Leader(String ldr)
      */
     public Leader(Leader other)
     {
-        this.recordLength = other.recordLength;
-        this.recordStatus = other.recordStatus;
-        this.typeOfRecord = other.typeOfRecord;
-        this.implDefined1 = other.implDefined1.clone();
-        this.charCodingScheme = other.charCodingScheme;
-        this.indicatorCount = other.indicatorCount;
-        this.subfieldCodeLength = other.subfieldCodeLength;
-        this.baseAddressOfData = other.baseAddressOfData;
-        this.implDefined2 = other.implDefined2.clone();
-        this.entryMap = other.entryMap.clone();
+        System.arraycopy(other.data, 0, this.data, 0, LENGTH);
     }
 
     public static Leader newEmptyLeader()
     {
-        Leader leader = new Leader();
-        leader.setImplDefined1(new char[2]);
-        leader.setImplDefined2(new char[3]);
-        leader.setEntryMap(new char[4]);
-        return leader;
+        return new Leader();
     }
 
     /**
@@ -124,10 +128,11 @@ public static Leader newEmptyLeader()
      *
      * @param recordLength integer representing the
      *        record length
+     * @throws MarcException if the value doesn't fit in five digits
      */
     public void setRecordLength(int recordLength)
     {
-        this.recordLength = recordLength;
+        this.writeNumber(RECORD_LENGTH, recordLength);
     }
 
     /**
@@ -141,7 +146,7 @@ public void setRecordLength(int recordLength)
     public void setRecordStatus(char recordStatus)
     {
         Verifier.checkDataElement(recordStatus);
-        this.recordStatus = recordStatus;
+        this.data[RECORD_STATUS] = recordStatus;
     }
 
     /**
@@ -155,7 +160,7 @@ public void setRecordStatus(char recordStatus)
     public void setTypeOfRecord(char typeOfRecord)
     {
         Verifier.checkDataElement(typeOfRecord);
-        this.typeOfRecord = typeOfRecord;
+        this.data[TYPE_OF_RECORD] = typeOfRecord;
     }
 
     /**
@@ -168,8 +173,7 @@ public void setTypeOfRecord(char typeOfRecord)
      */
     public void setImplDefined1(char[] implDefined1)
     {
-        Verifier.checkDataElement(implDefined1);
-        this.implDefined1 = implDefined1;
+        this.writeChars(IMPL_DEFINED_1, implDefined1, 2);
     }
 
     /**
@@ -184,7 +188,7 @@ public void setImplDefined1(char[] implDefined1)
     public void setCharCodingScheme(char charCodingScheme)
     {
         Verifier.checkDataElement(charCodingScheme);
-        this.charCodingScheme = charCodingScheme;
+        this.data[CHAR_CODING_SCHEME] = charCodingScheme;
     }
 
     /**
@@ -195,10 +199,11 @@ public void setCharCodingScheme(char charCodingScheme)
      * @param indicatorCount integer representing the
      *        number of indicators present
      *        in a data field
+     * @throws MarcException if the value isn't a single digit
      */
     public void setIndicatorCount(int indicatorCount)
     {
-        this.indicatorCount = indicatorCount;
+        this.data[INDICATOR_COUNT] = Leader.toDigit(indicatorCount);
     }
 
     /**
@@ -208,10 +213,11 @@ public void setIndicatorCount(int indicatorCount)
      *
      * @param subfieldCodeLength integer representing the
      *        subfield code length
+     * @throws MarcException if the value isn't a single digit
      */
     public void setSubfieldCodeLength(int subfieldCodeLength)
     {
-        this.subfieldCodeLength = subfieldCodeLength;
+        this.data[SUBFIELD_CODE_LENGTH] = Leader.toDigit(subfieldCodeLength);
     }
 
     /**
@@ -221,10 +227,11 @@ public void setSubfieldCodeLength(int subfieldCodeLength)
      *
      * @param baseAddressOfData integer representing the
      *        base address of data
+     * @throws MarcException if the value doesn't fit in five digits
      */
     public void setBaseAddressOfData(int baseAddressOfData)
     {
-        this.baseAddressOfData = baseAddressOfData;
+        this.writeNumber(BASE_ADDRESS_OF_DATA, baseAddressOfData);
     }
 
     /**
@@ -237,8 +244,7 @@ public void setBaseAddressOfData(int baseAddressOfData)
      */
     public void setImplDefined2(char[] implDefined2)
     {
-        Verifier.checkDataElement(implDefined2);
-        this.implDefined2 = implDefined2;
+        this.writeChars(IMPL_DEFINED_2, implDefined2, 3);
     }
 
     /**
@@ -251,8 +257,7 @@ public void setImplDefined2(char[] implDefined2)
      */
     public void setEntryMap(char[] entryMap)
     {
-        Verifier.checkDataElement(entryMap);
-        this.entryMap = entryMap;
+        this.writeChars(ENTRY_MAP, entryMap, 4);
     }
 
     /**
@@ -264,7 +269,7 @@ public void setEntryMap(char[] entryMap)
      */
     public int getRecordLength()
     {
-        return this.recordLength;
+        return this.readNumber(RECORD_LENGTH);
     }
 
     /**
@@ -276,7 +281,7 @@ public int getRecordLength()
      */
     public char getRecordStatus()
     {
-        return this.recordStatus;
+        return this.data[RECORD_STATUS];
     }
 
     /**
@@ -288,12 +293,12 @@ public char getRecordStatus()
      */
     public char getTypeOfRecord()
     {
-        return this.typeOfRecord;
+        return this.data[TYPE_OF_RECORD];
     }
 
     /**
      * <p>
-     * Returns implementation defined values
+     * Returns a copy of the implementation defined values
      * (positions 07-08).
      * </p>
      *
@@ -301,7 +306,7 @@ public char getTypeOfRecord()
      */
     public char[] getImplDefined1()
     {
-        return this.implDefined1;
+        return Arrays.copyOfRange(this.data, IMPL_DEFINED_1, IMPL_DEFINED_1 + 2);
     }
 
     /**
@@ -313,7 +318,7 @@ public char[] getImplDefined1()
      */
     public char getCharCodingScheme()
     {
-        return this.charCodingScheme;
+        return this.data[CHAR_CODING_SCHEME];
     }
 
     /**
@@ -325,7 +330,7 @@ public char getCharCodingScheme()
      */
     public int getIndicatorCount()
     {
-        return this.indicatorCount;
+        return this.data[INDICATOR_COUNT] - '0';
     }
 
     /**
@@ -337,7 +342,7 @@ public int getIndicatorCount()
      */
     public int getSubfieldCodeLength()
     {
-        return this.subfieldCodeLength;
+        return this.data[SUBFIELD_CODE_LENGTH] - '0';
     }
 
     /**
@@ -349,12 +354,12 @@ public int getSubfieldCodeLength()
      */
     public int getBaseAddressOfData()
     {
-        return this.baseAddressOfData;
+        return this.readNumber(BASE_ADDRESS_OF_DATA);
     }
 
     /**
      * <p>
-     * Returns implementation defined values
+     * Returns a copy of the implementation defined values
      * (positions 17-19).
      * </p>
      *
@@ -362,19 +367,32 @@ public int getBaseAddressOfData()
      */
     public char[] getImplDefined2()
     {
-        return this.implDefined2;
+        return Arrays.copyOfRange(this.data, IMPL_DEFINED_2, IMPL_DEFINED_2 + 3);
     }
 
     /**
      * <p>
-     * Returns the entry map (positions 20-23).
+     * Returns a copy of the entry map (positions 20-23).
      * </p>
      *
      * @return <code>char[]</code> - the entry map
      */
     public char[] getEntryMap()
     {
-        return this.entryMap;
+        return Arrays.copyOfRange(this.data, ENTRY_MAP, ENTRY_MAP + 4);
+    }
+
+    /**
+     * <p>
+     * Returns the character at the given position of the record label, without decoding the whole leader.
+     * </p>
+     *
+     * @param position a position between 0 and 23
+     * @return <code>char</code> - the character at the position
+     */
+    public char charAt(int position)
+    {
+        return this.data[position];
     }
 
     /**
@@ -392,41 +410,47 @@ public char[] getEntryMap()
     public void unmarshal(final String ldr)
         throws MarcException
     {
-        try {
-            String s;
-            s = ldr.substring(0, 5);
-            if (this.isInteger(s)) {
-                this.setRecordLength(Integer.parseInt(s));
-            } else {
-                this.setRecordLength(0);
-            }
-            this.setRecordStatus(ldr.charAt(5));
-            this.setTypeOfRecord(ldr.charAt(6));
-            this.setImplDefined1(ldr.substring(7, 9).toCharArray());
-            this.setCharCodingScheme(ldr.charAt(9));
-            s = String.valueOf(ldr.charAt(10));
-            if (this.isInteger(s)) {
-                this.setIndicatorCount(Integer.parseInt(s));
-            } else {
-                this.setIndicatorCount(2);
-            }
-            s = String.valueOf(ldr.charAt(11));
-            if (this.isInteger(s)) {
-                this.setSubfieldCodeLength(Integer.parseInt(s));
-            } else {
-                this.setSubfieldCodeLength(2);
-            }
-            s = ldr.substring(12, 17);
-            if (this.isInteger(s)) {
-                this.setBaseAddressOfData(Integer.parseInt(s));
-            } else {
-                this.setBaseAddressOfData(0);
-            }
-            this.setImplDefined2(ldr.substring(17, 20).toCharArray());
-            this.setEntryMap(ldr.substring(20, 24).toCharArray());
-        } catch (NumberFormatException e) {
-            throw new MarcException("Unable to parse leader", e);
+        if (ldr == null || ldr.length() < LENGTH) {
+            throw new MarcException("Unable to parse leader");
         }
+        char[] raw = new char[LENGTH];
+        ldr.getChars(0, LENGTH, raw, 0);
+        this.unmarshal(raw, 0);
+    }
+
+    /**
+     * <p>
+     * Creates a leader object from the 24 characters starting at the given offset.
+     * </p>
+     *
+     * <p>
+     * Indicator count and subfield code length are defaulted to 2
+     * if they are not integer values.
+     * </p>
+     *
+     * @param ldr a buffer that contains the leader
+     * @param offset position of the leader in the buffer
+     */
+    public void unmarshal(final char[] ldr, final int offset)
+        throws MarcException
+    {
+        if (ldr.length - offset < LENGTH) {
+            throw new MarcException("Unable to parse leader");
+        }
+        System.arraycopy(ldr, offset, this.data, 0, LENGTH);
+        if (!this.isInteger(RECORD_LENGTH, NUMBER_LENGTH)) {
+            this.writeNumber(RECORD_LENGTH, 0);
+        }
+        if (!this.isInteger(INDICATOR_COUNT, 1)) {
+            this.data[INDICATOR_COUNT] = '2';
+        }
+        if (!this.isInteger(SUBFIELD_CODE_LENGTH, 1)) {
+            this.data[SUBFIELD_CODE_LENGTH] = '2';
+        }
+        if (!this.isInteger(BASE_ADDRESS_OF_DATA, NUMBER_LENGTH)) {
+            this.writeNumber(BASE_ADDRESS_OF_DATA, 0);
+        }
+        Verifier.checkDataElement(this.data);
     }
 
     /**
@@ -442,29 +466,62 @@ public void unmarshal(final String ldr)
      */
     public String marshal()
     {
-        return new StringBuffer()
-            .append(this.df.format(this.recordLength))
-            .append(this.recordStatus)
-            .append(this.typeOfRecord)
-            .append(this.implDefined1)
-            .append(this.charCodingScheme)
-            .append(this.indicatorCount)
-            .append(this.subfieldCodeLength)
-            .append(this.df.format(this.baseAddressOfData))
-            .append(this.implDefined2)
-            .append(this.entryMap)
-            .toString();
-    }
-
-    private boolean isInteger(String value)
-    {
-        int len = value.length();
-        if (len == 0) {
-            return false;
+        return new String(this.data);
+    }
+
+    /**
+     * Copies the record label following the MARC structure into a buffer.
+     *
+     * @param dst the destination buffer, with at least 24 free positions from the offset
+     * @param offset the position in the buffer of the first character of the record label
+     */
+    public void marshal(char[] dst, int offset)
+    {
+        System.arraycopy(this.data, 0, dst, offset, LENGTH);
+    }
+
+    private void writeNumber(int position, int value)
+    {
+        if (value < 0 || value > 99999) {
+            throw new MarcException("Value out of range for leader position " + position + ": " + value);
+        }
+        for (int i = position + NUMBER_LENGTH - 1; i >= position; i--) {
+            this.data[i] = (char)('0' + (value % 10));
+            value /= 10;
+        }
+    }
+
+    private int readNumber(int position)
+    {
+        int value = 0;
+        for (int i = position; i < position + NUMBER_LENGTH; i++) {
+            value = (value * 10) + (this.data[i] - '0');
+        }
+        return value;
+    }
+
+    private void writeChars(int position, char[] value, int length)
+    {
+        if (value.length != length) {
+            throw new MarcException("Expected " + length + " characters for leader position " + position);
+        }
+        Verifier.checkDataElement(value);
+        System.arraycopy(value, 0, this.data, position, length);
+    }
+
+    private static char toDigit(int value)
+    {
+        if (value < 0 || value > 9) {
+            throw new MarcException("Value out of range for a leader digit: " + value);
         }
-        int i = 0;
+        return (char)('0' + value);
+    }
+
+    private boolean isInteger(int position, int len)
+    {
+        int i = position;
         do {
-            switch (value.charAt(i)) {
+            switch (this.data[i]) {
                 case '0':
                 case '1':
                 case '2':
@@ -480,10 +537,53 @@ private boolean isInteger(String value)
                 default:
                     return false;
             }
-        } while (++i < len);
+        } while (++i < position + len);
         return true;
     }
 
+    /**
+     * Writes the {@link Leader} in a compact external format, tagged with the version of the format.
+     *
+     * @param out the stream to write the object to
+     */
+    @Override
+    public void writeExternal(ObjectOutput out)
+        throws IOException
+    {
+        ExternalizableSupport.writeVersion(out);
+        this.writeContent(out);
+    }
+
+    /**
+     * Restores the {@link Leader} from the external format written by {@link #writeExternal(ObjectOutput)}.
+     *
+     * @param in the stream to read the object from
+     * @throws java.io.InvalidObjectException if the version of the format isn't supported
+     */
+    @Override
+    public void readExternal(ObjectInput in)
+        throws IOException
+    {
+        ExternalizableSupport.readVersion(in, Leader.class);
+        this.readContent(in);
+    }
+
+    void writeContent(ObjectOutput out)
+        throws IOException
+    {
+        ExternalizableSupport.writeChars(out, this.data);
+    }
+
+    void readContent(ObjectInput in)
+        throws IOException
+    {
+        char[] raw = ExternalizableSupport.readChars(in);
+        if (raw == null || raw.length != LENGTH) {
+            throw new InvalidObjectException("Invalid record label");
+        }
+        System.arraycopy(raw, 0, this.data, 0, LENGTH);
+    }
+
     /*
      * @see java.lang.Object#clone()
      * @deprecated Use copy constructor  {@link #Leader(Leader)}
@@ -499,16 +599,16 @@ public Object clone()
     public String toString()
     {
         ToStringBuilder builder = new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE);
-        builder.append("recordLength", recordLength)
-            .append("recordStatus", recordStatus)
-            .append("typeOfRecord", typeOfRecord)
-            .append("implDefined1", Arrays.toString(implDefined1))
-            .append("charCodingScheme", charCodingScheme)
-            .append("indicatorCount", indicatorCount)
-            .append("subfieldCodeLength", subfieldCodeLength)
-            .append("baseAddressOfData", baseAddressOfData)
-            .append("implDefined2", Arrays.toString(implDefined2))
-            .append("entryMap", entryMap);
+        builder.append("recordLength", this.getRecordLength())
+            .append("recordStatus", this.getRecordStatus())
+            .append("typeOfRecord", this.getTypeOfRecord())
+            .append("implDefined1", Arrays.toString(this.getImplDefined1()))
+            .append("charCodingScheme", this.getCharCodingScheme())
+            .append("indicatorCount", this.getIndicatorCount())
+            .append("subfieldCodeLength", this.getSubfieldCodeLength())
+            .append("baseAddressOfData", this.getBaseAddressOfData())
+            .append("implDefined2", Arrays.toString(this.getImplDefined2()))
+            .append("entryMap", this.getEntryMap());
         return builder.toString();
     }
 
@@ -0,0 +1,141 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.marc;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <p>
+ * Index of the data fields of a record linked through subfield $6, like the 880 alternate graphic representations and
+ * the fields they belong to.
+ * </p>
+ *
+ * <p>
+ * Subfield $6 starts with the tag of the partner field, a hyphen and an occurrence number, like <code>880-01</code> in
+ * the regular field and <code>245-01</code> in its 880 partner; the rest of the subfield (script and orientation) is
+ * ignored. Occurrence number <code>00</code> means the field has no partner. The index is built in one pass over the
+ * data fields, so resolving the partner of each field of a record is linear instead of quadratic.
+ * </p>
+ *
+ * <p>
+ * The index remembers the list of data fields and its version when it was built; {@link Record} rebuilds it after any
+ * change to the list, or when a lookup finds a partner whose $6 subfield was edited since.
+ * </p>
+ */
+final class LinkageIndex
+{
+
+    /** Code of the linkage subfield */
+    static final char LINKAGE_CODE = '6';
+
+    /** Tag of the alternate graphic representation fields */
+    static final String ALTERNATE_GRAPHIC_TAG = "880";
+
+    private final VersionedList<DataField> fields;
+    private final int version;
+
+    /** Fields by their own tag, the tag of their partner and the occurrence number */
+    private final Map<Long, DataField> byKey = new HashMap<>();
+
+    LinkageIndex(VersionedList<DataField> fields)
+    {
+        this.fields = fields;
+        this.version = fields.version();
+        for (int i = 0, size = fields.size(); i < size; i++) {
+            DataField field = fields.get(i);
+            long linkage = linkage(field);
+            if (linkage >= 0) {
+                this.byKey.putIfAbsent(linkage, field);
+            }
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if the index was built from the current data fields of the record.
+     */
+    boolean isCurrent(VersionedList<DataField> fields)
+    {
+        return this.fields == fields && this.version == fields.version();
+    }
+
+    /**
+     * Returns the partner of a field, <code>null</code> if it hasn't any, or the field itself if the index is stale.
+     */
+    DataField getLinkedField(DataField field)
+    {
+        long linkage = linkage(field);
+        if (linkage < 0) {
+            return null;
+        }
+        DataField partner = this.byKey.get(partnerKey(linkage));
+        if (partner != null && linkage(partner) != partnerKey(linkage)) {
+            return field;
+        }
+        return partner;
+    }
+
+    /**
+     * Returns the key of a field as <code>tag, partner tag, occurrence</code> packed in a long, or -1 if the field has
+     * no linkage or its occurrence number is 00.
+     */
+    static long linkage(DataField field)
+    {
+        String tag = field.getTag();
+        Subfield subfield = field.getFirstSubfieldOrNull(LINKAGE_CODE);
+        if (tag == null || subfield == null || subfield.getData() == null) {
+            return -1;
+        }
+        char[] data = subfield.getData();
+        if (data.length < 6 || data[3] != '-') {
+            return -1;
+        }
+        long own = packTag(tag.charAt(0), tag.charAt(1), tag.charAt(2));
+        long partner = packTag(data[0], data[1], data[2]);
+        int occurrence = 0;
+        int i = 4;
+        for (; i < data.length && data[i] >= '0' && data[i] <= '9' && occurrence < 1 << 20; i++) {
+            occurrence = occurrence * 10 + (data[i] - '0');
+        }
+        if (own < 0 || partner < 0 || i == 4 || occurrence == 0 || occurrence >= 1 << 20) {
+            return -1;
+        }
+        return own << 41 | partner << 20 | occurrence;
+    }
+
+    /**
+     * Swaps the own tag and the partner tag of a key.
+     */
+    private static long partnerKey(long key)
+    {
+        long own = key >>> 41;
+        long partner = (key >>> 20) & 0x1FFFFF;
+        return partner << 41 | own << 20 | (key & 0xFFFFF);
+    }
+
+    private static long packTag(char a, char b, char c)
+    {
+        if (a > 0x7F || b > 0x7F || c > 0x7F) {
+            return -1;
+        }
+        return a << 14 | b << 7 | c;
+    }
+
+}
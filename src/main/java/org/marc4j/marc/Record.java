@@ -19,13 +19,19 @@
  */
 package org.marc4j.marc;
 
-import java.io.Serializable;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.io.UnsupportedEncodingException;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
@@ -54,9 +60,9 @@
  * @author Bas Peters
  */
 public class Record
-    implements Serializable, Cloneable
+    implements Externalizable, Cloneable
 {
-    private static final long serialVersionUID = 1L;
+    private static final long serialVersionUID = 2L;
 
     /** The record terminator. */
     private static final char RT = MarcConstants.RT;
@@ -68,7 +74,13 @@
     private List<ControlField> controlFields = new ArrayList<>();
 
     /** A collection of data fields. */
-    private List<DataField> dataFields = new ArrayList<>();
+    private VersionedList<DataField> dataFields = new VersionedList<>();
+
+    /** Read-only view of the variable fields, created on demand. */
+    private transient VariableFieldsView variableFieldsView;
+
+    /** Index of the fields linked through subfield $6, created on demand. */
+    private transient LinkageIndex linkageIndex;
 
     /**
      * Default constructor.
@@ -253,10 +265,8 @@ public ControlField getControlField(String tag)
      */
     public boolean hasVariableField(String tag)
     {
-        List<VariableField> list = this.getVariableFields();
-        for (VariableField variableField : list) {
-            VariableField vf = variableField;
-            if (vf.getTag().equals(tag)) {
+        for (int i = 0, size = this.getVariableFieldCount(); i < size; i++) {
+            if (this.getVariableField(i).getTag().equals(tag)) {
                 return true;
             }
         }
@@ -477,10 +487,10 @@ public void setDataFieldList(List<DataField> newList)
     public void setDataFields(java.util.Collection<DataField> newDataFields)
     {
         if (newDataFields == null || newDataFields.isEmpty()) {
-            this.dataFields = new ArrayList<>();
+            this.dataFields = new VersionedList<>();
             return;
         }
-        this.dataFields = new ArrayList<>(newDataFields);
+        this.dataFields = new VersionedList<>(newDataFields);
     }
 
     /**
@@ -532,6 +542,81 @@ public List<VariableField> getVariableFields()
         return variableFields;
     }
 
+    /**
+     * Returns a read-only view of the variable fields, in record order: control fields followed by data fields.
+     *
+     * <p>
+     * Unlike {@link #getVariableFields()}, the fields aren't copied to a new list. The view reflects the later changes
+     * to the record, and the same instance is returned on every call.
+     * </p>
+     *
+     * @return {@link List} - a read-only view of the variable fields
+     */
+    public List<VariableField> getVariableFieldsView()
+    {
+        if (this.variableFieldsView == null) {
+            this.variableFieldsView = new VariableFieldsView();
+        }
+        return this.variableFieldsView;
+    }
+
+    /**
+     * Returns the number of variable fields (control fields and data fields) of the record.
+     *
+     * @return <code>int</code> - the number of variable fields
+     */
+    public int getVariableFieldCount()
+    {
+        return this.controlFields.size() + this.dataFields.size();
+    }
+
+    /**
+     * Returns the variable field at the given position, in record order: control fields followed by data fields.
+     *
+     * @param index position of the variable field, between 0 and {@link #getVariableFieldCount()} - 1
+     * @return {@link VariableField} - the variable field
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public VariableField getVariableField(int index)
+    {
+        int controlFieldCount = this.controlFields.size();
+        if (index < controlFieldCount) {
+            return this.controlFields.get(index);
+        }
+        return this.dataFields.get(index - controlFieldCount);
+    }
+
+    /**
+     * Performs the given action for each variable field, in record order, without building any intermediate
+     * collection.
+     *
+     * @param action the action to perform on each variable field
+     */
+    public void forEachVariableField(Consumer<? super VariableField> action)
+    {
+        for (int i = 0, size = this.controlFields.size(); i < size; i++) {
+            action.accept(this.controlFields.get(i));
+        }
+        for (int i = 0, size = this.dataFields.size(); i < size; i++) {
+            action.accept(this.dataFields.get(i));
+        }
+    }
+
+    /**
+     * Reports each variable field to the visitor, in record order, without building any intermediate collection.
+     *
+     * @param visitor the {@link VariableFieldVisitor}
+     */
+    public void accept(VariableFieldVisitor visitor)
+    {
+        for (int i = 0, size = this.controlFields.size(); i < size; i++) {
+            visitor.controlField(this.controlFields.get(i));
+        }
+        for (int i = 0, size = this.dataFields.size(); i < size; i++) {
+            visitor.dataField(this.dataFields.get(i));
+        }
+    }
+
     /**
      * Sets the collection of variable fields.
      *
@@ -575,12 +660,12 @@ public void setVariableFields(java.util.Collection<VariableField> newVariableFie
     {
         if (newVariableFields == null || newVariableFields.isEmpty()) {
             this.controlFields = new ArrayList<>();
-            this.dataFields = new ArrayList<>();
+            this.dataFields = new VersionedList<>();
             return;
         }
 
         this.controlFields = new ArrayList<>();
-        this.dataFields = new ArrayList<>();
+        this.dataFields = new VersionedList<>();
         for (VariableField variableField : newVariableFields) {
             if (variableField instanceof ControlField) {
                 this.add((ControlField)variableField);
@@ -598,9 +683,7 @@ public void setVariableFields(java.util.Collection<VariableField> newVariableFie
      */
     public Stream<VariableField> getVariableFieldsStream()
     {
-        Stream<VariableField> controlFieldsStream = this.controlFields.stream().map(VariableField.class::cast);
-        Stream<VariableField> dataFieldsStream = this.dataFields.stream().map(VariableField.class::cast);
-        return Stream.concat(controlFieldsStream, dataFieldsStream);
+        return this.getVariableFieldsView().stream();
     }
 
     /**
@@ -754,6 +837,54 @@ public Stream<DataField> getDataFieldsStream(final String tag)
             .filter(field -> StringUtils.equals(field.getTag(), tag));
     }
 
+    /**
+     * Returns the data field linked to the given one through subfield $6.
+     *
+     * <p>
+     * For a field with <code>$6 880-01</code> returns its alternate graphic representation, the 880 field with
+     * <code>$6 245-01</code> (when the first one is a 245), and the other way round. The links of the record are
+     * indexed in one pass on the first call and the index is reused until the data fields are added, removed or
+     * replaced, so resolving every link of a record takes linear time.
+     * </p>
+     *
+     * <p>
+     * Editing a $6 subfield in place is detected when it breaks a link, but a link created that way is only seen after
+     * the index is rebuilt.
+     * </p>
+     *
+     * @param field a data field of this record
+     * @return the linked field, or <code>null</code> if the field has no $6, its occurrence number is 00, or the
+     *         partner isn't in the record
+     */
+    public DataField getLinkedField(DataField field)
+    {
+        if (this.linkageIndex == null || !this.linkageIndex.isCurrent(this.dataFields)) {
+            this.linkageIndex = new LinkageIndex(this.dataFields);
+        }
+        DataField linked = this.linkageIndex.getLinkedField(field);
+        if (linked == field) {
+            // The partner found was edited after the index was built
+            this.linkageIndex = new LinkageIndex(this.dataFields);
+            linked = this.linkageIndex.getLinkedField(field);
+        }
+        return linked;
+    }
+
+    /**
+     * Returns a stable 64-bit fingerprint of the content of the record.
+     *
+     * <p>
+     * Records with the same leader, ignoring its length fields, and the same fields and subfields have the same
+     * fingerprint. See {@link RecordFingerprint} for the details.
+     * </p>
+     *
+     * @return the fingerprint
+     */
+    public long fingerprint()
+    {
+        return RecordFingerprint.of(this);
+    }
+
     /**
      * Returns a List of VariableField objects that have a data element that matches the given regular expression.
      * <p>
@@ -889,6 +1020,81 @@ public String marshal(String encoding)
         return this.leader.marshal() + directory.marshal() + data + Record.RT;
     }
 
+    /**
+     * Writes the {@link Record} in a compact external format, tagged with the version of the format.
+     *
+     * <p>
+     * The leader and the fields are written inline, without class descriptors or a version tag of their own.
+     * </p>
+     *
+     * @param out the stream to write the object to
+     */
+    @Override
+    public void writeExternal(ObjectOutput out)
+        throws IOException
+    {
+        ExternalizableSupport.writeVersion(out);
+        this.writeContent(out);
+    }
+
+    /**
+     * Restores the {@link Record} from the external format written by {@link #writeExternal(ObjectOutput)}.
+     *
+     * @param in the stream to read the object from
+     * @throws java.io.InvalidObjectException if the version of the format isn't supported
+     */
+    @Override
+    public void readExternal(ObjectInput in)
+        throws IOException
+    {
+        ExternalizableSupport.readVersion(in, Record.class);
+        this.readContent(in);
+    }
+
+    private void writeContent(ObjectOutput out)
+        throws IOException
+    {
+        out.writeBoolean(this.leader != null);
+        if (this.leader != null) {
+            this.leader.writeContent(out);
+        }
+        int size = this.controlFields.size();
+        ExternalizableSupport.writeVarInt(out, size);
+        for (int i = 0; i < size; i++) {
+            this.controlFields.get(i).writeContent(out);
+        }
+        size = this.dataFields.size();
+        ExternalizableSupport.writeVarInt(out, size);
+        for (int i = 0; i < size; i++) {
+            this.dataFields.get(i).writeContent(out);
+        }
+    }
+
+    private void readContent(ObjectInput in)
+        throws IOException
+    {
+        if (in.readBoolean()) {
+            this.leader = new Leader();
+            this.leader.readContent(in);
+        } else {
+            this.leader = null;
+        }
+        int size = ExternalizableSupport.readVarInt(in);
+        this.controlFields = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ControlField controlField = new ControlField();
+            controlField.readContent(in);
+            this.controlFields.add(controlField);
+        }
+        size = ExternalizableSupport.readVarInt(in);
+        this.dataFields = new VersionedList<>(size);
+        for (int i = 0; i < size; i++) {
+            DataField dataField = new DataField();
+            dataField.readContent(in);
+            this.dataFields.add(dataField);
+        }
+    }
+
     /**
      * @deprecated Use copy constructor {@link Record(Record)}
      * @see java.lang.Object#clone()
@@ -904,6 +1110,8 @@ public Object clone()
             throw new MarcException("Unsupported clone method.", ex);
         }
 
+        instance.variableFieldsView = null;
+        instance.linkageIndex = null;
         instance.leader = (Leader)this.leader.clone();
         if (this.controlFields != null) {
             ArrayList<ControlField> newList = new ArrayList<>();
@@ -937,4 +1145,32 @@ public String toString()
             .append(" ] ")
             .toString();
     }
+
+    /**
+     * Read-only view of the control fields followed by the data fields of the record.
+     */
+    private final class VariableFieldsView
+        extends AbstractList<VariableField>
+        implements RandomAccess
+    {
+
+        @Override
+        public VariableField get(int index)
+        {
+            return Record.this.getVariableField(index);
+        }
+
+        @Override
+        public int size()
+        {
+            return Record.this.getVariableFieldCount();
+        }
+
+        @Override
+        public void forEach(Consumer<? super VariableField> action)
+        {
+            Record.this.forEachVariableField(action);
+        }
+    }
+
 }
@@ -0,0 +1,185 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.marc;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Computes a stable 64-bit fingerprint of the content of a {@link Record}.
+ * </p>
+ *
+ * <p>
+ * The fingerprint covers the leader, except the record length and the base address of data, which depend on the
+ * encoding and not on the content, and the tag, indicators, subfield codes and data of every field, in record order.
+ * The ids of the fields and the link codes of the subfields aren't part of the content. Each element is hashed with
+ * its length, so moving data between adjacent subfields changes the fingerprint.
+ * </p>
+ *
+ * <p>
+ * The fingerprint is computed directly over the <code>char[]</code> data, without marshalling the record, and doesn't
+ * depend on the JVM or on the order of the instances, so it can be stored and compared across runs. Two records with
+ * the same content always have the same fingerprint; two different records have the same fingerprint with a
+ * probability of about 2<sup>-64</sup>.
+ * </p>
+ *
+ * @see Record#fingerprint()
+ */
+public final class RecordFingerprint
+{
+
+    private static final long SEED = 0x9E3779B97F4A7C15L;
+    private static final long C1 = 0x87C37B91114253D5L;
+    private static final long C2 = 0x4CF5AD432745937FL;
+
+    private static final char LEADER_MARK = 'L';
+    private static final char CONTROL_FIELD_MARK = 'C';
+    private static final char DATA_FIELD_MARK = 'D';
+    private static final char SUBFIELD_MARK = 'S';
+
+    /** Running hash */
+    private long hash = SEED;
+
+    /** Characters pending to be mixed, packed four by lane */
+    private long lane;
+    private int laneChars;
+    private long length;
+
+    private RecordFingerprint()
+    {
+    }
+
+    /**
+     * Returns the fingerprint of a record.
+     *
+     * @param record the record
+     * @return the 64-bit fingerprint
+     */
+    public static long of(Record record)
+    {
+        RecordFingerprint fingerprint = new RecordFingerprint();
+        Leader leader = record.getLeader();
+        fingerprint.put(LEADER_MARK);
+        if (leader != null) {
+            // Skips the record length (00-04) and the base address of data (12-16)
+            for (int i = 5; i < 12; i++) {
+                fingerprint.put(leader.charAt(i));
+            }
+            for (int i = 17; i < Leader.LENGTH; i++) {
+                fingerprint.put(leader.charAt(i));
+            }
+        }
+        List<ControlField> controlFields = record.getControlFields();
+        for (int i = 0; i < controlFields.size(); i++) {
+            ControlField field = controlFields.get(i);
+            fingerprint.put(CONTROL_FIELD_MARK);
+            fingerprint.put(field.getTag());
+            fingerprint.put(field.getData());
+        }
+        List<DataField> dataFields = record.getDataFields();
+        for (int i = 0; i < dataFields.size(); i++) {
+            DataField field = dataFields.get(i);
+            fingerprint.put(DATA_FIELD_MARK);
+            fingerprint.put(field.getTag());
+            fingerprint.put(field.getIndicator1());
+            fingerprint.put(field.getIndicator2());
+            List<Subfield> subfields = field.getSubfields();
+            for (int j = 0; j < subfields.size(); j++) {
+                Subfield subfield = subfields.get(j);
+                fingerprint.put(SUBFIELD_MARK);
+                fingerprint.put(subfield.getCode());
+                fingerprint.put(subfield.getData());
+            }
+        }
+        return fingerprint.finish();
+    }
+
+    private void put(String value)
+    {
+        if (value == null) {
+            this.putLength(-1);
+            return;
+        }
+        this.putLength(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            this.put(value.charAt(i));
+        }
+    }
+
+    private void put(char[] value)
+    {
+        if (value == null) {
+            this.putLength(-1);
+            return;
+        }
+        this.putLength(value.length);
+        for (char c : value) {
+            this.put(c);
+        }
+    }
+
+    private void putLength(int value)
+    {
+        this.put((char) (value >>> 16));
+        this.put((char) value);
+    }
+
+    private void put(char c)
+    {
+        this.lane |= ((long) c) << (this.laneChars << 4);
+        this.length++;
+        if (++this.laneChars == 4) {
+            this.mix(this.lane);
+            this.lane = 0;
+            this.laneChars = 0;
+        }
+    }
+
+    private void mix(long k)
+    {
+        k *= C1;
+        k = Long.rotateLeft(k, 31);
+        k *= C2;
+        this.hash ^= k;
+        this.hash = Long.rotateLeft(this.hash, 27) * 5 + 0x52DCE729;
+    }
+
+    private long finish()
+    {
+        if (this.laneChars > 0) {
+            this.mix(this.lane);
+        }
+        return fmix(this.hash ^ this.length);
+    }
+
+    /**
+     * Final avalanche of MurmurHash3.
+     */
+    static long fmix(long k)
+    {
+        k ^= k >>> 33;
+        k *= 0xFF51AFD7ED558CCDL;
+        k ^= k >>> 33;
+        k *= 0xC4CEB9FE1A85EC53L;
+        k ^= k >>> 33;
+        return k;
+    }
+
+}
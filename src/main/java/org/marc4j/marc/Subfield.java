@@ -19,7 +19,11 @@
  */
 package org.marc4j.marc;
 
-import java.io.Serializable;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.nio.CharBuffer;
 import java.util.Arrays;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -50,15 +54,18 @@
  * @author Bas Peters
  */
 public class Subfield
-    implements Serializable, Cloneable
+    implements Externalizable, Cloneable
 {
-    private static final long serialVersionUID = 7416630407651432911L;
+    private static final long serialVersionUID = 2L;
 
     /** Empty value for the link code */
     public static final String EMPTY_LINK_CODE = null;
 
     private static final char US = MarcConstants.US;
 
+    /** Number of changes to the code of a subfield indexed by a data field */
+    private static int indexedCodeChanges;
+
     /** The code identifier. */
     private char code;
 
@@ -68,6 +75,9 @@
     /** A code if the subfield has a link with another Record */
     private String linkCode = EMPTY_LINK_CODE;
 
+    /** Whether the code has been indexed by a data field */
+    private transient boolean indexed;
+
     /** Default constructor */
     public Subfield()
     {
@@ -137,6 +147,26 @@ public Subfield(char code, String data, String linkCode)
         this.setLinkCode(linkCode);
     }
 
+    /**
+     * <p>
+     * Creates a new <code>Subfield</code> instance and registers the
+     * data element identifier and the data element, checking them with the supplied validation level.
+     * </p>
+     *
+     * @param code the data element identifier
+     * @param data the data element
+     * @param linkCode A code if the subfield has a link with another Record.
+     * @param level the validation level for the data element identifier and the data element
+     * @throws IllegalDataElementException if the data element identifier or the data element are not valid
+     */
+    public Subfield(char code, char[] data, String linkCode, ValidationLevel level)
+    {
+        Verifier.checkSubfieldCode(code, level);
+        this.setCode(code);
+        this.setData(data, level);
+        this.setLinkCode(linkCode);
+    }
+
     /**
      * Copy constructor
      *
@@ -161,7 +191,7 @@ public boolean find(Pattern pattern)
         if (this.data == null) {
             return false;
         }
-        Matcher matcher = pattern.matcher(new String(this.getData()));
+        Matcher matcher = pattern.matcher(CharBuffer.wrap(this.data));
 
         return matcher.find();
     }
@@ -173,9 +203,28 @@ public boolean find(Pattern pattern)
      */
     public void setCode(char code)
     {
+        if (this.indexed && this.code != code) {
+            Subfield.indexedCodeChanges++;
+        }
         this.code = code;
     }
 
+    /**
+     * Marks the code as indexed by a data field, so that changing it makes the indexes of the data fields stale.
+     */
+    void markIndexed()
+    {
+        this.indexed = true;
+    }
+
+    /**
+     * Returns the number of changes made so far to the code of a subfield indexed by a data field.
+     */
+    static int indexedCodeChanges()
+    {
+        return Subfield.indexedCodeChanges;
+    }
+
     /**
      * Gets the {@link Subfield} code.
      *
@@ -197,6 +246,19 @@ public void setData(char[] data)
         this.data = data;
     }
 
+    /**
+     * Sets the {@link Subfield} data, checking it with the supplied validation level.
+     *
+     * @param data The data element
+     * @param level the validation level
+     * @throws IllegalDataElementException if the data element is not valid
+     */
+    public void setData(char[] data, ValidationLevel level)
+    {
+        Verifier.checkDataElement(data, level);
+        this.data = data;
+    }
+
     /**
      * Sets the {@link Subfield} data.
      *
@@ -243,6 +305,49 @@ public String marshal()
         return new StringBuffer().append(US).append(this.code).append(this.data).toString();
     }
 
+    /**
+     * Writes the {@link Subfield} in a compact external format, tagged with the version of the format.
+     *
+     * @param out the stream to write the object to
+     */
+    @Override
+    public void writeExternal(ObjectOutput out)
+        throws IOException
+    {
+        ExternalizableSupport.writeVersion(out);
+        this.writeContent(out);
+    }
+
+    /**
+     * Restores the {@link Subfield} from the external format written by {@link #writeExternal(ObjectOutput)}.
+     *
+     * @param in the stream to read the object from
+     * @throws java.io.InvalidObjectException if the version of the format isn't supported
+     */
+    @Override
+    public void readExternal(ObjectInput in)
+        throws IOException
+    {
+        ExternalizableSupport.readVersion(in, Subfield.class);
+        this.readContent(in);
+    }
+
+    void writeContent(ObjectOutput out)
+        throws IOException
+    {
+        out.writeChar(this.code);
+        ExternalizableSupport.writeChars(out, this.data);
+        ExternalizableSupport.writeString(out, this.linkCode);
+    }
+
+    void readContent(ObjectInput in)
+        throws IOException
+    {
+        this.code = in.readChar();
+        this.data = ExternalizableSupport.readChars(in);
+        this.linkCode = ExternalizableSupport.readString(in);
+    }
+
     /*
      * @deprecated Use {@link #Subfield(Subfield)}
      */
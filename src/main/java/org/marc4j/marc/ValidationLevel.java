@@ -0,0 +1,55 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.marc;
+
+/**
+ * <p>
+ * <code>ValidationLevel</code> defines how much checking is done by the {@link Verifier} when data is registered on
+ * the record object model.
+ * </p>
+ *
+ * @see Verifier
+ */
+public enum ValidationLevel
+{
+
+    /**
+     * No checks on data elements. Intended for trusted producers, like a parser that has already delimited the data
+     * elements and so knows that they can't contain control characters.
+     */
+    NONE,
+
+    /**
+     * Data elements can't contain MARC control characters (record terminator, field terminator and subfield
+     * delimiter), and tags must have three characters. This is the default level.
+     */
+    STRUCTURAL,
+
+    /**
+     * Structural checks, plus tags must be three ASCII letters or digits, subfield codes and indicators must be ASCII
+     * letters, digits or blanks, and data elements can't contain other C0 control characters except ESC (used by
+     * MARC-8 escape sequences).
+     */
+    STRICT;
+
+    /** The level used when none is supplied. */
+    public static final ValidationLevel DEFAULT = STRUCTURAL;
+
+}
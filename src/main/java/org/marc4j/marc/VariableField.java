@@ -19,6 +19,9 @@
  */
 package org.marc4j.marc;
 
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.io.Serializable;
 import java.util.regex.Pattern;
 
@@ -133,6 +136,26 @@ public void setId(Long id)
         this.id = id;
     }
 
+    /**
+     * Writes the tag and the id in the external format.
+     */
+    void writeHeader(ObjectOutput out)
+        throws IOException
+    {
+        ExternalizableSupport.writeString(out, this.tag);
+        ExternalizableSupport.writeId(out, this.id);
+    }
+
+    /**
+     * Reads the tag and the id from the external format.
+     */
+    void readHeader(ObjectInput in)
+        throws IOException
+    {
+        this.tag = ExternalizableSupport.readString(in);
+        this.id = ExternalizableSupport.readId(in);
+    }
+
     /**
      * Returns <code>true</code> is the supplied regular expression pattern matches the {@link Variablefield} data;
      * else,
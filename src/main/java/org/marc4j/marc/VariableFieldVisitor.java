@@ -0,0 +1,51 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.marc;
+
+/**
+ * <p>
+ * Defines callbacks to visit the variable fields of a {@link Record} in record order, without building any
+ * intermediate collection.
+ * </p>
+ *
+ * @see Record#accept(VariableFieldVisitor)
+ */
+public interface VariableFieldVisitor
+{
+
+    /**
+     * <p>
+     * Receives notification of a control field.
+     * </p>
+     *
+     * @param field the control field
+     */
+    void controlField(ControlField field);
+
+    /**
+     * <p>
+     * Receives notification of a data field.
+     * </p>
+     *
+     * @param field the data field
+     */
+    void dataField(DataField field);
+
+}
@@ -25,11 +25,12 @@
  * </p>
  *
  * <p>
- * <b>Note:</b> Currently a tag is only checked for it's length
- * and data elements are checked for MARC control characters.
+ * <b>Note:</b> The methods without a {@link ValidationLevel} check at {@link ValidationLevel#STRUCTURAL} level, so a
+ * tag is only checked for it's length and data elements are checked for MARC control characters.
  * </p>
  *
  * @author Bas Peters
+ * @see ValidationLevel
  */
 public class Verifier
 {
@@ -40,6 +41,9 @@
 
     private static final char RT = MarcConstants.RT;
 
+    /** Escape character, used by the MARC-8 escape sequences */
+    private static final char ESC = 0x001B;
+
     private Verifier()
     {
     }
@@ -59,6 +63,30 @@ public static void checkTag(String tag)
         }
     }
 
+    /**
+     * <p>
+     * Checks if the tag is a valid tag name for the given validation level.
+     * </p>
+     *
+     * @param tag the tag name to check
+     * @param level the validation level
+     * @throws IllegalTagException if the tag is not valid
+     */
+    public static void checkTag(String tag, ValidationLevel level)
+    {
+        if (level == ValidationLevel.NONE) {
+            return;
+        }
+        Verifier.checkTag(tag);
+        if (level == ValidationLevel.STRICT) {
+            for (int i = 0; i < 3; i++) {
+                if (!Verifier.isAsciiLetterOrDigit(tag.charAt(i))) {
+                    throw new IllegalTagException(tag, "only ASCII letters and digits are allowed");
+                }
+            }
+        }
+    }
+
     /**
      * Checks if the data element does not contain control charecters.
      *
@@ -77,6 +105,30 @@ public static void checkDataElement(char[] data)
         } while (++i < len);
     }
 
+    /**
+     * Checks if the data element is valid for the given validation level.
+     *
+     * @param data the characters to check
+     * @param level the validation level
+     * @throws IllegalDataElementException if the data element contains invalid characters
+     */
+    public static void checkDataElement(char[] data, ValidationLevel level)
+    {
+        switch (level) {
+            case NONE:
+                return;
+
+            case STRICT:
+                for (char ch : data) {
+                    Verifier.checkDataElement(ch, ValidationLevel.STRICT);
+                }
+                return;
+
+            default:
+                Verifier.checkDataElement(data);
+        }
+    }
+
     /**
      * <p>
      * Checks if the data element does not contain control charecters.
@@ -100,4 +152,70 @@ public static void checkDataElement(char ch)
             default:
         }
     }
+
+    /**
+     * <p>
+     * Checks if the character of a data element is valid for the given validation level.
+     * </p>
+     *
+     * @param ch - the character to check
+     * @param level the validation level
+     * @throws IllegalDataElementException if the character is not valid
+     */
+    public static void checkDataElement(char ch, ValidationLevel level)
+    {
+        if (level == ValidationLevel.NONE) {
+            return;
+        }
+        Verifier.checkDataElement(ch);
+        if (level == ValidationLevel.STRICT && ch < 0x0020 && ch != ESC) {
+            throw new IllegalDataElementException("Invalid character: control character " + (int)ch);
+        }
+    }
+
+    /**
+     * <p>
+     * Checks if the indicator is valid for the given validation level.
+     * </p>
+     *
+     * @param indicator the indicator to check
+     * @param level the validation level
+     * @throws IllegalDataElementException if the indicator is not valid
+     */
+    public static void checkIndicator(char indicator, ValidationLevel level)
+    {
+        if (level == ValidationLevel.NONE) {
+            return;
+        }
+        Verifier.checkDataElement(indicator);
+        if (level == ValidationLevel.STRICT && indicator != MarcConstants.BLANK
+            && !Verifier.isAsciiLetterOrDigit(indicator)) {
+            throw new IllegalDataElementException("Invalid indicator: " + indicator);
+        }
+    }
+
+    /**
+     * <p>
+     * Checks if the subfield code (data element identifier) is valid for the given validation level.
+     * </p>
+     *
+     * <p>
+     * Subfield codes are only checked at {@link ValidationLevel#STRICT} level.
+     * </p>
+     *
+     * @param code the subfield code to check
+     * @param level the validation level
+     * @throws IllegalDataElementException if the subfield code is not valid
+     */
+    public static void checkSubfieldCode(char code, ValidationLevel level)
+    {
+        if (level == ValidationLevel.STRICT && !Verifier.isAsciiLetterOrDigit(code)) {
+            throw new IllegalDataElementException("Invalid subfield code: " + code);
+        }
+    }
+
+    private static boolean isAsciiLetterOrDigit(char ch)
+    {
+        return (ch >= '0' && ch <= '9') || (ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z');
+    }
 }
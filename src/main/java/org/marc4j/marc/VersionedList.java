@@ -0,0 +1,133 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.marc;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+/**
+ * Array list that counts every change made to it, structural or not, so the indexes built from it can tell when they
+ * are stale.
+ *
+ * <p>
+ * The list itself, its iterators and its sublists change it only through {@link #set(int, Object)},
+ * {@link #add(int, Object)}, {@link #remove(int)} and {@link #removeRange(int, int)}, which increment the version. The
+ * modification count used by the iterators to fail fast only counts structural changes, as in {@link ArrayList}.
+ * </p>
+ *
+ * @param <E> the type of the elements
+ */
+class VersionedList<E>
+    extends AbstractList<E>
+    implements RandomAccess, Serializable
+{
+
+    private static final long serialVersionUID = 1L;
+
+    private final ArrayList<E> elements;
+
+    /** Number of changes to the list */
+    private transient int version;
+
+    VersionedList()
+    {
+        this.elements = new ArrayList<>();
+    }
+
+    VersionedList(int capacity)
+    {
+        this.elements = new ArrayList<>(capacity);
+    }
+
+    VersionedList(Collection<? extends E> elements)
+    {
+        this.elements = new ArrayList<>(elements);
+    }
+
+    /**
+     * Returns the number of changes made to the list so far.
+     */
+    final int version()
+    {
+        return this.version;
+    }
+
+    void ensureCapacity(int capacity)
+    {
+        this.elements.ensureCapacity(capacity);
+    }
+
+    @Override
+    public E get(int index)
+    {
+        return this.elements.get(index);
+    }
+
+    @Override
+    public int size()
+    {
+        return this.elements.size();
+    }
+
+    @Override
+    public E set(int index, E element)
+    {
+        E previous = this.elements.set(index, element);
+        this.version++;
+        return previous;
+    }
+
+    @Override
+    public void add(int index, E element)
+    {
+        this.elements.add(index, element);
+        this.modCount++;
+        this.version++;
+    }
+
+    @Override
+    public E remove(int index)
+    {
+        E previous = this.elements.remove(index);
+        this.modCount++;
+        this.version++;
+        return previous;
+    }
+
+    @Override
+    public void clear()
+    {
+        this.elements.clear();
+        this.modCount++;
+        this.version++;
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex)
+    {
+        this.elements.subList(fromIndex, toIndex).clear();
+        this.modCount++;
+        this.version++;
+    }
+
+}
@@ -435,7 +435,7 @@ public void startRecord(Leader leader)
                 this.ch.ignorableWhitespace("\n    ".toCharArray(), 0, 5);
             }
 
-            Leader safeLeader = this.sanitizeLeader(leader);
+            Leader safeLeader = MarcXmlRules.sanitizeLeader(leader);
 
             this.writeElement(NS_URI, "leader", "leader", EMPTY_ATTS, safeLeader.marshal());
         } catch (SAXException se) {
@@ -481,8 +481,8 @@ public void controlField(String tag, char[] data, Long id)
     public void startDataField(String tag, char ind1, char ind2, Long id)
     {
         try {
-            ind1 = this.sanitizeIndicatorChar(ind1);
-            ind2 = this.sanitizeIndicatorChar(ind2);
+            ind1 = MarcXmlRules.sanitizeIndicatorChar(ind1);
+            ind2 = MarcXmlRules.sanitizeIndicatorChar(ind2);
 
             AttributesImpl atts = new AttributesImpl();
             atts.addAttribute("", "tag", "tag", "CDATA", tag);
@@ -615,128 +615,4 @@ private void setCharacterConverter(boolean convert)
             }
         }
     }
-
-    /**
-     * Sanitizes the leader type of record and bibliograhic level
-     */
-    private Leader sanitizeLeader(Leader leader)
-    {
-        Leader safeLeader = leader;
-        if (this.verifyLeaderTypeOfRecord(leader)) {
-            if (!this.verifyBibliographicLevel(leader)) {
-                safeLeader = new Leader(leader);
-                this.enforceBibliograchiLevelAsMonographic(safeLeader);
-            }
-        } else {
-            safeLeader = new Leader(leader);
-            this.enforceTypeOfRecordLanguageMaterial(safeLeader);
-            if (!this.verifyBibliographicLevel(safeLeader)) {
-                this.enforceBibliograchiLevelAsMonographic(safeLeader);
-            }
-        }
-        return safeLeader;
-    }
-
-    /**
-     * Checks if the record type of the leader (position 06), it's correct
-     * 
-     * @return True if the type of the record, it's valid
-     */
-    private boolean verifyLeaderTypeOfRecord(Leader leader)
-    {
-        char typeOfRecord = leader.getTypeOfRecord();
-        switch (typeOfRecord) {
-            case 'a':
-            case 'c':
-            case 'd':
-            case 'e':
-            case 'f':
-            case 'g':
-            case 'i':
-            case 'j':
-            case 'k':
-            case 'm':
-            case 'o':
-            case 'p':
-            case 'r':
-            case 't':
-            case 'z':
-            case 'u':
-            case 'v':
-            case 'x':
-            case 'y':
-            case 'w':
-            case 'q':
-                return true;
-
-            default:
-                return false;
-        }
-    }
-
-    /**
-     * Enforces the type of record to 'a' -> Language material
-     */
-    private Leader enforceTypeOfRecordLanguageMaterial(Leader leader)
-    {
-        leader.setTypeOfRecord('a');
-        return leader;
-    }
-
-    /**
-     * Checks if the bibliographic level of the leader (position 07), it's correct
-     */
-    private boolean verifyBibliographicLevel(Leader leader)
-    {
-        char bibliographicLevel = leader.getImplDefined1()[0];
-        switch (bibliographicLevel) {
-            case 'a':
-            case 'b':
-            case 'c':
-            case 'd':
-            case 'i':
-            case 'm':
-            case 's':
-            case 'n':
-            case 'o':
-            case 'p':
-            case 'q':
-            case 'z':
-                return true;
-
-            default:
-                return false;
-        }
-    }
-
-    /**
-     * Enforces the bibliographic level as a Monographic component part
-     */
-    private Leader enforceBibliograchiLevelAsMonographic(Leader leader)
-    {
-        char[] implDefined = leader.getImplDefined1();
-
-        // If position 07 it's '#', then it's hcanged to ' '
-        if (implDefined[0] == '#') {
-            implDefined[0] = ' ';
-        } else {
-            implDefined[0] = 'm';
-        }
-        leader.setImplDefined1(implDefined);
-        return leader;
-    }
-
-    /**
-     * Sanitize a indicator character. If a invalid indicator it's found, returns a ' '
-     * 
-     * Valid indicator characters are a to z, ' ', and 0 to 9
-     */
-    private char sanitizeIndicatorChar(char indicator)
-    {
-        indicator = Character.toLowerCase(indicator);
-        if (!Character.isLetterOrDigit(indicator)) {
-            indicator = ' ';
-        }
-        return indicator;
-    }
 }
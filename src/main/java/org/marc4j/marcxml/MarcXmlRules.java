@@ -0,0 +1,158 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.marcxml;
+
+import org.marc4j.marc.Leader;
+
+/**
+ * The rules applied to the leader and the indicators of the records written as MARCXML, shared by
+ * {@link MarcXmlReader} and {@link MarcXmlStreamWriter}.
+ */
+final class MarcXmlRules
+{
+
+    private MarcXmlRules()
+    {
+    }
+
+    /**
+     * Sanitizes the leader type of record and bibliograhic level
+     */
+    static Leader sanitizeLeader(Leader leader)
+    {
+        Leader safeLeader = leader;
+        if (MarcXmlRules.verifyLeaderTypeOfRecord(leader)) {
+            if (!MarcXmlRules.verifyBibliographicLevel(leader)) {
+                safeLeader = new Leader(leader);
+                MarcXmlRules.enforceBibliograchiLevelAsMonographic(safeLeader);
+            }
+        } else {
+            safeLeader = new Leader(leader);
+            MarcXmlRules.enforceTypeOfRecordLanguageMaterial(safeLeader);
+            if (!MarcXmlRules.verifyBibliographicLevel(safeLeader)) {
+                MarcXmlRules.enforceBibliograchiLevelAsMonographic(safeLeader);
+            }
+        }
+        return safeLeader;
+    }
+
+    /**
+     * Checks if the record type of the leader (position 06), it's correct
+     * 
+     * @return True if the type of the record, it's valid
+     */
+    static boolean verifyLeaderTypeOfRecord(Leader leader)
+    {
+        char typeOfRecord = leader.getTypeOfRecord();
+        switch (typeOfRecord) {
+            case 'a':
+            case 'c':
+            case 'd':
+            case 'e':
+            case 'f':
+            case 'g':
+            case 'i':
+            case 'j':
+            case 'k':
+            case 'm':
+            case 'o':
+            case 'p':
+            case 'r':
+            case 't':
+            case 'z':
+            case 'u':
+            case 'v':
+            case 'x':
+            case 'y':
+            case 'w':
+            case 'q':
+                return true;
+
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Enforces the type of record to 'a' -> Language material
+     */
+    static Leader enforceTypeOfRecordLanguageMaterial(Leader leader)
+    {
+        leader.setTypeOfRecord('a');
+        return leader;
+    }
+
+    /**
+     * Checks if the bibliographic level of the leader (position 07), it's correct
+     */
+    static boolean verifyBibliographicLevel(Leader leader)
+    {
+        char bibliographicLevel = leader.getImplDefined1()[0];
+        switch (bibliographicLevel) {
+            case 'a':
+            case 'b':
+            case 'c':
+            case 'd':
+            case 'i':
+            case 'm':
+            case 's':
+            case 'n':
+            case 'o':
+            case 'p':
+            case 'q':
+            case 'z':
+                return true;
+
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Enforces the bibliographic level as a Monographic component part
+     */
+    static Leader enforceBibliograchiLevelAsMonographic(Leader leader)
+    {
+        char[] implDefined = leader.getImplDefined1();
+
+        // If position 07 it's '#', then it's hcanged to ' '
+        if (implDefined[0] == '#') {
+            implDefined[0] = ' ';
+        } else {
+            implDefined[0] = 'm';
+        }
+        leader.setImplDefined1(implDefined);
+        return leader;
+    }
+
+    /**
+     * Sanitize a indicator character. If a invalid indicator it's found, returns a ' '
+     * 
+     * Valid indicator characters are a to z, ' ', and 0 to 9
+     */
+    static char sanitizeIndicatorChar(char indicator)
+    {
+        indicator = Character.toLowerCase(indicator);
+        if (!Character.isLetterOrDigit(indicator)) {
+            indicator = ' ';
+        }
+        return indicator;
+    }
+}
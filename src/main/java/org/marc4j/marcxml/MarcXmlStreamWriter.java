@@ -0,0 +1,379 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.marcxml;
+
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import org.marc4j.MarcHandler;
+import org.marc4j.helpers.RecordEvents;
+import org.marc4j.helpers.RecordHandler;
+import org.marc4j.marc.Leader;
+import org.marc4j.marc.Record;
+import org.marc4j.util.CharacterConverter;
+import org.marc4j.util.OutputBuffer;
+
+/**
+ * <p>
+ * Implements the <code>MarcHandler</code> interface to write MARCXML straight to an <code>OutputStream</code>, without
+ * SAX events or a <code>Transformer</code>.
+ * </p>
+ *
+ * <p>
+ * The markup is copied from precomputed fragments and the data is escaped and encoded directly into a byte buffer, so
+ * writing a record creates almost no objects. The leader and the indicators are sanitized like {@link MarcXmlReader}
+ * does, and the document is the same, with the same pretty printing, schema location and document type declaration
+ * options. Characters the encoding can't represent are written as character references.
+ * </p>
+ *
+ * <pre>
+ * MarcReader reader = new MarcReader();
+ * reader.setMarcHandler(new MarcXmlStreamWriter(new FileOutputStream("records.xml")));
+ * reader.parse(new FileInputStream("records.mrc"));
+ * </pre>
+ *
+ * <p>
+ * It's also a <code>RecordHandler</code>, that writes whole records. The output is flushed and closed at the end of
+ * the collection. Errors writing to it are thrown as <code>MarcException</code>.
+ * </p>
+ *
+ * @see MarcHandler
+ */
+public class MarcXmlStreamWriter
+    implements MarcHandler, RecordHandler
+{
+
+    /** Namespace for MARCXML */
+    private static final String NS_URI = "http://www.loc.gov/MARC21/slim";
+
+    /** Namespace for W3C XML Schema instance */
+    private static final String NS_XSI = "http://www.w3.org/2001/XMLSchema-instance";
+
+    /** Element fragments, with and without pretty printing */
+    /** The ASCII characters written as they are */
+    private static final boolean[] PLAIN = new boolean[0x80];
+
+    static {
+        for (char c = 0x20; c < 0x80; c++) {
+            PLAIN[c] = c != '<' && c != '>' && c != '&' && c != '"';
+        }
+    }
+
+    private static final byte[][] RECORD_START = MarcXmlStreamWriter.fragments("\n  ", "<record>");
+    private static final byte[][] LEADER_START = MarcXmlStreamWriter.fragments("\n    ", "<leader>");
+    private static final byte[] LEADER_END = OutputBuffer.ascii("</leader>");
+    private static final byte[][] CONTROLFIELD_START = MarcXmlStreamWriter.fragments("\n    ", "<controlfield tag=\"");
+    private static final byte[] CONTROLFIELD_END = OutputBuffer.ascii("</controlfield>");
+    private static final byte[][] DATAFIELD_START = MarcXmlStreamWriter.fragments("\n    ", "<datafield tag=\"");
+    private static final byte[] IND1 = OutputBuffer.ascii("\" ind1=\"");
+    private static final byte[] IND2 = OutputBuffer.ascii("\" ind2=\"");
+    private static final byte[][] DATAFIELD_END = MarcXmlStreamWriter.fragments("\n    ", "</datafield>");
+    private static final byte[][] SUBFIELD_START = MarcXmlStreamWriter.fragments("\n      ", "<subfield code=\"");
+    private static final byte[] SUBFIELD_END = OutputBuffer.ascii("</subfield>");
+    private static final byte[][] RECORD_END = MarcXmlStreamWriter.fragments("\n  ", "</record>");
+    private static final byte[][] COLLECTION_END = MarcXmlStreamWriter.fragments("\n", "</collection>");
+    private static final byte[] ATTRIBUTE_END = OutputBuffer.ascii("\">");
+
+    private final OutputBuffer buffer;
+    private final Charset charset;
+
+    /** The leader, marshalled */
+    private final char[] leader = new char[Leader.LENGTH];
+
+    /** 0 with pretty printing, 1 without */
+    private int layout = 0;
+
+    private String schemaLocation = null;
+    private DoctypeDecl doctype = null;
+    private CharacterConverter charconv = null;
+
+    /**
+     * Creates a writer in UTF-8.
+     *
+     * @param out the output stream
+     */
+    public MarcXmlStreamWriter(OutputStream out)
+    {
+        this(out, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Creates a writer.
+     *
+     * @param out the output stream
+     * @param encoding the encoding of the document
+     * @throws UnsupportedEncodingException if the encoding isn't supported or isn't compatible with ASCII
+     */
+    public MarcXmlStreamWriter(OutputStream out, String encoding)
+        throws UnsupportedEncodingException
+    {
+        this(out, OutputBuffer.charset(encoding));
+    }
+
+    /**
+     * Creates a writer.
+     *
+     * @param out the output stream
+     * @param charset the charset of the document, compatible with ASCII
+     */
+    public MarcXmlStreamWriter(OutputStream out, Charset charset)
+    {
+        this.buffer = new OutputBuffer(out, charset);
+        this.charset = charset;
+    }
+
+    /**
+     * <p>
+     * Enables or disables the indentation of the elements, enabled by default.
+     * </p>
+     *
+     * @param prettyPrinting if the elements are indented
+     */
+    public void setPrettyPrinting(boolean prettyPrinting)
+    {
+        this.layout = prettyPrinting ? 0 : 1;
+    }
+
+    /**
+     * <p>
+     * Sets the schema location of the root element, none by default.
+     * </p>
+     *
+     * @param schemaLocation the schema location
+     */
+    public void setSchemaLocation(String schemaLocation)
+    {
+        this.schemaLocation = schemaLocation;
+    }
+
+    /**
+     * <p>
+     * Sets the document type declaration, written if there isn't a schema location.
+     * </p>
+     *
+     * @param doctype the document type declaration
+     */
+    public void setDoctypeDecl(DoctypeDecl doctype)
+    {
+        this.doctype = doctype;
+    }
+
+    /**
+     * <p>
+     * Registers the <code>CharacterConverter</code> applied to the data of the subfields, like in
+     * {@link MarcXmlReader}.
+     * </p>
+     *
+     * @param charconv the character converter
+     */
+    public void setCharacterConverter(CharacterConverter charconv)
+    {
+        this.charconv = charconv;
+    }
+
+    @Override
+    public void startCollection()
+    {
+        this.buffer.writeAscii("<?xml version=\"1.0\" encoding=\"" + this.charset.name() + "\"?>");
+        if (this.doctype != null && this.schemaLocation == null) {
+            this.buffer.writeAscii("<!DOCTYPE ");
+            this.buffer.writeAscii(this.doctype.getName());
+            if (this.doctype.getPublicId() != null) {
+                this.buffer.writeAscii(" PUBLIC \"" + this.doctype.getPublicId() + "\" \"");
+                this.buffer.writeAscii(this.doctype.getSystemId() + "\"");
+            } else if (this.doctype.getSystemId() != null) {
+                this.buffer.writeAscii(" SYSTEM \"" + this.doctype.getSystemId() + "\"");
+            }
+            this.buffer.writeAscii(">\n");
+        }
+        this.buffer.writeAscii("<collection");
+        if (this.schemaLocation != null) {
+            this.buffer.writeAscii(" xmlns:xsi=\"" + NS_XSI + "\" xsi:schemaLocation=\"");
+            this.text(this.schemaLocation.toCharArray(), true);
+            this.buffer.writeAscii("\"");
+        }
+        if (this.doctype == null) {
+            this.buffer.writeAscii(" xmlns=\"" + NS_URI + "\"");
+        }
+        this.buffer.writeAscii(">");
+    }
+
+    @Override
+    public void record(Record record)
+    {
+        RecordEvents.replay(record, this);
+    }
+
+    @Override
+    public void startRecord(Leader leader)
+    {
+        MarcXmlRules.sanitizeLeader(leader).marshal(this.leader, 0);
+        this.buffer.write(RECORD_START[this.layout]);
+        this.buffer.write(LEADER_START[this.layout]);
+        this.text(this.leader, false);
+        this.buffer.write(LEADER_END);
+    }
+
+    @Override
+    public void controlField(String tag, char[] data, Long id)
+    {
+        this.buffer.write(CONTROLFIELD_START[this.layout]);
+        this.attribute(tag);
+        this.buffer.write(ATTRIBUTE_END);
+        if (data != null) {
+            this.text(data, false);
+        }
+        this.buffer.write(CONTROLFIELD_END);
+    }
+
+    @Override
+    public void startDataField(String tag, char ind1, char ind2, Long id)
+    {
+        this.buffer.write(DATAFIELD_START[this.layout]);
+        this.attribute(tag);
+        this.buffer.write(IND1);
+        this.character(MarcXmlRules.sanitizeIndicatorChar(ind1), true);
+        this.buffer.write(IND2);
+        this.character(MarcXmlRules.sanitizeIndicatorChar(ind2), true);
+        this.buffer.write(ATTRIBUTE_END);
+    }
+
+    @Override
+    public void subfield(char code, char[] data, String linkCode)
+    {
+        this.buffer.write(SUBFIELD_START[this.layout]);
+        this.character(code, true);
+        this.buffer.write(ATTRIBUTE_END);
+        if (data != null) {
+            this.text(this.charconv != null ? this.charconv.convert(data) : data, false);
+        }
+        this.buffer.write(SUBFIELD_END);
+    }
+
+    @Override
+    public void endDataField(String tag)
+    {
+        this.buffer.write(DATAFIELD_END[this.layout]);
+    }
+
+    @Override
+    public void endRecord()
+    {
+        this.buffer.write(RECORD_END[this.layout]);
+        if (this.buffer.isFull()) {
+            this.buffer.flush();
+        }
+    }
+
+    @Override
+    public void endCollection()
+    {
+        this.buffer.write(COLLECTION_END[this.layout]);
+        this.buffer.writeAscii("\n");
+        this.buffer.close();
+    }
+
+    private void attribute(String value)
+    {
+        if (value != null) {
+            for (int i = 0; i < value.length(); i++) {
+                this.character(value.charAt(i), true);
+            }
+        }
+    }
+
+    private void text(char[] data, boolean attribute)
+    {
+        int i = 0;
+        while ((i = this.buffer.writePlain(data, i, data.length, PLAIN)) < data.length) {
+            char c = data[i];
+            if (Character.isHighSurrogate(c) && i + 1 < data.length && Character.isLowSurrogate(data[i + 1])) {
+                this.codePoint(Character.toCodePoint(c, data[++i]));
+            } else {
+                this.character(c, attribute);
+            }
+            i++;
+        }
+    }
+
+    /**
+     * Writes a character other than a surrogate pair, escaped.
+     */
+    private void character(char c, boolean attribute)
+    {
+        switch (c) {
+            case '<':
+                this.buffer.writeAscii("&lt;");
+                return;
+            case '>':
+                this.buffer.writeAscii("&gt;");
+                return;
+            case '&':
+                this.buffer.writeAscii("&amp;");
+                return;
+            case '"':
+                if (attribute) {
+                    this.buffer.writeAscii("&quot;");
+                    return;
+                }
+                break;
+            case '\t':
+            case '\n':
+                if (!attribute) {
+                    this.buffer.write(c);
+                    return;
+                }
+                break;
+            default:
+        }
+        if (c < 0x20) {
+            this.reference(c);
+        } else if (Character.isSurrogate(c)) {
+            this.buffer.write('?');
+        } else {
+            this.codePoint(c);
+        }
+    }
+
+    /**
+     * Writes a code point that doesn't need escaping, as a reference if the charset can't encode it.
+     */
+    private void codePoint(int c)
+    {
+        if (!this.buffer.writeCodePoint(c)) {
+            this.reference(c);
+        }
+    }
+
+    private void reference(int c)
+    {
+        this.buffer.writeAscii("&#");
+        this.buffer.writeAscii(Integer.toString(c));
+        this.buffer.writeAscii(";");
+    }
+
+    private static byte[][] fragments(String indent, String markup)
+    {
+        return new byte[][] { OutputBuffer.ascii(indent + markup), OutputBuffer.ascii(markup) };
+    }
+
+}
@@ -0,0 +1,439 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.mnemonic;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.marc4j.ErrorHandler;
+import org.marc4j.MarcHandler;
+import org.marc4j.MarcReaderException;
+import org.marc4j.marc.Leader;
+import org.marc4j.marc.Subfield;
+import org.marc4j.marc.VariableField;
+
+/**
+ * <p>
+ * Parses records in the mnemonic line format (.mrk) of MarcEdit, like the ones written by {@link MnemonicWriter}, and
+ * reports them to a <code>MarcHandler</code>.
+ * </p>
+ *
+ * <pre>
+ * MnemonicReader reader = new MnemonicReader();
+ * reader.setMarcHandler(new MarcStreamHandler(new FileOutputStream("records.mrc"), "UTF-8"));
+ * reader.parse("records.mrk");
+ * </pre>
+ *
+ * <p>
+ * Each record starts with its <code>=LDR</code> line and ends with an empty line, or with the next record. The input
+ * is read in blocks of characters and parsed in place, without a <code>String</code> per line. The blanks written as
+ * <code>\</code> in the leader, the control fields and the indicators are read as blanks, and the mnemonics
+ * <code>{dollar}</code>, <code>{lcub}</code>, <code>{rcub}</code>, <code>{bsol}</code> and <code>{U+XXXX}</code> as
+ * the characters they stand for. Other mnemonics are kept as they are. Lines that can't be parsed are reported to the
+ * <code>ErrorHandler</code>, if there is one, and skipped.
+ * </p>
+ */
+public class MnemonicReader
+{
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /** The tags made of three digits, created once */
+    private static final String[] TAGS = new String[1000];
+
+    static {
+        for (int i = 0; i < TAGS.length; i++) {
+            TAGS[i] = String.format("%03d", i);
+        }
+    }
+
+    /** The MarcHandler object. */
+    private MarcHandler mh;
+
+    /** The ErrorHandler object. */
+    private ErrorHandler eh;
+
+    /** The number of the current line, and the control number of the current record */
+    private int lineNumber;
+    private String controlNumber;
+
+    /** If a record has started and not ended, and if the lines up to the next record are skipped */
+    private boolean inRecord;
+    private boolean skipRecord;
+
+    /** The data of a field or a subfield, with the mnemonics replaced */
+    private char[] data = new char[256];
+    private int dataLength;
+
+    /**
+     * <p>
+     * Registers the <code>MarcHandler</code> implementation.
+     * </p>
+     *
+     * @param mh the {@link MarcHandler} implementation
+     */
+    public void setMarcHandler(MarcHandler mh)
+    {
+        this.mh = mh;
+    }
+
+    /**
+     * <p>
+     * Registers the <code>ErrorHandler</code> implementation.
+     * </p>
+     *
+     * @param eh the {@link ErrorHandler} implementation
+     */
+    public void setErrorHandler(ErrorHandler eh)
+    {
+        this.eh = eh;
+    }
+
+    /**
+     * <p>
+     * Parses a file in UTF-8.
+     * </p>
+     *
+     * @param fileName the file name
+     */
+    public void parse(String fileName)
+        throws IOException
+    {
+        try (InputStream input = new FileInputStream(fileName)) {
+            this.parse(input);
+        }
+    }
+
+    /**
+     * <p>
+     * Parses an input stream in UTF-8.
+     * </p>
+     *
+     * @param input the input stream
+     */
+    public void parse(InputStream input)
+        throws IOException
+    {
+        this.parse(new InputStreamReader(input, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * <p>
+     * Parses an input stream.
+     * </p>
+     *
+     * @param input the input stream
+     * @param encoding the encoding of the input
+     * @throws UnsupportedEncodingException if the encoding isn't supported
+     */
+    public void parse(InputStream input, String encoding)
+        throws IOException
+    {
+        if (!Charset.isSupported(encoding)) {
+            throw new UnsupportedEncodingException(encoding);
+        }
+        this.parse(new InputStreamReader(input, encoding));
+    }
+
+    /**
+     * <p>
+     * Parses a reader. It's read in blocks, so it doesn't need to be buffered.
+     * </p>
+     *
+     * @param input the reader
+     */
+    public void parse(Reader input)
+        throws IOException
+    {
+        this.lineNumber = 0;
+        this.controlNumber = null;
+        this.inRecord = false;
+        this.skipRecord = false;
+        if (this.mh != null) {
+            this.mh.startCollection();
+        }
+        char[] buffer = new char[BUFFER_SIZE];
+        int start = 0;
+        int end = 0;
+        int scan = 0;
+        while (true) {
+            int lineEnd = -1;
+            for (int i = scan; i < end; i++) {
+                if (buffer[i] == '\n') {
+                    lineEnd = i;
+                    break;
+                }
+            }
+            if (lineEnd >= 0) {
+                this.line(buffer, start, lineEnd);
+                start = lineEnd + 1;
+                scan = start;
+                continue;
+            }
+            // Keep the partial line, and read more
+            if (start > 0) {
+                System.arraycopy(buffer, start, buffer, 0, end - start);
+                end -= start;
+                start = 0;
+            } else if (end == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+            scan = end;
+            int count = input.read(buffer, end, buffer.length - end);
+            if (count < 0) {
+                break;
+            }
+            end += count;
+        }
+        if (start < end) {
+            this.line(buffer, start, end);
+        }
+        this.endRecord();
+        if (this.mh != null) {
+            this.mh.endCollection();
+        }
+    }
+
+    /**
+     * Parses a line, without its line feed.
+     */
+    private void line(char[] line, int start, int end)
+    {
+        this.lineNumber++;
+        if (end > start && line[end - 1] == '\r') {
+            end--;
+        }
+        // A byte order mark
+        if (this.lineNumber == 1 && end > start && line[start] == '\uFEFF') {
+            start++;
+        }
+        if (start == end) {
+            this.endRecord();
+            return;
+        }
+        if (line[start] != '=' || end - start < 4) {
+            this.reportError("Invalid line");
+            return;
+        }
+        int content = Math.min(start + 6, end);
+        if (line[start + 1] == 'L' && line[start + 2] == 'D' && line[start + 3] == 'R') {
+            this.endRecord();
+            this.leader(line, content, end);
+            return;
+        }
+        if (this.skipRecord) {
+            return;
+        }
+        if (!this.inRecord) {
+            this.reportError("Field outside of a record");
+            return;
+        }
+        String tag = MnemonicReader.tag(line, start + 1);
+        if (line[start + 1] == '0' && line[start + 2] == '0') {
+            this.unescape(line, content, end, true);
+            char[] data = Arrays.copyOf(this.data, this.dataLength);
+            if ("001".equals(tag)) {
+                this.controlNumber = new String(data);
+            }
+            if (this.mh != null) {
+                this.mh.controlField(tag, data, VariableField.EMPTY_ID);
+            }
+        } else {
+            this.dataField(tag, line, content, end);
+        }
+    }
+
+    private void leader(char[] line, int start, int end)
+    {
+        this.controlNumber = null;
+        this.unescape(line, start, end, true);
+        Leader leader = new Leader();
+        try {
+            if (this.dataLength != Leader.LENGTH) {
+                throw new IllegalArgumentException("Invalid leader length " + this.dataLength);
+            }
+            leader.unmarshal(this.data, 0);
+        } catch (RuntimeException e) {
+            this.reportError("Unable to parse leader: " + e.getMessage());
+            this.skipRecord = true;
+            return;
+        }
+        this.inRecord = true;
+        if (this.mh != null) {
+            this.mh.startRecord(leader);
+        }
+    }
+
+    private void dataField(String tag, char[] line, int start, int end)
+    {
+        if (end - start < 2) {
+            this.reportError("Missing indicators in field " + tag);
+            return;
+        }
+        char ind1 = line[start] == '\\' ? ' ' : line[start];
+        char ind2 = line[start + 1] == '\\' ? ' ' : line[start + 1];
+        int position = start + 2;
+        if (position < end && line[position] != '$') {
+            this.reportWarning("Data before the first subfield of field " + tag);
+            while (position < end && line[position] != '$') {
+                position++;
+            }
+        }
+        if (this.mh != null) {
+            this.mh.startDataField(tag, ind1, ind2, VariableField.EMPTY_ID);
+        }
+        while (position + 1 < end) {
+            char code = line[position + 1];
+            int dataEnd = position + 2;
+            while (dataEnd < end && line[dataEnd] != '$') {
+                dataEnd++;
+            }
+            if (this.mh != null) {
+                this.unescape(line, position + 2, dataEnd, false);
+                this.mh.subfield(code, Arrays.copyOf(this.data, this.dataLength), Subfield.EMPTY_LINK_CODE);
+            }
+            position = dataEnd;
+        }
+        if (this.mh != null) {
+            this.mh.endDataField(tag);
+        }
+    }
+
+    private void endRecord()
+    {
+        if (this.inRecord && this.mh != null) {
+            this.mh.endRecord();
+        }
+        this.inRecord = false;
+        this.skipRecord = false;
+    }
+
+    /**
+     * Copies data into the data buffer, replacing the mnemonics, and in the leader and the control fields the
+     * backslashes.
+     */
+    private void unescape(char[] line, int start, int end, boolean control)
+    {
+        if (this.data.length < end - start) {
+            this.data = new char[Math.max(this.data.length * 2, end - start)];
+        }
+        char[] data = this.data;
+        int length = 0;
+        for (int i = start; i < end; i++) {
+            char c = line[i];
+            if (c == '\\' && control) {
+                data[length++] = ' ';
+            } else if (c != '{') {
+                data[length++] = c;
+            } else {
+                int close = i + 1;
+                while (close < end && close - i <= 9 && line[close] != '}') {
+                    close++;
+                }
+                int codePoint = close < end && line[close] == '}' ? MnemonicReader.mnemonic(line, i + 1, close) : -1;
+                if (codePoint < 0) {
+                    data[length++] = c;
+                } else {
+                    length += Character.toChars(codePoint, data, length);
+                    i = close;
+                }
+            }
+        }
+        this.dataLength = length;
+    }
+
+    /**
+     * Returns the character of a mnemonic, or -1 if it isn't one of the known ones.
+     */
+    private static int mnemonic(char[] line, int start, int end)
+    {
+        int length = end - start;
+        if (length > 2 && line[start] == 'U' && line[start + 1] == '+' && length <= 8) {
+            int codePoint = 0;
+            for (int i = start + 2; i < end; i++) {
+                int digit = Character.digit(line[i], 16);
+                if (digit < 0) {
+                    return -1;
+                }
+                codePoint = codePoint * 16 + digit;
+            }
+            return codePoint <= Character.MAX_CODE_POINT ? codePoint : -1;
+        }
+        if (MnemonicReader.matches(line, start, end, "dollar")) {
+            return '$';
+        }
+        if (MnemonicReader.matches(line, start, end, "lcub")) {
+            return '{';
+        }
+        if (MnemonicReader.matches(line, start, end, "rcub")) {
+            return '}';
+        }
+        if (MnemonicReader.matches(line, start, end, "bsol")) {
+            return '\\';
+        }
+        return -1;
+    }
+
+    private static boolean matches(char[] line, int start, int end, String name)
+    {
+        if (end - start != name.length()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (line[start + i] != name.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String tag(char[] line, int start)
+    {
+        char c0 = line[start];
+        char c1 = line[start + 1];
+        char c2 = line[start + 2];
+        if (c0 >= '0' && c0 <= '9' && c1 >= '0' && c1 <= '9' && c2 >= '0' && c2 <= '9') {
+            return TAGS[(c0 - '0') * 100 + (c1 - '0') * 10 + (c2 - '0')];
+        }
+        return new String(line, start, 3);
+    }
+
+    private void reportWarning(String message)
+    {
+        if (this.eh != null) {
+            this.eh.warning(new MarcReaderException(message, this.lineNumber, this.controlNumber));
+        }
+    }
+
+    private void reportError(String message)
+    {
+        if (this.eh != null) {
+            this.eh.error(new MarcReaderException(message, this.lineNumber, this.controlNumber));
+        }
+    }
+
+}
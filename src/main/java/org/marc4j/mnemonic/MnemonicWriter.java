@@ -0,0 +1,297 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.mnemonic;
+
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import org.marc4j.MarcHandler;
+import org.marc4j.helpers.RecordEvents;
+import org.marc4j.helpers.RecordHandler;
+import org.marc4j.marc.Leader;
+import org.marc4j.marc.MarcException;
+import org.marc4j.marc.Record;
+import org.marc4j.util.CharacterConverter;
+import org.marc4j.util.OutputBuffer;
+
+/**
+ * <p>
+ * Writes records in the mnemonic line format (.mrk) of MarcEdit, that {@link MnemonicReader} reads back:
+ * </p>
+ *
+ * <pre>
+ * =LDR  00714cam\\2200205\a\4500
+ * =001  12883376
+ * =008  881005s1988\\\\caua\\\\\\\\\\001\0\eng\\
+ * =245  10$aJack and Jill :$ba Mother Goose book{dollar}5.
+ * </pre>
+ *
+ * <p>
+ * Each field is a line, and each record ends with an empty line. The blanks of the leader, the control fields and the
+ * indicators are written as <code>\</code>. The characters that have a meaning in the format are written as
+ * mnemonics: <code>{dollar}</code>, <code>{lcub}</code>, <code>{rcub}</code> and, in the leader and the control fields,
+ * <code>{bsol}</code>. Control characters and characters the encoding can't represent are written as
+ * <code>{U+XXXX}</code>. The format has no escapes for the indicators and the subfield codes: control characters,
+ * a <code>\</code> indicator, which would be read back as a blank, and characters the encoding can't represent are
+ * rejected there with a <code>MarcException</code>.
+ * </p>
+ *
+ * <p>
+ * It receives the records as <code>MarcHandler</code> events or as <code>Record</code> objects, and writes them into
+ * a byte buffer reused from one record to the next. The output is flushed and closed at the end of the collection, and
+ * errors writing to it are thrown as <code>MarcException</code>.
+ * </p>
+ */
+public class MnemonicWriter
+    implements MarcHandler, RecordHandler
+{
+
+    private static final byte[] LEADER = OutputBuffer.ascii("=LDR  ");
+    private static final byte[] DOLLAR = OutputBuffer.ascii("{dollar}");
+    private static final byte[] LCUB = OutputBuffer.ascii("{lcub}");
+    private static final byte[] RCUB = OutputBuffer.ascii("{rcub}");
+    private static final byte[] BSOL = OutputBuffer.ascii("{bsol}");
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    /** The ASCII characters written as they are in the subfields */
+    private static final boolean[] PLAIN = new boolean[0x80];
+
+    /** The ASCII characters written as they are in the leader and the control fields */
+    private static final boolean[] PLAIN_CONTROL = new boolean[0x80];
+
+    static {
+        for (char c = 0x20; c < 0x7F; c++) {
+            PLAIN[c] = c != '$' && c != '{' && c != '}';
+            PLAIN_CONTROL[c] = PLAIN[c] && c != ' ' && c != '\\';
+        }
+    }
+
+    private final OutputBuffer buffer;
+
+    /** The leader, marshalled */
+    private final char[] leader = new char[Leader.LENGTH];
+
+    private CharacterConverter charconv = null;
+
+    /**
+     * Creates a writer in UTF-8.
+     *
+     * @param out the output stream
+     */
+    public MnemonicWriter(OutputStream out)
+    {
+        this(out, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Creates a writer.
+     *
+     * @param out the output stream
+     * @param encoding the encoding of the output
+     * @throws UnsupportedEncodingException if the encoding isn't supported or isn't compatible with ASCII
+     */
+    public MnemonicWriter(OutputStream out, String encoding)
+        throws UnsupportedEncodingException
+    {
+        this(out, OutputBuffer.charset(encoding));
+    }
+
+    /**
+     * Creates a writer.
+     *
+     * @param out the output stream
+     * @param charset the charset of the output, compatible with ASCII
+     */
+    public MnemonicWriter(OutputStream out, Charset charset)
+    {
+        this.buffer = new OutputBuffer(out, charset);
+    }
+
+    /**
+     * <p>
+     * Registers the <code>CharacterConverter</code> applied to the data of the subfields.
+     * </p>
+     *
+     * @param charconv the character converter
+     */
+    public void setCharacterConverter(CharacterConverter charconv)
+    {
+        this.charconv = charconv;
+    }
+
+    @Override
+    public void startCollection()
+    {
+        this.buffer.clear();
+    }
+
+    @Override
+    public void record(Record record)
+    {
+        RecordEvents.replay(record, this);
+    }
+
+    @Override
+    public void startRecord(Leader leader)
+    {
+        leader.marshal(this.leader, 0);
+        this.buffer.write(LEADER);
+        this.text(this.leader, true);
+        this.buffer.write('\n');
+    }
+
+    @Override
+    public void controlField(String tag, char[] data, Long id)
+    {
+        this.tag(tag);
+        if (data != null) {
+            this.text(data, true);
+        }
+        this.buffer.write('\n');
+    }
+
+    @Override
+    public void startDataField(String tag, char ind1, char ind2, Long id)
+    {
+        this.check(ind1, true);
+        this.check(ind2, true);
+        this.tag(tag);
+        this.buffer.writeCodePoint(ind1 == ' ' ? '\\' : ind1);
+        this.buffer.writeCodePoint(ind2 == ' ' ? '\\' : ind2);
+    }
+
+    @Override
+    public void subfield(char code, char[] data, String linkCode)
+    {
+        this.check(code, false);
+        this.buffer.write('$');
+        this.buffer.writeCodePoint(code);
+        if (data != null) {
+            this.text(this.charconv != null ? this.charconv.convert(data) : data, false);
+        }
+    }
+
+    @Override
+    public void endDataField(String tag)
+    {
+        this.buffer.write('\n');
+    }
+
+    @Override
+    public void endRecord()
+    {
+        this.buffer.write('\n');
+        if (this.buffer.isFull()) {
+            this.buffer.flush();
+        }
+    }
+
+    @Override
+    public void endCollection()
+    {
+        this.buffer.close();
+    }
+
+    private void tag(String tag)
+    {
+        this.buffer.write('=');
+        this.buffer.writeAscii(tag);
+        this.buffer.writeAscii("  ");
+    }
+
+    /**
+     * Writes the data of a field, with the blanks as backslashes in the leader and the control fields.
+     */
+    private void text(char[] data, boolean control)
+    {
+        boolean[] plain = control ? PLAIN_CONTROL : PLAIN;
+        int i = 0;
+        while ((i = this.buffer.writePlain(data, i, data.length, plain)) < data.length) {
+            char c = data[i];
+            switch (c) {
+                case ' ':
+                    this.buffer.write('\\');
+                    break;
+                case '$':
+                    this.buffer.write(DOLLAR);
+                    break;
+                case '{':
+                    this.buffer.write(LCUB);
+                    break;
+                case '}':
+                    this.buffer.write(RCUB);
+                    break;
+                case '\\':
+                    this.buffer.write(BSOL);
+                    break;
+                default:
+                    if (c < 0x20 || c == 0x7F) {
+                        this.mnemonic(c);
+                    } else if (Character.isHighSurrogate(c) && i + 1 < data.length
+                        && Character.isLowSurrogate(data[i + 1])) {
+                        this.codePoint(Character.toCodePoint(c, data[++i]));
+                    } else if (Character.isSurrogate(c)) {
+                        this.mnemonic(c);
+                    } else {
+                        this.codePoint(c);
+                    }
+            }
+            i++;
+        }
+    }
+
+    /**
+     * Writes a code point as it is, or as a mnemonic if the charset can't encode it.
+     */
+    private void codePoint(int c)
+    {
+        if (!this.buffer.writeCodePoint(c)) {
+            this.mnemonic(c);
+        }
+    }
+
+    /**
+     * Writes a code point as <code>{U+XXXX}</code>.
+     */
+    private void mnemonic(int c)
+    {
+        this.buffer.writeAscii("{U+");
+        int digits = c > 0xFFFF ? (c > 0xFFFFF ? 6 : 5) : 4;
+        for (int shift = (digits - 1) * 4; shift >= 0; shift -= 4) {
+            this.buffer.write(HEX[(c >> shift) & 0xF]);
+        }
+        this.buffer.write('}');
+    }
+
+    /**
+     * Checks that an indicator or a subfield code can be written as it is, since the format has no escapes for them.
+     */
+    private void check(char c, boolean indicator)
+    {
+        if (c < 0x20 || c == 0x7F || Character.isSurrogate(c) || (indicator && c == '\\')
+            || !this.buffer.canEncode(c)) {
+            throw new MarcException(String.format("The %s U+%04X can't be written in the mnemonic format",
+                indicator ? "indicator" : "subfield code", (int) c));
+        }
+    }
+
+}
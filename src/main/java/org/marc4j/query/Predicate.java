@@ -0,0 +1,257 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.query;
+
+import java.nio.CharBuffer;
+import java.util.regex.Pattern;
+
+import org.marc4j.marc.Leader;
+
+/**
+ * A node of a compiled {@link Query}.
+ *
+ * <p>
+ * Predicates are evaluated with three-valued logic, so that a query can be checked against a record that has been read
+ * only in part: a test on something that isn't known yet is {@link #UNKNOWN}, and the record is rejected as soon as the
+ * whole query is {@link #FALSE}.
+ * </p>
+ */
+abstract class Predicate
+{
+
+    static final int FALSE = 0;
+    static final int TRUE = 1;
+    static final int UNKNOWN = 2;
+
+    abstract int evaluate(QueryTarget target);
+
+    static final class And
+        extends Predicate
+    {
+
+        private final Predicate left;
+        private final Predicate right;
+
+        And(Predicate left, Predicate right)
+        {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        int evaluate(QueryTarget target)
+        {
+            int left = this.left.evaluate(target);
+            if (left == FALSE) {
+                return FALSE;
+            }
+            int right = this.right.evaluate(target);
+            return right == FALSE ? FALSE : Math.max(left, right);
+        }
+
+    }
+
+    static final class Or
+        extends Predicate
+    {
+
+        private final Predicate left;
+        private final Predicate right;
+
+        Or(Predicate left, Predicate right)
+        {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        int evaluate(QueryTarget target)
+        {
+            int left = this.left.evaluate(target);
+            if (left == TRUE) {
+                return TRUE;
+            }
+            int right = this.right.evaluate(target);
+            return right == TRUE ? TRUE : Math.max(left, right);
+        }
+
+    }
+
+    static final class Not
+        extends Predicate
+    {
+
+        private final Predicate operand;
+
+        Not(Predicate operand)
+        {
+            this.operand = operand;
+        }
+
+        @Override
+        int evaluate(QueryTarget target)
+        {
+            int value = this.operand.evaluate(target);
+            return value == UNKNOWN ? UNKNOWN : TRUE - value;
+        }
+
+    }
+
+    /**
+     * Whether a record has a field, or a subfield of a field.
+     */
+    static final class Present
+        extends Predicate
+        implements QueryTarget.Condition
+    {
+
+        private final String tag;
+        private final char code;
+
+        Present(String tag, char code)
+        {
+            this.tag = tag;
+            this.code = code;
+        }
+
+        @Override
+        int evaluate(QueryTarget target)
+        {
+            return this.code == 0 ? target.hasField(this.tag) : target.anyValue(this.tag, this.code, this);
+        }
+
+        @Override
+        public boolean test(char[] data, int start, int end)
+        {
+            return true;
+        }
+
+    }
+
+    /**
+     * A comparison of the leader, a control field or a subfield with a literal. The test on a field is true when any
+     * occurrence of the field or the subfield satisfies it.
+     */
+    static final class Compare
+        extends Predicate
+        implements QueryTarget.Condition
+    {
+
+        enum Operator
+        {
+            EQ, LT, LE, GT, GE, MATCH
+        }
+
+        /** The tag, or null for the leader */
+        private final String tag;
+        private final char code;
+
+        /** The first and last positions of the value, or -1 for the whole value */
+        private final int from;
+        private final int to;
+
+        private final Operator operator;
+        private final String text;
+        private final long number;
+        private final boolean numeric;
+        private final Pattern pattern;
+
+        Compare(String tag, char code, int from, int to, Operator operator, String text, boolean numeric,
+            Pattern pattern)
+        {
+            this.tag = tag;
+            this.code = code;
+            this.from = from;
+            this.to = to;
+            this.operator = operator;
+            this.text = text;
+            this.numeric = numeric;
+            this.number = numeric ? Long.parseLong(text) : 0;
+            this.pattern = pattern;
+        }
+
+        @Override
+        int evaluate(QueryTarget target)
+        {
+            if (this.tag != null) {
+                return target.anyValue(this.tag, this.code, this);
+            }
+            Leader leader = target.getLeader();
+            char[] value = new char[this.to + 1];
+            for (int i = this.from; i <= this.to; i++) {
+                value[i] = leader.charAt(i);
+            }
+            return this.test(value, 0, value.length) ? TRUE : FALSE;
+        }
+
+        @Override
+        public boolean test(char[] data, int start, int end)
+        {
+            if (this.from >= 0) {
+                if (start + this.to >= end) {
+                    return false;
+                }
+                end = start + this.to + 1;
+                start += this.from;
+            }
+            if (this.operator == Operator.MATCH) {
+                return this.pattern.matcher(CharBuffer.wrap(data, start, end - start)).find();
+            }
+            int cmp;
+            if (this.numeric) {
+                int digits = start;
+                while (digits < end && !Character.isDigit(data[digits])) {
+                    digits++;
+                }
+                if (digits == end) {
+                    return false;
+                }
+                long value = 0;
+                for (int i = digits; i < end && i < digits + 18 && Character.isDigit(data[i]); i++) {
+                    value = value * 10 + Character.digit(data[i], 10);
+                }
+                cmp = Long.compare(value, this.number);
+            } else {
+                cmp = 0;
+                int length = Math.min(end - start, this.text.length());
+                for (int i = 0; i < length && cmp == 0; i++) {
+                    cmp = data[start + i] - this.text.charAt(i);
+                }
+                if (cmp == 0) {
+                    cmp = (end - start) - this.text.length();
+                }
+            }
+            switch (this.operator) {
+                case EQ:
+                    return cmp == 0;
+                case LT:
+                    return cmp < 0;
+                case LE:
+                    return cmp <= 0;
+                case GT:
+                    return cmp > 0;
+                default:
+                    return cmp >= 0;
+            }
+        }
+
+    }
+
+}
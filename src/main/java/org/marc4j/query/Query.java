@@ -0,0 +1,131 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.query;
+
+import org.marc4j.RecordFilter;
+import org.marc4j.marc.Leader;
+import org.marc4j.marc.MarcException;
+import org.marc4j.marc.Record;
+
+/**
+ * <p>
+ * A compiled query over MARC records, written in a small expression language:
+ * </p>
+ *
+ * <pre>
+ * leader/06 = 'e' and 034 present and 260$c &lt; 1900
+ * 008/35-37 = "spa" and not (245$a ~ /quijote/i or 100 present)
+ * </pre>
+ *
+ * <p>
+ * A test refers to a range of positions of the leader or a control field, like <code>leader/06</code> or
+ * <code>008/35-37</code>, to a control field, like <code>001</code>, to a subfield, like <code>260$c</code>, or to all
+ * the subfields of a data field, like <code>245</code>. It either checks that the field or the subfield is
+ * <code>present</code>, or compares its value with the operators <code>= != &lt; &lt;= &gt; &gt;=</code> and a literal
+ * between quotes, or matches it with <code>~</code> and a regular expression between slashes, with an optional
+ * <code>i</code> flag. A comparison with an unquoted number compares the first number of the value, so
+ * <code>260$c &lt; 1900</code> is true for <code>c1875.</code>. Tests are combined with <code>and</code>,
+ * <code>or</code>, <code>not</code> and parentheses.
+ * </p>
+ *
+ * <p>
+ * A test on a field is true when any occurrence satisfies it, and <code>!=</code> is true when none is equal.
+ * </p>
+ *
+ * <p>
+ * A query is a {@link RecordFilter}, so it can be pushed down into a {@link org.marc4j.MarcReader}. The leader tests
+ * are checked before the directory is read, the presence tests on the tags of the directory before the fields are
+ * read, and the value tests on the raw data of the fields with the tags they refer to, before any field is parsed. Only
+ * the matching records are reported to the <code>MarcHandler</code>:
+ * </p>
+ *
+ * <pre>
+ * MarcReader reader = new MarcReader();
+ * reader.setRecordFilter(Query.compile("leader/06 = 'e' and 034 present"));
+ * reader.setMarcHandler(new MarcWriter(out));
+ * reader.parse("maps.mrc");
+ * </pre>
+ *
+ * <p>
+ * Records from other sources can be filtered with {@link #matches(Record)} or a {@link QueryFilter}. A query is
+ * immutable and can be shared between threads.
+ * </p>
+ */
+public final class Query
+    implements RecordFilter
+{
+
+    private final String expression;
+    private final Predicate predicate;
+
+    private Query(String expression, Predicate predicate)
+    {
+        this.expression = expression;
+        this.predicate = predicate;
+    }
+
+    /**
+     * Compiles a query.
+     *
+     * @param expression the query expression
+     * @return the compiled query
+     * @throws MarcException if the expression isn't valid, with its position
+     */
+    public static Query compile(String expression)
+    {
+        return new Query(expression, QueryParser.parse(expression));
+    }
+
+    /**
+     * Returns whether a record matches the query.
+     *
+     * @param record the record
+     * @return true if the record matches
+     */
+    public boolean matches(Record record)
+    {
+        return this.predicate.evaluate(new QueryTarget.RecordTarget(record)) == Predicate.TRUE;
+    }
+
+    @Override
+    public boolean acceptLeader(Leader leader)
+    {
+        return this.predicate.evaluate(new QueryTarget.Raw(leader, null, null)) != Predicate.FALSE;
+    }
+
+    @Override
+    public boolean acceptDirectory(Leader leader, String[] tags)
+    {
+        return this.predicate.evaluate(new QueryTarget.Raw(leader, tags, null)) != Predicate.FALSE;
+    }
+
+    @Override
+    public boolean acceptFields(Leader leader, String[] tags, char[][] fields)
+    {
+        return this.predicate.evaluate(new QueryTarget.Raw(leader, tags, fields)) == Predicate.TRUE;
+    }
+
+    @Override
+    public String toString()
+    {
+        return this.expression;
+    }
+
+}
@@ -0,0 +1,117 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.query;
+
+import org.marc4j.helpers.RecordHandler;
+import org.marc4j.marc.Record;
+
+/**
+ * <p>
+ * Streaming <code>RecordHandler</code> that reports only the records that match a {@link Query}.
+ * </p>
+ *
+ * <p>
+ * For records parsed by a {@link org.marc4j.MarcReader}, registering the query as its record filter is faster, as the
+ * records that don't match aren't parsed at all.
+ * </p>
+ */
+public class QueryFilter
+    implements RecordHandler
+{
+
+    private final Query query;
+
+    /** The RecordHandler for the matching records. */
+    private RecordHandler recordHandler;
+
+    private long recordCount;
+    private long matchCount;
+
+    /**
+     * Creates a filter.
+     *
+     * @param query the query of the records to report
+     */
+    public QueryFilter(Query query)
+    {
+        this.query = query;
+    }
+
+    /**
+     * <p>
+     * Registers the <code>RecordHandler</code> that receives the matching records.
+     * </p>
+     *
+     * @param recordHandler the record handler object
+     */
+    public void setRecordHandler(RecordHandler recordHandler)
+    {
+        this.recordHandler = recordHandler;
+    }
+
+    @Override
+    public void startCollection()
+    {
+        if (this.recordHandler != null) {
+            this.recordHandler.startCollection();
+        }
+    }
+
+    @Override
+    public void record(Record record)
+    {
+        this.recordCount++;
+        if (this.query.matches(record)) {
+            this.matchCount++;
+            if (this.recordHandler != null) {
+                this.recordHandler.record(record);
+            }
+        }
+    }
+
+    @Override
+    public void endCollection()
+    {
+        if (this.recordHandler != null) {
+            this.recordHandler.endCollection();
+        }
+    }
+
+    /**
+     * Returns the number of records received.
+     *
+     * @return the number of records
+     */
+    public long getRecordCount()
+    {
+        return this.recordCount;
+    }
+
+    /**
+     * Returns the number of records that matched the query.
+     *
+     * @return the number of matching records
+     */
+    public long getMatchCount()
+    {
+        return this.matchCount;
+    }
+
+}
@@ -0,0 +1,291 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.query;
+
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.marc4j.marc.Leader;
+import org.marc4j.marc.MarcException;
+import org.marc4j.marc.Tag;
+import org.marc4j.query.Predicate.Compare.Operator;
+
+/**
+ * Recursive descent parser of the query language described in {@link Query}.
+ */
+final class QueryParser
+{
+
+    private final String text;
+    private int position;
+
+    private QueryParser(String text)
+    {
+        this.text = text;
+    }
+
+    static Predicate parse(String text)
+    {
+        QueryParser parser = new QueryParser(text);
+        Predicate predicate = parser.parseOr();
+        parser.skipSpaces();
+        if (parser.position < text.length()) {
+            throw parser.error("Unexpected '" + text.charAt(parser.position) + "'");
+        }
+        return predicate;
+    }
+
+    private Predicate parseOr()
+    {
+        Predicate predicate = this.parseAnd();
+        while (this.keyword("or")) {
+            predicate = new Predicate.Or(predicate, this.parseAnd());
+        }
+        return predicate;
+    }
+
+    private Predicate parseAnd()
+    {
+        Predicate predicate = this.parseNot();
+        while (this.keyword("and")) {
+            predicate = new Predicate.And(predicate, this.parseNot());
+        }
+        return predicate;
+    }
+
+    private Predicate parseNot()
+    {
+        if (this.keyword("not")) {
+            return new Predicate.Not(this.parseNot());
+        }
+        this.skipSpaces();
+        if (this.peek() == '(') {
+            this.position++;
+            Predicate predicate = this.parseOr();
+            this.skipSpaces();
+            if (this.peek() != ')') {
+                throw this.error("Expected ')'");
+            }
+            this.position++;
+            return predicate;
+        }
+        return this.parseTest();
+    }
+
+    /**
+     * Parses <code>reference present</code> or <code>reference operator literal</code>.
+     */
+    private Predicate parseTest()
+    {
+        int start = this.position;
+        String word = this.word();
+        String tag;
+        boolean controlField;
+        if ("leader".equalsIgnoreCase(word)) {
+            tag = null;
+            controlField = true;
+        } else if (word.length() == 3) {
+            tag = word;
+            controlField = Tag.isControlField(tag);
+        } else {
+            this.position = start;
+            throw this.error("Expected a tag or leader");
+        }
+
+        char code = 0;
+        int from = -1;
+        int to = -1;
+        if (this.peek() == '$') {
+            this.position++;
+            if (controlField || this.position >= this.text.length()
+                || Character.isWhitespace(this.text.charAt(this.position))) {
+                throw this.error("Expected a subfield code of a data field");
+            }
+            code = this.text.charAt(this.position++);
+        } else if (this.peek() == '/') {
+            this.position++;
+            if (!controlField) {
+                throw this.error("Positions are only allowed in the leader and the control fields");
+            }
+            from = this.number();
+            to = from;
+            if (this.peek() == '-') {
+                this.position++;
+                to = this.number();
+            }
+            if (to < from || (tag == null && to >= Leader.LENGTH)) {
+                throw this.error("Invalid positions " + from + "-" + to);
+            }
+        } else if (tag == null) {
+            throw this.error("Expected a position of the leader, like leader/06");
+        }
+
+        if (this.keyword("present")) {
+            if (tag == null || from >= 0) {
+                throw this.error("Expected a field or a subfield before present");
+            }
+            return new Predicate.Present(tag, code);
+        }
+
+        this.skipSpaces();
+        boolean negated = false;
+        Operator operator;
+        if (this.accept("!=")) {
+            negated = true;
+            operator = Operator.EQ;
+        } else if (this.accept("<=")) {
+            operator = Operator.LE;
+        } else if (this.accept(">=")) {
+            operator = Operator.GE;
+        } else if (this.accept("=")) {
+            operator = Operator.EQ;
+        } else if (this.accept("<")) {
+            operator = Operator.LT;
+        } else if (this.accept(">")) {
+            operator = Operator.GT;
+        } else if (this.accept("~")) {
+            operator = Operator.MATCH;
+        } else {
+            throw this.error("Expected an operator or present");
+        }
+
+        this.skipSpaces();
+        char c = this.peek();
+        Predicate predicate;
+        if (c == '"' || c == '\'' || (c == '/' && operator == Operator.MATCH)) {
+            String literal = this.quoted(c);
+            Pattern pattern = null;
+            if (operator == Operator.MATCH) {
+                int flags = 0;
+                if (c == '/' && this.peek() == 'i') {
+                    this.position++;
+                    flags = Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE;
+                }
+                try {
+                    pattern = Pattern.compile(literal, flags);
+                } catch (PatternSyntaxException e) {
+                    throw this.error("Invalid regular expression: " + e.getDescription());
+                }
+            }
+            predicate = new Predicate.Compare(tag, code, from, to, operator, literal, false, pattern);
+        } else if (Character.isDigit(c) && operator != Operator.MATCH) {
+            int digits = this.position;
+            while (Character.isDigit(this.peek())) {
+                this.position++;
+            }
+            if (this.position - digits > 18) {
+                throw this.error("Number too long");
+            }
+            predicate = new Predicate.Compare(tag, code, from, to, operator,
+                this.text.substring(digits, this.position), true, null);
+        } else {
+            throw this.error(operator == Operator.MATCH ? "Expected a regular expression" : "Expected a value");
+        }
+        return negated ? new Predicate.Not(predicate) : predicate;
+    }
+
+    /**
+     * Parses a literal between quotes or slashes, where a backslash escapes the closing character and itself.
+     */
+    private String quoted(char quote)
+    {
+        this.position++;
+        StringBuilder literal = new StringBuilder();
+        while (this.position < this.text.length()) {
+            char c = this.text.charAt(this.position++);
+            if (c == quote) {
+                return literal.toString();
+            }
+            if (c == '\\' && this.position < this.text.length()) {
+                char next = this.text.charAt(this.position);
+                if (next == quote || (next == '\\' && quote != '/')) {
+                    c = next;
+                    this.position++;
+                }
+            }
+            literal.append(c);
+        }
+        throw this.error("Unterminated literal");
+    }
+
+    private String word()
+    {
+        this.skipSpaces();
+        int start = this.position;
+        while (Character.isLetterOrDigit(this.peek())) {
+            this.position++;
+        }
+        return this.text.substring(start, this.position);
+    }
+
+    private int number()
+    {
+        int start = this.position;
+        while (Character.isDigit(this.peek()) && this.position - start < 5) {
+            this.position++;
+        }
+        if (start == this.position) {
+            throw this.error("Expected a position");
+        }
+        return Integer.parseInt(this.text.substring(start, this.position));
+    }
+
+    /**
+     * Consumes a keyword, in any case, if it comes next as a whole word.
+     */
+    private boolean keyword(String keyword)
+    {
+        this.skipSpaces();
+        int end = this.position + keyword.length();
+        if (this.text.regionMatches(true, this.position, keyword, 0, keyword.length())
+            && (end == this.text.length() || !Character.isLetterOrDigit(this.text.charAt(end)))) {
+            this.position = end;
+            return true;
+        }
+        return false;
+    }
+
+    private boolean accept(String symbol)
+    {
+        if (this.text.startsWith(symbol, this.position)) {
+            this.position += symbol.length();
+            return true;
+        }
+        return false;
+    }
+
+    private char peek()
+    {
+        return this.position < this.text.length() ? this.text.charAt(this.position) : 0;
+    }
+
+    private void skipSpaces()
+    {
+        while (this.position < this.text.length() && Character.isWhitespace(this.text.charAt(this.position))) {
+            this.position++;
+        }
+    }
+
+    private MarcException error(String message)
+    {
+        return new MarcException("Invalid query at position " + (this.position + 1) + ": " + message);
+    }
+
+}
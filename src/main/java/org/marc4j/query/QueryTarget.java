@@ -0,0 +1,201 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.query;
+
+import java.util.List;
+
+import org.marc4j.marc.ControlField;
+import org.marc4j.marc.DataField;
+import org.marc4j.marc.Leader;
+import org.marc4j.marc.MarcConstants;
+import org.marc4j.marc.Record;
+import org.marc4j.marc.Subfield;
+import org.marc4j.marc.Tag;
+
+/**
+ * What a {@link Predicate} knows about the record being tested: a whole {@link Record}, or the parts of a record that
+ * a parser has read so far.
+ */
+interface QueryTarget
+{
+
+    /**
+     * A test on the value of a control field or a subfield.
+     */
+    interface Condition
+    {
+
+        boolean test(char[] data, int start, int end);
+
+    }
+
+    Leader getLeader();
+
+    /**
+     * Returns whether the record has a field with the tag, as a {@link Predicate} value.
+     */
+    int hasField(String tag);
+
+    /**
+     * Returns whether a value of a control field, or of the subfields with the code of a data field, satisfies a
+     * condition, as a {@link Predicate} value. A code of 0 selects all the subfields.
+     */
+    int anyValue(String tag, char code, Condition condition);
+
+    /**
+     * The parts of a record read by a parser: the leader, then the tags, then the raw data of the fields.
+     */
+    final class Raw
+        implements QueryTarget
+    {
+
+        private final Leader leader;
+        private final String[] tags;
+        private final char[][] fields;
+
+        Raw(Leader leader, String[] tags, char[][] fields)
+        {
+            this.leader = leader;
+            this.tags = tags;
+            this.fields = fields;
+        }
+
+        @Override
+        public Leader getLeader()
+        {
+            return this.leader;
+        }
+
+        @Override
+        public int hasField(String tag)
+        {
+            if (this.tags == null) {
+                return Predicate.UNKNOWN;
+            }
+            for (String t : this.tags) {
+                if (tag.equals(t)) {
+                    return Predicate.TRUE;
+                }
+            }
+            return Predicate.FALSE;
+        }
+
+        @Override
+        public int anyValue(String tag, char code, Condition condition)
+        {
+            int present = this.hasField(tag);
+            if (present != Predicate.TRUE || this.fields == null) {
+                return present == Predicate.FALSE ? Predicate.FALSE : Predicate.UNKNOWN;
+            }
+            for (int i = 0; i < this.tags.length; i++) {
+                if (!tag.equals(this.tags[i])) {
+                    continue;
+                }
+                char[] field = this.fields[i];
+                int end = field.length;
+                if (end > 0 && field[end - 1] == MarcConstants.FT) {
+                    end--;
+                }
+                if (code == 0 && Tag.isControlField(tag)) {
+                    if (condition.test(field, 0, end)) {
+                        return Predicate.TRUE;
+                    }
+                    continue;
+                }
+
+                // Subfields, after the indicators
+                int position = 2;
+                while (position < end && field[position] != MarcConstants.US) {
+                    position++;
+                }
+                while (position + 1 < end) {
+                    char subfieldCode = field[position + 1];
+                    int start = position + 2;
+                    position = start;
+                    while (position < end && field[position] != MarcConstants.US) {
+                        position++;
+                    }
+                    if ((code == 0 || code == subfieldCode) && condition.test(field, start, position)) {
+                        return Predicate.TRUE;
+                    }
+                }
+            }
+            return Predicate.FALSE;
+        }
+
+    }
+
+    /**
+     * A whole record.
+     */
+    final class RecordTarget
+        implements QueryTarget
+    {
+
+        private final Record record;
+
+        RecordTarget(Record record)
+        {
+            this.record = record;
+        }
+
+        @Override
+        public Leader getLeader()
+        {
+            return this.record.getLeader();
+        }
+
+        @Override
+        public int hasField(String tag)
+        {
+            return this.record.hasVariableField(tag) ? Predicate.TRUE : Predicate.FALSE;
+        }
+
+        @Override
+        public int anyValue(String tag, char code, Condition condition)
+        {
+            for (ControlField field : this.record.getControlFields()) {
+                char[] data = field.getData();
+                if (tag.equals(field.getTag()) && data != null && condition.test(data, 0, data.length)) {
+                    return Predicate.TRUE;
+                }
+            }
+            List<DataField> fields = this.record.getDataFields();
+            for (int i = 0; i < fields.size(); i++) {
+                DataField field = fields.get(i);
+                if (!tag.equals(field.getTag())) {
+                    continue;
+                }
+                List<Subfield> subfields = field.getSubfields();
+                for (int j = 0; j < subfields.size(); j++) {
+                    Subfield subfield = subfields.get(j);
+                    char[] data = subfield.getData();
+                    if ((code == 0 || subfield.getCode() == code) && data != null
+                        && condition.test(data, 0, data.length)) {
+                        return Predicate.TRUE;
+                    }
+                }
+            }
+            return Predicate.FALSE;
+        }
+
+    }
+
+}
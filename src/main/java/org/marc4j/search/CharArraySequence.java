@@ -0,0 +1,92 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.search;
+
+/**
+ * <p>
+ * Reusable {@link CharSequence} view over a range of a <code>char[]</code>, so the data of a field can be handed to a
+ * regular expression {@link java.util.regex.Matcher} without copying it into a {@link String}.
+ * </p>
+ */
+final class CharArraySequence
+    implements CharSequence
+{
+
+    private static final char[] EMPTY = new char[0];
+
+    private char[] data = EMPTY;
+    private int offset;
+    private int length;
+
+    /**
+     * Points the view to a new range of characters.
+     *
+     * @param data the characters
+     * @param offset the first character of the range
+     * @param length the number of characters of the range
+     * @return this view
+     */
+    CharArraySequence reset(char[] data, int offset, int length)
+    {
+        this.data = data;
+        this.offset = offset;
+        this.length = length;
+        return this;
+    }
+
+    /**
+     * Releases the reference to the last characters viewed.
+     */
+    void clear()
+    {
+        this.reset(EMPTY, 0, 0);
+    }
+
+    @Override
+    public int length()
+    {
+        return this.length;
+    }
+
+    @Override
+    public char charAt(int index)
+    {
+        if (index < 0 || index >= this.length) {
+            throw new IndexOutOfBoundsException("index " + index + ", length " + this.length);
+        }
+        return this.data[this.offset + index];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end)
+    {
+        if (start < 0 || end > this.length || start > end) {
+            throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + this.length);
+        }
+        return new CharArraySequence().reset(this.data, this.offset + start, end - start);
+    }
+
+    @Override
+    public String toString()
+    {
+        return new String(this.data, this.offset, this.length);
+    }
+
+}
@@ -0,0 +1,222 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.search;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Aho-Corasick automaton that finds every occurrence of a set of literals in a single pass over the text.
+ * </p>
+ *
+ * <p>
+ * The goto function is completed with the failure links at construction time, so scanning is a table lookup per
+ * character. The table is indexed by the alphabet of the literals, not by the whole UTF-16 range: characters that
+ * don't appear in any literal send the automaton back to its initial state.
+ * </p>
+ */
+final class LiteralAutomaton
+{
+
+    /**
+     * Receives the literals found by {@link LiteralAutomaton#scan}.
+     */
+    interface Hits
+    {
+
+        /**
+         * Receives notification of an occurrence.
+         *
+         * @param literal the index of the literal
+         * @param start the index of the first character of the occurrence, relative to the scanned range
+         * @param end the index after the last character of the occurrence, relative to the scanned range
+         * @return <code>true</code> to keep scanning, <code>false</code> to stop
+         */
+        boolean hit(int literal, int start, int end);
+
+    }
+
+    private static final int[] NO_OUTPUT = new int[0];
+
+    /** Alphabet index of the characters below 256, or -1 */
+    private final int[] latinClasses = new int[256];
+
+    /** Characters from 256 up in the alphabet, sorted */
+    private final char[] otherChars;
+
+    /** Alphabet index of each character of {@link #otherChars} */
+    private final int[] otherClasses;
+
+    private final int alphabetSize;
+
+    /** Complete transition table, <code>state * alphabetSize + class</code> */
+    private final int[] delta;
+
+    /** Literals recognised in each state, including the ones of its failure chain */
+    private final int[][] outputs;
+
+    /** Length of each literal */
+    private final int[] lengths;
+
+    LiteralAutomaton(String[] literals)
+    {
+        // Alphabet
+        char[] chars = new char[16];
+        int charCount = 0;
+        for (String literal : literals) {
+            for (int i = 0; i < literal.length(); i++) {
+                if (charCount == chars.length) {
+                    chars = Arrays.copyOf(chars, charCount * 2);
+                }
+                chars[charCount++] = literal.charAt(i);
+            }
+        }
+        Arrays.sort(chars, 0, charCount);
+        Arrays.fill(this.latinClasses, -1);
+        int size = 0;
+        int others = 0;
+        char[] otherChars = new char[charCount];
+        int[] otherClasses = new int[charCount];
+        for (int i = 0; i < charCount; i++) {
+            char c = chars[i];
+            if (i > 0 && chars[i - 1] == c) {
+                continue;
+            }
+            if (c < 256) {
+                this.latinClasses[c] = size;
+            } else {
+                otherChars[others] = c;
+                otherClasses[others] = size;
+                others++;
+            }
+            size++;
+        }
+        this.otherChars = Arrays.copyOf(otherChars, others);
+        this.otherClasses = Arrays.copyOf(otherClasses, others);
+        this.alphabetSize = Math.max(size, 1);
+
+        // Trie
+        int n = this.alphabetSize;
+        int capacity = 1;
+        for (String literal : literals) {
+            capacity += literal.length();
+        }
+        int[] delta = new int[capacity * n];
+        Arrays.fill(delta, -1);
+        int[][] outputs = new int[capacity][];
+        this.lengths = new int[literals.length];
+        int states = 1;
+        for (int l = 0; l < literals.length; l++) {
+            String literal = literals[l];
+            int state = 0;
+            for (int i = 0; i < literal.length(); i++) {
+                int index = state * n + this.classOf(literal.charAt(i));
+                if (delta[index] < 0) {
+                    delta[index] = states++;
+                }
+                state = delta[index];
+            }
+            outputs[state] = append(outputs[state], l);
+            this.lengths[l] = literal.length();
+        }
+
+        // Failure links, breadth first
+        int[] fail = new int[states];
+        int[] queue = new int[states];
+        int head = 0;
+        int tail = 0;
+        for (int a = 0; a < n; a++) {
+            if (delta[a] < 0) {
+                delta[a] = 0;
+            } else {
+                queue[tail++] = delta[a];
+            }
+        }
+        while (head < tail) {
+            int state = queue[head++];
+            int failure = fail[state];
+            if (outputs[failure] != null) {
+                for (int literal : outputs[failure]) {
+                    outputs[state] = append(outputs[state], literal);
+                }
+            }
+            for (int a = 0; a < n; a++) {
+                int index = state * n + a;
+                int next = delta[failure * n + a];
+                if (delta[index] < 0) {
+                    delta[index] = next;
+                } else {
+                    fail[delta[index]] = next;
+                    queue[tail++] = delta[index];
+                }
+            }
+        }
+        this.delta = Arrays.copyOf(delta, states * n);
+        this.outputs = new int[states][];
+        for (int s = 0; s < states; s++) {
+            this.outputs[s] = outputs[s] != null ? outputs[s] : NO_OUTPUT;
+        }
+    }
+
+    private static int[] append(int[] array, int value)
+    {
+        if (array == null) {
+            return new int[] { value };
+        }
+        int[] result = Arrays.copyOf(array, array.length + 1);
+        result[array.length] = value;
+        return result;
+    }
+
+    private int classOf(char c)
+    {
+        if (c < 256) {
+            return this.latinClasses[c];
+        }
+        int index = Arrays.binarySearch(this.otherChars, c);
+        return index >= 0 ? this.otherClasses[index] : -1;
+    }
+
+    /**
+     * Reports every occurrence of the literals in a range of characters.
+     *
+     * @param data the characters
+     * @param offset the first character to scan
+     * @param length the number of characters to scan
+     * @param hits the receiver of the occurrences
+     * @return <code>false</code> if the receiver stopped the scan; else, <code>true</code>
+     */
+    boolean scan(char[] data, int offset, int length, Hits hits)
+    {
+        int state = 0;
+        for (int i = 0; i < length; i++) {
+            int a = this.classOf(data[offset + i]);
+            state = a < 0 ? 0 : this.delta[state * this.alphabetSize + a];
+            int[] output = this.outputs[state];
+            for (int literal : output) {
+                if (!hits.hit(literal, i + 1 - this.lengths[literal], i + 1)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+}
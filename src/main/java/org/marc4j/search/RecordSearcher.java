@@ -0,0 +1,393 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.marc4j.marc.ControlField;
+import org.marc4j.marc.DataField;
+import org.marc4j.marc.Record;
+import org.marc4j.marc.Subfield;
+import org.marc4j.marc.VariableField;
+
+/**
+ * <p>
+ * Searches many literals and regular expressions in a record in a single pass over its fields.
+ * </p>
+ *
+ * <p>
+ * The literals are compiled into one Aho-Corasick automaton, so the data of each control field and subfield is
+ * scanned once whatever the number of literals. Regular expressions are matched with a reusable {@link Matcher} over
+ * a view of the data. Nothing is copied into a <code>String</code>, and fields outside the scope of every pattern
+ * aren't scanned at all.
+ * </p>
+ *
+ * <p>
+ * The patterns are compiled on the first search after a change. The hits of each data element are reported in
+ * record order: first the literals, by end position, then the regular expressions, in the order they were added.
+ * </p>
+ *
+ * <p>
+ * A searcher keeps matching state between calls, so it isn't thread safe; use {@link #copy()} to get an independent
+ * searcher with the same patterns for each thread.
+ * </p>
+ *
+ * <pre>
+ * RecordSearcher searcher = new RecordSearcher()
+ *     .addLiteral("isbn-prefix", "978", "020", 'a')
+ *     .addRegex("year", Pattern.compile("\\d{4}"), "260", 'c');
+ * for (SearchHit hit : searcher.findAll(record)) {
+ *     ...
+ * }
+ * </pre>
+ *
+ * @see SearchPattern
+ */
+public class RecordSearcher
+{
+
+    private static final SearchPattern[] NO_PATTERNS = new SearchPattern[0];
+
+    private final List<SearchPattern> patterns = new ArrayList<>();
+
+    private boolean compiled;
+
+    /** Literal patterns, by index in the automaton */
+    private SearchPattern[] literals;
+    private LiteralAutomaton automaton;
+    private boolean literalsInAnyTag;
+    private Set<String> literalTags;
+
+    /** Regular expression patterns, with one matcher each */
+    private SearchPattern[] regexes;
+    private Matcher[] matchers;
+    private int[] regexesInAnyTag;
+    private Map<String, int[]> regexesByTag;
+
+    private final CharArraySequence sequence = new CharArraySequence();
+    private final LiteralHits literalHits = new LiteralHits();
+
+    public RecordSearcher()
+    {
+    }
+
+    /**
+     * Creates a searcher with the given patterns.
+     *
+     * @param patterns the patterns to search for
+     */
+    public RecordSearcher(java.util.Collection<SearchPattern> patterns)
+    {
+        for (SearchPattern pattern : patterns) {
+            this.add(pattern);
+        }
+    }
+
+    /**
+     * Returns a new searcher with the same patterns, that can be used from another thread.
+     *
+     * @return the copy
+     */
+    public RecordSearcher copy()
+    {
+        return new RecordSearcher(this.patterns);
+    }
+
+    /**
+     * Adds a pattern.
+     *
+     * @param pattern the pattern
+     * @return this searcher
+     */
+    public RecordSearcher add(SearchPattern pattern)
+    {
+        if (pattern == null) {
+            throw new IllegalArgumentException("The pattern can't be null");
+        }
+        this.patterns.add(pattern);
+        this.compiled = false;
+        return this;
+    }
+
+    /**
+     * Adds a literal to search for in every field.
+     *
+     * @param id the identifier reported with each hit
+     * @param literal the text to search for
+     * @return this searcher
+     */
+    public RecordSearcher addLiteral(String id, String literal)
+    {
+        return this.add(SearchPattern.literal(id, literal, null, SearchPattern.ANY_CODE));
+    }
+
+    /**
+     * Adds a literal to search for in the given fields and subfields.
+     *
+     * @param id the identifier reported with each hit
+     * @param literal the text to search for
+     * @param tag the tag of the fields to search in, or <code>null</code> for every field
+     * @param code the code of the subfields to search in, or {@link SearchPattern#ANY_CODE}
+     * @return this searcher
+     */
+    public RecordSearcher addLiteral(String id, String literal, String tag, char code)
+    {
+        return this.add(SearchPattern.literal(id, literal, tag, code));
+    }
+
+    /**
+     * Adds a regular expression to search for in every field.
+     *
+     * @param id the identifier reported with each hit
+     * @param regex the regular expression to search for
+     * @return this searcher
+     */
+    public RecordSearcher addRegex(String id, Pattern regex)
+    {
+        return this.add(SearchPattern.regex(id, regex, null, SearchPattern.ANY_CODE));
+    }
+
+    /**
+     * Adds a regular expression to search for in the given fields and subfields.
+     *
+     * @param id the identifier reported with each hit
+     * @param regex the regular expression to search for
+     * @param tag the tag of the fields to search in, or <code>null</code> for every field
+     * @param code the code of the subfields to search in, or {@link SearchPattern#ANY_CODE}
+     * @return this searcher
+     */
+    public RecordSearcher addRegex(String id, Pattern regex, String tag, char code)
+    {
+        return this.add(SearchPattern.regex(id, regex, tag, code));
+    }
+
+    /**
+     * Returns the patterns of the searcher.
+     *
+     * @return an unmodifiable list with the patterns, in the order they were added
+     */
+    public List<SearchPattern> getPatterns()
+    {
+        return Collections.unmodifiableList(this.patterns);
+    }
+
+    /**
+     * Reports every hit of the patterns in a record to a handler.
+     *
+     * @param record the record to search in
+     * @param handler the receiver of the hits
+     * @return <code>false</code> if the handler stopped the search; else, <code>true</code>
+     */
+    public boolean search(Record record, SearchHandler handler)
+    {
+        this.compile();
+        try {
+            int count = record.getVariableFieldCount();
+            for (int i = 0; i < count; i++) {
+                VariableField field = record.getVariableField(i);
+                if (field instanceof ControlField) {
+                    if (!this.search(field, null, ((ControlField) field).getData(), handler)) {
+                        return false;
+                    }
+                } else {
+                    List<Subfield> subfields = ((DataField) field).getSubfields();
+                    for (int j = 0; j < subfields.size(); j++) {
+                        Subfield subfield = subfields.get(j);
+                        if (!this.search(field, subfield, subfield.getData(), handler)) {
+                            return false;
+                        }
+                    }
+                }
+            }
+            return true;
+        } finally {
+            this.sequence.clear();
+            this.literalHits.reset(null, null, null, null);
+        }
+    }
+
+    /**
+     * Returns every hit of the patterns in a record.
+     *
+     * @param record the record to search in
+     * @return the hits, in the order described in the class documentation
+     */
+    public List<SearchHit> findAll(Record record)
+    {
+        List<SearchHit> hits = new ArrayList<>();
+        this.search(record, (pattern, field, subfield, start, end) -> {
+            hits.add(new SearchHit(pattern, field, subfield, start, end));
+            return true;
+        });
+        return hits;
+    }
+
+    /**
+     * Returns <code>true</code> if any pattern matches the record, stopping at the first hit.
+     *
+     * @param record the record to search in
+     * @return <code>true</code> if there is a hit
+     */
+    public boolean matches(Record record)
+    {
+        return !this.search(record, (pattern, field, subfield, start, end) -> false);
+    }
+
+    private boolean search(VariableField field, Subfield subfield, char[] data, SearchHandler handler)
+    {
+        if (data == null) {
+            return true;
+        }
+        String tag = field.getTag();
+        char code = subfield != null ? subfield.getCode() : SearchPattern.ANY_CODE;
+        if (this.automaton != null && (this.literalsInAnyTag || this.literalTags.contains(tag))) {
+            this.literalHits.reset(handler, field, subfield, tag);
+            if (!this.automaton.scan(data, 0, data.length, this.literalHits)) {
+                return false;
+            }
+        }
+        if (this.regexes.length > 0) {
+            if (!this.match(this.regexesInAnyTag, field, subfield, tag, code, data, handler)) {
+                return false;
+            }
+            int[] byTag = this.regexesByTag.get(tag);
+            if (byTag != null && !this.match(byTag, field, subfield, tag, code, data, handler)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean match(int[] indexes, VariableField field, Subfield subfield, String tag, char code, char[] data,
+        SearchHandler handler)
+    {
+        for (int index : indexes) {
+            SearchPattern pattern = this.regexes[index];
+            if (!pattern.appliesTo(tag, code)) {
+                continue;
+            }
+            Matcher matcher = this.matchers[index].reset(this.sequence.reset(data, 0, data.length));
+            while (matcher.find()) {
+                if (!handler.hit(pattern, field, subfield, matcher.start(), matcher.end())) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private void compile()
+    {
+        if (this.compiled) {
+            return;
+        }
+        List<SearchPattern> literalList = new ArrayList<>();
+        List<SearchPattern> regexList = new ArrayList<>();
+        for (SearchPattern pattern : this.patterns) {
+            (pattern.isLiteral() ? literalList : regexList).add(pattern);
+        }
+
+        this.literals = literalList.toArray(NO_PATTERNS);
+        this.literalsInAnyTag = false;
+        this.literalTags = new HashSet<>();
+        String[] texts = new String[this.literals.length];
+        for (int i = 0; i < this.literals.length; i++) {
+            texts[i] = this.literals[i].getLiteral();
+            if (this.literals[i].getTag() == null) {
+                this.literalsInAnyTag = true;
+            } else {
+                this.literalTags.add(this.literals[i].getTag());
+            }
+        }
+        this.automaton = texts.length > 0 ? new LiteralAutomaton(texts) : null;
+
+        this.regexes = regexList.toArray(NO_PATTERNS);
+        this.matchers = new Matcher[this.regexes.length];
+        List<Integer> anyTag = new ArrayList<>();
+        Map<String, List<Integer>> byTag = new HashMap<>();
+        for (int i = 0; i < this.regexes.length; i++) {
+            this.matchers[i] = this.regexes[i].getRegex().matcher("");
+            String tag = this.regexes[i].getTag();
+            if (tag == null) {
+                anyTag.add(i);
+            } else {
+                byTag.computeIfAbsent(tag, key -> new ArrayList<>()).add(i);
+            }
+        }
+        this.regexesInAnyTag = toArray(anyTag);
+        this.regexesByTag = new HashMap<>();
+        byTag.forEach((tag, indexes) -> this.regexesByTag.put(tag, toArray(indexes)));
+
+        this.compiled = true;
+    }
+
+    private static int[] toArray(List<Integer> list)
+    {
+        int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+
+    /**
+     * Adapts the occurrences of the automaton to the {@link SearchHandler} of the current search, checking the scope
+     * of each literal.
+     */
+    private final class LiteralHits
+        implements LiteralAutomaton.Hits
+    {
+
+        private SearchHandler handler;
+        private VariableField field;
+        private Subfield subfield;
+        private String tag;
+        private char code;
+
+        void reset(SearchHandler handler, VariableField field, Subfield subfield, String tag)
+        {
+            this.handler = handler;
+            this.field = field;
+            this.subfield = subfield;
+            this.tag = tag;
+            this.code = subfield != null ? subfield.getCode() : SearchPattern.ANY_CODE;
+        }
+
+        @Override
+        public boolean hit(int literal, int start, int end)
+        {
+            SearchPattern pattern = RecordSearcher.this.literals[literal];
+            if (!pattern.appliesTo(this.tag, this.code)) {
+                return true;
+            }
+            return this.handler.hit(pattern, this.field, this.subfield, start, end);
+        }
+
+    }
+
+}
@@ -0,0 +1,50 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.search;
+
+import org.marc4j.marc.Subfield;
+import org.marc4j.marc.VariableField;
+
+/**
+ * <p>
+ * Receives the hits of a {@link RecordSearcher} as they are found, without allocating any object per hit.
+ * </p>
+ *
+ * @see RecordSearcher#search(org.marc4j.marc.Record, SearchHandler)
+ */
+@FunctionalInterface
+public interface SearchHandler
+{
+
+    /**
+     * <p>
+     * Receives notification of a hit.
+     * </p>
+     *
+     * @param pattern the pattern that matched
+     * @param field the field that contains the match
+     * @param subfield the subfield that contains the match, or <code>null</code> for a control field
+     * @param start the index of the first character of the match in the data
+     * @param end the index after the last character of the match in the data
+     * @return <code>true</code> to keep searching the record, <code>false</code> to stop
+     */
+    boolean hit(SearchPattern pattern, VariableField field, Subfield subfield, int start, int end);
+
+}
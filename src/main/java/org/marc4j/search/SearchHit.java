@@ -0,0 +1,107 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.search;
+
+import org.marc4j.marc.Subfield;
+import org.marc4j.marc.VariableField;
+
+/**
+ * <p>
+ * A match of a {@link SearchPattern} in a record.
+ * </p>
+ *
+ * @see RecordSearcher#findAll(org.marc4j.marc.Record)
+ */
+public final class SearchHit
+{
+
+    private final SearchPattern pattern;
+    private final VariableField field;
+    private final Subfield subfield;
+    private final int start;
+    private final int end;
+
+    public SearchHit(SearchPattern pattern, VariableField field, Subfield subfield, int start, int end)
+    {
+        this.pattern = pattern;
+        this.field = field;
+        this.subfield = subfield;
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * Returns the pattern that matched.
+     *
+     * @return the pattern
+     */
+    public SearchPattern getPattern()
+    {
+        return this.pattern;
+    }
+
+    /**
+     * Returns the field that contains the match.
+     *
+     * @return the field
+     */
+    public VariableField getField()
+    {
+        return this.field;
+    }
+
+    /**
+     * Returns the subfield that contains the match.
+     *
+     * @return the subfield, or <code>null</code> for a control field
+     */
+    public Subfield getSubfield()
+    {
+        return this.subfield;
+    }
+
+    /**
+     * Returns the index of the first character of the match.
+     *
+     * @return the start index
+     */
+    public int getStart()
+    {
+        return this.start;
+    }
+
+    /**
+     * Returns the index after the last character of the match.
+     *
+     * @return the end index
+     */
+    public int getEnd()
+    {
+        return this.end;
+    }
+
+    @Override
+    public String toString()
+    {
+        return this.pattern.getId() + "@" + this.field.getTag()
+            + (this.subfield != null ? "$" + this.subfield.getCode() : "") + "[" + this.start + "," + this.end + ")";
+    }
+
+}
@@ -0,0 +1,191 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.search;
+
+import java.util.regex.Pattern;
+
+import org.marc4j.marc.Tag;
+
+/**
+ * <p>
+ * A literal or a regular expression to search for in the data of the fields of a record, optionally scoped to a
+ * tag and to a subfield code.
+ * </p>
+ *
+ * <p>
+ * A pattern without a subfield code is matched against the data of control fields and against every subfield of
+ * data fields; a pattern with a subfield code is only matched against the subfields with that code.
+ * </p>
+ *
+ * @see RecordSearcher
+ */
+public final class SearchPattern
+{
+
+    /** Subfield code used to match any subfield */
+    public static final char ANY_CODE = '\u0000';
+
+    private final String id;
+    private final String tag;
+    private final char code;
+    private final String literal;
+    private final Pattern regex;
+
+    private SearchPattern(String id, String tag, char code, String literal, Pattern regex)
+    {
+        if (id == null) {
+            throw new IllegalArgumentException("The id of a pattern can't be null");
+        }
+        if (tag != null && !Tag.isValid(tag)) {
+            throw new IllegalArgumentException("Invalid tag " + tag);
+        }
+        this.id = id;
+        this.tag = tag;
+        this.code = code;
+        this.literal = literal;
+        this.regex = regex;
+    }
+
+    /**
+     * Creates a pattern that matches a literal text.
+     *
+     * @param id the identifier reported with each hit
+     * @param literal the text to search for, not empty
+     * @param tag the tag of the fields to search in, or <code>null</code> for every field
+     * @param code the code of the subfields to search in, or {@link #ANY_CODE}
+     * @return the pattern
+     */
+    public static SearchPattern literal(String id, String literal, String tag, char code)
+    {
+        if (literal == null || literal.isEmpty()) {
+            throw new IllegalArgumentException("The literal of pattern " + id + " can't be empty");
+        }
+        return new SearchPattern(id, tag, code, literal, null);
+    }
+
+    /**
+     * Creates a pattern that matches a regular expression.
+     *
+     * @param id the identifier reported with each hit
+     * @param regex the regular expression to search for
+     * @param tag the tag of the fields to search in, or <code>null</code> for every field
+     * @param code the code of the subfields to search in, or {@link #ANY_CODE}
+     * @return the pattern
+     */
+    public static SearchPattern regex(String id, Pattern regex, String tag, char code)
+    {
+        if (regex == null) {
+            throw new IllegalArgumentException("The regular expression of pattern " + id + " can't be null");
+        }
+        return new SearchPattern(id, tag, code, null, regex);
+    }
+
+    /**
+     * Returns the identifier of the pattern.
+     *
+     * @return the identifier
+     */
+    public String getId()
+    {
+        return this.id;
+    }
+
+    /**
+     * Returns the tag of the fields the pattern is searched in.
+     *
+     * @return the tag, or <code>null</code> for every field
+     */
+    public String getTag()
+    {
+        return this.tag;
+    }
+
+    /**
+     * Returns the code of the subfields the pattern is searched in.
+     *
+     * @return the code, or {@link #ANY_CODE}
+     */
+    public char getCode()
+    {
+        return this.code;
+    }
+
+    /**
+     * Returns <code>true</code> if the pattern is a literal text.
+     *
+     * @return <code>true</code> for a literal, <code>false</code> for a regular expression
+     */
+    public boolean isLiteral()
+    {
+        return this.literal != null;
+    }
+
+    /**
+     * Returns the literal text of the pattern.
+     *
+     * @return the literal, or <code>null</code> for a regular expression
+     */
+    public String getLiteral()
+    {
+        return this.literal;
+    }
+
+    /**
+     * Returns the regular expression of the pattern.
+     *
+     * @return the regular expression, or <code>null</code> for a literal
+     */
+    public Pattern getRegex()
+    {
+        return this.regex;
+    }
+
+    /**
+     * Returns <code>true</code> if the pattern is searched in the given data element.
+     *
+     * @param tag the tag of the field
+     * @param code the subfield code, or {@link #ANY_CODE} for the data of a control field
+     * @return <code>true</code> if the pattern applies
+     */
+    boolean appliesTo(String tag, char code)
+    {
+        if (this.tag != null && !this.tag.equals(tag)) {
+            return false;
+        }
+        return this.code == ANY_CODE || this.code == code;
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder sb = new StringBuilder(this.id).append(": ");
+        sb.append(this.isLiteral() ? "\"" + this.literal + "\"" : "/" + this.regex.pattern() + "/");
+        if (this.tag != null) {
+            sb.append(" in ").append(this.tag);
+            if (this.code != ANY_CODE) {
+                sb.append('$').append(this.code);
+            }
+        } else if (this.code != ANY_CODE) {
+            sb.append(" in $").append(this.code);
+        }
+        return sb.toString();
+    }
+
+}
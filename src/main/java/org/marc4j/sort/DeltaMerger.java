@@ -0,0 +1,257 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.sort;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.marc4j.marc.MarcException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * Applies a delta file of new, changed and deleted records to a master file, walking both in key order in a single
+ * pass.
+ * </p>
+ *
+ * <p>
+ * Both inputs must be sorted by the same {@link SortKey}, for example with an {@link ExternalSorter}. For each key of
+ * the delta, the last delta record replaces all the master records with that key, or is inserted if there aren't any.
+ * A delta record with the record status <code>d</code> (leader/05) deletes them instead. The master records without
+ * changes are copied to the new master as raw bytes, and only the current record of each input is kept in memory.
+ * </p>
+ *
+ * <p>
+ * Master records without a key are copied as they are, and delta records without a key are ignored. An input out of
+ * order stops the merge with a {@link MarcException}, as the result would be wrong.
+ * </p>
+ *
+ * <pre>
+ * DeltaMerger merger = new DeltaMerger(SortKey.of("001"));
+ * merger.merge(new File("master.mrc"), new File("delta-sorted.mrc"), new File("master-new.mrc"));
+ * </pre>
+ */
+public class DeltaMerger
+{
+
+    private static final Logger log = LoggerFactory.getLogger(DeltaMerger.class);
+
+    /** The position of the record status in the leader */
+    private static final int RECORD_STATUS = 5;
+
+    private static final byte DELETED = 'd';
+
+    private final SortKey key;
+
+    private long copyCount;
+    private long replaceCount;
+    private long insertCount;
+    private long deleteCount;
+    private long missingDeleteCount;
+
+    /**
+     * Creates a merger.
+     *
+     * @param key the key both inputs are sorted by
+     */
+    public DeltaMerger(SortKey key)
+    {
+        this.key = key;
+    }
+
+    /**
+     * Writes a new master file.
+     *
+     * @param master the sorted master file
+     * @param delta the sorted delta file
+     * @param output the new master file
+     * @throws IOException if a file can't be read or written
+     * @throws MarcException if a record isn't valid or an input isn't sorted
+     */
+    public void merge(File master, File delta, File output)
+        throws IOException
+    {
+        try (InputStream masterInput = new FileInputStream(master);
+            InputStream deltaInput = new FileInputStream(delta);
+            OutputStream out = new FileOutputStream(output)) {
+            this.merge(masterInput, deltaInput, out);
+        }
+    }
+
+    /**
+     * Writes a new master to a stream. The streams aren't closed.
+     *
+     * @param master the sorted master records
+     * @param delta the sorted delta records
+     * @param output the output of the new master
+     * @throws IOException if an input can't be read or the output written
+     * @throws MarcException if a record isn't valid or an input isn't sorted
+     */
+    public void merge(InputStream master, InputStream delta, OutputStream output)
+        throws IOException
+    {
+        this.copyCount = 0;
+        this.replaceCount = 0;
+        this.insertCount = 0;
+        this.deleteCount = 0;
+        this.missingDeleteCount = 0;
+
+        Input masterInput = new Input(new RawRecordReader(master), "master");
+        Input deltaInput = new Input(new RawRecordReader(delta), "delta");
+        OutputStream out = new BufferedOutputStream(output, 1 << 16);
+        masterInput.next();
+        deltaInput.next();
+        while (masterInput.record != null || deltaInput.record != null) {
+            if (deltaInput.record == null
+                || (masterInput.record != null && SortKey.compare(masterInput.key, deltaInput.key) < 0)) {
+                out.write(masterInput.record);
+                this.copyCount++;
+                masterInput.next();
+                continue;
+            }
+
+            // The last delta record of a key is the final state of the record
+            byte[] key = deltaInput.key;
+            byte[] change = deltaInput.record;
+            long offset = deltaInput.reader.getRecordOffset();
+            while (deltaInput.next() && SortKey.compare(deltaInput.key, key) == 0) {
+                change = deltaInput.record;
+            }
+            if (key.length == 0) {
+                log.warn("Delta record without key {} at offset {} ignored", this.key, offset);
+                continue;
+            }
+
+            boolean found = false;
+            while (masterInput.record != null && SortKey.compare(masterInput.key, key) == 0) {
+                found = true;
+                masterInput.next();
+            }
+            if (change[RECORD_STATUS] == DELETED) {
+                if (found) {
+                    this.deleteCount++;
+                } else {
+                    this.missingDeleteCount++;
+                }
+            } else {
+                out.write(change);
+                if (found) {
+                    this.replaceCount++;
+                } else {
+                    this.insertCount++;
+                }
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Returns the number of master records copied without changes by the last merge.
+     *
+     * @return the number of records
+     */
+    public long getCopyCount()
+    {
+        return this.copyCount;
+    }
+
+    /**
+     * Returns the number of keys of the master replaced by a delta record in the last merge.
+     *
+     * @return the number of keys
+     */
+    public long getReplaceCount()
+    {
+        return this.replaceCount;
+    }
+
+    /**
+     * Returns the number of delta records inserted by the last merge, for keys not in the master.
+     *
+     * @return the number of records
+     */
+    public long getInsertCount()
+    {
+        return this.insertCount;
+    }
+
+    /**
+     * Returns the number of keys of the master deleted by the last merge.
+     *
+     * @return the number of keys
+     */
+    public long getDeleteCount()
+    {
+        return this.deleteCount;
+    }
+
+    /**
+     * Returns the number of deletions in the last merge for keys not in the master.
+     *
+     * @return the number of deletions
+     */
+    public long getMissingDeleteCount()
+    {
+        return this.missingDeleteCount;
+    }
+
+    /**
+     * The current record of an input, with the checks of its order.
+     */
+    private final class Input
+    {
+
+        final RawRecordReader reader;
+        final String name;
+        byte[] record;
+        byte[] key;
+
+        Input(RawRecordReader reader, String name)
+        {
+            this.reader = reader;
+            this.name = name;
+        }
+
+        boolean next()
+            throws IOException
+        {
+            byte[] previous = this.key;
+            this.record = this.reader.next();
+            if (this.record == null) {
+                this.key = null;
+                return false;
+            }
+            this.key = DeltaMerger.this.key.extract(this.record);
+            if (previous != null && SortKey.compare(previous, this.key) > 0) {
+                throw new MarcException("The " + this.name + " isn't sorted by " + DeltaMerger.this.key
+                    + " at offset " + this.reader.getRecordOffset());
+            }
+            return true;
+        }
+
+    }
+
+}
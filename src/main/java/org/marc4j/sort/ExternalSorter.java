@@ -0,0 +1,487 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.sort;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.marc4j.marc.IndexKeys;
+import org.marc4j.marc.MarcException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * Sorts the records of ISO 2709 files by a {@link SortKey}, with a bounded amount of memory.
+ * </p>
+ *
+ * <p>
+ * The records are read as raw bytes and collected in runs of about {@link #setMaxRunBytes(long)} bytes. Each run is
+ * keyed, sorted and written to a temporary file by a pool of threads while the next run is read. The runs are then
+ * merged, in parallel passes of up to {@link #setMaxMergeFiles(int)} runs while there are more, and finally into the
+ * output. The records are never parsed beyond the directory entries of their key, and are written exactly as read. An
+ * input that fits in a single run is sorted in memory, without temporary files.
+ * </p>
+ *
+ * <p>
+ * The sort is stable: records with the same key keep their input order. The memory used is about the run size times
+ * the number of threads plus one.
+ * </p>
+ *
+ * <pre>
+ * ExternalSorter sorter = new ExternalSorter(SortKey.of("035$a", IndexKeys.FIRST_TOKEN));
+ * sorter.setMaxRunBytes(256L &lt;&lt; 20);
+ * sorter.sort(new File("dump.mrc"), new File("dump-sorted.mrc"));
+ * </pre>
+ *
+ * <p>
+ * For usage from the command-line, run <code>java org.marc4j.sort.ExternalSorter -usage</code>.
+ * </p>
+ */
+public class ExternalSorter
+{
+
+    private static final Logger log = LoggerFactory.getLogger(ExternalSorter.class);
+
+    /** The estimated overhead of a record in a run, besides its bytes and its key */
+    private static final int RECORD_OVERHEAD = 64;
+
+    private static final Comparator<Entry> BY_KEY = (a, b) -> SortKey.compare(a.key, b.key);
+
+    private final SortKey key;
+
+    private long maxRunBytes = 64L << 20;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int maxMergeFiles = 64;
+    private File tempDirectory;
+
+    /**
+     * Creates a sorter.
+     *
+     * @param key the sort key
+     */
+    public ExternalSorter(SortKey key)
+    {
+        this.key = key;
+    }
+
+    /**
+     * Sets the size of the runs sorted in memory, 64 MB by default.
+     *
+     * @param maxRunBytes the size in bytes
+     */
+    public void setMaxRunBytes(long maxRunBytes)
+    {
+        if (maxRunBytes < 1) {
+            throw new IllegalArgumentException("maxRunBytes must be positive");
+        }
+        this.maxRunBytes = maxRunBytes;
+    }
+
+    /**
+     * Sets the number of threads that sort and merge the runs, the number of processors by default.
+     *
+     * @param threads the number of threads
+     */
+    public void setThreads(int threads)
+    {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be positive");
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * Sets the number of runs merged at once, 64 by default.
+     *
+     * @param maxMergeFiles the number of runs, at least 2
+     */
+    public void setMaxMergeFiles(int maxMergeFiles)
+    {
+        if (maxMergeFiles < 2) {
+            throw new IllegalArgumentException("maxMergeFiles must be at least 2");
+        }
+        this.maxMergeFiles = maxMergeFiles;
+    }
+
+    /**
+     * Sets the directory of the temporary files, the default temporary directory if null.
+     *
+     * @param tempDirectory the directory
+     */
+    public void setTempDirectory(File tempDirectory)
+    {
+        this.tempDirectory = tempDirectory;
+    }
+
+    /**
+     * Sorts a file.
+     *
+     * @param input the ISO 2709 file
+     * @param output the sorted file
+     * @return the number of records
+     * @throws IOException if a file can't be read or written
+     * @throws MarcException if a record isn't valid
+     */
+    public long sort(File input, File output)
+        throws IOException
+    {
+        try (InputStream in = new FileInputStream(input); OutputStream out = new FileOutputStream(output)) {
+            return this.sort(in, out);
+        }
+    }
+
+    /**
+     * Sorts the records of a stream. The streams aren't closed.
+     *
+     * @param input the ISO 2709 input
+     * @param output the output of the sorted records
+     * @return the number of records
+     * @throws IOException if the input can't be read or the output written
+     * @throws MarcException if a record isn't valid
+     */
+    public long sort(InputStream input, OutputStream output)
+        throws IOException
+    {
+        ExecutorService executor = Executors.newFixedThreadPool(this.threads);
+        List<File> files = Collections.synchronizedList(new ArrayList<>());
+        try {
+            RawRecordReader reader = new RawRecordReader(input);
+            List<Future<File>> runs = new ArrayList<>();
+            Deque<Future<File>> pending = new ArrayDeque<>();
+            List<byte[]> batch = new ArrayList<>();
+            long batchBytes = 0;
+            long count = 0;
+            byte[] record;
+            while ((record = reader.next()) != null) {
+                batch.add(record);
+                batchBytes += record.length + RECORD_OVERHEAD;
+                count++;
+                if (batchBytes >= this.maxRunBytes) {
+                    // Bounds the runs in memory to those being sorted by the threads
+                    if (pending.size() == this.threads) {
+                        ExternalSorter.await(pending.removeFirst());
+                    }
+                    List<byte[]> run = batch;
+                    Future<File> future = executor.submit(() -> this.writeRun(this.sortRun(run), files));
+                    runs.add(future);
+                    pending.add(future);
+                    batch = new ArrayList<>();
+                    batchBytes = 0;
+                }
+            }
+
+            OutputStream out = new BufferedOutputStream(output, 1 << 16);
+            if (runs.isEmpty()) {
+                for (Entry entry : this.sortRun(batch)) {
+                    out.write(entry.record);
+                }
+                out.flush();
+                return count;
+            }
+            if (!batch.isEmpty()) {
+                List<byte[]> run = batch;
+                runs.add(executor.submit(() -> this.writeRun(this.sortRun(run), files)));
+            }
+            batch = null;
+
+            List<File> sorted = new ArrayList<>();
+            for (Future<File> run : runs) {
+                sorted.add(ExternalSorter.await(run));
+            }
+            log.debug("{} records sorted in {} runs", count, sorted.size());
+
+            // Merges consecutive runs, so that equal keys keep the input order
+            while (sorted.size() > this.maxMergeFiles) {
+                List<Future<File>> merges = new ArrayList<>();
+                for (int i = 0; i < sorted.size(); i += this.maxMergeFiles) {
+                    List<File> group = sorted.subList(i, Math.min(i + this.maxMergeFiles, sorted.size()));
+                    merges.add(executor.submit(() -> {
+                        File merged = this.createTempFile(files);
+                        try (DataOutputStream run = ExternalSorter.openRun(merged)) {
+                            ExternalSorter.merge(group, run, true);
+                        }
+                        for (File file : group) {
+                            file.delete();
+                        }
+                        return merged;
+                    }));
+                }
+                List<File> next = new ArrayList<>();
+                for (Future<File> merge : merges) {
+                    next.add(ExternalSorter.await(merge));
+                }
+                sorted = next;
+            }
+            ExternalSorter.merge(sorted, new DataOutputStream(out), false);
+            out.flush();
+            return count;
+        } finally {
+            executor.shutdownNow();
+            synchronized (files) {
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+        }
+    }
+
+    private Entry[] sortRun(List<byte[]> records)
+    {
+        Entry[] entries = new Entry[records.size()];
+        for (int i = 0; i < entries.length; i++) {
+            byte[] record = records.get(i);
+            entries[i] = new Entry(this.key.extract(record), record);
+        }
+        Arrays.sort(entries, BY_KEY);
+        return entries;
+    }
+
+    private File writeRun(Entry[] entries, List<File> files)
+        throws IOException
+    {
+        File file = this.createTempFile(files);
+        try (DataOutputStream run = ExternalSorter.openRun(file)) {
+            for (Entry entry : entries) {
+                ExternalSorter.write(run, entry, true);
+            }
+            run.writeInt(-1);
+        }
+        return file;
+    }
+
+    private File createTempFile(List<File> files)
+        throws IOException
+    {
+        File file = File.createTempFile("marc4j-sort", ".run", this.tempDirectory);
+        files.add(file);
+        return file;
+    }
+
+    private static DataOutputStream openRun(File file)
+        throws IOException
+    {
+        return new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16));
+    }
+
+    /**
+     * Merges runs into a run, with the keys, or into the output, with only the records.
+     */
+    private static void merge(List<File> files, DataOutputStream output, boolean keys)
+        throws IOException
+    {
+        PriorityQueue<RunReader> queue = new PriorityQueue<>((a, b) -> {
+            int cmp = SortKey.compare(a.current.key, b.current.key);
+            return cmp != 0 ? cmp : a.index - b.index;
+        });
+        List<RunReader> readers = new ArrayList<>();
+        try {
+            for (File file : files) {
+                RunReader reader = new RunReader(file, readers.size());
+                readers.add(reader);
+                if (reader.next()) {
+                    queue.add(reader);
+                }
+            }
+            while (!queue.isEmpty()) {
+                RunReader reader = queue.poll();
+                ExternalSorter.write(output, reader.current, keys);
+                if (reader.next()) {
+                    queue.add(reader);
+                }
+            }
+            if (keys) {
+                output.writeInt(-1);
+            }
+        } finally {
+            for (RunReader reader : readers) {
+                reader.input.close();
+            }
+        }
+    }
+
+    private static void write(DataOutputStream output, Entry entry, boolean key)
+        throws IOException
+    {
+        if (key) {
+            output.writeInt(entry.key.length);
+            output.write(entry.key);
+            output.writeInt(entry.record.length);
+        }
+        output.write(entry.record);
+    }
+
+    private static File await(Future<File> future)
+        throws IOException
+    {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Sort interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new MarcException("Unable to sort the records", cause);
+        }
+    }
+
+    public static void main(String args[])
+    {
+        String input = null;
+        String output = null;
+        String path = "001";
+        boolean normalize = false;
+        ExternalSorter sorter = null;
+        long start = System.currentTimeMillis();
+
+        try {
+            long runBytes = 0;
+            int threads = 0;
+            File tempDirectory = null;
+            for (int i = 0; i < args.length; i++) {
+                if ("-key".equals(args[i]) && i < args.length - 1) {
+                    path = args[++i].trim();
+                } else if ("-normalize".equals(args[i])) {
+                    normalize = true;
+                } else if ("-memory".equals(args[i]) && i < args.length - 1) {
+                    runBytes = Long.parseLong(args[++i].trim()) << 20;
+                } else if ("-threads".equals(args[i]) && i < args.length - 1) {
+                    threads = Integer.parseInt(args[++i].trim());
+                } else if ("-tmp".equals(args[i]) && i < args.length - 1) {
+                    tempDirectory = new File(args[++i].trim());
+                } else if ("-out".equals(args[i]) && i < args.length - 1) {
+                    output = args[++i].trim();
+                } else if (i == args.length - 1 && !args[i].startsWith("-")) {
+                    input = args[i].trim();
+                } else {
+                    ExternalSorter.usage();
+                }
+            }
+            if (input == null || output == null) {
+                ExternalSorter.usage();
+            }
+            sorter = new ExternalSorter(normalize ? SortKey.of(path, IndexKeys.FIRST_TOKEN) : SortKey.of(path));
+            if (runBytes > 0) {
+                sorter.setMaxRunBytes(runBytes);
+            }
+            if (threads > 0) {
+                sorter.setThreads(threads);
+            }
+            sorter.setTempDirectory(tempDirectory);
+        } catch (NumberFormatException | MarcException e) {
+            System.err.println(e.getMessage());
+            ExternalSorter.usage();
+        }
+
+        try {
+            long count = sorter.sort(new File(input), new File(output));
+            System.err.println(count + " records sorted");
+        } catch (IOException | MarcException e) {
+            log.error("Unable to sort the records", e);
+        }
+        System.err.println("Total time: " + (System.currentTimeMillis() - start) + " miliseconds");
+    }
+
+    private static void usage()
+    {
+        System.err.println("Usage: org.marc4j.sort.ExternalSorter [-options] -out <sorted.mrc> <file.mrc>");
+        System.err.println("       -key <path> = Sort by the control field or subfield <path>, 001 by default");
+        System.err.println("       -normalize = Sort by the first word of the key, in lower case and without hyphens");
+        System.err.println("       -memory <MB> = Sort runs of <MB> megabytes in memory, 64 by default");
+        System.err.println("       -threads <n> = Sort and merge the runs with <n> threads");
+        System.err.println("       -tmp <dir> = Write the runs to <dir>");
+        System.exit(1);
+    }
+
+    private static final class Entry
+    {
+
+        final byte[] key;
+        final byte[] record;
+
+        Entry(byte[] key, byte[] record)
+        {
+            this.key = key;
+            this.record = record;
+        }
+
+    }
+
+    /**
+     * A sorted run being merged.
+     */
+    private static final class RunReader
+    {
+
+        final DataInputStream input;
+        final int index;
+        Entry current;
+
+        RunReader(File file, int index)
+            throws IOException
+        {
+            this.input = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16));
+            this.index = index;
+        }
+
+        boolean next()
+            throws IOException
+        {
+            int keyLength = this.input.readInt();
+            if (keyLength < 0) {
+                return false;
+            }
+            byte[] key = new byte[keyLength];
+            this.input.readFully(key);
+            byte[] record = new byte[this.input.readInt()];
+            this.input.readFully(record);
+            this.current = new Entry(key, record);
+            return true;
+        }
+
+    }
+
+}
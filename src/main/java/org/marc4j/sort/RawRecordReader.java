@@ -0,0 +1,126 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.sort;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.marc4j.marc.Leader;
+import org.marc4j.marc.MarcException;
+
+/**
+ * <p>
+ * Reads the records of an ISO 2709 file as raw bytes, framed by the record length of their leader, without parsing
+ * them.
+ * </p>
+ *
+ * <p>
+ * Like {@link org.marc4j.MarcReader}, the reader stops at the end of the input, or when there are fewer bytes left than
+ * a leader.
+ * </p>
+ */
+public class RawRecordReader
+    implements Closeable
+{
+
+    private final InputStream input;
+
+    private long offset;
+    private long recordOffset = -1;
+
+    /**
+     * Creates a reader.
+     *
+     * @param input the ISO 2709 input, buffered by the reader if it isn't already
+     */
+    public RawRecordReader(InputStream input)
+    {
+        this.input = input instanceof BufferedInputStream ? input : new BufferedInputStream(input, 1 << 16);
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return the bytes of the record, from the leader to the record terminator, or null at the end of the input
+     * @throws IOException if the input can't be read
+     * @throws MarcException if the record length isn't valid or the record is truncated
+     */
+    public byte[] next()
+        throws IOException
+    {
+        byte[] leader = new byte[Leader.LENGTH];
+        int read = this.readFully(leader, 0);
+        if (read < Leader.LENGTH) {
+            return null;
+        }
+        int length = 0;
+        for (int i = 0; i < 5; i++) {
+            int digit = leader[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new MarcException("Invalid record length at offset " + this.offset);
+            }
+            length = length * 10 + digit;
+        }
+        if (length < Leader.LENGTH) {
+            throw new MarcException("Invalid record length at offset " + this.offset);
+        }
+        byte[] record = new byte[length];
+        System.arraycopy(leader, 0, record, 0, Leader.LENGTH);
+        if (this.readFully(record, Leader.LENGTH) < length) {
+            throw new MarcException("Truncated record at offset " + this.offset);
+        }
+        this.recordOffset = this.offset;
+        this.offset += length;
+        return record;
+    }
+
+    /**
+     * Returns the offset, in bytes from the start of the input, of the last record read.
+     *
+     * @return the offset of the record, or -1 before the first one
+     */
+    public long getRecordOffset()
+    {
+        return this.recordOffset;
+    }
+
+    @Override
+    public void close()
+        throws IOException
+    {
+        this.input.close();
+    }
+
+    private int readFully(byte[] buffer, int offset)
+        throws IOException
+    {
+        while (offset < buffer.length) {
+            int n = this.input.read(buffer, offset, buffer.length - offset);
+            if (n < 0) {
+                break;
+            }
+            offset += n;
+        }
+        return offset;
+    }
+
+}
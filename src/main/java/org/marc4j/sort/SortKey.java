@@ -0,0 +1,201 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.sort;
+
+import java.nio.charset.StandardCharsets;
+
+import org.marc4j.marc.IllegalTagException;
+import org.marc4j.marc.IndexKeys;
+import org.marc4j.marc.KeyExtractor;
+import org.marc4j.marc.Leader;
+import org.marc4j.marc.MarcConstants;
+import org.marc4j.marc.MarcException;
+import org.marc4j.marc.Tag;
+
+/**
+ * <p>
+ * Extracts a sort key from a raw ISO 2709 record, reading only its directory and the field of the key.
+ * </p>
+ *
+ * <p>
+ * The key is the first key that the {@link KeyExtractor} reports for the first occurrence of a control field, like
+ * <code>001</code>, or of a subfield, like <code>035$a</code>. The data is read as ISO 8859-1, like
+ * {@link org.marc4j.MarcReader} does, and keys are compared as UTF-8 bytes, in the order of the bytes of the records. A
+ * record without the field has an empty key, which sorts first.
+ * </p>
+ */
+public final class SortKey
+{
+
+    private static final byte[] NO_KEY = new byte[0];
+
+    private final String path;
+    private final byte[] tag;
+    private final char code;
+    private final KeyExtractor extractor;
+
+    private SortKey(String path, KeyExtractor extractor)
+    {
+        int dollar = path.indexOf('$');
+        String tag = dollar < 0 ? path : path.substring(0, dollar);
+        boolean controlField;
+        try {
+            Tag.isValid(tag);
+            controlField = Tag.isControlField(tag);
+        } catch (IllegalTagException e) {
+            throw new MarcException("Invalid key path " + path, e);
+        }
+        if (controlField ? dollar >= 0 : dollar < 0 || dollar != path.length() - 2) {
+            throw new MarcException("Invalid key path " + path);
+        }
+        this.path = path;
+        this.tag = tag.getBytes(StandardCharsets.ISO_8859_1);
+        this.code = dollar < 0 ? 0 : path.charAt(dollar + 1);
+        this.extractor = extractor;
+    }
+
+    /**
+     * Creates a key from the whole data of a path, without leading and trailing spaces.
+     *
+     * @param path the tag of a control field, like <code>001</code>, or the tag and the code of a subfield, like
+     *        <code>035$a</code>
+     * @return the sort key
+     * @throws MarcException if the path isn't valid
+     */
+    public static SortKey of(String path)
+    {
+        return new SortKey(path, IndexKeys.EXACT);
+    }
+
+    /**
+     * Creates a key normalised by an extractor, like {@link IndexKeys#FIRST_TOKEN}.
+     *
+     * @param path the tag of a control field, like <code>001</code>, or the tag and the code of a subfield, like
+     *        <code>035$a</code>
+     * @param extractor the key extractor
+     * @return the sort key
+     * @throws MarcException if the path isn't valid
+     */
+    public static SortKey of(String path, KeyExtractor extractor)
+    {
+        return new SortKey(path, extractor);
+    }
+
+    /**
+     * Extracts the key of a record.
+     *
+     * @param record the bytes of an ISO 2709 record
+     * @return the key as UTF-8, empty if the record doesn't have it
+     * @throws MarcException if the directory of the record isn't valid
+     */
+    public byte[] extract(byte[] record)
+    {
+        int base = SortKey.number(record, 12, 5);
+        if (base < Leader.LENGTH || base > record.length) {
+            throw new MarcException("Invalid base address of data " + base);
+        }
+        for (int entry = Leader.LENGTH; entry + 12 <= base && record[entry] != MarcConstants.FT; entry += 12) {
+            if (record[entry] != this.tag[0] || record[entry + 1] != this.tag[1] || record[entry + 2] != this.tag[2]) {
+                continue;
+            }
+            int start = base + SortKey.number(record, entry + 7, 5);
+            int end = start + SortKey.number(record, entry + 3, 4);
+            if (end > record.length) {
+                throw new MarcException("Invalid directory entry for " + this.path);
+            }
+            if (end > start && record[end - 1] == MarcConstants.FT) {
+                end--;
+            }
+            if (this.code == 0) {
+                return this.key(record, start, end);
+            }
+            int position = start;
+            while (position < end && record[position] != MarcConstants.US) {
+                position++;
+            }
+            while (position + 1 < end) {
+                char subfieldCode = (char) (record[position + 1] & 0xFF);
+                int from = position + 2;
+                position = from;
+                while (position < end && record[position] != MarcConstants.US) {
+                    position++;
+                }
+                if (subfieldCode == this.code) {
+                    return this.key(record, from, position);
+                }
+            }
+        }
+        return NO_KEY;
+    }
+
+    /**
+     * Compares two keys as unsigned bytes.
+     *
+     * @param a a key
+     * @param b another key
+     * @return a negative number, zero or a positive number as the first key sorts before, with or after the second
+     */
+    public static int compare(byte[] a, byte[] b)
+    {
+        int length = Math.min(a.length, b.length);
+        for (int i = 0; i < length; i++) {
+            int cmp = (a[i] & 0xFF) - (b[i] & 0xFF);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return a.length - b.length;
+    }
+
+    @Override
+    public String toString()
+    {
+        return this.path;
+    }
+
+    private byte[] key(byte[] record, int start, int end)
+    {
+        char[] data = new char[end - start];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (char) (record[start + i] & 0xFF);
+        }
+        String[] key = new String[1];
+        this.extractor.extract(data, k -> {
+            if (key[0] == null) {
+                key[0] = k;
+            }
+        });
+        return key[0] != null ? key[0].getBytes(StandardCharsets.UTF_8) : NO_KEY;
+    }
+
+    private static int number(byte[] record, int offset, int length)
+    {
+        int value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            int digit = i < record.length ? record[i] - '0' : -1;
+            if (digit < 0 || digit > 9) {
+                throw new MarcException("Invalid number in the leader or the directory at position " + i);
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+}
@@ -0,0 +1,554 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.util;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import org.marc4j.marc.MarcConstants;
+import org.marc4j.marc.MarcException;
+
+/**
+ * <p>
+ * Input stream that reads a BGZF file, like the ones written by {@link BlockCompressedOutputStream}, and seeks to any
+ * position by its virtual offset or, with the index written by <code>BlockCompressedOutputStream</code>, to any
+ * record by its number.
+ * </p>
+ *
+ * <p>
+ * The blocks ahead of the current one are read and decompressed on a pool of threads, so the stream can be read as
+ * fast as the records are parsed. For example, to parse the records from the 1000th:
+ * </p>
+ *
+ * <pre>
+ * try (BlockCompressedInputStream in = new BlockCompressedInputStream(new File("records.mrc.gz"))) {
+ *     in.seekRecord(1000);
+ *     MarcReader reader = new MarcReader();
+ *     reader.setMarcHandler(handler);
+ *     reader.parse(in);
+ * }
+ * </pre>
+ */
+public class BlockCompressedInputStream
+    extends InputStream
+{
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final FileChannel channel;
+
+    /** Where the blocks end: the index, or the end-of-file block */
+    private final long dataEnd;
+
+    /** The virtual offsets and the numbers of the indexed records, or null if the file has no index */
+    private final long[] index;
+    private final long recordCount;
+
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private ExecutorService executor;
+
+    /** The blocks read ahead, and the offset of the next one */
+    private final Deque<PendingBlock> pending = new ArrayDeque<>();
+    private long nextOffset;
+
+    /** The current block, its offset and its size in the file, and the position in it */
+    private byte[] block = EMPTY;
+    private long blockOffset;
+    private int blockSize;
+    private int position;
+
+    /**
+     * Opens a file.
+     *
+     * @param file the file
+     * @throws IOException if the file can't be read
+     * @throws MarcException if the file isn't a BGZF file
+     */
+    public BlockCompressedInputStream(File file)
+        throws IOException
+    {
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            long size = this.channel.size();
+            byte[] eof = BlockCompressedOutputStream.EOF;
+            boolean hasEof = size >= eof.length && Arrays.equals(this.read(size - eof.length, eof.length), eof);
+            long trailerOffset = size - eof.length - BlockCompressedOutputStream.TRAILER_LENGTH;
+            byte[] trailer = null;
+            if (hasEof && trailerOffset >= 0) {
+                trailer = this.read(trailerOffset, BlockCompressedOutputStream.TRAILER_LENGTH);
+            }
+            if (trailer != null && BlockCompressedInputStream.isTrailer(trailer)) {
+                this.dataEnd = BlockCompressedInputStream.readLong(trailer, 22);
+                long entries = BlockCompressedInputStream.readLong(trailer, 30);
+                this.recordCount = BlockCompressedInputStream.readLong(trailer, 38);
+                if (this.dataEnd < 0 || this.dataEnd > trailerOffset || entries < 0 || entries > Integer.MAX_VALUE / 2) {
+                    throw new MarcException("Invalid record index: " + file);
+                }
+                this.index = this.readIndex((int) entries, trailerOffset, file);
+            } else {
+                // A BGZF file without index
+                this.dataEnd = hasEof ? size - eof.length : size;
+                this.index = null;
+                this.recordCount = -1;
+            }
+            if (size > 0 && this.dataEnd > 0) {
+                byte[] header = this.read(0, 4);
+                if ((header[0] & 0xff) != 0x1f || (header[1] & 0xff) != 0x8b || header[2] != 8 || (header[3] & 4) == 0) {
+                    throw new MarcException("Not a BGZF file: " + file);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            this.channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Sets the number of threads that decompress the blocks, the number of processors by default.
+     *
+     * @param threads the number of threads
+     */
+    public void setThreads(int threads)
+    {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be positive");
+        }
+        if (this.executor != null) {
+            throw new IllegalStateException("The stream has already started");
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * Returns the number of records in the index, or -1 if the file has no index.
+     *
+     * @return the number of records
+     */
+    public long getRecordCount()
+    {
+        return this.recordCount;
+    }
+
+    /**
+     * Returns the virtual offset of the next byte.
+     *
+     * @return the virtual offset
+     */
+    public long getVirtualOffset()
+    {
+        if (this.position == this.block.length) {
+            return (this.blockOffset + this.blockSize) << 16;
+        }
+        return this.blockOffset << 16 | this.position;
+    }
+
+    /**
+     * Moves to a virtual offset.
+     *
+     * @param virtualOffset the virtual offset
+     * @throws IOException if the offset isn't in a block of the file
+     */
+    public void seek(long virtualOffset)
+        throws IOException
+    {
+        long offset = virtualOffset >>> 16;
+        int offsetInBlock = (int) (virtualOffset & 0xFFFF);
+        if (offset != this.blockOffset || this.block == EMPTY) {
+            this.clearPending();
+            this.block = EMPTY;
+            this.blockOffset = offset;
+            this.blockSize = 0;
+            this.position = 0;
+            this.nextOffset = offset;
+            if (offsetInBlock > 0 && !this.nextBlock()) {
+                throw new IOException("Invalid virtual offset " + virtualOffset);
+            }
+        }
+        if (offsetInBlock > this.block.length) {
+            throw new IOException("Invalid virtual offset " + virtualOffset);
+        }
+        this.position = offsetInBlock;
+    }
+
+    /**
+     * Moves to the start of a record, by its number. The number of records moves to the end of the records.
+     *
+     * @param record the number of the record, from 0
+     * @throws IOException if the file can't be read
+     * @throws MarcException if the file has no index
+     */
+    public void seekRecord(long record)
+        throws IOException
+    {
+        if (this.index == null) {
+            throw new MarcException("The file has no record index");
+        }
+        if (record < 0 || record > this.recordCount) {
+            throw new IllegalArgumentException("No record " + record + " in " + this.recordCount);
+        }
+        int low = 0;
+        int high = this.index.length / 2 - 1;
+        int entry = -1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (this.index[middle * 2 + 1] <= record) {
+                entry = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        if (entry < 0) {
+            this.seek(0);
+            return;
+        }
+        this.seek(this.index[entry * 2]);
+        for (long skip = record - this.index[entry * 2 + 1]; skip > 0; skip--) {
+            this.skipRecord();
+        }
+    }
+
+    @Override
+    public int read()
+        throws IOException
+    {
+        if (this.position == this.block.length && !this.nextBlock()) {
+            return -1;
+        }
+        return this.block[this.position++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len)
+        throws IOException
+    {
+        if (len == 0) {
+            return 0;
+        }
+        while (this.position == this.block.length) {
+            if (!this.nextBlock()) {
+                return -1;
+            }
+        }
+        int count = Math.min(len, this.block.length - this.position);
+        System.arraycopy(this.block, this.position, b, off, count);
+        this.position += count;
+        return count;
+    }
+
+    @Override
+    public int available()
+    {
+        return this.block.length - this.position;
+    }
+
+    @Override
+    public void close()
+        throws IOException
+    {
+        if (this.executor != null) {
+            this.executor.shutdownNow();
+        }
+        this.pending.clear();
+        this.channel.close();
+    }
+
+    /**
+     * Skips the bytes up to the next record terminator.
+     */
+    private void skipRecord()
+        throws IOException
+    {
+        while (true) {
+            while (this.position == this.block.length) {
+                if (!this.nextBlock()) {
+                    return;
+                }
+            }
+            byte[] data = this.block;
+            for (int i = this.position; i < data.length; i++) {
+                if (data[i] == MarcConstants.RT) {
+                    this.position = i + 1;
+                    return;
+                }
+            }
+            this.position = data.length;
+        }
+    }
+
+    /**
+     * Moves to the next block with data, and returns false at the end of the file.
+     */
+    private boolean nextBlock()
+        throws IOException
+    {
+        do {
+            this.readAhead();
+            PendingBlock next = this.pending.poll();
+            if (next == null) {
+                this.blockOffset += this.blockSize;
+                this.blockSize = 0;
+                this.block = EMPTY;
+                this.position = 0;
+                return false;
+            }
+            this.block = BlockCompressedInputStream.await(next.data);
+            this.blockOffset = next.offset;
+            this.blockSize = next.size;
+            this.position = 0;
+        } while (this.block.length == 0);
+        return true;
+    }
+
+    /**
+     * Reads the blocks ahead of the current one, and submits them to be decompressed.
+     */
+    private void readAhead()
+        throws IOException
+    {
+        if (this.executor == null) {
+            AtomicInteger count = new AtomicInteger();
+            this.executor = Executors.newFixedThreadPool(this.threads, task -> {
+                Thread thread = new Thread(task, "marc-inflater-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        while (this.pending.size() < this.threads * 2 && this.nextOffset < this.dataEnd) {
+            long offset = this.nextOffset;
+            byte[] header = this.read(offset, 12);
+            if ((header[0] & 0xff) != 0x1f || (header[1] & 0xff) != 0x8b || header[2] != 8 || (header[3] & 4) == 0) {
+                throw new IOException("Invalid block at offset " + offset);
+            }
+            int extraLength = (header[10] & 0xff) | (header[11] & 0xff) << 8;
+            byte[] extra = this.read(offset + 12, extraLength);
+            int size = BlockCompressedInputStream.blockSize(extra);
+            if (size < 12 + extraLength + BlockCompressedOutputStream.FOOTER_LENGTH) {
+                throw new IOException("Invalid block at offset " + offset);
+            }
+            byte[] member = new byte[size];
+            System.arraycopy(header, 0, member, 0, 12);
+            System.arraycopy(extra, 0, member, 12, extraLength);
+            this.read(offset + 12 + extraLength, member, 12 + extraLength, size - 12 - extraLength);
+            int dataOffset = 12 + extraLength;
+            this.pending.add(new PendingBlock(offset, size,
+                this.executor.submit(() -> BlockCompressedInputStream.inflate(member, dataOffset, offset))));
+            this.nextOffset = offset + size;
+        }
+    }
+
+    private void clearPending()
+    {
+        for (PendingBlock block : this.pending) {
+            block.data.cancel(false);
+        }
+        this.pending.clear();
+    }
+
+    private long[] readIndex(int entries, long end, File file)
+        throws IOException
+    {
+        long[] index = new long[entries * 2];
+        int length = 0;
+        long offset = this.dataEnd;
+        while (offset < end) {
+            byte[] header = this.read(offset, 12);
+            int extraLength = (header[10] & 0xff) | (header[11] & 0xff) << 8;
+            byte[] extra = this.read(offset + 12, extraLength);
+            int subfield = BlockCompressedInputStream.findSubfield(extra, 'M', 'I');
+            if (subfield < 0) {
+                throw new MarcException("Invalid record index: " + file);
+            }
+            int dataLength = (extra[subfield + 2] & 0xff) | (extra[subfield + 3] & 0xff) << 8;
+            for (int i = subfield + 4; i + 16 <= subfield + 4 + dataLength; i += 16) {
+                if (length == index.length) {
+                    throw new MarcException("Invalid record index: " + file);
+                }
+                index[length++] = BlockCompressedInputStream.readLong(extra, i);
+                index[length++] = BlockCompressedInputStream.readLong(extra, i + 8);
+            }
+            offset += BlockCompressedInputStream.blockSize(extra);
+        }
+        if (length != index.length) {
+            throw new MarcException("Invalid record index: " + file);
+        }
+        return index;
+    }
+
+    private byte[] read(long offset, int length)
+        throws IOException
+    {
+        byte[] bytes = new byte[length];
+        this.read(offset, bytes, 0, length);
+        return bytes;
+    }
+
+    private void read(long offset, byte[] bytes, int start, int length)
+        throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, start, length);
+        while (buffer.hasRemaining()) {
+            if (this.channel.read(buffer, offset + buffer.position() - start) < 0) {
+                throw new EOFException("Truncated block at offset " + offset);
+            }
+        }
+    }
+
+    private static boolean isTrailer(byte[] trailer)
+    {
+        return (trailer[0] & 0xff) == 0x1f && (trailer[1] & 0xff) == 0x8b && trailer[10] == 34 && trailer[11] == 0
+            && trailer[12] == 'B' && trailer[13] == 'C' && trailer[18] == 'M' && trailer[19] == 'T'
+            && trailer[20] == 24 && trailer[21] == 0;
+    }
+
+    /**
+     * Returns the position of an extra subfield, or -1.
+     */
+    private static int findSubfield(byte[] extra, char id1, char id2)
+    {
+        int i = 0;
+        while (i + 4 <= extra.length) {
+            int length = (extra[i + 2] & 0xff) | (extra[i + 3] & 0xff) << 8;
+            if (extra[i] == id1 && extra[i + 1] == id2) {
+                return i + 4 + length <= extra.length ? i : -1;
+            }
+            i += 4 + length;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the size of a block, from its BC extra subfield.
+     */
+    private static int blockSize(byte[] extra)
+        throws IOException
+    {
+        int subfield = BlockCompressedInputStream.findSubfield(extra, 'B', 'C');
+        if (subfield < 0 || extra[subfield + 2] != 2 || extra[subfield + 3] != 0) {
+            throw new IOException("Not a BGZF block");
+        }
+        return ((extra[subfield + 4] & 0xff) | (extra[subfield + 5] & 0xff) << 8) + 1;
+    }
+
+    private static byte[] inflate(byte[] member, int dataOffset, long offset)
+        throws IOException
+    {
+        int footer = member.length - BlockCompressedOutputStream.FOOTER_LENGTH;
+        int size = BlockCompressedInputStream.readInt(member, footer + 4);
+        if (size < 0 || size > BlockCompressedOutputStream.MAX_COMPRESSED_SIZE) {
+            throw new IOException("Invalid block at offset " + offset);
+        }
+        byte[] data = new byte[size];
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(member, dataOffset, footer - dataOffset);
+            int length = 0;
+            while (length < size && !inflater.finished()) {
+                int count = inflater.inflate(data, length, size - length);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += count;
+            }
+            if (length != size) {
+                throw new IOException("Invalid block at offset " + offset);
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Invalid block at offset " + offset, e);
+        } finally {
+            inflater.end();
+        }
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, size);
+        if ((int) crc.getValue() != BlockCompressedInputStream.readInt(member, footer)) {
+            throw new IOException("CRC error in block at offset " + offset);
+        }
+        return data;
+    }
+
+    private static int readInt(byte[] buffer, int offset)
+    {
+        return (buffer[offset] & 0xff) | (buffer[offset + 1] & 0xff) << 8 | (buffer[offset + 2] & 0xff) << 16
+            | (buffer[offset + 3] & 0xff) << 24;
+    }
+
+    private static long readLong(byte[] buffer, int offset)
+    {
+        return (BlockCompressedInputStream.readInt(buffer, offset) & 0xffffffffL)
+            | (long) BlockCompressedInputStream.readInt(buffer, offset + 4) << 32;
+    }
+
+    private static byte[] await(Future<byte[]> future)
+        throws IOException
+    {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Read interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw new IOException(cause.getMessage(), cause);
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new MarcException("Unable to decompress the block", cause);
+        }
+    }
+
+    /**
+     * A block read ahead, with its offset and size in the file.
+     */
+    private static final class PendingBlock
+    {
+
+        final long offset;
+        final int size;
+        final Future<byte[]> data;
+
+        PendingBlock(long offset, int size, Future<byte[]> data)
+        {
+            this.offset = offset;
+            this.size = size;
+            this.data = data;
+        }
+
+    }
+
+}
@@ -0,0 +1,540 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.util;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import org.marc4j.marc.MarcConstants;
+import org.marc4j.marc.MarcException;
+
+/**
+ * <p>
+ * Output stream that compresses its data in independent blocks, in the BGZF format: each block is a gzip member of
+ * at most 64 KB with its size in an extra field, so the file can be read with any gzip tool and any block can be read
+ * by itself. The blocks end, when possible, after an ISO 2709 record terminator, so a record only spans two blocks
+ * when it doesn't fit in one.
+ * </p>
+ *
+ * <p>
+ * The blocks are compressed on a pool of threads and written in order by a writer thread. When the stream is closed,
+ * an index of the records and the standard BGZF end-of-file block are written. The index is kept in the extra fields
+ * of empty gzip members, so it doesn't change the uncompressed data. {@link BlockCompressedInputStream} uses it to
+ * seek to a record by its number.
+ * </p>
+ *
+ * <pre>
+ * try (MarcStreamWriter writer = new MarcStreamWriter(new BlockCompressedOutputStream(
+ *     new FileOutputStream("records.mrc.gz")))) {
+ *     for (Record record : records) {
+ *         writer.write(record);
+ *     }
+ * }
+ * </pre>
+ *
+ * <p>
+ * The position of a byte in the file is its virtual offset, as in BGZF: the offset of its block in the file, shifted
+ * 16 bits to the left, plus its offset in the uncompressed block.
+ * </p>
+ */
+public class BlockCompressedOutputStream
+    extends OutputStream
+{
+
+    /** The largest uncompressed block, so that a block that doesn't compress still fits in 64 KB */
+    static final int MAX_BLOCK_SIZE = 0xFF00;
+
+    /** The largest block in the file */
+    static final int MAX_COMPRESSED_SIZE = 0x10000;
+
+    /** The length of a block header, with the BC extra subfield alone */
+    static final int HEADER_LENGTH = 18;
+
+    /** The length of the CRC and the uncompressed size after the compressed data */
+    static final int FOOTER_LENGTH = 8;
+
+    /** The length of the trailer member, with the index offset, the entry count and the record count */
+    static final int TRAILER_LENGTH = 56;
+
+    /** The index entries in each index member */
+    static final int ENTRIES_PER_MEMBER = 4000;
+
+    /** The empty block that ends a BGZF file */
+    static final byte[] EOF = {
+        0x1f, (byte) 0x8b, 8, 4, 0, 0, 0, 0, 0, (byte) 0xff, 6, 0, 'B', 'C', 2, 0, 0x1b, 0, 3, 0, 0, 0, 0, 0, 0, 0, 0, 0
+    };
+
+    /** Marks the end of the blocks in the queue */
+    private static final Future<Block> END = CompletableFuture.completedFuture(null);
+
+    private final OutputStream out;
+
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+
+    /** The uncompressed data of the current block, and the position of its last record terminator */
+    private byte[] buffer = new byte[MAX_BLOCK_SIZE];
+    private int length;
+    private int lastTerminator = -1;
+
+    private ExecutorService executor;
+    private ThreadLocal<Deflater> deflaters;
+    private BlockingQueue<Future<Block>> queue;
+    private Thread writer;
+    private volatile Throwable failure;
+    private boolean closed;
+
+    /** Written by the writer thread: the offset of the next block, the records so far and the index */
+    private long offset;
+    private long recordCount;
+    private boolean atRecordStart = true;
+    private long[] index = new long[256];
+    private int indexLength;
+
+    /**
+     * Creates a stream.
+     *
+     * @param out the output stream of the compressed data
+     */
+    public BlockCompressedOutputStream(OutputStream out)
+    {
+        this.out = out;
+    }
+
+    /**
+     * Sets the number of threads that compress the blocks, the number of processors by default.
+     *
+     * @param threads the number of threads
+     */
+    public void setThreads(int threads)
+    {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be positive");
+        }
+        this.checkNotStarted();
+        this.threads = threads;
+    }
+
+    /**
+     * Sets the compression level, from 0 to 9, or -1 for the default of <code>Deflater</code>.
+     *
+     * @param compressionLevel the compression level
+     */
+    public void setCompressionLevel(int compressionLevel)
+    {
+        if (compressionLevel < -1 || compressionLevel > 9) {
+            throw new IllegalArgumentException("Invalid compression level " + compressionLevel);
+        }
+        this.checkNotStarted();
+        this.compressionLevel = compressionLevel;
+    }
+
+    @Override
+    public void write(int b)
+        throws IOException
+    {
+        this.write(new byte[] { (byte) b }, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len)
+        throws IOException
+    {
+        if (this.closed) {
+            throw new IOException("Stream closed");
+        }
+        this.checkFailure();
+        while (len > 0) {
+            int count = Math.min(len, MAX_BLOCK_SIZE - this.length);
+            System.arraycopy(b, off, this.buffer, this.length, count);
+            for (int i = this.length + count - 1; i >= this.length; i--) {
+                if (this.buffer[i] == MarcConstants.RT) {
+                    this.lastTerminator = i;
+                    break;
+                }
+            }
+            this.length += count;
+            off += count;
+            len -= count;
+            if (this.length == MAX_BLOCK_SIZE) {
+                this.submit(this.lastTerminator >= 0 ? this.lastTerminator + 1 : MAX_BLOCK_SIZE);
+            }
+        }
+    }
+
+    /**
+     * Ends the current block, even if it doesn't end with a whole record, and waits until it's written and flushed.
+     */
+    @Override
+    public void flush()
+        throws IOException
+    {
+        if (this.closed) {
+            throw new IOException("Stream closed");
+        }
+        this.checkFailure();
+        if (this.length > 0) {
+            this.submit(this.length);
+        }
+        if (this.executor == null) {
+            this.out.flush();
+            return;
+        }
+        Flush flush = new Flush();
+        this.put(flush);
+        BlockCompressedOutputStream.await(flush);
+        this.checkFailure();
+    }
+
+    /**
+     * Writes the remaining blocks, the index and the end-of-file block, and closes the output.
+     */
+    @Override
+    public void close()
+        throws IOException
+    {
+        if (this.closed) {
+            return;
+        }
+        try {
+            this.checkFailure();
+            if (this.length > 0) {
+                this.submit(this.length);
+            }
+            this.closed = true;
+            if (this.executor != null) {
+                this.put(END);
+                this.writer.join();
+            }
+            this.checkFailure();
+            this.writeIndex();
+            this.out.write(EOF);
+            this.out.flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Close interrupted");
+        } finally {
+            this.closed = true;
+            if (this.executor != null) {
+                this.executor.shutdownNow();
+            }
+            this.out.close();
+        }
+    }
+
+    /**
+     * Sends the first bytes of the buffer to be compressed, and keeps the rest for the next block.
+     */
+    private void submit(int count)
+        throws IOException
+    {
+        if (this.executor == null) {
+            this.start();
+        }
+        byte[] data = this.buffer;
+        int remaining = this.length - count;
+        this.buffer = new byte[MAX_BLOCK_SIZE];
+        System.arraycopy(data, count, this.buffer, 0, remaining);
+        this.length = remaining;
+        this.lastTerminator = -1;
+        this.put(this.executor.submit(() -> this.compress(data, count)));
+    }
+
+    private void put(Future<Block> future)
+        throws IOException
+    {
+        try {
+            this.queue.put(future);
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Write interrupted");
+        }
+    }
+
+    private void start()
+    {
+        AtomicInteger count = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(this.threads, task -> {
+            Thread thread = new Thread(task, "marc-deflater-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        int level = this.compressionLevel;
+        this.deflaters = ThreadLocal.withInitial(() -> new Deflater(level, true));
+        this.queue = new ArrayBlockingQueue<>(this.threads * 4);
+        this.writer = new Thread(this::drain, "marc-deflater");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Compresses a block into a gzip member, and finds its record terminators.
+     */
+    private Block compress(byte[] data, int count)
+    {
+        Block block = new Block();
+        block.length = count;
+        for (int i = 0; i < count; i++) {
+            if (data[i] == MarcConstants.RT) {
+                if (block.records++ == 0) {
+                    block.firstTerminator = i;
+                }
+            }
+        }
+        block.endsRecord = count > 0 && data[count - 1] == MarcConstants.RT;
+
+        Deflater deflater = this.deflaters.get();
+        byte[] member = new byte[MAX_COMPRESSED_SIZE];
+        int max = MAX_COMPRESSED_SIZE - HEADER_LENGTH - FOOTER_LENGTH;
+        int compressed = BlockCompressedOutputStream.deflate(deflater, data, count, member, max);
+        if (compressed < 0) {
+            // Stored, the data grows by a few bytes
+            deflater.setLevel(Deflater.NO_COMPRESSION);
+            compressed = BlockCompressedOutputStream.deflate(deflater, data, count, member, max);
+            deflater.setLevel(this.compressionLevel);
+        }
+        int size = HEADER_LENGTH + compressed + FOOTER_LENGTH;
+        BlockCompressedOutputStream.writeHeader(member, 6, size);
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, count);
+        BlockCompressedOutputStream.writeInt(member, size - 8, (int) crc.getValue());
+        BlockCompressedOutputStream.writeInt(member, size - 4, count);
+        block.member = Arrays.copyOf(member, size);
+        return block;
+    }
+
+    /**
+     * Writes the blocks in order until the end mark, and indexes the first record that starts in each block. After
+     * an error, the remaining blocks are discarded.
+     */
+    private void drain()
+    {
+        while (true) {
+            Future<Block> future;
+            try {
+                future = this.queue.take();
+            } catch (InterruptedException e) {
+                this.failure = new InterruptedIOException("Writer interrupted");
+                return;
+            }
+            if (future == END) {
+                return;
+            }
+            if (future instanceof Flush) {
+                try {
+                    if (this.failure == null) {
+                        this.out.flush();
+                    }
+                } catch (IOException e) {
+                    this.failure = e;
+                }
+                ((Flush) future).complete(null);
+                continue;
+            }
+            if (this.failure != null) {
+                future.cancel(false);
+                continue;
+            }
+            try {
+                Block block = BlockCompressedOutputStream.await(future);
+                if (this.atRecordStart) {
+                    this.addIndexEntry(this.offset << 16, this.recordCount);
+                } else if (block.records > 0 && block.firstTerminator + 1 < block.length) {
+                    this.addIndexEntry(this.offset << 16 | (block.firstTerminator + 1), this.recordCount + 1);
+                }
+                this.out.write(block.member);
+                this.offset += block.member.length;
+                this.recordCount += block.records;
+                this.atRecordStart = block.endsRecord;
+            } catch (IOException | RuntimeException e) {
+                this.failure = e;
+            }
+        }
+    }
+
+    private void addIndexEntry(long virtualOffset, long record)
+    {
+        if (this.indexLength + 2 > this.index.length) {
+            this.index = Arrays.copyOf(this.index, this.index.length * 2);
+        }
+        this.index[this.indexLength++] = virtualOffset;
+        this.index[this.indexLength++] = record;
+    }
+
+    /**
+     * Writes the index entries, in as many empty members as needed, and the trailer that points to them.
+     */
+    private void writeIndex()
+        throws IOException
+    {
+        long indexOffset = this.offset;
+        int entries = this.indexLength / 2;
+        for (int first = 0; first < entries; first += ENTRIES_PER_MEMBER) {
+            int count = Math.min(ENTRIES_PER_MEMBER, entries - first);
+            byte[] data = new byte[count * 16];
+            for (int i = 0; i < count; i++) {
+                BlockCompressedOutputStream.writeLong(data, i * 16, this.index[(first + i) * 2]);
+                BlockCompressedOutputStream.writeLong(data, i * 16 + 8, this.index[(first + i) * 2 + 1]);
+            }
+            this.writeEmptyMember('I', data);
+        }
+        byte[] trailer = new byte[24];
+        BlockCompressedOutputStream.writeLong(trailer, 0, indexOffset);
+        BlockCompressedOutputStream.writeLong(trailer, 8, entries);
+        BlockCompressedOutputStream.writeLong(trailer, 16, this.recordCount);
+        this.writeEmptyMember('T', trailer);
+    }
+
+    /**
+     * Writes a gzip member without data, with an extra subfield "MI" or "MT" after the BC subfield.
+     */
+    private void writeEmptyMember(char id, byte[] data)
+        throws IOException
+    {
+        int extraLength = 6 + 4 + data.length;
+        int size = 12 + extraLength + 2 + FOOTER_LENGTH;
+        byte[] member = new byte[size];
+        BlockCompressedOutputStream.writeHeader(member, extraLength, size);
+        member[HEADER_LENGTH] = 'M';
+        member[HEADER_LENGTH + 1] = (byte) id;
+        member[HEADER_LENGTH + 2] = (byte) data.length;
+        member[HEADER_LENGTH + 3] = (byte) (data.length >> 8);
+        System.arraycopy(data, 0, member, HEADER_LENGTH + 4, data.length);
+        // An empty final deflate block, then a zero CRC and size
+        member[12 + extraLength] = 3;
+        this.out.write(member);
+        this.offset += size;
+    }
+
+    private void checkNotStarted()
+    {
+        if (this.executor != null) {
+            throw new IllegalStateException("The stream has already started");
+        }
+    }
+
+    private void checkFailure()
+        throws IOException
+    {
+        Throwable e = this.failure;
+        if (e instanceof IOException) {
+            throw new IOException("Unable to write the blocks", e);
+        }
+        if (e != null) {
+            throw new MarcException("Unable to compress the blocks", e);
+        }
+    }
+
+    /**
+     * Deflates the data after the header of the member, and returns the compressed length, or -1 if it doesn't fit.
+     */
+    private static int deflate(Deflater deflater, byte[] data, int count, byte[] member, int max)
+    {
+        deflater.reset();
+        deflater.setInput(data, 0, count);
+        deflater.finish();
+        int length = 0;
+        while (!deflater.finished() && length < max) {
+            length += deflater.deflate(member, HEADER_LENGTH + length, max - length);
+        }
+        return deflater.finished() ? length : -1;
+    }
+
+    /**
+     * Writes the gzip header with the BC extra subfield, that holds the size of the member minus one.
+     */
+    private static void writeHeader(byte[] member, int extraLength, int size)
+    {
+        System.arraycopy(EOF, 0, member, 0, 16);
+        member[10] = (byte) extraLength;
+        member[11] = (byte) (extraLength >> 8);
+        member[16] = (byte) (size - 1);
+        member[17] = (byte) ((size - 1) >> 8);
+    }
+
+    private static void writeInt(byte[] buffer, int offset, int value)
+    {
+        for (int i = 0; i < 4; i++) {
+            buffer[offset + i] = (byte) (value >> (i * 8));
+        }
+    }
+
+    private static void writeLong(byte[] buffer, int offset, long value)
+    {
+        for (int i = 0; i < 8; i++) {
+            buffer[offset + i] = (byte) (value >> (i * 8));
+        }
+    }
+
+    private static <T> T await(Future<T> future)
+        throws IOException
+    {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Write interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new MarcException("Unable to compress the block", cause);
+        }
+    }
+
+    /**
+     * A compressed block, with its uncompressed length, the number of record terminators in it and the position of
+     * the first one.
+     */
+    private static final class Block
+    {
+
+        byte[] member;
+        int length;
+        int records;
+        int firstTerminator = -1;
+        boolean endsRecord;
+
+    }
+
+    /**
+     * Asks the writer thread to flush the output, and tells when it's done.
+     */
+    private static final class Flush
+        extends CompletableFuture<Block>
+    {
+
+    }
+
+}
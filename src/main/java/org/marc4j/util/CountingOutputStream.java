@@ -0,0 +1,86 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.util;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import org.marc4j.marc.MarcException;
+
+/**
+ * Buffered output to a file channel that counts the bytes written to it.
+ */
+final class CountingOutputStream
+    extends BufferedOutputStream
+{
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private long count;
+
+    private CountingOutputStream(FileChannel channel)
+    {
+        super(Channels.newOutputStream(channel), BUFFER_SIZE);
+    }
+
+    /**
+     * Creates or truncates a file and opens it.
+     *
+     * @throws MarcException if the file can't be opened
+     */
+    static CountingOutputStream open(File file)
+    {
+        try {
+            return new CountingOutputStream(FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE));
+        } catch (IOException e) {
+            throw new MarcException("Unable to open the output " + file, e);
+        }
+    }
+
+    /**
+     * Returns the number of bytes written, buffered or not.
+     */
+    long getCount()
+    {
+        return this.count;
+    }
+
+    @Override
+    public synchronized void write(int b)
+        throws IOException
+    {
+        super.write(b);
+        this.count++;
+    }
+
+    @Override
+    public synchronized void write(byte[] b, int off, int len)
+        throws IOException
+    {
+        super.write(b, off, len);
+        this.count += len;
+    }
+
+}
@@ -0,0 +1,375 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import org.marc4j.marc.ControlField;
+import org.marc4j.marc.DataField;
+import org.marc4j.marc.Leader;
+import org.marc4j.marc.MarcConstants;
+import org.marc4j.marc.MarcException;
+import org.marc4j.marc.Record;
+import org.marc4j.marc.Subfield;
+
+/**
+ * Reusable buffer that encodes one ISO 2709 record at a time, field by field.
+ *
+ * <p>
+ * Each field is encoded once, into the data section, and its directory entry is written as soon as the field ends,
+ * with the length in bytes of the encoded field. The record length and the base address of data are filled in the
+ * leader when the record ends. The buffers grow to the largest record written and are reused for the next ones.
+ * ISO 8859-1, US-ASCII and UTF-8 are encoded directly; other charsets through a {@link CharsetEncoder}. Characters that
+ * can't be encoded are replaced.
+ * </p>
+ */
+final class Iso2709Buffer
+{
+
+    private static final int DIRECTORY_ENTRY_LENGTH = 12;
+    private static final int MAX_FIELD_LENGTH = 9999;
+    private static final int MAX_RECORD_LENGTH = 99999;
+
+    private static final int ENCODER = 0;
+    private static final int LATIN_1 = 1;
+    private static final int ASCII = 2;
+    private static final int UTF_8 = 3;
+
+    private final int encoding;
+    private final CharsetEncoder encoder;
+
+    private final byte[] leader = new byte[Leader.LENGTH];
+    private final char[] leaderChars = new char[Leader.LENGTH];
+
+    private byte[] directory = new byte[DIRECTORY_ENTRY_LENGTH * 32 + 1];
+    private int directoryLength;
+
+    private byte[] data = new byte[4096];
+    private int dataLength;
+
+    /** The position in the data of the current field, and its tag */
+    private int fieldStart;
+    private String tag;
+
+    Iso2709Buffer(Charset charset)
+    {
+        if (StandardCharsets.ISO_8859_1.equals(charset)) {
+            this.encoding = LATIN_1;
+        } else if (StandardCharsets.US_ASCII.equals(charset)) {
+            this.encoding = ASCII;
+        } else if (StandardCharsets.UTF_8.equals(charset)) {
+            this.encoding = UTF_8;
+        } else {
+            this.encoding = ENCODER;
+        }
+        this.encoder = charset.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    /**
+     * Starts a record, discarding the previous one.
+     */
+    void startRecord(Leader leader)
+    {
+        leader.marshal(this.leaderChars, 0);
+        for (int i = 0; i < Leader.LENGTH; i++) {
+            this.leader[i] = (byte) this.leaderChars[i];
+        }
+        this.directoryLength = 0;
+        this.dataLength = 0;
+        this.tag = null;
+    }
+
+    void startField(String tag)
+    {
+        if (tag == null || tag.length() != 3) {
+            throw new MarcException("Invalid tag " + tag);
+        }
+        if (this.directoryLength + DIRECTORY_ENTRY_LENGTH + 1 > this.directory.length) {
+            this.directory = Arrays.copyOf(this.directory, this.directory.length * 2);
+        }
+        for (int i = 0; i < 3; i++) {
+            this.directory[this.directoryLength + i] = (byte) tag.charAt(i);
+        }
+        this.fieldStart = this.dataLength;
+        this.tag = tag;
+    }
+
+    /**
+     * Starts a subfield, with the delimiter and the code.
+     */
+    void startSubfield(char code)
+    {
+        this.ensureCapacity(1);
+        this.data[this.dataLength++] = MarcConstants.US;
+        this.append(code);
+    }
+
+    void append(char c)
+    {
+        if (c < 0x80 && this.encoding != ENCODER) {
+            this.ensureCapacity(1);
+            this.data[this.dataLength++] = (byte) c;
+        } else {
+            this.append(new char[] { c }, 0, 1);
+        }
+    }
+
+    void append(char[] chars)
+    {
+        this.append(chars, 0, chars.length);
+    }
+
+    void append(char[] chars, int offset, int length)
+    {
+        int end = offset + length;
+        switch (this.encoding) {
+            case LATIN_1:
+            case ASCII:
+                int max = this.encoding == LATIN_1 ? 0xFF : 0x7F;
+                this.ensureCapacity(length);
+                for (int i = offset; i < end; i++) {
+                    char c = chars[i];
+                    this.data[this.dataLength++] = (byte) (c <= max ? c : '?');
+                }
+                break;
+            case UTF_8:
+                this.ensureCapacity(length * 3);
+                for (int i = offset; i < end; i++) {
+                    char c = chars[i];
+                    if (c < 0x80) {
+                        this.data[this.dataLength++] = (byte) c;
+                    } else if (c < 0x800) {
+                        this.data[this.dataLength++] = (byte) (0xC0 | (c >> 6));
+                        this.data[this.dataLength++] = (byte) (0x80 | (c & 0x3F));
+                    } else if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(chars[i + 1])) {
+                        int codePoint = Character.toCodePoint(c, chars[++i]);
+                        this.data[this.dataLength++] = (byte) (0xF0 | (codePoint >> 18));
+                        this.data[this.dataLength++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                        this.data[this.dataLength++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                        this.data[this.dataLength++] = (byte) (0x80 | (codePoint & 0x3F));
+                    } else if (Character.isSurrogate(c)) {
+                        this.data[this.dataLength++] = '?';
+                    } else {
+                        this.data[this.dataLength++] = (byte) (0xE0 | (c >> 12));
+                        this.data[this.dataLength++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                        this.data[this.dataLength++] = (byte) (0x80 | (c & 0x3F));
+                    }
+                }
+                break;
+            default:
+                this.encode(CharBuffer.wrap(chars, offset, length));
+        }
+    }
+
+    /**
+     * Ends the current field and writes its directory entry.
+     *
+     * @throws MarcException if the field or the record is too long for the directory
+     */
+    void endField()
+    {
+        this.ensureCapacity(1);
+        this.data[this.dataLength++] = MarcConstants.FT;
+        int length = this.dataLength - this.fieldStart;
+        if (length > MAX_FIELD_LENGTH) {
+            throw new MarcException("Field " + this.tag + " too long: " + length + " bytes");
+        }
+        if (this.fieldStart > MAX_RECORD_LENGTH) {
+            throw new MarcException("Record too long at field " + this.tag);
+        }
+        Iso2709Buffer.writeNumber(this.directory, this.directoryLength + 3, 4, length);
+        Iso2709Buffer.writeNumber(this.directory, this.directoryLength + 7, 5, this.fieldStart);
+        this.directoryLength += DIRECTORY_ENTRY_LENGTH;
+        this.tag = null;
+    }
+
+    /**
+     * Moves the field that just ended to a position of the directory, with its data before the data of the field at
+     * that position.
+     *
+     * @param index the position of the field in the directory
+     */
+    void moveLastField(int index)
+    {
+        int last = this.directoryLength / DIRECTORY_ENTRY_LENGTH - 1;
+        if (index >= last) {
+            return;
+        }
+        int entry = index * DIRECTORY_ENTRY_LENGTH;
+        int start = Iso2709Buffer.readNumber(this.directory, entry + 7, 5);
+        int length = this.dataLength - this.fieldStart;
+
+        byte[] field = Arrays.copyOfRange(this.data, this.fieldStart, this.dataLength);
+        System.arraycopy(this.data, start, this.data, start + length, this.fieldStart - start);
+        System.arraycopy(field, 0, this.data, start, length);
+
+        byte[] moved = Arrays.copyOfRange(this.directory, this.directoryLength - DIRECTORY_ENTRY_LENGTH,
+            this.directoryLength);
+        System.arraycopy(this.directory, entry, this.directory, entry + DIRECTORY_ENTRY_LENGTH,
+            this.directoryLength - DIRECTORY_ENTRY_LENGTH - entry);
+        System.arraycopy(moved, 0, this.directory, entry, DIRECTORY_ENTRY_LENGTH);
+        Iso2709Buffer.writeNumber(this.directory, entry + 7, 5, start);
+        for (int i = entry + DIRECTORY_ENTRY_LENGTH; i < this.directoryLength; i += DIRECTORY_ENTRY_LENGTH) {
+            int offset = Iso2709Buffer.readNumber(this.directory, i + 7, 5);
+            Iso2709Buffer.writeNumber(this.directory, i + 7, 5, offset + length);
+        }
+    }
+
+    /**
+     * Ends the record, and fills in the record length and the base address of data of the leader.
+     *
+     * @throws MarcException if the record is too long
+     */
+    void endRecord()
+    {
+        this.directory[this.directoryLength++] = MarcConstants.FT;
+        this.ensureCapacity(1);
+        this.data[this.dataLength++] = MarcConstants.RT;
+        int baseAddress = Leader.LENGTH + this.directoryLength;
+        int length = baseAddress + this.dataLength;
+        if (length > MAX_RECORD_LENGTH) {
+            throw new MarcException("Record too long: " + length + " bytes");
+        }
+        Iso2709Buffer.writeNumber(this.leader, 0, 5, length);
+        Iso2709Buffer.writeNumber(this.leader, 12, 5, baseAddress);
+    }
+
+    /**
+     * Encodes a whole record: the control fields, then the data fields, with the converter applied to the data of the
+     * subfields.
+     *
+     * @throws MarcException if the record doesn't have a leader or is too long
+     */
+    void marshal(Record record, CharacterConverter charconv)
+    {
+        if (record.getLeader() == null) {
+            throw new MarcException("Record contains no leader");
+        }
+        this.startRecord(record.getLeader());
+        for (ControlField field : record.getControlFields()) {
+            this.startField(field.getTag());
+            if (field.getData() != null) {
+                this.append(field.getData());
+            }
+            this.endField();
+        }
+        for (DataField field : record.getDataFields()) {
+            this.startField(field.getTag());
+            this.append(field.getIndicator1());
+            this.append(field.getIndicator2());
+            List<Subfield> subfields = field.getSubfields();
+            for (int i = 0; i < subfields.size(); i++) {
+                Subfield subfield = subfields.get(i);
+                this.startSubfield(subfield.getCode());
+                char[] data = subfield.getData();
+                if (data != null) {
+                    this.append(charconv != null ? charconv.convert(data) : data);
+                }
+            }
+            this.endField();
+        }
+        this.endRecord();
+    }
+
+    /**
+     * Returns the length of the record, after it ends.
+     */
+    int length()
+    {
+        return Leader.LENGTH + this.directoryLength + this.dataLength;
+    }
+
+    void writeTo(OutputStream out)
+        throws IOException
+    {
+        out.write(this.leader);
+        out.write(this.directory, 0, this.directoryLength);
+        out.write(this.data, 0, this.dataLength);
+    }
+
+    /**
+     * Copies the record, after it ends, into a new array.
+     */
+    byte[] toByteArray()
+    {
+        byte[] record = new byte[this.length()];
+        System.arraycopy(this.leader, 0, record, 0, Leader.LENGTH);
+        System.arraycopy(this.directory, 0, record, Leader.LENGTH, this.directoryLength);
+        System.arraycopy(this.data, 0, record, Leader.LENGTH + this.directoryLength, this.dataLength);
+        return record;
+    }
+
+    private void encode(CharBuffer chars)
+    {
+        this.encoder.reset();
+        ByteBuffer out = ByteBuffer.wrap(this.data, this.dataLength, this.data.length - this.dataLength);
+        boolean flushing = false;
+        while (true) {
+            CoderResult result = flushing ? this.encoder.flush(out) : this.encoder.encode(chars, out, true);
+            if (result.isOverflow()) {
+                this.dataLength = out.position();
+                this.ensureCapacity(Math.max(16, chars.remaining() * 2));
+                out = ByteBuffer.wrap(this.data, this.dataLength, this.data.length - this.dataLength);
+            } else if (flushing) {
+                break;
+            } else {
+                flushing = true;
+            }
+        }
+        this.dataLength = out.position();
+    }
+
+    private void ensureCapacity(int length)
+    {
+        if (this.dataLength + length > this.data.length) {
+            this.data = Arrays.copyOf(this.data, Math.max(this.data.length * 2, this.dataLength + length));
+        }
+    }
+
+    private static int readNumber(byte[] buffer, int offset, int digits)
+    {
+        int value = 0;
+        for (int i = offset; i < offset + digits; i++) {
+            value = value * 10 + (buffer[i] - '0');
+        }
+        return value;
+    }
+
+    private static void writeNumber(byte[] buffer, int offset, int digits, int value)
+    {
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            buffer[i] = (byte) ('0' + (value % 10));
+            value /= 10;
+        }
+    }
+
+}
@@ -0,0 +1,128 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.util;
+
+/**
+ * <p>
+ * Bloom filter over 64-bit keys, with a fixed memory footprint.
+ * </p>
+ *
+ * <p>
+ * The keys are expected to be well distributed hashes, like record fingerprints: the bit positions are derived from
+ * the key itself by double hashing, without hashing it again.
+ * </p>
+ */
+public class LongBloomFilter
+{
+
+    private final long[] bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    /**
+     * Creates a filter sized for the expected number of keys and the wanted false positive probability.
+     *
+     * @param expectedKeys the expected number of keys
+     * @param falsePositiveRate the wanted probability of {@link #mightContain(long)} returning <code>true</code> for
+     *        a key that wasn't added, between 0 and 1
+     */
+    public LongBloomFilter(long expectedKeys, double falsePositiveRate)
+    {
+        if (expectedKeys <= 0) {
+            throw new IllegalArgumentException("The expected number of keys must be positive: " + expectedKeys);
+        }
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("The false positive rate must be between 0 and 1: "
+                + falsePositiveRate);
+        }
+        double ln2 = Math.log(2);
+        long bitCount = (long) Math.ceil(-expectedKeys * Math.log(falsePositiveRate) / (ln2 * ln2));
+        long words = Math.max(1, (bitCount + 63) >>> 6);
+        if (words > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Bloom filter too large for " + expectedKeys + " keys");
+        }
+        this.bits = new long[(int) words];
+        this.bitCount = words << 6;
+        this.hashCount = Math.max(1, (int) Math.round((double) this.bitCount / expectedKeys * ln2));
+    }
+
+    /**
+     * Adds a key.
+     *
+     * @param key the key
+     * @return <code>true</code> if the filter changed, so the key certainly wasn't added before
+     */
+    public boolean put(long key)
+    {
+        long h1 = key;
+        long h2 = Long.rotateLeft(key, 32) | 1;
+        boolean changed = false;
+        for (int i = 0; i < this.hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, this.bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            if ((this.bits[word] & mask) == 0) {
+                this.bits[word] |= mask;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Returns <code>true</code> if the key might have been added; <code>false</code> if it certainly wasn't.
+     *
+     * @param key the key
+     * @return <code>false</code> if the key wasn't added
+     */
+    public boolean mightContain(long key)
+    {
+        long h1 = key;
+        long h2 = Long.rotateLeft(key, 32) | 1;
+        for (int i = 0; i < this.hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, this.bitCount);
+            if ((this.bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of bits of the filter.
+     *
+     * @return the number of bits
+     */
+    public long getBitCount()
+    {
+        return this.bitCount;
+    }
+
+    /**
+     * Returns the number of bits set for each key.
+     *
+     * @return the number of hash functions
+     */
+    public int getHashCount()
+    {
+        return this.hashCount;
+    }
+
+}
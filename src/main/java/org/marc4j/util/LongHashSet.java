@@ -0,0 +1,187 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.util;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Open addressing hash set of primitive <code>long</code> values, without boxing.
+ * </p>
+ *
+ * <p>
+ * Uses linear probing over a power of two table, kept at most half full.
+ * </p>
+ */
+public class LongHashSet
+{
+
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private long[] keys;
+    private boolean containsZero;
+    private int size;
+    private int mask;
+    private int threshold;
+
+    public LongHashSet()
+    {
+        this(16);
+    }
+
+    /**
+     * Creates a set that holds the given number of values without growing.
+     *
+     * @param expectedSize the expected number of values
+     */
+    public LongHashSet(int expectedSize)
+    {
+        int capacity = 16;
+        while (capacity < MAX_CAPACITY && capacity / 2 < expectedSize) {
+            capacity <<= 1;
+        }
+        this.allocate(capacity);
+    }
+
+    private void allocate(int capacity)
+    {
+        this.keys = new long[capacity];
+        this.mask = capacity - 1;
+        this.threshold = capacity / 2;
+    }
+
+    private static int slot(long value)
+    {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        return (int) value;
+    }
+
+    /**
+     * Adds a value.
+     *
+     * @param value the value
+     * @return <code>true</code> if the value wasn't in the set
+     */
+    public boolean add(long value)
+    {
+        if (value == 0) {
+            if (this.containsZero) {
+                return false;
+            }
+            this.containsZero = true;
+            this.size++;
+            return true;
+        }
+        int index = slot(value) & this.mask;
+        while (this.keys[index] != 0) {
+            if (this.keys[index] == value) {
+                return false;
+            }
+            index = (index + 1) & this.mask;
+        }
+        this.keys[index] = value;
+        if (++this.size > this.threshold) {
+            this.rehash();
+        }
+        return true;
+    }
+
+    /**
+     * Returns <code>true</code> if the set contains the value.
+     *
+     * @param value the value
+     * @return <code>true</code> if the value is in the set
+     */
+    public boolean contains(long value)
+    {
+        if (value == 0) {
+            return this.containsZero;
+        }
+        int index = slot(value) & this.mask;
+        while (this.keys[index] != 0) {
+            if (this.keys[index] == value) {
+                return true;
+            }
+            index = (index + 1) & this.mask;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of values of the set.
+     *
+     * @return the size
+     */
+    public int size()
+    {
+        return this.size;
+    }
+
+    /**
+     * Returns the values of the set, in no particular order.
+     *
+     * @return a new array with the values
+     */
+    public long[] toArray()
+    {
+        long[] values = new long[this.size];
+        int i = 0;
+        if (this.containsZero) {
+            values[i++] = 0;
+        }
+        for (long value : this.keys) {
+            if (value != 0) {
+                values[i++] = value;
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Removes every value.
+     */
+    public void clear()
+    {
+        Arrays.fill(this.keys, 0);
+        this.containsZero = false;
+        this.size = 0;
+    }
+
+    private void rehash()
+    {
+        if (this.keys.length >= MAX_CAPACITY) {
+            throw new IllegalStateException("LongHashSet can't grow over " + MAX_CAPACITY + " slots");
+        }
+        long[] old = this.keys;
+        this.allocate(old.length << 1);
+        for (long value : old) {
+            if (value != 0) {
+                int index = slot(value) & this.mask;
+                while (this.keys[index] != 0) {
+                    index = (index + 1) & this.mask;
+                }
+                this.keys[index] = value;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,290 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.util;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import org.marc4j.MarcHandler;
+import org.marc4j.helpers.RecordHandler;
+import org.marc4j.marc.ControlField;
+import org.marc4j.marc.IllegalAddException;
+import org.marc4j.marc.Leader;
+import org.marc4j.marc.MarcException;
+import org.marc4j.marc.Record;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * Implements the <code>MarcHandler</code> interface to write records to tape format (ISO 2709) as the events arrive,
+ * without building record objects.
+ * </p>
+ *
+ * <p>
+ * The control fields and subfields are encoded into a byte buffer reused from one record to the next, the directory
+ * entries are written as each field ends, and the record length and base address of data are filled in at the end of
+ * the record, with the lengths in bytes of the charset, so a conversion such as MARCXML to ISO 2709 needs no objects
+ * per field:
+ * </p>
+ *
+ * <pre>
+ * MarcStreamHandler handler = new MarcStreamHandler(new FileOutputStream("records.mrc"), "UTF-8");
+ * Source source = new SAXSource(xmlReader, new InputSource("records.xml"));
+ * new Converter().convert(source, new MarcResult(handler));
+ * </pre>
+ *
+ * <p>
+ * The fields are written in the order of {@link MarcWriter}, that builds a {@link Record}: the control number field
+ * (tag 001) first, then the other control fields and the data fields, each in the order they arrive. Like in
+ * <code>MarcWriter</code>, a second control number field in a record throws an <code>IllegalAddException</code>, and
+ * a record without control number field or too long for ISO 2709 is logged and skipped. The output is the same as the
+ * output of <code>MarcWriter</code>, except that the lengths of the directory and the leader are in bytes of the
+ * charset, like in {@link MarcStreamWriter}, instead of in characters.
+ * </p>
+ *
+ * <p>
+ * It's also a <code>RecordHandler</code>, that encodes whole records like {@link MarcStreamWriter}. The output is
+ * flushed and closed at the end of the collection. Errors writing to the output are thrown as
+ * <code>MarcException</code>.
+ * </p>
+ *
+ * @see MarcHandler
+ */
+public class MarcStreamHandler
+    implements MarcHandler, RecordHandler
+{
+
+    private static final Logger log = LoggerFactory.getLogger(MarcStreamHandler.class);
+
+    private final OutputStream out;
+    private final Iso2709Buffer buffer;
+
+    /** The character conversion option */
+    private CharacterConverter charconv = null;
+
+    /** If the current record is skipped */
+    private boolean skip;
+
+    /** The number of control fields of the current record, and if one of them is the control number field */
+    private int controlFields;
+    private boolean controlNumber;
+
+    /**
+     * Creates a handler writing in ISO 8859-1.
+     *
+     * @param out the output stream
+     */
+    public MarcStreamHandler(OutputStream out)
+    {
+        this(out, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Creates a handler.
+     *
+     * @param out the output stream
+     * @param encoding the encoding of the records
+     * @throws UnsupportedEncodingException if the encoding isn't supported
+     */
+    public MarcStreamHandler(OutputStream out, String encoding)
+        throws UnsupportedEncodingException
+    {
+        this(out, MarcStreamWriter.charset(encoding));
+    }
+
+    /**
+     * Creates a handler writing to a channel.
+     *
+     * @param channel the channel
+     * @param encoding the encoding of the records
+     * @throws UnsupportedEncodingException if the encoding isn't supported
+     */
+    public MarcStreamHandler(WritableByteChannel channel, String encoding)
+        throws UnsupportedEncodingException
+    {
+        this(Channels.newOutputStream(channel), MarcStreamWriter.charset(encoding));
+    }
+
+    /**
+     * Creates a handler.
+     *
+     * @param out the output stream
+     * @param charset the charset of the records
+     */
+    public MarcStreamHandler(OutputStream out, Charset charset)
+    {
+        this.out = out instanceof BufferedOutputStream ? out : new BufferedOutputStream(out, 1 << 16);
+        this.buffer = new Iso2709Buffer(charset);
+    }
+
+    /**
+     * <p>
+     * Registers the <code>CharacterConverter</code> applied to the data of the subfields, like in {@link MarcWriter}.
+     * </p>
+     *
+     * @param charconv the character converter
+     */
+    public void setCharacterConverter(CharacterConverter charconv)
+    {
+        this.charconv = charconv;
+    }
+
+    @Override
+    public void startCollection()
+    {
+        // Nothing to write
+    }
+
+    @Override
+    public void record(Record record)
+    {
+        if (!record.hasControlNumberField()) {
+            this.skip(new MarcException("Record contains no control number field (tag 001)"));
+            return;
+        }
+        try {
+            this.buffer.marshal(record, this.charconv);
+            this.buffer.writeTo(this.out);
+        } catch (MarcException e) {
+            this.skip(e);
+        } catch (IOException e) {
+            throw new MarcException("Unable to write the record", e);
+        }
+    }
+
+    @Override
+    public void startRecord(Leader leader)
+    {
+        this.buffer.startRecord(leader);
+        this.skip = false;
+        this.controlFields = 0;
+        this.controlNumber = false;
+    }
+
+    @Override
+    public void controlField(String tag, char[] data, Long id)
+    {
+        if (this.skip) {
+            return;
+        }
+        boolean isControlNumber = "001".equals(tag);
+        if (isControlNumber && this.controlNumber) {
+            throw new IllegalAddException(ControlField.class.getName(), "control field number already exists");
+        }
+        try {
+            this.buffer.startField(tag);
+            if (data != null) {
+                this.buffer.append(data);
+            }
+            this.buffer.endField();
+            // The control number field goes first, and the control fields before the data fields
+            this.buffer.moveLastField(isControlNumber ? 0 : this.controlFields);
+            this.controlFields++;
+            this.controlNumber |= isControlNumber;
+        } catch (MarcException e) {
+            this.skip(e);
+        }
+    }
+
+    @Override
+    public void startDataField(String tag, char ind1, char ind2, Long id)
+    {
+        if (this.skip) {
+            return;
+        }
+        try {
+            this.buffer.startField(tag);
+            this.buffer.append(ind1);
+            this.buffer.append(ind2);
+        } catch (MarcException e) {
+            this.skip(e);
+        }
+    }
+
+    @Override
+    public void subfield(char code, char[] data, String linkCode)
+    {
+        if (this.skip) {
+            return;
+        }
+        this.buffer.startSubfield(code);
+        if (data != null) {
+            this.buffer.append(this.charconv != null ? this.charconv.convert(data) : data);
+        }
+    }
+
+    @Override
+    public void endDataField(String tag)
+    {
+        if (this.skip) {
+            return;
+        }
+        try {
+            this.buffer.endField();
+        } catch (MarcException e) {
+            this.skip(e);
+        }
+    }
+
+    @Override
+    public void endRecord()
+    {
+        if (this.skip) {
+            return;
+        }
+        if (!this.controlNumber) {
+            this.skip(new MarcException("Record contains no control number field (tag 001)"));
+            return;
+        }
+        try {
+            this.buffer.endRecord();
+            this.buffer.writeTo(this.out);
+        } catch (MarcException e) {
+            this.skip(e);
+        } catch (IOException e) {
+            throw new MarcException("Unable to write the record", e);
+        }
+    }
+
+    @Override
+    public void endCollection()
+    {
+        try {
+            this.out.flush();
+            this.out.close();
+        } catch (IOException e) {
+            throw new MarcException("Unable to close the output", e);
+        }
+    }
+
+    private void skip(MarcException e)
+    {
+        log.error("Skipping a record that can't be written in ISO 2709", e);
+        this.skip = true;
+    }
+
+}
@@ -0,0 +1,175 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.util;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
+
+import org.marc4j.marc.MarcException;
+import org.marc4j.marc.Record;
+
+/**
+ * <p>
+ * Writes records in tape format (ISO 2709) straight to an <code>OutputStream</code> or a
+ * <code>WritableByteChannel</code>.
+ * </p>
+ *
+ * <p>
+ * Unlike {@link Record#marshal(String)} and {@link MarcWriter}, each field is encoded exactly once, into a byte buffer
+ * reused from one record to the next, and the directory entries, the record length and the base address of data are
+ * the lengths in bytes of the encoded fields, for any charset. No intermediate <code>String</code> is created. The
+ * leader of the record isn't modified.
+ * </p>
+ *
+ * <pre>
+ * try (MarcStreamWriter writer = new MarcStreamWriter(new FileOutputStream("records.mrc"), "UTF-8")) {
+ *     for (Record record : records) {
+ *         writer.write(record);
+ *     }
+ * }
+ * </pre>
+ *
+ * <p>
+ * The records are written in ISO 8859-1 by default, the encoding read by {@link org.marc4j.MarcReader}, so that the
+ * records it reads are written back byte for byte.
+ * </p>
+ */
+public class MarcStreamWriter
+    implements Closeable, Flushable
+{
+
+    private final OutputStream out;
+    private final Iso2709Buffer buffer;
+
+    /** The character conversion option */
+    private CharacterConverter charconv = null;
+
+    /**
+     * Creates a writer in ISO 8859-1.
+     *
+     * @param out the output stream
+     */
+    public MarcStreamWriter(OutputStream out)
+    {
+        this(out, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Creates a writer.
+     *
+     * @param out the output stream
+     * @param encoding the encoding of the records
+     * @throws UnsupportedEncodingException if the encoding isn't supported
+     */
+    public MarcStreamWriter(OutputStream out, String encoding)
+        throws UnsupportedEncodingException
+    {
+        this(out, MarcStreamWriter.charset(encoding));
+    }
+
+    /**
+     * Creates a writer to a channel.
+     *
+     * @param channel the channel
+     * @param encoding the encoding of the records
+     * @throws UnsupportedEncodingException if the encoding isn't supported
+     */
+    public MarcStreamWriter(WritableByteChannel channel, String encoding)
+        throws UnsupportedEncodingException
+    {
+        this(Channels.newOutputStream(channel), MarcStreamWriter.charset(encoding));
+    }
+
+    /**
+     * Creates a writer.
+     *
+     * @param out the output stream
+     * @param charset the charset of the records
+     */
+    public MarcStreamWriter(OutputStream out, Charset charset)
+    {
+        this.out = out instanceof BufferedOutputStream ? out : new BufferedOutputStream(out, 1 << 16);
+        this.buffer = new Iso2709Buffer(charset);
+    }
+
+    /**
+     * <p>
+     * Registers the <code>CharacterConverter</code> applied to the data of the subfields, like in {@link MarcWriter}.
+     * </p>
+     *
+     * @param charconv the character converter
+     */
+    public void setCharacterConverter(CharacterConverter charconv)
+    {
+        this.charconv = charconv;
+    }
+
+    /**
+     * Writes a record.
+     *
+     * @param record the record
+     * @throws IOException if the record can't be written
+     * @throws MarcException if the record doesn't have a leader or is too long for ISO 2709, in which case nothing is
+     *         written
+     */
+    public void write(Record record)
+        throws IOException
+    {
+        this.buffer.marshal(record, this.charconv);
+        this.buffer.writeTo(this.out);
+    }
+
+    @Override
+    public void flush()
+        throws IOException
+    {
+        this.out.flush();
+    }
+
+    @Override
+    public void close()
+        throws IOException
+    {
+        this.out.close();
+    }
+
+    static Charset charset(String encoding)
+        throws UnsupportedEncodingException
+    {
+        try {
+            if (encoding != null && Charset.isSupported(encoding)) {
+                return Charset.forName(encoding);
+            }
+        } catch (IllegalCharsetNameException e) {
+            // Reported below
+        }
+        throw new UnsupportedEncodingException(encoding);
+    }
+
+}
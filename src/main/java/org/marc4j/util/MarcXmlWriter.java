@@ -26,8 +26,10 @@
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
+import java.nio.charset.Charset;
 
 import javax.xml.transform.Result;
 import javax.xml.transform.Source;
@@ -36,9 +38,11 @@
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
 
+import org.marc4j.MarcReader;
 import org.marc4j.helpers.ErrorHandlerImpl;
 import org.marc4j.marcxml.Converter;
 import org.marc4j.marcxml.MarcXmlReader;
+import org.marc4j.marcxml.MarcXmlStreamWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.xml.sax.InputSource;
@@ -86,6 +90,7 @@
  *
  * @author Bas Peters
  * @see MarcXmlReader
+ * @see MarcXmlStreamWriter
  * @see Converter
  */
 public class MarcXmlWriter
@@ -93,6 +98,9 @@
 
     private static final Logger log = LoggerFactory.getLogger(MarcXmlWriter.class);
 
+    private static final String SCHEMA_LOCATION =
+        "http://www.loc.gov/MARC21/slim http://www.loc.gov/standards/marcxml/schema/MARC21slim.xsd";
+
     /**
      * <p>
      * Provides a static entry point.
@@ -159,14 +167,8 @@ public static void main(String args[])
         }
 
         try {
-            MarcXmlReader producer = new MarcXmlReader();
-            producer.setProperty("http://marc4j.org/properties/error-handler", new ErrorHandlerImpl());
-            if (xsd) {
-                producer.setProperty("http://marc4j.org/properties/schema-location",
-                    "http://www.loc.gov/MARC21/slim " + "http://www.loc.gov/standards/marcxml/schema/MARC21slim.xsd");
-            }
+            CharacterConverter charconv = null;
             if (convert != null) {
-                CharacterConverter charconv = null;
                 if ("ANSEL".equals(convert)) {
                     charconv = new AnselToUnicode();
                 } else if ("ISO5426".equals(convert)) {
@@ -177,7 +179,6 @@ public static void main(String args[])
                     System.err.println("Unknown character set");
                     System.exit(1);
                 }
-                producer.setProperty("http://marc4j.org/properties/character-conversion", charconv);
             }
 
             // If convert is true ISO8859_1 is used to read the incoming stream.
@@ -195,6 +196,32 @@ public static void main(String args[])
                 reader = new BufferedReader(new InputStreamReader(new FileInputStream(input)));
             }
 
+            // Without a stylesheet the MARCXML is written directly
+            if (stylesheet == null) {
+                OutputStream out = output != null ? new FileOutputStream(output) : System.out;
+                String encoding = outputEncoding != null ? outputEncoding : Charset.defaultCharset().name();
+                MarcXmlStreamWriter handler = new MarcXmlStreamWriter(out, encoding);
+                if (xsd) {
+                    handler.setSchemaLocation(SCHEMA_LOCATION);
+                }
+                handler.setCharacterConverter(charconv);
+                MarcReader marcReader = new MarcReader();
+                marcReader.setErrorHandler(new ErrorHandlerImpl());
+                marcReader.setMarcHandler(handler);
+                marcReader.parse(reader);
+                System.err.println("Total time: " + (System.currentTimeMillis() - start) + " miliseconds");
+                return;
+            }
+
+            MarcXmlReader producer = new MarcXmlReader();
+            producer.setProperty("http://marc4j.org/properties/error-handler", new ErrorHandlerImpl());
+            if (xsd) {
+                producer.setProperty("http://marc4j.org/properties/schema-location", SCHEMA_LOCATION);
+            }
+            if (charconv != null) {
+                producer.setProperty("http://marc4j.org/properties/character-conversion", charconv);
+            }
+
             InputSource in = new InputSource(reader);
             Source source = new SAXSource(producer, in);
             Writer writer;
@@ -218,12 +245,8 @@ public static void main(String args[])
             Result result = new StreamResult(writer);
 
             Converter converter = new Converter();
-            if (stylesheet != null) {
-                Source style = new StreamSource(new File(stylesheet).toURL().toString());
-                converter.convert(style, source, result);
-            } else {
-                converter.convert(source, result);
-            }
+            Source style = new StreamSource(new File(stylesheet).toURL().toString());
+            converter.convert(style, source, result);
 
         } catch (SAXNotSupportedException e) {
             log.error("No se soporta la operaci�n indicada", e);
@@ -0,0 +1,338 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.marc4j.marc.MarcException;
+
+/**
+ * Growable byte buffer that the streaming writers encode their output into, written out in blocks of whole records.
+ *
+ * <p>
+ * The writers copy the runs of ASCII characters that need no escaping with {@link #writePlain}, write their markup and
+ * escapes as ASCII, and encode the other code points through {@link #writeCodePoint(int)}: ISO 8859-1, US-ASCII and
+ * UTF-8 directly, other charsets through a {@link CharsetEncoder}. The charset must be compatible with ASCII. The
+ * buffer shrinks back when it's flushed after a large record, and errors writing to the output are thrown as
+ * <code>MarcException</code>.
+ * </p>
+ *
+ * <p>
+ * It's shared by the writers of the <code>json</code>, <code>marcxml</code>, <code>mnemonic</code> and
+ * <code>extract</code> packages, and is internal to the library: it isn't meant for applications and may change
+ * between versions.
+ * </p>
+ */
+public final class OutputBuffer
+{
+
+    /** The size of the blocks written to the output */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private static final int ENCODER = 0;
+    private static final int ASCII = 1;
+    private static final int LATIN_1 = 2;
+    private static final int UTF_8 = 3;
+
+    /** The encoded bytes, valid up to the length */
+    private byte[] bytes = new byte[BUFFER_SIZE];
+    private int length;
+
+    private final OutputStream out;
+    private final int encoding;
+    private final CharsetEncoder encoder;
+
+    /**
+     * Creates a buffer in UTF-8.
+     *
+     * @param out the output stream
+     */
+    public OutputBuffer(OutputStream out)
+    {
+        this(out, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Creates a buffer.
+     *
+     * @param out the output stream
+     * @param charset the charset of the output, compatible with ASCII
+     */
+    public OutputBuffer(OutputStream out, Charset charset)
+    {
+        if (!OutputBuffer.isAsciiCompatible(charset)) {
+            throw new IllegalArgumentException("The charset " + charset + " isn't compatible with ASCII");
+        }
+        this.out = out;
+        if (StandardCharsets.UTF_8.equals(charset)) {
+            this.encoding = UTF_8;
+        } else if (StandardCharsets.ISO_8859_1.equals(charset)) {
+            this.encoding = LATIN_1;
+        } else if (StandardCharsets.US_ASCII.equals(charset)) {
+            this.encoding = ASCII;
+        } else {
+            this.encoding = ENCODER;
+        }
+        this.encoder = charset.newEncoder();
+    }
+
+    /**
+     * Writes an ASCII character.
+     *
+     * @param c the character
+     */
+    public void write(char c)
+    {
+        this.ensureCapacity(1);
+        this.bytes[this.length++] = (byte) c;
+    }
+
+    /**
+     * Writes bytes already encoded.
+     *
+     * @param bytes the bytes
+     */
+    public void write(byte[] bytes)
+    {
+        this.ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, this.bytes, this.length, bytes.length);
+        this.length += bytes.length;
+    }
+
+    /**
+     * Writes a string of ASCII characters.
+     *
+     * @param s the string
+     */
+    public void writeAscii(String s)
+    {
+        this.ensureCapacity(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            this.bytes[this.length++] = (byte) s.charAt(i);
+        }
+    }
+
+    /**
+     * Copies a run of ASCII characters that need no escaping, and stops at the first one that does or that isn't ASCII.
+     *
+     * @param data the characters
+     * @param start the index of the first character
+     * @param end the index after the last character
+     * @param plain the ASCII characters written as they are
+     * @return the index of the first character not written, or <code>end</code>
+     */
+    public int writePlain(char[] data, int start, int end, boolean[] plain)
+    {
+        this.ensureCapacity(end - start);
+        byte[] bytes = this.bytes;
+        int length = this.length;
+        int i = start;
+        while (i < end) {
+            char c = data[i];
+            if (c >= 0x80 || !plain[c]) {
+                break;
+            }
+            bytes[length++] = (byte) c;
+            i++;
+        }
+        this.length = length;
+        return i;
+    }
+
+    /**
+     * Encodes a code point other than a lone surrogate, if the charset can encode it.
+     *
+     * @param c the code point
+     * @return <code>false</code>, without writing anything, if the charset can't encode the code point
+     */
+    public boolean writeCodePoint(int c)
+    {
+        this.ensureCapacity(4);
+        if (c < 0x80) {
+            this.bytes[this.length++] = (byte) c;
+            return true;
+        }
+        switch (this.encoding) {
+            case UTF_8:
+                if (c < 0x800) {
+                    this.bytes[this.length++] = (byte) (0xC0 | (c >> 6));
+                } else if (c < 0x10000) {
+                    this.bytes[this.length++] = (byte) (0xE0 | (c >> 12));
+                    this.bytes[this.length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                } else {
+                    this.bytes[this.length++] = (byte) (0xF0 | (c >> 18));
+                    this.bytes[this.length++] = (byte) (0x80 | ((c >> 12) & 0x3F));
+                    this.bytes[this.length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                }
+                this.bytes[this.length++] = (byte) (0x80 | (c & 0x3F));
+                return true;
+            case LATIN_1:
+                if (c < 0x100) {
+                    this.bytes[this.length++] = (byte) c;
+                    return true;
+                }
+                return false;
+            case ENCODER:
+                if (c < 0x10000 && this.encoder.canEncode((char) c)) {
+                    this.ensureCapacity(16);
+                    ByteBuffer out = ByteBuffer.wrap(this.bytes, this.length, this.bytes.length - this.length);
+                    this.encoder.reset();
+                    this.encoder.encode(CharBuffer.wrap(new char[] { (char) c }), out, true);
+                    this.encoder.flush(out);
+                    this.length = out.position();
+                    return true;
+                }
+                return false;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Returns if the charset can encode a character other than a surrogate.
+     *
+     * @param c the character
+     * @return if the charset can encode the character
+     */
+    public boolean canEncode(char c)
+    {
+        switch (this.encoding) {
+            case UTF_8:
+                return true;
+            case LATIN_1:
+                return c < 0x100;
+            case ASCII:
+                return c < 0x80;
+            default:
+                return c < 0x80 || this.encoder.canEncode(c);
+        }
+    }
+
+    /**
+     * Discards the bytes not written to the output yet.
+     */
+    public void clear()
+    {
+        this.length = 0;
+    }
+
+    /**
+     * Returns if the buffer holds at least a block, to be flushed at the end of a record.
+     *
+     * @return if the buffer is full
+     */
+    public boolean isFull()
+    {
+        return this.length >= BUFFER_SIZE;
+    }
+
+    /**
+     * Writes the buffer to the output and empties it.
+     */
+    public void flush()
+    {
+        try {
+            this.out.write(this.bytes, 0, this.length);
+        } catch (IOException e) {
+            throw new MarcException("Unable to write the records", e);
+        }
+        this.length = 0;
+        if (this.bytes.length > BUFFER_SIZE * 4) {
+            this.bytes = new byte[BUFFER_SIZE];
+        }
+    }
+
+    /**
+     * Writes the buffer to the output, then flushes and closes the output.
+     */
+    public void close()
+    {
+        this.flush();
+        try {
+            this.out.flush();
+            this.out.close();
+        } catch (IOException e) {
+            throw new MarcException("Unable to close the output", e);
+        }
+    }
+
+    private void ensureCapacity(int count)
+    {
+        if (this.length + count > this.bytes.length) {
+            this.bytes = Arrays.copyOf(this.bytes, Math.max(this.bytes.length * 2, this.length + count));
+        }
+    }
+
+    /**
+     * Returns the bytes of a string of ASCII characters.
+     *
+     * @param s the string
+     * @return the bytes
+     */
+    public static byte[] ascii(String s)
+    {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Returns if a charset encodes the printable ASCII characters, tabs and line breaks as ASCII does.
+     *
+     * @param charset the charset
+     * @return if the charset is compatible with ASCII
+     */
+    public static boolean isAsciiCompatible(Charset charset)
+    {
+        char[] chars = new char[0x7F - 0x20 + 3];
+        for (int i = 0; i < 0x7F - 0x20; i++) {
+            chars[i] = (char) (0x20 + i);
+        }
+        chars[chars.length - 3] = '\t';
+        chars[chars.length - 2] = '\n';
+        chars[chars.length - 1] = '\r';
+        String s = new String(chars);
+        return charset.canEncode() && Arrays.equals(s.getBytes(charset), s.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Returns the charset of an encoding name, if it's supported and compatible with ASCII.
+     *
+     * @param encoding the name of the encoding
+     * @return the charset
+     * @throws UnsupportedEncodingException if the encoding isn't supported or isn't compatible with ASCII
+     */
+    public static Charset charset(String encoding)
+        throws UnsupportedEncodingException
+    {
+        Charset charset = MarcStreamWriter.charset(encoding);
+        if (!OutputBuffer.isAsciiCompatible(charset)) {
+            throw new UnsupportedEncodingException(encoding);
+        }
+        return charset;
+    }
+
+}
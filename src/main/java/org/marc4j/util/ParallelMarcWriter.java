@@ -0,0 +1,387 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.util;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.marc4j.marc.MarcException;
+import org.marc4j.marc.Record;
+
+/**
+ * <p>
+ * Writes records in tape format (ISO 2709), encoding them on a pool of threads.
+ * </p>
+ *
+ * <p>
+ * Each record passed to {@link #write(Record)} is encoded to a byte array by a worker thread, with the
+ * <code>CharacterConverter</code> if there is one, like {@link MarcStreamWriter} does on the calling thread. A single
+ * writer thread takes the encoded records in the order they were written and writes them out, through a 1 MB buffer or,
+ * for a <code>GatheringByteChannel</code> such as a <code>FileChannel</code>, with gathering writes of the records
+ * encoded so far. The output is the same as with {@link MarcStreamWriter}.
+ * </p>
+ *
+ * <pre>
+ * try (ParallelMarcWriter writer = new ParallelMarcWriter(new FileOutputStream("records.mrc"), "ISO8859_1")) {
+ *     writer.setCharacterConverter(new UnicodeToAnsel());
+ *     for (Record record : records) {
+ *         writer.write(record);
+ *     }
+ * }
+ * </pre>
+ *
+ * <p>
+ * The records are encoded after <code>write</code> returns, so they must not be modified once written, and the
+ * character converter is called from several threads at once. At most {@link #setMaxPendingRecords(int)} records are
+ * waiting to be written at a time. If a record can't be encoded or written, the error is thrown by the next call to
+ * <code>write</code> or by <code>close</code>, and nothing else is written.
+ * </p>
+ */
+public class ParallelMarcWriter
+    implements Closeable
+{
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    /** Marks the end of the records in the queue */
+    private static final Future<byte[]> END = CompletableFuture.completedFuture(null);
+
+    private final OutputStream out;
+    private final GatheringByteChannel channel;
+    private final Charset charset;
+
+    /** The character conversion option */
+    private CharacterConverter charconv = null;
+
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int maxPendingRecords = 4096;
+
+    private ExecutorService executor;
+    private ThreadLocal<Iso2709Buffer> buffers;
+    private BlockingQueue<Future<byte[]>> queue;
+    private Thread writer;
+    private volatile Throwable failure;
+    private boolean closed;
+
+    /**
+     * Creates a writer in ISO 8859-1.
+     *
+     * @param out the output stream
+     */
+    public ParallelMarcWriter(OutputStream out)
+    {
+        this(out, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Creates a writer.
+     *
+     * @param out the output stream
+     * @param encoding the encoding of the records
+     * @throws UnsupportedEncodingException if the encoding isn't supported
+     */
+    public ParallelMarcWriter(OutputStream out, String encoding)
+        throws UnsupportedEncodingException
+    {
+        this(out, MarcStreamWriter.charset(encoding));
+    }
+
+    /**
+     * Creates a writer.
+     *
+     * @param out the output stream
+     * @param charset the charset of the records
+     */
+    public ParallelMarcWriter(OutputStream out, Charset charset)
+    {
+        this.out = out instanceof BufferedOutputStream ? out : new BufferedOutputStream(out, BUFFER_SIZE);
+        this.channel = null;
+        this.charset = charset;
+    }
+
+    /**
+     * Creates a writer to a channel, with gathering writes.
+     *
+     * @param channel the channel
+     * @param encoding the encoding of the records
+     * @throws UnsupportedEncodingException if the encoding isn't supported
+     */
+    public ParallelMarcWriter(GatheringByteChannel channel, String encoding)
+        throws UnsupportedEncodingException
+    {
+        this.out = null;
+        this.channel = channel;
+        this.charset = MarcStreamWriter.charset(encoding);
+    }
+
+    /**
+     * <p>
+     * Registers the <code>CharacterConverter</code> applied to the data of the subfields, like in {@link MarcWriter}.
+     * It must be safe to call from several threads, as the converters of this package are.
+     * </p>
+     *
+     * @param charconv the character converter
+     */
+    public void setCharacterConverter(CharacterConverter charconv)
+    {
+        this.checkNotStarted();
+        this.charconv = charconv;
+    }
+
+    /**
+     * Sets the number of threads that encode the records, the number of processors by default.
+     *
+     * @param threads the number of threads
+     */
+    public void setThreads(int threads)
+    {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be positive");
+        }
+        this.checkNotStarted();
+        this.threads = threads;
+    }
+
+    /**
+     * Sets the number of records written but not yet out, 4096 by default. Beyond it, {@link #write(Record)} waits.
+     *
+     * @param maxPendingRecords the number of records
+     */
+    public void setMaxPendingRecords(int maxPendingRecords)
+    {
+        if (maxPendingRecords < 1) {
+            throw new IllegalArgumentException("maxPendingRecords must be positive");
+        }
+        this.checkNotStarted();
+        this.maxPendingRecords = maxPendingRecords;
+    }
+
+    /**
+     * Writes a record. It's encoded and written later, so it must not be modified afterwards.
+     *
+     * @param record the record
+     * @throws IOException if a previous record couldn't be written
+     * @throws MarcException if the record doesn't have a leader, or a previous record couldn't be encoded
+     */
+    public void write(Record record)
+        throws IOException
+    {
+        if (this.closed) {
+            throw new IOException("Writer closed");
+        }
+        this.checkFailure();
+        if (record.getLeader() == null) {
+            throw new MarcException("Record contains no leader");
+        }
+        if (this.executor == null) {
+            this.start();
+        }
+        Future<byte[]> future = this.executor.submit(() -> {
+            Iso2709Buffer buffer = this.buffers.get();
+            buffer.marshal(record, this.charconv);
+            return buffer.toByteArray();
+        });
+        try {
+            this.queue.put(future);
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Write interrupted");
+        }
+    }
+
+    /**
+     * Waits until all the records are written, and closes the output.
+     *
+     * @throws IOException if a record couldn't be written
+     * @throws MarcException if a record couldn't be encoded
+     */
+    @Override
+    public void close()
+        throws IOException
+    {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        try {
+            if (this.executor != null) {
+                this.queue.put(END);
+                this.writer.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Close interrupted");
+        } finally {
+            if (this.executor != null) {
+                this.executor.shutdownNow();
+            }
+            if (this.out != null) {
+                this.out.close();
+            } else {
+                this.channel.close();
+            }
+        }
+        this.checkFailure();
+    }
+
+    private void start()
+    {
+        AtomicInteger count = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(this.threads, task -> {
+            Thread thread = new Thread(task, "marc-writer-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Charset cs = this.charset;
+        this.buffers = ThreadLocal.withInitial(() -> new Iso2709Buffer(cs));
+        this.queue = new ArrayBlockingQueue<>(this.maxPendingRecords);
+        this.writer = new Thread(this::drain, "marc-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Writes the records in order until the end mark. After an error, the remaining records are discarded.
+     */
+    private void drain()
+    {
+        List<ByteBuffer> batch = new ArrayList<>();
+        long batchBytes = 0;
+        while (true) {
+            Future<byte[]> future;
+            try {
+                future = this.queue.take();
+            } catch (InterruptedException e) {
+                this.failure = new InterruptedIOException("Writer interrupted");
+                return;
+            }
+            if (future == END) {
+                break;
+            }
+            if (this.failure != null) {
+                future.cancel(false);
+                continue;
+            }
+            try {
+                byte[] record = ParallelMarcWriter.await(future);
+                if (this.channel == null) {
+                    this.out.write(record);
+                    continue;
+                }
+                batch.add(ByteBuffer.wrap(record));
+                batchBytes += record.length;
+                Future<byte[]> next = this.queue.peek();
+                if (batchBytes >= BUFFER_SIZE || next == null || next == END || !next.isDone()) {
+                    this.gather(batch);
+                    batch.clear();
+                    batchBytes = 0;
+                }
+            } catch (IOException | RuntimeException e) {
+                this.failure = e;
+            }
+        }
+        if (this.failure == null) {
+            try {
+                if (this.channel != null) {
+                    this.gather(batch);
+                } else {
+                    this.out.flush();
+                }
+            } catch (IOException e) {
+                this.failure = e;
+            }
+        }
+    }
+
+    private void gather(List<ByteBuffer> batch)
+        throws IOException
+    {
+        ByteBuffer[] buffers = batch.toArray(new ByteBuffer[batch.size()]);
+        int offset = 0;
+        while (offset < buffers.length) {
+            this.channel.write(buffers, offset, buffers.length - offset);
+            while (offset < buffers.length && !buffers[offset].hasRemaining()) {
+                offset++;
+            }
+        }
+    }
+
+    private void checkNotStarted()
+    {
+        if (this.executor != null) {
+            throw new IllegalStateException("The writer has already started");
+        }
+    }
+
+    private void checkFailure()
+        throws IOException
+    {
+        Throwable e = this.failure;
+        if (e instanceof IOException) {
+            throw new IOException("Unable to write the records", e);
+        }
+        if (e instanceof MarcException) {
+            throw new MarcException(e.getMessage(), e);
+        }
+        if (e != null) {
+            throw new MarcException("Unable to write the records", e);
+        }
+    }
+
+    private static byte[] await(Future<byte[]> future)
+        throws IOException
+    {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Write interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new MarcException("Unable to encode the record", cause);
+        }
+    }
+
+}
@@ -0,0 +1,212 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+import org.marc4j.helpers.RecordHandler;
+import org.marc4j.marc.MarcException;
+import org.marc4j.marc.Record;
+
+/**
+ * <p>
+ * <code>RecordHandler</code> that routes each record to one of a number of partitions, by the hash of a key of the
+ * record, by default its control number. The same key always goes to the same partition.
+ * </p>
+ *
+ * <p>
+ * Each partition is written to its own file, with its own buffered channel and its own writer from a
+ * {@link RecordWriterFactory}, so each file is a whole collection with the header and the footer of the format. The
+ * files are named after a pattern with the number of the partition, from 0, as formatted by
+ * <code>String.format</code>, and all of them are written, even if some partitions get no record:
+ * </p>
+ *
+ * <pre>
+ * PartitionedRecordWriter writer = new PartitionedRecordWriter(new File("export"), "part-%02d.mrc", 16,
+ *     out -&gt; new MarcStreamHandler(out, "UTF-8"));
+ * builder.setRecordHandler(writer);
+ * </pre>
+ *
+ * <p>
+ * The partitions can also be any other handlers, for example a {@link RollingRecordWriter} each, to split the
+ * partitions in files of a given size.
+ * </p>
+ */
+public class PartitionedRecordWriter
+    implements RecordHandler
+{
+
+    private final File directory;
+    private final String namePattern;
+    private final RecordWriterFactory factory;
+
+    /** The handlers of the partitions, created at the start of the collection when there is a factory */
+    private RecordHandler[] partitions;
+
+    private Function<? super Record, ?> key = Record::getControlNumber;
+
+    private final List<File> files = new ArrayList<>();
+
+    /**
+     * Creates a writer to a file for each partition.
+     *
+     * @param directory the directory of the files
+     * @param namePattern the pattern of the file names, with the number of the partition
+     * @param partitions the number of partitions
+     * @param factory the factory of the writer of each file
+     */
+    public PartitionedRecordWriter(File directory, String namePattern, int partitions, RecordWriterFactory factory)
+    {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("partitions must be positive");
+        }
+        this.directory = directory;
+        this.namePattern = namePattern;
+        this.factory = factory;
+        this.partitions = new RecordHandler[partitions];
+    }
+
+    /**
+     * Creates a writer to the given handlers.
+     *
+     * @param partitions the handlers of the partitions
+     */
+    public PartitionedRecordWriter(List<? extends RecordHandler> partitions)
+    {
+        if (partitions.isEmpty()) {
+            throw new IllegalArgumentException("partitions must not be empty");
+        }
+        this.directory = null;
+        this.namePattern = null;
+        this.factory = null;
+        this.partitions = partitions.toArray(new RecordHandler[partitions.size()]);
+    }
+
+    /**
+     * Sets the function that returns the key of a record, its control number by default. Records with a null key go
+     * to the first partition.
+     *
+     * @param key the key function
+     */
+    public void setKey(Function<? super Record, ?> key)
+    {
+        this.key = key;
+    }
+
+    /**
+     * Returns the number of partitions.
+     *
+     * @return the number of partitions
+     */
+    public int getPartitionCount()
+    {
+        return this.partitions.length;
+    }
+
+    /**
+     * Returns the files of the partitions, once the collection has started, or an empty list if the partitions aren't
+     * files.
+     *
+     * @return the files
+     */
+    public List<File> getFiles()
+    {
+        return Collections.unmodifiableList(this.files);
+    }
+
+    /**
+     * Returns the partition of a record.
+     *
+     * @param record the record
+     * @return the number of the partition, from 0
+     */
+    public int partition(Record record)
+    {
+        Object value = this.key.apply(record);
+        if (value == null) {
+            return 0;
+        }
+        int hash = value.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), this.partitions.length);
+    }
+
+    @Override
+    public void startCollection()
+    {
+        if (this.factory != null) {
+            this.files.clear();
+            for (int i = 0; i < this.partitions.length; i++) {
+                this.partitions[i] = this.open(i);
+            }
+        }
+        for (RecordHandler partition : this.partitions) {
+            partition.startCollection();
+        }
+    }
+
+    @Override
+    public void record(Record record)
+    {
+        this.partitions[this.partition(record)].record(record);
+    }
+
+    @Override
+    public void endCollection()
+    {
+        MarcException failure = null;
+        for (RecordHandler partition : this.partitions) {
+            try {
+                partition.endCollection();
+            } catch (MarcException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private RecordHandler open(int partition)
+    {
+        File file = new File(this.directory, String.format(Locale.ROOT, this.namePattern, partition));
+        CountingOutputStream out = CountingOutputStream.open(file);
+        try {
+            RecordHandler writer = this.factory.create(out);
+            this.files.add(file);
+            return writer;
+        } catch (IOException | RuntimeException e) {
+            try {
+                out.close();
+            } catch (IOException ignored) {
+                // The creation error is the one reported
+            }
+            throw new MarcException("Unable to create the writer of " + file, e);
+        }
+    }
+
+}
@@ -0,0 +1,58 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.marc4j.helpers.RecordHandler;
+
+/**
+ * <p>
+ * Creates the writer of each file of a {@link RollingRecordWriter} or a {@link PartitionedRecordWriter}, for
+ * example:
+ * </p>
+ *
+ * <pre>
+ * RecordWriterFactory iso2709 = out -&gt; new MarcStreamHandler(out, "UTF-8");
+ * RecordWriterFactory marcxml = out -&gt; new MarcXmlStreamWriter(out);
+ * </pre>
+ *
+ * <p>
+ * The writer writes its header at the start of the collection, and its footer and closes the output at the end.
+ * </p>
+ */
+@FunctionalInterface
+public interface RecordWriterFactory
+{
+
+    /**
+     * <p>
+     * Creates a writer.
+     * </p>
+     *
+     * @param out the buffered output of the file
+     * @return the writer
+     * @throws IOException if the writer can't be created
+     */
+    RecordHandler create(OutputStream out)
+        throws IOException;
+
+}
@@ -0,0 +1,203 @@
+/**
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.marc4j.helpers.RecordHandler;
+import org.marc4j.marc.MarcException;
+import org.marc4j.marc.Record;
+
+/**
+ * <p>
+ * <code>RecordHandler</code> that writes the records to a series of files, and starts a new file when the current one
+ * reaches a size, a number of records or an age.
+ * </p>
+ *
+ * <p>
+ * Each file is a whole collection, written by its own writer from a {@link RecordWriterFactory}, so it has the header
+ * and the footer of the format, like the <code>collection</code> element of MARCXML. The files are named after a
+ * pattern with the number of the file, from 0, as formatted by <code>String.format</code>:
+ * </p>
+ *
+ * <pre>
+ * RollingRecordWriter writer = new RollingRecordWriter(new File("export"), "records-%04d.xml",
+ *     out -&gt; new MarcXmlStreamWriter(out));
+ * writer.setMaxBytes(100 * 1024 * 1024);
+ * builder.setRecordHandler(writer);
+ * </pre>
+ *
+ * <p>
+ * The limits are checked after each record, so a file ends with the record that reaches them, and a record is never
+ * split between files. The size is the number of bytes the writer has written, which for writers that keep their own
+ * buffer, like {@link org.marc4j.marcxml.MarcXmlStreamWriter}, can fall behind by the size of that buffer. A new file
+ * is started only when there is another record, and at least one file is written.
+ * </p>
+ */
+public class RollingRecordWriter
+    implements RecordHandler
+{
+
+    private final File directory;
+    private final String namePattern;
+    private final RecordWriterFactory factory;
+
+    private long maxBytes = Long.MAX_VALUE;
+    private long maxRecords = Long.MAX_VALUE;
+    private long maxAgeNanos = Long.MAX_VALUE;
+
+    private final List<File> files = new ArrayList<>();
+
+    /** The writer of the current file, or null between files */
+    private RecordHandler writer;
+    private CountingOutputStream out;
+    private long records;
+    private long startTime;
+
+    /**
+     * Creates a writer.
+     *
+     * @param directory the directory of the files
+     * @param namePattern the pattern of the file names, with the number of the file
+     * @param factory the factory of the writer of each file
+     */
+    public RollingRecordWriter(File directory, String namePattern, RecordWriterFactory factory)
+    {
+        this.directory = directory;
+        this.namePattern = namePattern;
+        this.factory = factory;
+    }
+
+    /**
+     * Sets the size in bytes after which a new file is started, no limit by default.
+     *
+     * @param maxBytes the size
+     */
+    public void setMaxBytes(long maxBytes)
+    {
+        if (maxBytes < 1) {
+            throw new IllegalArgumentException("maxBytes must be positive");
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Sets the number of records after which a new file is started, no limit by default.
+     *
+     * @param maxRecords the number of records
+     */
+    public void setMaxRecords(long maxRecords)
+    {
+        if (maxRecords < 1) {
+            throw new IllegalArgumentException("maxRecords must be positive");
+        }
+        this.maxRecords = maxRecords;
+    }
+
+    /**
+     * Sets the time after which a new file is started, counted from its first record, no limit by default.
+     *
+     * @param maxAge the time
+     * @param unit the unit of the time
+     */
+    public void setMaxAge(long maxAge, TimeUnit unit)
+    {
+        if (maxAge < 1) {
+            throw new IllegalArgumentException("maxAge must be positive");
+        }
+        this.maxAgeNanos = unit.toNanos(maxAge);
+    }
+
+    /**
+     * Returns the files written so far, in order.
+     *
+     * @return the files
+     */
+    public List<File> getFiles()
+    {
+        return Collections.unmodifiableList(this.files);
+    }
+
+    @Override
+    public void startCollection()
+    {
+        // The files are started with their first record
+    }
+
+    @Override
+    public void record(Record record)
+    {
+        if (this.writer == null) {
+            this.startFile();
+        }
+        this.writer.record(record);
+        this.records++;
+        if (this.records >= this.maxRecords || this.out.getCount() >= this.maxBytes
+            || System.nanoTime() - this.startTime >= this.maxAgeNanos) {
+            this.endFile();
+        }
+    }
+
+    @Override
+    public void endCollection()
+    {
+        if (this.writer == null && this.files.isEmpty()) {
+            this.startFile();
+        }
+        if (this.writer != null) {
+            this.endFile();
+        }
+    }
+
+    private void startFile()
+    {
+        File file = new File(this.directory, String.format(Locale.ROOT, this.namePattern, this.files.size()));
+        this.out = CountingOutputStream.open(file);
+        try {
+            this.writer = this.factory.create(this.out);
+        } catch (IOException | RuntimeException e) {
+            try {
+                this.out.close();
+            } catch (IOException ignored) {
+                // The creation error is the one reported
+            }
+            throw new MarcException("Unable to create the writer of " + file, e);
+        }
+        this.files.add(file);
+        this.records = 0;
+        this.startTime = System.nanoTime();
+        this.writer.startCollection();
+    }
+
+    private void endFile()
+    {
+        RecordHandler current = this.writer;
+        this.writer = null;
+        this.out = null;
+        current.endCollection();
+    }
+
+}
@@ -19,11 +19,10 @@
  */
 package org.marc4j.util;
 
-import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileOutputStream;
-import java.io.OutputStreamWriter;
-import java.io.Writer;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
 
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
@@ -90,7 +89,7 @@
  *
  * @author Bas Peters
  * @see MarcXmlHandler
- * @see MarcWriter
+ * @see MarcStreamHandler
  * @see Converter
  */
 public class XmlMarcWriter
@@ -166,32 +165,9 @@ public static void main(String[] args)
         }
 
         try {
-            Writer writer;
-            // if (output == null) {
-            // if (convert != null)
-            // writer = new BufferedWriter(new OutputStreamWriter(System.out, "ISO8859_1"));
-            // else
-            // writer = new BufferedWriter(new OutputStreamWriter(System.out, "UTF8"));
-            // } else {
-            // if (convert != null)
-            // writer = new BufferedWriter(new OutputStreamWriter(
-            // new FileOutputStream(output), "ISO8859_1"));
-            // else
-            // writer = new BufferedWriter(new OutputStreamWriter(
-            // new FileOutputStream(output), "UTF8"));
-            // }
-
-            if (output == null && outputEncoding != null) {
-                writer = new BufferedWriter(new OutputStreamWriter(System.out, outputEncoding));
-            } else if (output != null && outputEncoding == null) {
-                writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(output)));
-            } else if (output != null && outputEncoding != null) {
-                writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(output), outputEncoding));
-            } else {
-                writer = new BufferedWriter(new OutputStreamWriter(System.out));
-            }
-
-            MarcWriter handler = new MarcWriter(writer);
+            OutputStream out = output != null ? new FileOutputStream(output) : System.out;
+            String encoding = outputEncoding != null ? outputEncoding : Charset.defaultCharset().name();
+            MarcStreamHandler handler = new MarcStreamHandler(out, encoding);
             if (convert != null) {
                 CharacterConverter charconv = null;
                 if ("ANSEL".equals(convert)) {
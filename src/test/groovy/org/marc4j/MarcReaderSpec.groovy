@@ -20,6 +20,9 @@
 package org.marc4j
 
 import org.marc4j.helpers.ErrorHandlerImpl
+import org.marc4j.helpers.RecordBuilder
+import org.marc4j.helpers.RecordHandler
+import org.marc4j.query.Query
 import org.marc4j.util.ResourcesUtil
 
 import spock.lang.Specification
@@ -84,6 +87,62 @@ class MarcReaderSpec extends Specification {
         subfieldB.getData() == "Oficina DepÃ³sito Legal Madrid".toCharArray()
     }
 
+    def "The offsets of the records are only known for byte input"() {
+        given:
+        def bytes = ResourcesUtil.getStream("/iso2709/quijote-iso8859_1.txt").bytes
+        def input = new ByteArrayOutputStream()
+        input.write(bytes)
+        input.write(bytes)
+        def marcReader = new MarcReader()
+        def offsets = []
+        def builder = new RecordBuilder()
+        builder.setRecordHandler([
+            startCollection: {}, record: { offsets << marcReader.getRecordOffset() }, endCollection: {}] as RecordHandler)
+        marcReader.setMarcHandler(builder)
+
+        when:
+        marcReader.parse(new ByteArrayInputStream(input.toByteArray()))
+
+        then:
+        offsets == [0L, bytes.length as long]
+
+        when:
+        offsets.clear()
+        marcReader.parse(new StringReader(new String(input.toByteArray(), "ISO8859_1")))
+
+        then:
+        offsets == [-1L, -1L]
+    }
+
+    def "The fields are only read ahead of the start of the record by a filter that examines them"() {
+        given:
+        def data = RecordFixtures.makeRecord("1", "Jack").marshal()
+        def ft = Integer.parseInt(data.substring(12, 17)) + 1
+        data = data.substring(0, ft) + "x" + data.substring(ft + 1)
+        def events = []
+        def handler = Mock(MarcHandler) {
+            startRecord(_) >> { events << "startRecord" }
+        }
+        def errorHandler = Mock(ErrorHandler) {
+            error(_) >> { events << it[0].getMessage() }
+        }
+        def marcReader = new MarcReader()
+        marcReader.setMarcHandler(handler)
+        marcReader.setErrorHandler(errorHandler)
+        marcReader.setRecordFilter(filter)
+
+        when:
+        marcReader.parse(new StringReader(data))
+
+        then:
+        events == expected
+
+        where:
+        filter                         | expected
+        null                           | ["startRecord", "Field not terminated"]
+        Query.compile("001 present")   | ["Field not terminated", "startRecord"]
+    }
+
     final ISO2709_TAGGED_OUTPUT =
     '''Leader 00972nam a2200265 c 4500
 001 BABB20150005885
@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j
+
+import org.marc4j.marc.ControlField
+import org.marc4j.marc.DataField
+import org.marc4j.marc.Leader
+import org.marc4j.marc.Record
+import org.marc4j.marc.Subfield
+
+/**
+ * Records shared by the specs of the readers and writers
+ */
+class RecordFixtures {
+
+    /**
+     * A record with a control number and a title.
+     */
+    static Record makeRecord(String id, String title) {
+        def record = new Record()
+        record.add(new Leader("00000cam a2200000 a 4500"))
+        record.add(new ControlField("001", id.toCharArray()))
+        def field = new DataField("245", '1' as char, '0' as char)
+        field.add(new Subfield('a' as char, title.toCharArray()))
+        record.add(field)
+        return record
+    }
+
+    /**
+     * A record with the characters that formats have to escape: blanks in a control field, non-ASCII letters,
+     * a character outside the Basic Multilingual Plane, quotes, markup, and line breaks in a subfield.
+     */
+    static Record makeEscapedRecord(String id, String title) {
+        def record = RecordFixtures.makeRecord(id, title)
+        record.add(new ControlField("008", "881005s1988    caua".toCharArray()))
+        def title245 = record.getDataFields()[0]
+        title245.add(new Subfield('c' as char, "José 𝐀 \"<&>\" \$ {} \\".toCharArray()))
+        def note = new DataField("500", ' ' as char, ' ' as char)
+        note.add(new Subfield('a' as char, "Line one\nline two\r\n\ttabbed".toCharArray()))
+        record.add(note)
+        return record
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.binary
+
+import java.nio.file.Files
+
+import org.marc4j.MarcHandler
+import org.marc4j.RecordFixtures
+import org.marc4j.marc.MarcException
+import org.marc4j.marc.Record
+
+import spock.lang.Specification
+
+/**
+ * Unit test for BinaryWriter and BinaryReader
+ */
+class BinaryReaderSpec extends Specification {
+
+    File file
+
+    def setup() {
+        this.file = Files.createTempFile("records", ".bin").toFile()
+    }
+
+    def cleanup() {
+        this.file.delete()
+    }
+
+    def "The records are read as they were written with blocks of #blockSize bytes"() {
+        given:
+        def records = (0..<300).collect { RecordFixtures.makeEscapedRecord(it.toString(), "Título " + it + " Ж 😀") }
+        this.write(records, blockSize)
+
+        when:
+        def reader = new BinaryReader(this.file)
+        def read = []
+        def record
+        while ((record = reader.next()) != null) {
+            read << record
+        }
+        reader.close()
+
+        then:
+        read.collect { it.marshal() } == records.collect { it.marshal() }
+
+        where:
+        blockSize << [1, 500, 65536]
+    }
+
+    def "Seeking a record by its number"() {
+        given:
+        def records = (0..<300).collect { RecordFixtures.makeRecord(it.toString(), "Title " + it) }
+        this.write(records, 500)
+        def reader = new BinaryReader(this.file)
+
+        when:
+        reader.seek(ordinal)
+
+        then:
+        reader.getRecordCount() == 300
+        reader.next()?.getControlNumber() == expected
+
+        cleanup:
+        reader.close()
+
+        where:
+        ordinal | expected
+        0       | "0"
+        1       | "1"
+        157     | "157"
+        299     | "299"
+        300     | null
+    }
+
+    def "The records are reported to a MarcHandler"() {
+        given:
+        this.write([RecordFixtures.makeRecord("1", "Title")], 65536)
+        def handler = Mock(MarcHandler)
+
+        when:
+        new BinaryReader(this.file).withCloseable { it.parse(handler) }
+
+        then:
+        1 * handler.startCollection()
+        then:
+        1 * handler.startRecord({ it.marshal() == "00000cam a2200000 a 4500" })
+        then:
+        1 * handler.controlField("001", "1".toCharArray(), null)
+        then:
+        1 * handler.startDataField("245", '1' as char, '0' as char, null)
+        then:
+        1 * handler.subfield('a' as char, "Title".toCharArray(), null)
+        then:
+        1 * handler.endDataField("245")
+        then:
+        1 * handler.endRecord()
+        then:
+        1 * handler.endCollection()
+    }
+
+    def "Other files are rejected"() {
+        given:
+        this.file.text = "00714cam a2200205 a 4500 and the rest of an ISO 2709 record"
+
+        when:
+        new BinaryReader(this.file)
+
+        then:
+        MarcException e = thrown()
+        e.message.startsWith("Not a binary record file")
+    }
+
+    private void write(List<Record> records, int blockSize) {
+        def writer = new BinaryWriter(new FileOutputStream(this.file))
+        writer.setBlockSize(blockSize)
+        writer.startCollection()
+        records.each { writer.record(it) }
+        writer.endCollection()
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.diff
+
+import org.marc4j.marc.ControlField
+import org.marc4j.marc.DataField
+import org.marc4j.marc.Leader
+import org.marc4j.marc.MarcException
+import org.marc4j.marc.Record
+import org.marc4j.marc.Subfield
+import org.marc4j.marc.ValidationLevel
+
+import spock.lang.Specification
+
+/**
+ * Unit test for RecordDiff
+ */
+class RecordDiffSpec extends Specification {
+
+    def "Diffing equal records gives an empty patch"() {
+        given:
+        def record = this.makeRecord()
+
+        expect:
+        RecordDiff.diff(record, new Record(record)).isEmpty()
+    }
+
+    def "A changed subfield is reported as a change of its field"() {
+        given:
+        def source = this.makeRecord()
+        def target = new Record(source)
+        target.getDataField("245").getSubfield('c' as char).setData("Other author")
+
+        when:
+        def patch = RecordDiff.diff(source, target)
+
+        then:
+        patch.getLeader() == null
+        patch.getEdits().size() == 1
+        with(patch.getEdits()[0]) {
+            getType() == FieldEdit.Type.CHANGE
+            getTag() == "245"
+            getIndex() == 1
+            getSubfieldEdits().size() == 1
+            getSubfieldEdits()[0].getType() == SubfieldEdit.Type.REPLACE
+            getSubfieldEdits()[0].getIndex() == 1
+        }
+    }
+
+    def "Applying a patch with inserted, deleted and changed fields"() {
+        given:
+        def source = this.makeRecord()
+        def target = new Record(source)
+        target.getLeader().setRecordStatus('c' as char)
+        target.getControlFields().remove(1)
+        target.getDataFields().remove(0)
+        def subject = new DataField("650", ' ' as char, '0' as char)
+        subject.addSubfield(new Subfield('a' as char, "Fiction".toCharArray()))
+        target.add(subject)
+        target.getDataField("245").setIndicator2('4' as char)
+
+        when:
+        def patch = RecordDiff.diff(source, target)
+        def patched = new Record(source)
+        RecordDiff.apply(patched, patch)
+
+        then:
+        patch.getLeader() != null
+        patch.getEdits()*.getType() == [FieldEdit.Type.DELETE, FieldEdit.Type.DELETE, FieldEdit.Type.CHANGE,
+                                        FieldEdit.Type.INSERT]
+        patched.fingerprint() == target.fingerprint()
+        patched.fingerprint() == patch.getTargetFingerprint()
+    }
+
+    def "Applying a patch to a control field without data"() {
+        given:
+        def source = this.makeRecord()
+        def target = new Record(source)
+        target.getControlFields()[1].setData(null, ValidationLevel.NONE)
+
+        when:
+        def patch = RecordDiff.diff(source, target)
+        def patched = new Record(source)
+        RecordDiff.apply(patched, patch)
+
+        then:
+        patch.getEdits()*.getType() == [FieldEdit.Type.CHANGE]
+        patched.getControlFields()[1].getData() == null
+        patched.fingerprint() == target.fingerprint()
+    }
+
+    def "A patch is not applied to another record"() {
+        given:
+        def source = this.makeRecord()
+        def target = new Record(source)
+        target.getDataFields().remove(0)
+        def patch = RecordDiff.diff(source, target)
+
+        when:
+        RecordDiff.apply(target, patch)
+
+        then:
+        thrown(MarcException)
+    }
+
+    private Record makeRecord() {
+        def record = new Record(new Leader("00714cam a2200205 a 4500"))
+        record.add(new ControlField("001", "12883376".toCharArray()))
+        record.add(new ControlField("005", "20030616111422.0".toCharArray()))
+        def isbn = new DataField("020", ' ' as char, ' ' as char)
+        isbn.addSubfield(new Subfield('a' as char, "0786808772".toCharArray()))
+        record.add(isbn)
+        def title = new DataField("245", '1' as char, '0' as char)
+        title.addSubfield(new Subfield('a' as char, "Summerland /".toCharArray()))
+        title.addSubfield(new Subfield('c' as char, "Michael Chabon.".toCharArray()))
+        record.add(title)
+        return record
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.edit
+
+import org.marc4j.helpers.RecordBuilder
+import org.marc4j.helpers.RecordHandler
+import org.marc4j.marc.ControlField
+import org.marc4j.marc.DataField
+import org.marc4j.marc.Leader
+import org.marc4j.marc.MarcException
+import org.marc4j.marc.Record
+import org.marc4j.marc.Subfield
+
+import spock.lang.Specification
+
+/**
+ * Unit test for EditScript
+ */
+class EditScriptSpec extends Specification {
+
+    static final String SCRIPT = '''
+        # Local subjects
+        rename 650 690
+        delete 690$x /^juvenile/i
+        add 690$2 "local"
+        set 245 ind2 "4"
+        replace 245$a /[\\[\\]]/ ""
+        replace 008 /1988/ "1989"
+        delete 900
+        '''
+
+    def "Applying a script to a record"() {
+        given:
+        def plan = EditScript.compile(SCRIPT)
+        def record = this.makeRecord()
+
+        when:
+        plan.apply(record)
+
+        then:
+        plan.size() == 7
+        new String(record.getControlField("008").getData()) == "881005s1989    nyu"
+        record.getDataField("245").getIndicator2() == '4' as char
+        new String(record.getDataField("245").getFirstSubfieldData('a' as char)) == "Title /"
+        record.getDataFields()*.getTag() == ["245", "690", "690"]
+        record.getDataFields()[1].getSubfields()*.getCode() == ['a', '2']*.charAt(0)
+        record.getDataFields()[2].getSubfields()*.getCode() == ['a', 'x', '2']*.charAt(0)
+    }
+
+    def "Statements apply in script order across renames"() {
+        given:
+        def plan = EditScript.compile('''
+            set 690 ind1 "1"
+            rename 650 690
+            set 690 ind2 "2"
+            ''')
+        def record = this.makeRecord()
+
+        when:
+        plan.apply(record)
+
+        then: "only the statements after the rename apply to the renamed fields"
+        record.getDataFields()[1].getIndicator1() == ' ' as char
+        record.getDataFields()[1].getIndicator2() == '2' as char
+    }
+
+    def "Editing the events gives the same result as editing the records"() {
+        given:
+        def plan = EditScript.compile(SCRIPT)
+        def edited = this.makeRecord()
+        plan.apply(edited)
+        def records = []
+        def builder = new RecordBuilder()
+        builder.setRecordHandler([
+            startCollection: {},
+            record: { records << it },
+            endCollection: {}
+        ] as RecordHandler)
+        def filter = new EditFilter(plan)
+        filter.setMarcHandler(builder)
+        def source = this.makeRecord()
+
+        when:
+        this.replay(filter, source)
+
+        then:
+        records.size() == 1
+        records[0].fingerprint() == edited.fingerprint()
+    }
+
+    def "Editing the events without a handler"() {
+        given:
+        def filter = new EditFilter(EditScript.compile(SCRIPT))
+
+        when:
+        this.replay(filter, this.makeRecord())
+
+        then:
+        notThrown(NullPointerException)
+    }
+
+    def "Reporting the line of an invalid statement"() {
+        when:
+        EditScript.compile("rename 650 690\n" + statement)
+
+        then:
+        def e = thrown(MarcException)
+        e.getMessage().startsWith("Line 2: ")
+
+        where:
+        statement << [
+            "rename 001 245",
+            "set 008 ind1 \"1\"",
+            "set 245 ind3 \"1\"",
+            "delete 245\$a /unterminated",
+            "add 245\$ab \"x\"",
+            "replace 245\$a /x/ \"y\" extra",
+            "replace 245\$a /(x)/ \"\$2\"",
+            "replace 245\$a /x/ \"\$y\"",
+            "replace 245\$a /(?<x>x)/ \"\${y}\"",
+            "frob 245"
+        ]
+    }
+
+    private void replay(EditFilter filter, Record source) {
+        filter.startCollection()
+        filter.startRecord(source.getLeader())
+        source.getControlFields().each { filter.controlField(it.getTag(), it.getData(), it.getId()) }
+        source.getDataFields().each { field ->
+            filter.startDataField(field.getTag(), field.getIndicator1(), field.getIndicator2(), field.getId())
+            field.getSubfields().each { filter.subfield(it.getCode(), it.getData(), it.getLinkCode()) }
+            filter.endDataField(field.getTag())
+        }
+        filter.endRecord()
+        filter.endCollection()
+    }
+
+    private Record makeRecord() {
+        def record = new Record(new Leader("00714cam a2200205 a 4500"))
+        record.add(new ControlField("001", "123".toCharArray()))
+        record.add(new ControlField("008", "881005s1988    nyu".toCharArray()))
+        record.add(this.makeDataField("245", '1', '0', 'a', "[Title] /", 'c', "Me"))
+        record.add(this.makeDataField("650", ' ', '0', 'a', "Cats", 'x', "Juvenile fiction"))
+        record.add(this.makeDataField("650", ' ', '0', 'a', "Dogs", 'x', "History"))
+        record.add(this.makeDataField("900", ' ', ' ', 'a', "local"))
+        return record
+    }
+
+    private DataField makeDataField(String tag, String ind1, String ind2, Object... subfields) {
+        def field = new DataField(tag, ind1 as char, ind2 as char)
+        subfields.toList().collate(2).each { code, data ->
+            field.addSubfield(new Subfield(code as char, data.toCharArray()))
+        }
+        return field
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.extract
+
+import org.marc4j.MarcReader
+import org.marc4j.marc.ControlField
+import org.marc4j.marc.DataField
+import org.marc4j.marc.Leader
+import org.marc4j.marc.MarcException
+import org.marc4j.marc.Record
+import org.marc4j.marc.Subfield
+
+import spock.lang.Specification
+
+/**
+ * Unit test for ColumnExtractor and ParallelColumnExtractor
+ */
+class ColumnExtractorSpec extends Specification {
+
+    def "Columns are written as CSV, quoted when needed"() {
+        given:
+        def record = this.makeRecord("1", 'Ham, "eggs"', "Line one\nline two")
+        def columns = [Column.of("001"), Column.of("245\$a"), Column.of("500")]
+
+        expect:
+        this.extract([record], columns, TableFormat.CSV) ==
+            '001,245$a,500\r\n1,"Ham, ""eggs""","Line one\nline two"\r\n'
+    }
+
+    def "Columns are written as TSV, with escapes"() {
+        given:
+        def record = this.makeRecord("1", "Tab\there", "Back\\slash\r\n")
+        def columns = [Column.of("001"), Column.of("245\$a"), Column.of("500")]
+
+        expect:
+        this.extract([record], columns, TableFormat.TSV) ==
+            '001\t245$a\t500\n1\tTab\\there\tBack\\\\slash\\r\\n\n'
+    }
+
+    def "Subfields and occurrences are joined with the separators"() {
+        given:
+        def record = this.makeRecord("1", "Title", "Note")
+        record.add(this.makeField("650", 'a', "Cats", 'x', "History"))
+        record.add(this.makeField("650", 'z', "Spain"))
+        record.add(this.makeField("650", 'a', "Dogs"))
+        def first = Column.of("650\$ax")
+        def all = Column.of("650\$ax")
+        all.setName("subjects")
+        all.setAllOccurrences(true)
+        all.setSubfieldSeparator("--")
+        all.setOccurrenceSeparator("; ")
+
+        expect:
+        this.extract([record], [first, all], TableFormat.TSV) == '650$ax\tsubjects\nCats History\tCats--History; Dogs\n'
+    }
+
+    def "Positions of the leader and the control fields are extracted"() {
+        given:
+        def record = this.makeRecord("1", "Title", "Note")
+        def columns = [Column.of("LDR/06"), Column.of("008/35-37"), Column.of("008/39-45"), Column.of("245\$c")]
+
+        expect:
+        this.extract([record], columns, TableFormat.CSV) == 'LDR/06,008/35-37,008/39-45,245$c\r\na,spa,d,\r\n'
+    }
+
+    def "Invalid column paths are rejected"() {
+        when:
+        Column.of(path)
+
+        then:
+        thrown(MarcException)
+
+        where:
+        path << ["", "24", "245\$", "001\$a", "LDR/24", "008/10-05", "245/01"]
+    }
+
+    def "Partitions are extracted in parallel"() {
+        given:
+        def files = (0..<3).collect { partition ->
+            def file = File.createTempFile("partition", ".mrc")
+            file.deleteOnExit()
+            file.setText((0..<100).collect {
+                this.makeRecord("${partition}-${it}", "Title ${it}", "Note").marshal()
+            }.join(), "ISO8859_1")
+            file
+        }
+        def extractor = new ParallelColumnExtractor([Column.of("001"), Column.of("245\$a")], TableFormat.TSV)
+        extractor.setThreads(2)
+        def output = new ByteArrayOutputStream()
+
+        when:
+        extractor.extract(files, output)
+        def rows = output.toString("UTF-8").split("\n")
+
+        then:
+        rows[0] == "001\t245\$a"
+        rows.length == 301
+        (rows[1..-1] as Set) == ((0..<3).collectMany { partition ->
+            (0..<100).collect { "${partition}-${it}\tTitle ${it}".toString() }
+        } as Set)
+    }
+
+    private String extract(List<Record> records, List<Column> columns, TableFormat format) {
+        def output = new ByteArrayOutputStream()
+        def reader = new MarcReader()
+        reader.setMarcHandler(new ColumnExtractor(columns, output, format))
+        reader.parse(new ByteArrayInputStream(records.collect { it.marshal() }.join().getBytes("ISO8859_1")))
+        return output.toString("UTF-8")
+    }
+
+    private Record makeRecord(String id, String title, String note) {
+        def record = new Record()
+        record.add(new Leader("00000cam a2200000 a 4500"))
+        record.add(new ControlField("001", id.toCharArray()))
+        record.add(new ControlField("008", "881005s1988    sp a          001 0 spa d".toCharArray()))
+        record.add(this.makeField("245", 'a', title))
+        record.add(this.makeField("500", 'a', note))
+        return record
+    }
+
+    private DataField makeField(String tag, String... subfields) {
+        def field = new DataField(tag, ' ' as char, ' ' as char)
+        for (int i = 0; i < subfields.length; i += 2) {
+            field.add(new Subfield(subfields[i] as char, subfields[i + 1].toCharArray()))
+        }
+        return field
+    }
+
+}
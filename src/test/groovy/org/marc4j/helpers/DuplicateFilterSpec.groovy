@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.helpers
+
+import org.marc4j.marc.ControlField
+import org.marc4j.marc.Leader
+import org.marc4j.marc.Record
+
+import spock.lang.Specification
+
+/**
+ * Unit test for DuplicateFilter
+ */
+class DuplicateFilterSpec extends Specification {
+
+    def "Dropping the duplicate records"() {
+        given:
+        def unique = Mock(RecordHandler)
+        def filter = new DuplicateFilter(100, 0.01)
+        filter.setRecordHandler(unique)
+
+        when:
+        ["1", "2", "1", "3", "2", "1"].each { filter.record(this.makeRecord(it)) }
+
+        then:
+        3 * unique.record(_)
+        filter.getRecordCount() == 6
+        filter.getDuplicateCount() == 3
+    }
+
+    def "Flagging the duplicate records"() {
+        given:
+        def unique = []
+        def duplicates = []
+        def filter = new DuplicateFilter(100, 0.01)
+        filter.setRecordHandler(this.collectInto(unique))
+        filter.setDuplicateHandler(this.collectInto(duplicates))
+
+        when:
+        ["1", "2", "1", "3", "2"].each { filter.record(this.makeRecord(it)) }
+
+        then:
+        unique.collect { it.getControlNumber() } == ["1", "2", "3"]
+        duplicates.collect { it.getControlNumber() } == ["1", "2"]
+    }
+
+    def "False positives of the Bloom filter are confirmed by the store"() {
+        given: "a Bloom filter far too small for the records"
+        def filter = new DuplicateFilter(10, 0.5)
+
+        when:
+        (1..1000).each { filter.isDuplicate(it as long) }
+        def duplicates = (1..1000).count { filter.isDuplicate(it as long) }
+
+        then:
+        filter.getFalsePositiveCount() > 0
+        duplicates == 1000
+        !filter.isDuplicate(1001L)
+    }
+
+    private Record makeRecord(String controlNumber) {
+        def record = new Record(new Leader("00714cam a2200205 a 4500"))
+        record.add(new ControlField("001", controlNumber.toCharArray()))
+        return record
+    }
+
+    private RecordHandler collectInto(List records) {
+        return [
+            startCollection: {},
+            record: { records << it },
+            endCollection: {}
+        ] as RecordHandler
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.helpers
+
+import org.marc4j.MarcHandler
+import org.marc4j.marc.ControlField
+import org.marc4j.marc.DataField
+import org.marc4j.marc.Leader
+import org.marc4j.marc.MarcException
+import org.marc4j.marc.Record
+import org.marc4j.marc.Subfield
+
+import spock.lang.Specification
+
+/**
+ * Unit test for RecordEvents
+ */
+class RecordEventsSpec extends Specification {
+
+    def "Replaying a record as events"() {
+        given:
+        def handler = Mock(MarcHandler)
+        def record = new Record(new Leader("00714cam a2200205 a 4500"))
+        def controlField = new ControlField("001", "12883376".toCharArray())
+        controlField.setId(1L)
+        record.add(controlField)
+        def dataField = new DataField("245", '1' as char, '0' as char)
+        dataField.setId(2L)
+        dataField.addSubfield(new Subfield('6' as char, "880-01".toCharArray()))
+        dataField.addSubfield(new Subfield('a' as char, "Jack and Jill".toCharArray()))
+        record.add(dataField)
+
+        when:
+        RecordEvents.replay(record, handler)
+
+        then:
+        1 * handler.startRecord(record.getLeader())
+
+        then:
+        1 * handler.controlField("001", "12883376".toCharArray(), 1L)
+
+        then:
+        1 * handler.startDataField("245", '1' as char, '0' as char, 2L)
+
+        then:
+        1 * handler.subfield('6' as char, "880-01".toCharArray(), _)
+
+        then:
+        1 * handler.subfield('a' as char, "Jack and Jill".toCharArray(), _)
+
+        then:
+        1 * handler.endDataField("245")
+
+        then:
+        1 * handler.endRecord()
+        0 * handler._
+    }
+
+    def "Replaying the events into a RecordBuilder gives the same record"() {
+        given:
+        def records = []
+        def builder = new RecordBuilder()
+        builder.setRecordHandler([
+            startCollection: {},
+            record: { records << it },
+            endCollection: {}
+        ] as RecordHandler)
+        def record = new Record(new Leader("00714cam a2200205 a 4500"))
+        record.add(new ControlField("001", "12883376".toCharArray()))
+        def dataField = new DataField("245", '1' as char, '0' as char)
+        dataField.addSubfield(new Subfield('a' as char, "Jack and Jill".toCharArray()))
+        record.add(dataField)
+
+        when:
+        RecordEvents.replay(record, builder)
+
+        then:
+        records.size() == 1
+        records[0].toString() == record.toString()
+    }
+
+    def "A record without leader can't be replayed"() {
+        given:
+        def handler = Mock(MarcHandler)
+
+        when:
+        RecordEvents.replay(new Record(), handler)
+
+        then:
+        thrown(MarcException)
+        0 * handler._
+    }
+}
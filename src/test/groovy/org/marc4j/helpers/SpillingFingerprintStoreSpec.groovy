@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.helpers
+
+import java.nio.file.Files
+
+import spock.lang.Specification
+
+/**
+ * Unit test for SpillingFingerprintStore
+ */
+class SpillingFingerprintStoreSpec extends Specification {
+
+    def "Fingerprints spilled to disk are still found"() {
+        given:
+        def directory = Files.createTempDirectory("fingerprints").toFile()
+        def store = new SpillingFingerprintStore(directory, 100)
+        def random = new Random(42)
+        def fingerprints = (1..10000).collect { random.nextLong() }
+
+        when:
+        fingerprints.each { store.add(it) }
+
+        then:
+        store.size() == 10000
+        store.getRunCount() <= 7
+        directory.list().length == store.getRunCount()
+        fingerprints.every { store.contains(it) }
+        (1..1000).every { !store.contains(random.nextLong()) }
+
+        when:
+        store.close()
+
+        then:
+        directory.list().length == 0
+        !store.contains(fingerprints[0])
+
+        cleanup:
+        directory.delete()
+    }
+
+    def "Filtering duplicates with a bounded memory"() {
+        given:
+        def store = new SpillingFingerprintStore(null, 10)
+        def filter = new DuplicateFilter(1000, 0.01, store)
+
+        when:
+        (1..1000).each { filter.isDuplicate(it as long) }
+        def duplicates = (1..1000).count { filter.isDuplicate(it as long) }
+
+        then:
+        duplicates == 1000
+        !filter.isDuplicate(1001L)
+        store.size() == 1001
+
+        cleanup:
+        store.close()
+    }
+
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.index
+
+import org.marc4j.MarcReader
+import org.marc4j.helpers.RecordBuilder
+import org.marc4j.helpers.RecordHandler
+import org.marc4j.marc.ControlField
+import org.marc4j.marc.DataField
+import org.marc4j.marc.IndexKeys
+import org.marc4j.marc.Leader
+import org.marc4j.marc.MarcException
+import org.marc4j.marc.Record
+import org.marc4j.marc.Subfield
+
+import spock.lang.Specification
+
+/**
+ * Unit test for KeyIndexBuilder and KeyIndex
+ */
+class KeyIndexSpec extends Specification {
+
+    def "Looking up the offsets of the records by key"() {
+        given:
+        def records = [
+            this.makeRecord("1", "(OCoLC)100", "84-376-0494-X (pbk.)"),
+            this.makeRecord("2", "(OCoLC)200", "0-7868-0877-2"),
+            this.makeRecord("3", "(OCoLC)100", null)
+        ]
+        def offsets = this.offsetsOf(records)
+        def data = this.writeRecords(records)
+        def file = this.tempFile(".idx")
+
+        when:
+        this.buildIndex(data, file, 2) {
+            it.addPath("001")
+            it.addPath("035\$a")
+            it.addPath("020\$a", IndexKeys.FIRST_TOKEN)
+        }
+        def index = KeyIndex.open(file)
+
+        then:
+        index.find("2") == [offsets[1]] as long[]
+        index.find("(OCoLC)100") == [offsets[0], offsets[2]] as long[]
+        index.find("0786808772") == [offsets[1]] as long[]
+        index.find("0-7868-0877-2", IndexKeys.FIRST_TOKEN) == [offsets[1]] as long[]
+        index.find("84376-0494-x", IndexKeys.FIRST_TOKEN) == [offsets[0]] as long[]
+        index.find("(OCoLC)300").length == 0
+        !index.contains("4")
+        index.getKeyCount() == 7
+        index.getPostingCount() == 8
+
+        cleanup:
+        index?.close()
+    }
+
+    def "The offsets point to the records in the file"() {
+        given:
+        def records = (1..50).collect { this.makeRecord("id$it", "(X)${it % 7}", null) }
+        def data = this.writeRecords(records)
+        def file = this.tempFile(".idx")
+        this.buildIndex(data, file, 10) { it.addPath("001") }
+        def index = KeyIndex.open(file)
+
+        when:
+        def offset = index.find("id42")[0]
+        def input = new FileInputStream(data)
+        input.skip(offset)
+        def ids = []
+        def reader = new MarcReader()
+        def builder = new RecordBuilder()
+        builder.setRecordHandler([
+            startCollection: {}, record: { ids << it.getControlNumber() }, endCollection: {}] as RecordHandler)
+        reader.setMarcHandler(builder)
+        reader.parse(input)
+
+        then:
+        ids.first() == "id42"
+
+        cleanup:
+        index?.close()
+    }
+
+    def "Keys with more postings than a block span several leaves"() {
+        given:
+        def records = (1..6000).collect { this.makeRecord("id$it", "(X)", null) }
+        def offsets = this.offsetsOf(records)
+        def data = this.writeRecords(records)
+        def file = this.tempFile(".idx")
+
+        when:
+        this.buildIndex(data, file, 500) {
+            it.addPath("001")
+            it.addPath("035\$a")
+        }
+        def index = KeyIndex.open(file)
+
+        then:
+        index.find("(X)") == offsets as long[]
+        index.getPostingCount() == 12000
+        (1..6000).every { index.find("id$it") == [offsets[it - 1]] as long[] }
+
+        cleanup:
+        index?.close()
+    }
+
+    def "An empty file gives an empty index"() {
+        given:
+        def data = this.writeRecords([])
+        def file = this.tempFile(".idx")
+        this.buildIndex(data, file, 10) { it.addPath("001") }
+
+        when:
+        def index = KeyIndex.open(file)
+
+        then:
+        index.getKeyCount() == 0
+        index.find("1").length == 0
+
+        cleanup:
+        index?.close()
+    }
+
+    def "Records read from a Reader can't be indexed"() {
+        given:
+        def reader = new MarcReader()
+        def builder = new KeyIndexBuilder(reader, this.tempFile(".idx"))
+        builder.addPath("001")
+        reader.setMarcHandler(builder)
+
+        when:
+        reader.parse(new StringReader(this.makeRecord("1", "(OCoLC)100", null).marshal()))
+
+        then:
+        thrown(MarcException)
+    }
+
+    def "Invalid paths and files are rejected"() {
+        when:
+        new KeyIndexBuilder(new MarcReader(), this.tempFile(".idx")).addPath(path)
+
+        then:
+        thrown(MarcException)
+
+        where:
+        path << ["001\$a", "035\$", "35\$a", "245\$ab"]
+    }
+
+    def "Opening a file that isn't an index"() {
+        given:
+        def file = this.tempFile(".idx")
+        file.bytes = new byte[8192]
+
+        when:
+        KeyIndex.open(file)
+
+        then:
+        thrown(MarcException)
+    }
+
+    private Record makeRecord(String id, String systemNumber, String isbn) {
+        def record = new Record()
+        record.add(new Leader("00000cam a2200000 a 4500"))
+        record.add(new ControlField("001", id.toCharArray()))
+        if (isbn != null) {
+            def field = new DataField("020", ' ' as char, ' ' as char)
+            field.add(new Subfield('a' as char, isbn.toCharArray()))
+            record.add(field)
+        }
+        def field = new DataField("035", ' ' as char, ' ' as char)
+        field.add(new Subfield('a' as char, systemNumber.toCharArray()))
+        record.add(field)
+        return record
+    }
+
+    private List<Long> offsetsOf(List<Record> records) {
+        def offsets = []
+        long offset = 0
+        records.each {
+            offsets << offset
+            offset += it.marshal().length()
+        }
+        return offsets
+    }
+
+    private File writeRecords(List<Record> records) {
+        def file = this.tempFile(".mrc")
+        file.withWriter("ISO8859_1") { writer -> records.each { writer.write(it.marshal()) } }
+        return file
+    }
+
+    private void buildIndex(File data, File file, int maxBufferedEntries, Closure paths) {
+        def reader = new MarcReader()
+        def builder = new KeyIndexBuilder(reader, file)
+        builder.setMaxBufferedEntries(maxBufferedEntries)
+        paths(builder)
+        reader.setMarcHandler(builder)
+        reader.parse(data.getPath())
+    }
+
+    private File tempFile(String suffix) {
+        def file = File.createTempFile("marc4j", suffix)
+        file.deleteOnExit()
+        return file
+    }
+
+}
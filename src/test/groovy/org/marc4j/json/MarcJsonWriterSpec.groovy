@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.json
+
+import org.marc4j.RecordFixtures
+import org.marc4j.marc.Leader
+import org.marc4j.marc.Subfield
+import org.marc4j.marc.VariableField
+
+import spock.lang.Specification
+
+/**
+ * Unit test for MarcJsonWriter
+ */
+class MarcJsonWriterSpec extends Specification {
+
+    def "Writing the records as an array"() {
+        given:
+        def output = new ByteArrayOutputStream()
+        def writer = new MarcJsonWriter(output)
+
+        when:
+        writer.startCollection()
+        writer.record(RecordFixtures.makeRecord("1", "Jack and Jill"))
+        writer.record(RecordFixtures.makeRecord("2", "Café"))
+        writer.endCollection()
+
+        then:
+        new String(output.toByteArray(), "UTF-8") == '[' + this.json("1", "Jack and Jill") + ',\n' +
+            this.json("2", "Café") + ']\n'
+    }
+
+    def "Writing the records one per line"() {
+        given:
+        def output = new ByteArrayOutputStream()
+        def writer = new MarcJsonWriter(output)
+        writer.setNewlineDelimited(true)
+
+        when:
+        writer.startCollection()
+        writer.record(RecordFixtures.makeRecord("1", "Jack and Jill"))
+        writer.record(RecordFixtures.makeRecord("2", "Café"))
+        writer.endCollection()
+
+        then:
+        new String(output.toByteArray(), "UTF-8") == this.json("1", "Jack and Jill") + '\n' +
+            this.json("2", "Café") + '\n'
+    }
+
+    def "The events are written like the records"() {
+        given:
+        def output = new ByteArrayOutputStream()
+        def writer = new MarcJsonWriter(output)
+        writer.setNewlineDelimited(true)
+
+        when:
+        writer.startCollection()
+        writer.startRecord(new Leader("00000cam a2200000 a 4500"))
+        writer.controlField("001", "1".toCharArray(), VariableField.EMPTY_ID)
+        writer.startDataField("245", '1' as char, '0' as char, VariableField.EMPTY_ID)
+        writer.subfield('a' as char, "Title".toCharArray(), Subfield.EMPTY_LINK_CODE)
+        writer.endDataField("245")
+        writer.endRecord()
+        writer.endCollection()
+
+        then:
+        new String(output.toByteArray(), "UTF-8") == this.json("1", "Title") + '\n'
+    }
+
+    def "The strings are escaped"() {
+        given:
+        def output = new ByteArrayOutputStream()
+        def writer = new MarcJsonWriter(output)
+        writer.setNewlineDelimited(true)
+
+        when:
+        writer.startCollection()
+        writer.record(RecordFixtures.makeRecord("1", value))
+        writer.endCollection()
+
+        then:
+        new String(output.toByteArray(), "UTF-8").contains('{"a":"' + expected + '"}')
+
+        where:
+        value              | expected
+        'say "hi"'         | 'say \\"hi\\"'
+        'a\\b'             | 'a\\\\b'
+        'line\nbreak\t'    | 'line\\nbreak\\t'
+        'esc\u001b'        | 'esc\\u001b'
+        'lone \ud83d'      | 'lone \\ud83d'
+        'pair 😀' | 'pair 😀'
+    }
+
+    private String json(String id, String title) {
+        return '{"leader":"00000cam a2200000 a 4500","fields":[{"001":"' + id + '"},' +
+            '{"245":{"ind1":"1","ind2":"0","subfields":[{"a":"' + title + '"}]}}]}'
+    }
+}
@@ -19,6 +19,8 @@
  */
 package org.marc4j.marc
 
+import java.util.regex.Pattern
+
 import spock.lang.Specification
 
 /**
@@ -76,4 +78,19 @@ class ControlFieldSpec extends Specification {
         expect:
         "test\u001E".equals(cf.marshal())
     }
+
+    def "Finding if a control field value matches a regex pattern"() {
+        given:
+        def cf = new ControlField("001", value.toCharArray())
+
+        expect:
+        cf.find(Pattern.compile(regex)) == found
+
+        where:
+        value       | regex             || found
+        "12883376"  | "^12883376\$"     || true
+        "12883376"  | "\\[1"            || false
+        "ocm123"    | "^ocm\\d+"        || true
+        "ocm123"    | ","               || false
+    }
 }
\ No newline at end of file
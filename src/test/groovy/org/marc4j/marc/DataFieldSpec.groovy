@@ -381,4 +381,136 @@ class DataFieldSpec extends Specification {
         "\\p{IsAlphabetic}"   || true
         ".*ר.*"               || true
     }
+
+    def "Subfield lookups follow the changes to the subfields"() {
+        given:
+        def df = new DataField("245", "1" as char, "0" as char)
+        df.addSubfield(new Subfield('a' as char, "a1"))
+        df.addSubfield(new Subfield('b' as char, "b1"))
+        df.addSubfield(new Subfield('a' as char, "a2"))
+
+        expect:
+        df.hasSubfield('a' as char)
+        !df.hasSubfield('c' as char)
+        df.indexOfSubfield('b' as char) == 1
+        df.getFirstSubfieldData('a' as char) == "a1".toCharArray()
+        df.getFirstSubfieldOrNull('c' as char) == null
+
+        when: "a subfield is inserted at the start"
+        df.addSubfield(0, new Subfield('c' as char, "c1"))
+
+        then:
+        df.indexOfSubfield('c' as char) == 0
+        df.indexOfSubfield('a' as char) == 1
+        df.getSubfields('a' as char).count() == 2
+
+        when: "a subfield is removed through the list"
+        df.getSubfields().remove(0)
+
+        then:
+        !df.hasSubfield('c' as char)
+        df.indexOfSubfield('a' as char) == 0
+
+        when: "a subfield is replaced through the list"
+        df.getSubfields().set(1, new Subfield('9' as char, "nine"))
+
+        then:
+        !df.hasSubfield('b' as char)
+        df.indexOfSubfield('9' as char) == 1
+    }
+
+    def "Subfield lookups follow the changes through views of the subfields"() {
+        given:
+        def df = new DataField("245", "1" as char, "0" as char)
+        df.addSubfield(new Subfield('a' as char, "a1"))
+        df.addSubfield(new Subfield('b' as char, "b1"))
+        df.addSubfield(new Subfield('d' as char, "d1"))
+        df.hasSubfield('a' as char)
+
+        when:
+        change(df.getSubfields())
+
+        then:
+        codes.every { df.hasSubfield(it as char) }
+        absent.every { !df.hasSubfield(it as char) }
+        df.indexOfSubfield(codes[0] as char) == 0
+
+        where:
+        change                                                                  || codes           | absent
+        ({ it.subList(0, 2).set(1, new Subfield('c' as char, "c1")) })        || ["a", "c", "d"] | ["b"]
+        ({ it.subList(0, 2).clear() })                                          || ["d"]           | ["a", "b"]
+        ({ it.removeIf { it.getCode() == 'a' as char } })                       || ["b", "d"]      | ["a"]
+        ({ it.replaceAll { new Subfield('z' as char, it.getData()) } })         || ["z"]           | ["a", "b", "d"]
+        ({ it.sort { x, y -> y.getCode() <=> x.getCode() } })                   || ["d", "b", "a"] | ["c"]
+    }
+
+    def "Subfield lookups follow the changes to the codes of the subfields"() {
+        given:
+        def df = new DataField("245", "1" as char, "0" as char)
+        df.addSubfield(new Subfield('a' as char, "a1"))
+        df.addSubfield(new Subfield('c' as char, "c1"))
+        df.addSubfield(new Subfield('b' as char, "b1"))
+        def other = new DataField("500", " " as char, " " as char)
+        other.setSubfields(df.getSubfields())
+        df.hasSubfield('a' as char)
+        other.hasSubfield('a' as char)
+
+        when:
+        df.getSubfields().get(0).setCode('b' as char)
+
+        then:
+        !df.hasSubfield('a' as char)
+        df.hasSubfield('b' as char)
+        df.getFirstSubfield('b' as char).get().getData() == "a1".toCharArray()
+        df.indexOfSubfield('b' as char) == 0
+
+        and: "a field sharing the subfield follows the change too"
+        !other.hasSubfield('a' as char)
+        other.indexOfSubfield('b' as char) == 0
+    }
+
+    def "Replacing a subfield through a list iterator"() {
+        given:
+        def df = new DataField("245", "1" as char, "0" as char)
+        df.addSubfield(new Subfield('a' as char, "a1"))
+        df.addSubfield(new Subfield('b' as char, "b1"))
+        df.hasSubfield('a' as char)
+        def iterator = df.getSubfields().listIterator()
+
+        when:
+        iterator.next()
+        iterator.set(new Subfield('x' as char, "x1"))
+
+        then:
+        iterator.next().getCode() == 'b' as char
+        df.hasSubfield('x' as char)
+        !df.hasSubfield('a' as char)
+    }
+
+    def "Subfield codes out of the index are found too"() {
+        given:
+        def df = new DataField("245", "1" as char, "0" as char)
+        df.addSubfield(new Subfield('a' as char, "a1"))
+        df.addSubfield(new Subfield('A' as char, "upper"))
+
+        expect:
+        df.hasSubfield('A' as char)
+        df.indexOfSubfield('A' as char) == 1
+        df.getFirstSubfield('A' as char).get().getData() == "upper".toCharArray()
+    }
+
+    def "forEachSubfield visits the matching subfields in order"() {
+        given:
+        def df = new DataField("650", " " as char, "0" as char)
+        df.addSubfield(new Subfield('a' as char, "Magic"))
+        df.addSubfield(new Subfield('v' as char, "Fiction."))
+        df.addSubfield(new Subfield('v' as char, "Juvenile."))
+        def visited = []
+
+        when:
+        df.forEachSubfield('v' as char, { visited << new String(it.getData()) })
+
+        then:
+        visited == ["Fiction.", "Juvenile."]
+    }
 }
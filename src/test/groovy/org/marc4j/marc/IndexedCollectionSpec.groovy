@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.marc
+
+import spock.lang.Specification
+
+/**
+ * Unit test for IndexedCollection
+ */
+class IndexedCollectionSpec extends Specification {
+
+    def "Looking up records by exact key and by prefix"() {
+        given:
+        def collection = new IndexedCollection()
+        collection.add(this.makeRecord("1", "0-7868-0877-2 (pbk.)", "Summerland : a novel"))
+        collection.addIndex("isbn", "020\$a", IndexKeys.FIRST_TOKEN)
+        collection.addIndex("title", "245\$a", IndexKeys.WORDS)
+        collection.addIndex("id", "001")
+
+        when: "records are added after the indexes"
+        collection.add(this.makeRecord("2", "0786808772", "Summer of love"))
+        collection.add(this.makeRecord("3", "9780000000002", "Winter tale"))
+
+        then:
+        collection.find("isbn", "0786808772") == [0, 1] as int[]
+        collection.find("title", "SUMMERLAND") == [0] as int[]
+        collection.find("title", "autumn") == [] as int[]
+        collection.find("id", " 3 ") == [2] as int[]
+        collection.findPrefix("title", "summ") == [0, 1] as int[]
+        collection.getRecordsByPrefix("isbn", "978")*.getControlNumber() == ["3"]
+        collection.getIndexNames() == ["isbn", "title", "id"]
+    }
+
+    def "Rejecting invalid indexes"() {
+        given:
+        def collection = new IndexedCollection()
+        collection.addIndex("id", "001")
+
+        when:
+        collection.addIndex(name, path)
+
+        then:
+        thrown(MarcException)
+
+        where:
+        name    | path
+        "id"    | "035\$a"
+        "other" | "001\$a"
+        "other" | "035\$ab"
+        "other" | "35"
+    }
+
+    def "Looking up an unknown index"() {
+        when:
+        new IndexedCollection().find("isbn", "0786808772")
+
+        then:
+        thrown(MarcException)
+    }
+
+    private Record makeRecord(String id, String isbn, String title) {
+        def record = new Record(new Leader("00714cam a2200205 a 4500"))
+        record.add(new ControlField("001", id.toCharArray()))
+        def isbnField = new DataField("020", ' ' as char, ' ' as char)
+        isbnField.addSubfield(new Subfield('a' as char, isbn.toCharArray()))
+        record.add(isbnField)
+        def titleField = new DataField("245", '1' as char, '0' as char)
+        titleField.addSubfield(new Subfield('a' as char, title.toCharArray()))
+        record.add(titleField)
+        return record
+    }
+}
@@ -75,4 +75,61 @@ class LeaderSpec extends Specification {
         expect:
         "00714cam a2200205 a 4500" == leader.marshal()
     }
+
+    def "Leader unmarshaling from a buffer with an offset"() {
+        given:
+        def buffer = "xx00714cam a2200205 a 4500yy".toCharArray()
+        Leader leader = new Leader()
+
+        when:
+        leader.unmarshal(buffer, 2)
+
+        then:
+        leader.marshal() == "00714cam a2200205 a 4500"
+        leader.charAt(6) == 'a' as char
+    }
+
+    def "Leader setters update the marshaled record label"() {
+        given:
+        Leader leader = new Leader("00714cam a2200205 a 4500")
+
+        when:
+        leader.setRecordLength(12345)
+        leader.setBaseAddressOfData(42)
+        leader.setRecordStatus('n' as char)
+
+        then:
+        leader.marshal() == "12345nam a2200042 a 4500"
+        leader.getRecordLength() == 12345
+        leader.getBaseAddressOfData() == 42
+    }
+
+    @Unroll
+    def "Leader rejects a record length of #length"() {
+        given:
+        Leader leader = new Leader()
+
+        when:
+        leader.setRecordLength(length)
+
+        then:
+        thrown(MarcException)
+
+        where:
+        length << [-1, 100000]
+    }
+
+    def "Leader copy doesn't share the record label"() {
+        given:
+        Leader leader = new Leader("00714cam a2200205 a 4500")
+        Leader copy = new Leader(leader)
+
+        when:
+        copy.setTypeOfRecord('e' as char)
+        copy.getImplDefined1()[0] = 'x' as char
+
+        then:
+        leader.getTypeOfRecord() == 'a' as char
+        copy.marshal() == "00714cem a2200205 a 4500"
+    }
 }
@@ -364,4 +364,189 @@ private Record makeSummerlandRecord() {
         datalFieldsStream != null
         datalFieldsStream.count() == 1
     }
+
+    def "Walking the variable fields through the read-only view"() {
+        given:
+        def record = this.makeSummerlandRecord()
+        def view = record.getVariableFieldsView()
+
+        expect: "the view has the fields in record order"
+        view.size() == 15
+        record.getVariableFieldCount() == 15
+        view.get(0).getTag() == "001"
+        view.get(3).getTag() == "020"
+        record.getVariableField(14).getTag() == "650"
+        view.collect { it.getTag() } == record.getVariableFields().collect { it.getTag() }
+        record.getVariableFieldsView().is(view)
+
+        when: "the view can't be modified"
+        view.add(new DataField("500"))
+
+        then:
+        thrown(UnsupportedOperationException)
+
+        when: "the view follows the changes of the record"
+        record.add(new DataField("700"))
+
+        then:
+        view.size() == 16
+        view.get(15).getTag() == "700"
+    }
+
+    def "Visiting the variable fields of a record"() {
+        given:
+        def record = this.makeSummerlandRecord()
+        def tags = []
+        def visitor = new VariableFieldVisitor() {
+            void controlField(ControlField field) {
+                tags << "c" + field.getTag()
+            }
+
+            void dataField(DataField field) {
+                tags << "d" + field.getTag()
+            }
+        }
+
+        when:
+        record.accept(visitor)
+
+        then:
+        tags.size() == 15
+        tags.take(4) == ["c001", "c005", "c008", "d020"]
+
+        when:
+        def visited = []
+        record.forEachVariableField({ visited << it.getTag() })
+
+        then:
+        visited == record.getVariableFields().collect { it.getTag() }
+    }
+
+    def "Serializing a record with the external format"() {
+        given:
+        def record = this.makeSummerlandRecord()
+        record.getDataField("245").add(new Subfield('z' as char, "T\u00edtulo \ud83d\ude00".toCharArray(), "1"))
+
+        when:
+        def bytes = new ByteArrayOutputStream()
+        new ObjectOutputStream(bytes).withCloseable { it.writeObject(record) }
+        def copy = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).withCloseable {
+            it.readObject() as Record
+        }
+
+        then:
+        copy.marshal() == record.marshal()
+        copy.getLeader().marshal() == record.getLeader().marshal()
+        new String(copy.getDataField("245").getFirstSubfieldData('z' as char)) == "T\u00edtulo \ud83d\ude00"
+        copy.getDataField("245").getSubfield('z' as char).getLinkCode() == "1"
+        copy.getVariableFieldCount() == record.getVariableFieldCount()
+    }
+
+    def "Reading the external format rejects an unknown version"() {
+        given:
+        def bytes = new ByteArrayOutputStream()
+        new ObjectOutputStream(bytes).withCloseable { it.writeByte(99) }
+
+        when:
+        new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).withCloseable {
+            new Record().readExternal(it)
+        }
+
+        then:
+        thrown(InvalidObjectException)
+    }
+
+    def "Fingerprinting the content of a record"() {
+        expect: "the fingerprint is stable across runs"
+        this.makeFingerprintRecord("00714cam a2200205 a 4500", "ab", "c").fingerprint() ==
+            Long.parseUnsignedLong("bab900254e2e2244", 16)
+
+        and: "the length fields of the leader are ignored"
+        this.makeFingerprintRecord("99999cam a2299999 a 4500", "ab", "c").fingerprint() ==
+            this.makeFingerprintRecord("00714cam a2200205 a 4500", "ab", "c").fingerprint()
+
+        and: "any change of the content changes the fingerprint"
+        this.makeFingerprintRecord("00714nam a2200205 a 4500", "ab", "c").fingerprint() !=
+            this.makeFingerprintRecord("00714cam a2200205 a 4500", "ab", "c").fingerprint()
+        this.makeFingerprintRecord("00714cam a2200205 a 4500", "a", "bc").fingerprint() !=
+            this.makeFingerprintRecord("00714cam a2200205 a 4500", "ab", "c").fingerprint()
+    }
+
+    private Record makeFingerprintRecord(String leader, String title, String statement) {
+        def record = new Record(new Leader(leader))
+        record.add(new ControlField("001", "123".toCharArray()))
+        def dataField = new DataField("245", '1' as char, '0' as char)
+        dataField.addSubfield(new Subfield('a' as char, title.toCharArray()))
+        dataField.addSubfield(new Subfield('c' as char, statement.toCharArray()))
+        record.add(dataField)
+        return record
+    }
+
+    def "Resolving the fields linked through subfield 6"() {
+        given:
+        def title = this.makeLinkedField("245", "880-01", "Title")
+        def name = this.makeLinkedField("100", "880-02", "Name")
+        def note = this.makeLinkedField("500", null, "Note")
+        def title880 = this.makeLinkedField("880", "245-01/\$1", "\u984c\u540d")
+        def name880 = this.makeLinkedField("880", "100-02/(B/r", "\u540d\u524d")
+        def unlinked880 = this.makeLinkedField("880", "500-00", "Unlinked")
+        def record = new Record(new Leader("00714cam a2200205 a 4500"))
+        [name, title, note, name880, title880, unlinked880].each { record.add(it) }
+
+        expect:
+        record.getLinkedField(title).is(title880)
+        record.getLinkedField(title880).is(title)
+        record.getLinkedField(name).is(name880)
+        record.getLinkedField(name880).is(name)
+        record.getLinkedField(unlinked880) == null
+        record.getLinkedField(note) == null
+
+        when: "the linkage of a partner is edited"
+        title880.getSubfield('6' as char).setData("246-01")
+
+        then:
+        record.getLinkedField(title) == null
+
+        when: "a new partner is added"
+        def variant = this.makeLinkedField("246", "880-01", "Variant")
+        record.add(variant)
+
+        then:
+        record.getLinkedField(title880).is(variant)
+    }
+
+    def "Replacing a linked field in place"() {
+        given:
+        def title = this.makeLinkedField("245", "880-01", "Title")
+        def title880 = this.makeLinkedField("880", "245-01", "\u984c\u540d")
+        def record = new Record(new Leader("00714cam a2200205 a 4500"))
+        [title, title880].each { record.add(it) }
+        record.getLinkedField(title)
+
+        when: "the 880 is replaced through the list of data fields"
+        def replacement = this.makeLinkedField("880", "245-01", "\u984c")
+        record.getDataFields().set(1, replacement)
+
+        then:
+        record.getLinkedField(title).is(replacement)
+        record.getLinkedField(replacement).is(title)
+
+        when: "the 880 is removed and another one is added"
+        record.getDataFields().remove(replacement)
+        def other = this.makeLinkedField("880", "245-01", "Other")
+        record.add(other)
+
+        then:
+        record.getLinkedField(title).is(other)
+        record.getLinkedField(other).is(title)
+    }
+
+    private DataField makeLinkedField(String tag, String linkage, String data) {
+        def field = new DataField(tag, '1' as char, '0' as char)
+        if (linkage != null) {
+            field.addSubfield(new Subfield('6' as char, linkage.toCharArray()))
+        }
+        field.addSubfield(new Subfield('a' as char, data.toCharArray()))
+        return field
+    }
 }
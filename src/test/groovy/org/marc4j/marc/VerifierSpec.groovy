@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.marc
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+/**
+ * Unit test for Verifier and the validation levels
+ */
+class VerifierSpec extends Specification {
+
+    @Unroll
+    def "Data element '#data' is valid at level #level"() {
+        when:
+        Verifier.checkDataElement(data.toCharArray(), level)
+
+        then:
+        noExceptionThrown()
+
+        where:
+        data              | level
+        "abc"             | ValidationLevel.NONE
+        "a\u001Fb"        | ValidationLevel.NONE
+        "abc"             | ValidationLevel.STRUCTURAL
+        "a\u0001b"        | ValidationLevel.STRUCTURAL
+        "abc\u001B(B"     | ValidationLevel.STRICT
+    }
+
+    @Unroll
+    def "Data element '#data' at level #level raises an exception"() {
+        when:
+        Verifier.checkDataElement(data.toCharArray(), level)
+
+        then:
+        thrown(IllegalDataElementException)
+
+        where:
+        data              | level
+        "a\u001Fb"        | ValidationLevel.STRUCTURAL
+        "a\u001Eb"        | ValidationLevel.STRUCTURAL
+        "a\u001Fb"        | ValidationLevel.STRICT
+        "a\u0001b"        | ValidationLevel.STRICT
+    }
+
+    @Unroll
+    def "Tag '#tag' is rejected at STRICT level"() {
+        when:
+        Verifier.checkTag(tag, ValidationLevel.STRICT)
+
+        then:
+        thrown(IllegalTagException)
+
+        where:
+        tag << ["2 5", "24-", "00"]
+    }
+
+    def "Subfields and indicators are only checked at STRICT level"() {
+        when:
+        new Subfield('$' as char, "data".toCharArray(), null, ValidationLevel.STRUCTURAL)
+        new DataField("245", '#' as char, ' ' as char, null, ValidationLevel.STRUCTURAL)
+
+        then:
+        noExceptionThrown()
+
+        when:
+        new Subfield('$' as char, "data".toCharArray(), null, ValidationLevel.STRICT)
+
+        then:
+        thrown(IllegalDataElementException)
+
+        when:
+        new DataField("245", '#' as char, ' ' as char, null, ValidationLevel.STRICT)
+
+        then:
+        thrown(IllegalDataElementException)
+    }
+
+    def "NONE level skips the checks of the data elements"() {
+        when:
+        def subfield = new Subfield('a' as char, "a\u001Fb".toCharArray(), null, ValidationLevel.NONE)
+        def field = new ControlField("001", "1\u001E".toCharArray(), null, ValidationLevel.NONE)
+
+        then:
+        subfield.getData().length == 3
+        field.getData().length == 2
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.marcxml
+
+import javax.xml.parsers.SAXParserFactory
+
+import org.marc4j.helpers.RecordBuilder
+import org.marc4j.helpers.RecordHandler
+import org.marc4j.marc.Leader
+import org.marc4j.marc.Subfield
+import org.marc4j.marc.VariableField
+
+import spock.lang.Specification
+
+/**
+ * Unit test for MarcXmlStreamWriter
+ */
+class MarcXmlStreamWriterSpec extends Specification {
+
+    def "Writing a record"() {
+        given:
+        def output = new ByteArrayOutputStream()
+        def writer = new MarcXmlStreamWriter(output)
+
+        when:
+        this.sendRecord(writer, new Leader("00714cam a2200205 a 4500"), 'A' as char, '#' as char, "Tom & \"Jerry\" <Ж>")
+
+        then:
+        new String(output.toByteArray(), "UTF-8") == '<?xml version="1.0" encoding="UTF-8"?>' +
+            '<collection xmlns="http://www.loc.gov/MARC21/slim">\n' +
+            '  <record>\n' +
+            '    <leader>00714cam a2200205 a 4500</leader>\n' +
+            '    <controlfield tag="001">1</controlfield>\n' +
+            '    <datafield tag="245" ind1="a" ind2=" ">\n' +
+            '      <subfield code="a">Tom &amp; "Jerry" &lt;Ж&gt;</subfield>\n' +
+            '    </datafield>\n' +
+            '  </record>\n' +
+            '</collection>\n'
+    }
+
+    def "The leader is sanitized"() {
+        given:
+        def output = new ByteArrayOutputStream()
+        def writer = new MarcXmlStreamWriter(output)
+        def leader = new Leader(value)
+
+        when:
+        this.sendRecord(writer, leader, ' ' as char, ' ' as char, "Title")
+
+        then:
+        new String(output.toByteArray(), "UTF-8").contains("<leader>" + expected + "</leader>")
+        leader.marshal() == value
+
+        where:
+        value                      | expected
+        "00714cam a2200205 a 4500" | "00714cam a2200205 a 4500"
+        "00714c?m a2200205 a 4500" | "00714cam a2200205 a 4500"
+        "00714ca# a2200205 a 4500" | "00714ca  a2200205 a 4500"
+        "00714caX a2200205 a 4500" | "00714cam a2200205 a 4500"
+    }
+
+    def "Characters the encoding can't represent are written as references"() {
+        given:
+        def output = new ByteArrayOutputStream()
+        def writer = new MarcXmlStreamWriter(output, "US-ASCII")
+        writer.setPrettyPrinting(false)
+
+        when:
+        this.sendRecord(writer, new Leader("00714cam a2200205 a 4500"), ' ' as char, ' ' as char, "Café \u001b")
+
+        then:
+        new String(output.toByteArray(), "US-ASCII").contains('<subfield code="a">Caf&#233; &#27;</subfield>')
+    }
+
+    def "Line breaks in the data are read back unchanged"() {
+        given:
+        def output = new ByteArrayOutputStream()
+        def writer = new MarcXmlStreamWriter(output)
+        def handler = new MarcXmlHandler()
+        def builder = new RecordBuilder()
+        def records = []
+        builder.setRecordHandler([startCollection: {}, record: { records << it }, endCollection: {}] as RecordHandler)
+        handler.setMarcHandler(builder)
+
+        when:
+        this.sendRecord(writer, new Leader("00714cam a2200205 a 4500"), ' ' as char, ' ' as char, "One\r\ntwo\rthree\tfour")
+        SAXParserFactory.newInstance().newSAXParser().parse(new ByteArrayInputStream(output.toByteArray()), handler)
+
+        then:
+        new String(output.toByteArray(), "UTF-8").contains('<subfield code="a">One&#13;\ntwo&#13;three\tfour</subfield>')
+        records.size() == 1
+        records[0].getDataField("245").getFirstSubfieldData('a' as char) == "One\r\ntwo\rthree\tfour".toCharArray()
+    }
+
+    def "An encoding incompatible with ASCII is rejected"() {
+        when:
+        new MarcXmlStreamWriter(new ByteArrayOutputStream(), "UTF-16")
+
+        then:
+        thrown(UnsupportedEncodingException)
+    }
+
+    private void sendRecord(MarcXmlStreamWriter writer, Leader leader, char ind1, char ind2, String title) {
+        writer.startCollection()
+        writer.startRecord(leader)
+        writer.controlField("001", "1".toCharArray(), VariableField.EMPTY_ID)
+        writer.startDataField("245", ind1, ind2, VariableField.EMPTY_ID)
+        writer.subfield('a' as char, title.toCharArray(), Subfield.EMPTY_LINK_CODE)
+        writer.endDataField("245")
+        writer.endRecord()
+        writer.endCollection()
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.mnemonic
+
+import org.marc4j.ErrorHandler
+import org.marc4j.MarcHandler
+import org.marc4j.RecordFixtures
+import org.marc4j.helpers.RecordBuilder
+import org.marc4j.helpers.RecordHandler
+import org.marc4j.marc.Leader
+import org.marc4j.marc.MarcException
+import org.marc4j.marc.Record
+import org.marc4j.marc.ValidationLevel
+
+import spock.lang.Specification
+
+/**
+ * Unit test for MnemonicWriter and MnemonicReader
+ */
+class MnemonicReaderSpec extends Specification {
+
+    def "A record is written in mnemonic format"() {
+        given:
+        def output = new ByteArrayOutputStream()
+        def writer = new MnemonicWriter(output)
+
+        when:
+        writer.startCollection()
+        writer.record(RecordFixtures.makeEscapedRecord("12883376", 'Jack and Jill {1} $5'))
+        writer.endCollection()
+
+        then:
+        output.toString("UTF-8") == '''=LDR  00000cam\\a2200000\\a\\4500
+=001  12883376
+=008  881005s1988\\\\\\\\caua
+=245  10$aJack and Jill {lcub}1{rcub} {dollar}5$cJosé 𝐀 "<&>" {dollar} {lcub}{rcub} \\
+=500  \\\\$aLine one{U+000A}line two{U+000D}{U+000A}{U+0009}tabbed
+
+'''
+    }
+
+    def "Records are read back as they were written in #encoding"() {
+        given:
+        def records = (1..50).collect { RecordFixtures.makeEscapedRecord(it.toString(), 'Título $' + it + ' {a} \\ 😀') }
+        def output = new ByteArrayOutputStream()
+        def writer = new MnemonicWriter(output, encoding)
+
+        when:
+        writer.startCollection()
+        records.each { writer.record(it) }
+        writer.endCollection()
+        def read = this.read(new ByteArrayInputStream(output.toByteArray()), encoding)
+
+        then:
+        read*.toString() == records*.toString()
+
+        where:
+        encoding << ["UTF-8", "ISO-8859-1", "US-ASCII"]
+    }
+
+    def "The #description is rejected since it can't be read back"() {
+        given:
+        def writer = new MnemonicWriter(new ByteArrayOutputStream(), "US-ASCII")
+        writer.startCollection()
+        writer.startRecord(new Leader("00000cam a2200000 a 4500"))
+
+        when:
+        writer.startDataField("245", ind1 as char, ind2 as char, null)
+        writer.subfield(code as char, "Jack".toCharArray(), null)
+
+        then:
+        thrown(MarcException)
+
+        where:
+        description                 | ind1 | ind2 | code
+        "backslash indicator"       | '\\' | ' '  | 'a'
+        "control indicator"         | '1'  | '\n' | 'a'
+        "control subfield code"     | '1'  | '0'  | '\t'
+        "unencodable indicator"     | 'é'  | '0'  | 'a'
+        "unencodable subfield code" | '1'  | '0'  | 'é'
+    }
+
+    def "MarcEdit files are parsed into events"() {
+        given:
+        def input = "=LDR  00714cam\\\\2200205\\a\\4500\r\n=001  12883376\r\n=245  10\$aJack{eacute}\$b{U+00E9}\r\n"
+        def handler = Mock(MarcHandler)
+        def reader = new MnemonicReader()
+        reader.setMarcHandler(handler)
+
+        when:
+        reader.parse(new ByteArrayInputStream(input.getBytes("UTF-8")))
+
+        then:
+        1 * handler.startCollection()
+        then:
+        1 * handler.startRecord({ it.marshal() == "00714cam  2200205 a 4500" })
+        then:
+        1 * handler.controlField("001", "12883376".toCharArray(), null)
+        then:
+        1 * handler.startDataField("245", '1' as char, '0' as char, null)
+        then:
+        1 * handler.subfield('a' as char, "Jack{eacute}".toCharArray(), null)
+        then:
+        1 * handler.subfield('b' as char, "é".toCharArray(), null)
+        then:
+        1 * handler.endDataField("245")
+        then:
+        1 * handler.endRecord()
+        then:
+        1 * handler.endCollection()
+    }
+
+    def "Invalid lines and records are reported and skipped"() {
+        given:
+        def input = "=LDR  short\n=001  1\n\nnot a field\n=LDR  00714cam\\\\2200205\\a\\4500\n=001  2\n"
+        def errorHandler = Mock(ErrorHandler)
+
+        when:
+        def records = this.read(new ByteArrayInputStream(input.getBytes("UTF-8")), "UTF-8", errorHandler)
+
+        then:
+        records*.getControlNumber() == ["2"]
+        2 * errorHandler.error(_)
+    }
+
+    private List<Record> read(InputStream input, String encoding, ErrorHandler errorHandler = null) {
+        def records = []
+        def builder = new RecordBuilder()
+        builder.setValidationLevel(ValidationLevel.NONE)
+        builder.setRecordHandler([startCollection: {}, record: { records << it }, endCollection: {}] as RecordHandler)
+        def reader = new MnemonicReader()
+        reader.setMarcHandler(builder)
+        reader.setErrorHandler(errorHandler)
+        reader.parse(input, encoding)
+        return records
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.query
+
+import org.marc4j.MarcReader
+import org.marc4j.RecordFilter
+import org.marc4j.helpers.RecordBuilder
+import org.marc4j.helpers.RecordHandler
+import org.marc4j.marc.ControlField
+import org.marc4j.marc.DataField
+import org.marc4j.marc.Leader
+import org.marc4j.marc.MarcException
+import org.marc4j.marc.Record
+import org.marc4j.marc.Subfield
+
+import spock.lang.Specification
+
+/**
+ * Unit test for Query
+ */
+class QuerySpec extends Specification {
+
+    def records = [
+        this.makeRecord("1", 'e', "spa", ["034": "a1", "260": "c1875."]),
+        this.makeRecord("2", 'e', "eng", ["260": "c1950."]),
+        this.makeRecord("3", 'a', "spa", ["034": "a1", "245": "aEl Quijote"]),
+        this.makeRecord("4", 'e', "spa", ["034": "a1", "260": "aMadrid"])
+    ]
+
+    def "Matching records"() {
+        expect:
+        this.records.findAll { Query.compile(query).matches(it) }*.getControlNumber() == expected
+
+        where:
+        query                                              | expected
+        "leader/06 = 'e' and 034 present and 260\$c < 1900" | ["1"]
+        "leader/05-07 = \"cem\""                           | ["1", "2", "4"]
+        "008/35-37 = 'spa' and not 260 present"            | ["3"]
+        "260\$c >= 1900 or 245\$a ~ /quijote/i"              | ["2", "3"]
+        "260 ~ /^Madr/"                                    | ["4"]
+        "260\$c != 1875"                                    | ["2", "3", "4"]
+        "NOT (034 PRESENT) AND 001 = '2'"                  | ["2"]
+        "260\$c present"                                    | ["1", "2"]
+    }
+
+    def "Pushing the query down into the reader"() {
+        given:
+        def reader = new MarcReader()
+        def ids = []
+        def builder = new RecordBuilder()
+        builder.setRecordHandler([
+            startCollection: {}, record: { ids << it.getControlNumber() }, endCollection: {}] as RecordHandler)
+        reader.setMarcHandler(builder)
+        reader.setRecordFilter(Query.compile("leader/06 = 'e' and 034 present and 260\$c < 1900"))
+
+        when:
+        reader.parse(new StringReader(this.records.collect { it.marshal() }.join()))
+
+        then:
+        ids == ["1"]
+    }
+
+    def "Records rejected by the leader or the tags aren't read"() {
+        given:
+        def reader = new MarcReader()
+        def filter = Mock(RecordFilter)
+        def offsets = []
+        def builder = new RecordBuilder()
+        builder.setRecordHandler([
+            startCollection: {}, record: { offsets << reader.getRecordOffset() }, endCollection: {}] as RecordHandler)
+        reader.setMarcHandler(builder)
+        reader.setRecordFilter(filter)
+        def data = this.records.collect { it.marshal() }
+
+        when:
+        reader.parse(new ByteArrayInputStream(data.join().getBytes("ISO8859_1")))
+
+        then:
+        4 * filter.acceptLeader(_) >>> [false, true, true, true]
+        3 * filter.acceptDirectory(_, _) >> { leader, tags -> !tags.contains("245") }
+        2 * filter.acceptFields(_, _, _) >> true
+        offsets == [data[0].length(), data[0].length() + data[1].length() + data[2].length()]
+    }
+
+    def "Records rejected by the leader are skipped by their directory, not by their record length"() {
+        given:
+        def reader = new MarcReader()
+        def ids = []
+        def builder = new RecordBuilder()
+        builder.setRecordHandler([
+            startCollection: {}, record: { ids << it.getControlNumber() }, endCollection: {}] as RecordHandler)
+        reader.setMarcHandler(builder)
+        reader.setRecordFilter(new RecordFilter() {
+            boolean acceptLeader(Leader leader) {
+                return leader.getTypeOfRecord() != 'a' as char
+            }
+        })
+        def data = this.records.collect { it.marshal() }
+        data[2] = "09999" + data[2].substring(5)
+
+        when:
+        reader.parse(new StringReader(data.join()))
+
+        then:
+        ids == ["1", "2", "4"]
+    }
+
+    def "Invalid queries are rejected with their position"() {
+        when:
+        Query.compile(query)
+
+        then:
+        MarcException e = thrown()
+        e.getMessage().startsWith("Invalid query at position $position:")
+
+        where:
+        query                | position
+        "leader = 'e'"       | 7
+        "245/3 = 'a'"        | 5
+        "001\$a present"      | 5
+        "260\$c"              | 6
+        "260\$c ~ 12"         | 9
+        "(034 present"       | 13
+        "245 = 'abc"         | 11
+    }
+
+    private Record makeRecord(String id, char type, String language, Map<String, String> fields) {
+        def record = new Record()
+        record.add(new Leader("00000c${type}m a2200000 a 4500"))
+        record.add(new ControlField("001", id.toCharArray()))
+        record.add(new ControlField("008", "850101s1875    sp            000 0 ${language} d".toCharArray()))
+        fields.each { tag, subfield ->
+            def field = new DataField(tag, ' ' as char, ' ' as char)
+            field.add(new Subfield(subfield.charAt(0), subfield.substring(1).toCharArray()))
+            record.add(field)
+        }
+        return record
+    }
+
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.search
+
+import java.util.regex.Pattern
+
+import org.marc4j.marc.ControlField
+import org.marc4j.marc.DataField
+import org.marc4j.marc.Leader
+import org.marc4j.marc.Record
+import org.marc4j.marc.Subfield
+
+import spock.lang.Specification
+
+/**
+ * Unit test for RecordSearcher
+ */
+class RecordSearcherSpec extends Specification {
+
+    def "Finding overlapping literals in a single pass"() {
+        given:
+        def searcher = new RecordSearcher()
+            .addLiteral("he", "he")
+            .addLiteral("she", "she")
+            .addLiteral("hers", "hers")
+
+        when:
+        def hits = searcher.findAll(this.makeRecord())
+
+        then:
+        hits.collect { it.toString() } == [
+            "he@245\$a[0,2)", "she@245\$a[12,15)", "he@245\$a[13,15)",
+            "she@245\$c[1,4)", "he@245\$c[2,4)", "hers@245\$c[2,6)"
+        ]
+    }
+
+    def "Scoping literals and regular expressions by tag and subfield"() {
+        given:
+        def searcher = new RecordSearcher()
+            .addLiteral("said-a", "said", "245", 'a' as char)
+            .addLiteral("said-c", "said", "245", 'c' as char)
+            .addLiteral("88-a", "88", null, 'a' as char)
+            .addRegex("year", Pattern.compile("\\d{4}"), "008", SearchPattern.ANY_CODE)
+
+        when:
+        def hits = searcher.findAll(this.makeRecord())
+
+        then:
+        hits.collect { it.toString() } == [
+            "year@008[0,4)", "year@008[7,11)", "said-a@245\$a[3,7)", "said-a@245\$a[16,20)"
+        ]
+        hits[0].getSubfield() == null
+        hits[2].getSubfield().getCode() == 'a' as char
+    }
+
+    def "Stopping the search from the handler"() {
+        given:
+        def searcher = new RecordSearcher().addLiteral("said", "said")
+        def count = 0
+
+        when:
+        def completed = searcher.search(this.makeRecord(), { pattern, field, subfield, start, end ->
+            count++
+            return false
+        } as SearchHandler)
+
+        then:
+        !completed
+        count == 1
+        searcher.matches(this.makeRecord())
+        !new RecordSearcher().addLiteral("none", "none").matches(this.makeRecord())
+    }
+
+    def "Rejecting an empty literal"() {
+        when:
+        new RecordSearcher().addLiteral("empty", "")
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    private Record makeRecord() {
+        def record = new Record(new Leader("00714cam a2200205 a 4500"))
+        record.add(new ControlField("001", "12883376".toCharArray()))
+        record.add(new ControlField("008", "881005s1988    nyu".toCharArray()))
+        def dataField = new DataField("245", '1' as char, '0' as char)
+        dataField.addSubfield(new Subfield('a' as char, "he said it, she said".toCharArray()))
+        dataField.addSubfield(new Subfield('c' as char, "ushers".toCharArray()))
+        record.add(dataField)
+        return record
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.sort
+
+import org.marc4j.marc.ControlField
+import org.marc4j.marc.DataField
+import org.marc4j.marc.Leader
+import org.marc4j.marc.MarcException
+import org.marc4j.marc.Record
+import org.marc4j.marc.Subfield
+
+import spock.lang.Specification
+
+/**
+ * Unit test for DeltaMerger
+ */
+class DeltaMergerSpec extends Specification {
+
+    def "Applying replacements, insertions and deletions"() {
+        given:
+        def master = [this.makeRecord("1", 'c', "one"), this.makeRecord("2", 'c', "two"),
+                      this.makeRecord("3", 'c', "three"), this.makeRecord("5", 'c', "five")]
+        def delta = [this.makeRecord("2", 'c', "two (changed)"), this.makeRecord("3", 'd', "three"),
+                     this.makeRecord("4", 'n', "four"), this.makeRecord("6", 'd', "six"),
+                     this.makeRecord("7", 'c', "seven"), this.makeRecord("7", 'c', "seven (changed)")]
+        def merger = new DeltaMerger(SortKey.of("001"))
+        def output = new ByteArrayOutputStream()
+
+        when:
+        merger.merge(this.toInput(master), this.toInput(delta), output)
+
+        then:
+        new String(output.toByteArray(), "ISO8859_1") == [master[0], delta[0], delta[2], master[3], delta[5]].collect {
+            it.marshal()
+        }.join()
+        merger.getCopyCount() == 2
+        merger.getReplaceCount() == 1
+        merger.getInsertCount() == 2
+        merger.getDeleteCount() == 1
+        merger.getMissingDeleteCount() == 1
+    }
+
+    def "Unchanged master records are copied byte for byte"() {
+        given:
+        def bytes = this.toInput([this.makeRecord("1", 'c', "one")]).bytes
+        def output = new ByteArrayOutputStream()
+
+        when:
+        new DeltaMerger(SortKey.of("001")).merge(new ByteArrayInputStream(bytes), this.toInput([]), output)
+
+        then:
+        output.toByteArray() == bytes
+    }
+
+    def "An input out of order stops the merge"() {
+        given:
+        def master = [this.makeRecord("2", 'c', "two"), this.makeRecord("1", 'c', "one")]
+
+        when:
+        new DeltaMerger(SortKey.of("001")).merge(this.toInput(master), this.toInput([]), new ByteArrayOutputStream())
+
+        then:
+        MarcException e = thrown()
+        e.getMessage().startsWith("The master isn't sorted by 001")
+    }
+
+    private Record makeRecord(String id, char status, String title) {
+        def record = new Record()
+        record.add(new Leader("00000${status}am a2200000 a 4500"))
+        record.add(new ControlField("001", id.toCharArray()))
+        def field = new DataField("245", '0' as char, '0' as char)
+        field.add(new Subfield('a' as char, title.toCharArray()))
+        record.add(field)
+        return record
+    }
+
+    private InputStream toInput(List<Record> records) {
+        return new ByteArrayInputStream(records.collect { it.marshal() }.join().getBytes("ISO8859_1"))
+    }
+
+}
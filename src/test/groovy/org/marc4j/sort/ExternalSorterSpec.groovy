@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.sort
+
+import org.marc4j.marc.ControlField
+import org.marc4j.marc.DataField
+import org.marc4j.marc.IndexKeys
+import org.marc4j.marc.Leader
+import org.marc4j.marc.MarcException
+import org.marc4j.marc.Record
+import org.marc4j.marc.Subfield
+
+import spock.lang.Specification
+
+/**
+ * Unit test for ExternalSorter and SortKey
+ */
+class ExternalSorterSpec extends Specification {
+
+    def "Extracting the key of a raw record"() {
+        given:
+        def record = this.makeRecord("n1", "(OCoLC)0-12 (print)").marshal().getBytes("ISO8859_1")
+
+        expect:
+        new String(SortKey.of(path, extractor).extract(record), "UTF-8") == key
+
+        where:
+        path     | extractor             | key
+        "001"    | IndexKeys.EXACT       | "n1"
+        "035\$a" | IndexKeys.EXACT       | "(OCoLC)0-12 (print)"
+        "035\$a" | IndexKeys.FIRST_TOKEN | "(ocolc)012"
+        "020\$a" | IndexKeys.EXACT       | ""
+    }
+
+    def "Invalid key paths are rejected"() {
+        when:
+        SortKey.of(path)
+
+        then:
+        thrown(MarcException)
+
+        where:
+        path << ["001\$a", "035", "035\$ab", "35\$a"]
+    }
+
+    def "Sorting in memory"() {
+        given:
+        def records = ["c", "a", "b"].collect { this.makeRecord(it, null) }
+        def output = new ByteArrayOutputStream()
+
+        when:
+        def count = new ExternalSorter(SortKey.of("001")).sort(this.toInput(records), output)
+
+        then:
+        count == 3
+        this.controlNumbers(output) == ["a", "b", "c"]
+    }
+
+    def "Sorting and merging runs in temporary files keeps the order of equal keys"() {
+        given:
+        def random = new Random(1)
+        def records = (1..500).collect { this.makeRecord("n$it", "(X)${random.nextInt(50)}") }
+        def keys = records.collect { new String(it.getDataField("035").getSubfield('a' as char).getData()) }
+        def expected = (0..<500).sort { a, b -> keys[a] <=> keys[b] ?: a <=> b }.collect { "n${it + 1}".toString() }
+        def sorter = new ExternalSorter(SortKey.of("035\$a"))
+        sorter.setMaxRunBytes(2000)
+        sorter.setMaxMergeFiles(4)
+        sorter.setThreads(threads)
+        def output = new ByteArrayOutputStream()
+
+        when:
+        def count = sorter.sort(this.toInput(records), output)
+
+        then:
+        count == 500
+        this.controlNumbers(output) == expected
+
+        where:
+        threads << [1, 4]
+    }
+
+    private Record makeRecord(String id, String systemNumber) {
+        def record = new Record()
+        record.add(new Leader("00000cam a2200000 a 4500"))
+        record.add(new ControlField("001", id.toCharArray()))
+        if (systemNumber != null) {
+            def field = new DataField("035", ' ' as char, ' ' as char)
+            field.add(new Subfield('a' as char, systemNumber.toCharArray()))
+            record.add(field)
+        }
+        return record
+    }
+
+    private InputStream toInput(List<Record> records) {
+        return new ByteArrayInputStream(records.collect { it.marshal() }.join().getBytes("ISO8859_1"))
+    }
+
+    private List<String> controlNumbers(ByteArrayOutputStream output) {
+        def reader = new RawRecordReader(new ByteArrayInputStream(output.toByteArray()))
+        def ids = []
+        def record
+        while ((record = reader.next()) != null) {
+            ids << new String(SortKey.of("001").extract(record), "UTF-8")
+        }
+        return ids
+    }
+
+}
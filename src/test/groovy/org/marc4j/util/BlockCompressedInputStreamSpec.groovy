@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.util
+
+import java.nio.file.Files
+import java.util.zip.GZIPInputStream
+
+import org.marc4j.RecordFixtures
+import org.marc4j.marc.MarcException
+
+import spock.lang.Specification
+
+/**
+ * Unit test for BlockCompressedOutputStream and BlockCompressedInputStream
+ */
+class BlockCompressedInputStreamSpec extends Specification {
+
+    File file
+
+    List<byte[]> records
+
+    def setup() {
+        this.file = Files.createTempFile("records", ".mrc.gz").toFile()
+        this.records = (0..<2000).collect {
+            RecordFixtures.makeRecord(it.toString(), "Title " + it + " " + "x" * (it % 700)).marshal().getBytes("ISO8859_1")
+        }
+    }
+
+    def cleanup() {
+        this.file.delete()
+    }
+
+    def "The data is read back with #threads threads"() {
+        given:
+        this.write(threads)
+
+        when:
+        def input = new BlockCompressedInputStream(this.file)
+        input.setThreads(threads)
+        def bytes = input.bytes
+        input.close()
+
+        then:
+        bytes == this.records.inject(new ByteArrayOutputStream()) { out, record -> out.write(record); out }.toByteArray()
+
+        where:
+        threads << [1, 4]
+    }
+
+    def "The file can be read as gzip"() {
+        given:
+        this.write(2)
+
+        when:
+        def bytes = new GZIPInputStream(new FileInputStream(this.file)).bytes
+
+        then:
+        bytes.length == this.records.sum { it.length }
+    }
+
+    def "Seeking a record by its number and by its virtual offset"() {
+        given:
+        this.write(2)
+        def input = new BlockCompressedInputStream(this.file)
+
+        when:
+        input.seekRecord(record)
+        def offset = input.getVirtualOffset()
+        def first = this.readBytes(input, this.records[record].length)
+        input.seekRecord(0)
+        input.seek(offset)
+        def second = this.readBytes(input, this.records[record].length)
+
+        then:
+        input.getRecordCount() == 2000
+        first == this.records[record]
+        second == this.records[record]
+
+        cleanup:
+        input.close()
+
+        where:
+        record << [0, 1, 150, 1024, 1999]
+    }
+
+    def "Other files are rejected"() {
+        given:
+        this.file.text = "00714cam a2200205 a 4500 and the rest of an ISO 2709 record"
+
+        when:
+        new BlockCompressedInputStream(this.file)
+
+        then:
+        MarcException e = thrown()
+        e.message.startsWith("Not a BGZF file")
+    }
+
+    private void write(int threads) {
+        def output = new BlockCompressedOutputStream(new FileOutputStream(this.file))
+        output.setThreads(threads)
+        this.records.each { output.write(it) }
+        output.close()
+    }
+
+    private byte[] readBytes(InputStream input, int length) {
+        def bytes = new byte[length]
+        new DataInputStream(input).readFully(bytes)
+        return bytes
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.util
+
+import org.marc4j.RecordFixtures
+import org.marc4j.marc.ControlField
+import org.marc4j.marc.DataField
+import org.marc4j.marc.IllegalAddException
+import org.marc4j.marc.Leader
+import org.marc4j.marc.Record
+import org.marc4j.marc.Subfield
+import org.marc4j.marc.VariableField
+
+import spock.lang.Specification
+
+/**
+ * Unit test for MarcStreamHandler
+ */
+class MarcStreamHandlerSpec extends Specification {
+
+    def "The events are written like Record.marshal in #encoding"() {
+        given:
+        def output = new ByteArrayOutputStream()
+        def handler = new MarcStreamHandler(output, encoding)
+
+        when:
+        handler.startCollection()
+        this.sendRecord(handler, "1", "Café")
+        this.sendRecord(handler, "2", "Señor")
+        handler.endCollection()
+
+        then:
+        output.toByteArray() == (RecordFixtures.makeRecord("1", "Café").marshal(encoding) +
+            RecordFixtures.makeRecord("2", "Señor").marshal(encoding)).getBytes(encoding)
+
+        where:
+        encoding << ["ISO-8859-1", "UTF-8"]
+    }
+
+    def "A record too long is skipped"() {
+        given:
+        def output = new ByteArrayOutputStream()
+        def handler = new MarcStreamHandler(output)
+
+        when:
+        handler.startCollection()
+        this.sendRecord(handler, "1", "x" * 10000)
+        this.sendRecord(handler, "2", "Title")
+        handler.endCollection()
+
+        then:
+        new String(output.toByteArray(), "ISO8859_1") == RecordFixtures.makeRecord("2", "Title").marshal()
+    }
+
+    def "The control number field goes first and the control fields before the data fields"() {
+        given:
+        def output = new ByteArrayOutputStream()
+        def handler = new MarcStreamHandler(output)
+        def record = new Record()
+        record.add(new Leader("00000cam a2200000 a 4500"))
+
+        when:
+        handler.startCollection()
+        handler.startRecord(record.getLeader())
+        handler.controlField("003", "ES".toCharArray(), VariableField.EMPTY_ID)
+        handler.startDataField("245", '1' as char, '0' as char, VariableField.EMPTY_ID)
+        handler.subfield('a' as char, "Title".toCharArray(), Subfield.EMPTY_LINK_CODE)
+        handler.endDataField("245")
+        handler.controlField("001", "1".toCharArray(), VariableField.EMPTY_ID)
+        handler.controlField("005", "20260101".toCharArray(), VariableField.EMPTY_ID)
+        handler.endRecord()
+        handler.endCollection()
+
+        and: "the same fields are added to a record"
+        record.add(new ControlField("003", "ES".toCharArray()))
+        def field = new DataField("245", '1' as char, '0' as char)
+        field.add(new Subfield('a' as char, "Title".toCharArray()))
+        record.add(field)
+        record.add(new ControlField("001", "1".toCharArray()))
+        record.add(new ControlField("005", "20260101".toCharArray()))
+
+        then:
+        new String(output.toByteArray(), "ISO8859_1") == record.marshal()
+        record.getControlFields()*.getTag() == ["001", "003", "005"]
+    }
+
+    def "A record without control number field is skipped"() {
+        given:
+        def output = new ByteArrayOutputStream()
+        def handler = new MarcStreamHandler(output)
+        def record = RecordFixtures.makeRecord("1", "Title")
+        record.getControlFields().clear()
+
+        when:
+        handler.startCollection()
+        handler.startRecord(new Leader("00000cam a2200000 a 4500"))
+        handler.controlField("003", "ES".toCharArray(), VariableField.EMPTY_ID)
+        handler.endRecord()
+        handler.record(record)
+        this.sendRecord(handler, "2", "Title")
+        handler.endCollection()
+
+        then:
+        new String(output.toByteArray(), "ISO8859_1") == RecordFixtures.makeRecord("2", "Title").marshal()
+    }
+
+    def "A second control number field is rejected"() {
+        given:
+        def handler = new MarcStreamHandler(new ByteArrayOutputStream())
+
+        when:
+        handler.startCollection()
+        handler.startRecord(new Leader("00000cam a2200000 a 4500"))
+        handler.controlField("001", "1".toCharArray(), VariableField.EMPTY_ID)
+        handler.controlField("001", "2".toCharArray(), VariableField.EMPTY_ID)
+
+        then:
+        thrown(IllegalAddException)
+    }
+
+    private void sendRecord(MarcStreamHandler handler, String id, String title) {
+        handler.startRecord(new Leader("00000cam a2200000 a 4500"))
+        handler.controlField("001", id.toCharArray(), VariableField.EMPTY_ID)
+        handler.startDataField("245", '1' as char, '0' as char, VariableField.EMPTY_ID)
+        handler.subfield('a' as char, title.toCharArray(), Subfield.EMPTY_LINK_CODE)
+        handler.endDataField("245")
+        handler.endRecord()
+    }
+}
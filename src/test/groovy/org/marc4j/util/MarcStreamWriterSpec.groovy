@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.util
+
+import java.nio.channels.Channels
+
+import org.marc4j.marc.ControlField
+import org.marc4j.marc.DataField
+import org.marc4j.marc.Leader
+import org.marc4j.marc.MarcException
+import org.marc4j.marc.Record
+import org.marc4j.marc.Subfield
+
+import spock.lang.Specification
+
+/**
+ * Unit test for MarcStreamWriter
+ */
+class MarcStreamWriterSpec extends Specification {
+
+    def "The records are written like Record.marshal in #encoding"() {
+        given:
+        def record = this.makeRecord("Café d'Été")
+        def output = new ByteArrayOutputStream()
+
+        when:
+        def writer = new MarcStreamWriter(output, encoding)
+        writer.write(record)
+        writer.write(record)
+        writer.close()
+
+        then:
+        output.toByteArray() == (record.marshal(encoding) * 2).getBytes(encoding)
+
+        where:
+        encoding << ["ISO-8859-1", "UTF-8", "windows-1252"]
+    }
+
+    def "The directory has the lengths in bytes"() {
+        given:
+        def output = new ByteArrayOutputStream()
+
+        when:
+        def writer = new MarcStreamWriter(output, "UTF-8")
+        writer.write(this.makeRecord("éé"))
+        writer.close()
+        def record = new String(output.toByteArray(), "ISO8859_1")
+
+        then:
+        // 245: indicators, $a, four bytes of data and the field terminator
+        record.substring(36, 48) == "245000900002"
+        record.substring(0, 5) == String.format("%05d", output.size())
+    }
+
+    def "The leader of the record isn't modified"() {
+        given:
+        def record = this.makeRecord("Title")
+
+        when:
+        new MarcStreamWriter(new ByteArrayOutputStream()).write(record)
+
+        then:
+        record.getLeader().marshal() == "00000cam a2200000 a 4500"
+    }
+
+    def "The records can be written to a channel"() {
+        given:
+        def record = this.makeRecord("Title")
+        def output = new ByteArrayOutputStream()
+
+        when:
+        def writer = new MarcStreamWriter(Channels.newChannel(output), "UTF-8")
+        writer.write(record)
+        writer.close()
+
+        then:
+        new String(output.toByteArray(), "UTF-8") == record.marshal("UTF-8")
+    }
+
+    def "A record without leader can't be written"() {
+        when:
+        new MarcStreamWriter(new ByteArrayOutputStream()).write(new Record())
+
+        then:
+        MarcException e = thrown()
+        e.message == "Record contains no leader"
+    }
+
+    def "An unknown encoding is rejected"() {
+        when:
+        new MarcStreamWriter(new ByteArrayOutputStream(), "unknown")
+
+        then:
+        thrown(UnsupportedEncodingException)
+    }
+
+    private Record makeRecord(String title) {
+        def record = new Record()
+        record.add(new Leader("00000cam a2200000 a 4500"))
+        record.add(new ControlField("001", "1".toCharArray()))
+        def field = new DataField("245", '1' as char, '0' as char)
+        field.add(new Subfield('a' as char, title.toCharArray()))
+        record.add(field)
+        return record
+    }
+}
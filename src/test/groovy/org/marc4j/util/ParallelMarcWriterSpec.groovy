@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.util
+
+import java.nio.channels.FileChannel
+import java.nio.file.Files
+import java.nio.file.StandardOpenOption
+
+import org.marc4j.RecordFixtures
+import org.marc4j.marc.MarcException
+import org.marc4j.marc.Record
+
+import spock.lang.Specification
+
+/**
+ * Unit test for ParallelMarcWriter
+ */
+class ParallelMarcWriterSpec extends Specification {
+
+    def "The records are written in order with #threads threads"() {
+        given:
+        def records = (1..500).collect { RecordFixtures.makeRecord(it.toString(), "Title " + it) }
+        def output = new ByteArrayOutputStream()
+
+        when:
+        def writer = new ParallelMarcWriter(output, "UTF-8")
+        writer.setThreads(threads)
+        writer.setMaxPendingRecords(16)
+        records.each { writer.write(it) }
+        writer.close()
+
+        then:
+        output.toByteArray() == this.marshal(records, "UTF-8")
+
+        where:
+        threads << [1, 4]
+    }
+
+    def "The records are written to a channel"() {
+        given:
+        def records = (1..500).collect { RecordFixtures.makeEscapedRecord(it.toString(), "Título " + it) }
+        def file = Files.createTempFile("records", ".mrc")
+
+        when:
+        def writer = new ParallelMarcWriter(FileChannel.open(file, StandardOpenOption.WRITE), "UTF-8")
+        writer.setThreads(4)
+        records.each { writer.write(it) }
+        writer.close()
+
+        then:
+        Files.readAllBytes(file) == this.marshal(records, "UTF-8")
+
+        cleanup:
+        Files.delete(file)
+    }
+
+    def "A record that can't be encoded stops the writer"() {
+        given:
+        def writer = new ParallelMarcWriter(new ByteArrayOutputStream())
+
+        when:
+        writer.write(RecordFixtures.makeRecord("1", "x" * 10000))
+        writer.close()
+
+        then:
+        MarcException e = thrown()
+        e.message == "Field 245 too long: 10005 bytes"
+    }
+
+    def "The settings can't change once started"() {
+        given:
+        def writer = new ParallelMarcWriter(new ByteArrayOutputStream())
+        writer.write(RecordFixtures.makeRecord("1", "Title"))
+
+        when:
+        writer.setThreads(2)
+
+        then:
+        thrown(IllegalStateException)
+
+        cleanup:
+        writer.close()
+    }
+
+    private byte[] marshal(List<Record> records, String encoding) {
+        def output = new ByteArrayOutputStream()
+        def writer = new MarcStreamWriter(output, encoding)
+        records.each { writer.write(it) }
+        writer.close()
+        return output.toByteArray()
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.util
+
+import java.nio.file.Files
+
+import javax.xml.parsers.DocumentBuilderFactory
+
+import org.marc4j.RecordFixtures
+import org.marc4j.helpers.RecordHandler
+import org.marc4j.marc.Record
+import org.marc4j.marcxml.MarcXmlStreamWriter
+
+import spock.lang.Specification
+
+/**
+ * Unit test for PartitionedRecordWriter
+ */
+class PartitionedRecordWriterSpec extends Specification {
+
+    File directory
+
+    def setup() {
+        this.directory = Files.createTempDirectory("records").toFile()
+    }
+
+    def cleanup() {
+        this.directory.deleteDir()
+    }
+
+    def "Each partition is a whole MARCXML document"() {
+        given:
+        def writer = new PartitionedRecordWriter(this.directory, "part-%d.xml", 4, { out -> new MarcXmlStreamWriter(out) })
+        def records = (0..<500).collect { RecordFixtures.makeRecord(it.toString(), "Title " + it) }
+
+        when:
+        writer.startCollection()
+        records.each { writer.record(it) }
+        writer.endCollection()
+
+        then:
+        writer.getFiles()*.name == ["part-0.xml", "part-1.xml", "part-2.xml", "part-3.xml"]
+        def documents = writer.getFiles().collect { DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(it) }
+        documents.sum { it.getElementsByTagName("record").length } == 500
+        documents.every { it.getElementsByTagName("record").length > 0 }
+    }
+
+    def "The records with the same key go to the same partition"() {
+        given:
+        def partitions = (0..<3).collect { [] }
+        def writer = new PartitionedRecordWriter(partitions.collect { list ->
+            [startCollection: {}, record: { list << it }, endCollection: {}] as RecordHandler
+        })
+        writer.setKey({ Record record -> record.getDataFields()[0].getSubfield('a' as char).getData() as String })
+        def record = RecordFixtures.makeRecord("1", "Same title")
+        def other = RecordFixtures.makeRecord("2", "Same title")
+
+        when:
+        writer.startCollection()
+        writer.record(record)
+        writer.record(other)
+        writer.endCollection()
+
+        then:
+        partitions[writer.partition(record)] == [record, other]
+        partitions.sum { it.size() } == 2
+    }
+}
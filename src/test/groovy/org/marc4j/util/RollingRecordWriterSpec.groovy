@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2026 DIGIBÍS S.L.U.
+ *
+ * This file is part of MARC4J
+ *
+ * MARC4J is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * MARC4J is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with MARC4J; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.marc4j.util
+
+import java.nio.file.Files
+
+import javax.xml.parsers.DocumentBuilderFactory
+
+import org.marc4j.MarcReader
+import org.marc4j.RecordFixtures
+import org.marc4j.helpers.DefaultHandler
+import org.marc4j.marcxml.MarcXmlStreamWriter
+
+import spock.lang.Specification
+
+/**
+ * Unit test for RollingRecordWriter
+ */
+class RollingRecordWriterSpec extends Specification {
+
+    File directory
+
+    def setup() {
+        this.directory = Files.createTempDirectory("records").toFile()
+    }
+
+    def cleanup() {
+        this.directory.deleteDir()
+    }
+
+    def "A new file is started every #maxRecords records"() {
+        given:
+        def writer = new RollingRecordWriter(this.directory, "records-%02d.xml", { out -> new MarcXmlStreamWriter(out) })
+        writer.setMaxRecords(maxRecords)
+
+        when:
+        this.write(writer, 250)
+
+        then:
+        writer.getFiles()*.name == names
+        writer.getFiles().collect { this.countXmlRecords(it) } == counts
+
+        where:
+        maxRecords | names                                                  | counts
+        100        | ["records-00.xml", "records-01.xml", "records-02.xml"] | [100, 100, 50]
+        250        | ["records-00.xml"]                                     | [250]
+        1000       | ["records-00.xml"]                                     | [250]
+    }
+
+    def "A new file is started when a file reaches the size"() {
+        given:
+        def writer = new RollingRecordWriter(this.directory, "records-%02d.mrc", { out -> new MarcStreamHandler(out) })
+        writer.setMaxBytes(5000)
+
+        when:
+        this.write(writer, 250)
+
+        then:
+        writer.getFiles().size() > 1
+        writer.getFiles().every { it.length() < 5000 + 100 }
+        writer.getFiles().sum { this.countIsoRecords(it) } == 250
+    }
+
+    def "A collection without records is written to one file"() {
+        given:
+        def writer = new RollingRecordWriter(this.directory, "records-%02d.xml", { out -> new MarcXmlStreamWriter(out) })
+
+        when:
+        this.write(writer, 0)
+
+        then:
+        writer.getFiles().size() == 1
+        this.countXmlRecords(writer.getFiles()[0]) == 0
+    }
+
+    private void write(RollingRecordWriter writer, int count) {
+        writer.startCollection()
+        (0..<count).each { writer.record(RecordFixtures.makeRecord(it.toString(), "Title " + it)) }
+        writer.endCollection()
+    }
+
+    private int countXmlRecords(File file) {
+        return DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(file).getElementsByTagName("record").length
+    }
+
+    private int countIsoRecords(File file) {
+        def count = 0
+        def reader = new MarcReader()
+        reader.setMarcHandler(new DefaultHandler() {
+            @Override
+            void endRecord() {
+                count++
+            }
+        })
+        file.withInputStream { reader.parse(it) }
+        return count
+    }
+}